@@ -11,6 +11,7 @@ repositories {
 dependencies {
     implementation(plugin("com.github.spotbugs", "4.5.0"))
     implementation(plugin("info.solidsoft.pitest", "1.5.1"))
+    implementation(plugin("me.champeau.gradle.jmh", "0.5.3"))
 }
 
 fun plugin(id: String, version: String) = "$id:$id.gradle.plugin:$version"
@@ -13,7 +13,8 @@ plugins {
 publishing {
     publications {
         create<MavenPublication>("mavenJava") {
-            artifactId = "readable-regex"
+            // Subprojects are published with the name of the subproject as suffix, for example "readable-regex-processor".
+            artifactId = if (project == rootProject) "readable-regex" else "readable-regex-${project.name}"
             from(components["java"])
             pom {
                 name.set("Readable Regex")
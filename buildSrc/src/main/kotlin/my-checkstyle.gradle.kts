@@ -7,7 +7,7 @@ plugins {
 }
 
 tasks.withType<Checkstyle>().configureEach {
-    configFile = File("checkstyle.xml")
+    configFile = rootProject.file("checkstyle.xml")
 }
 tasks.register("checkstyle") {
     dependsOn(tasks.checkstyleMain)
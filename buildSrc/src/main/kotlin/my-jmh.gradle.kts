@@ -0,0 +1,27 @@
+/**
+ * This file contains the logic to configure JMH benchmarks. Benchmarks are located in src/jmh/java.
+ * Run all benchmarks with "gradle jmh" or a subset with "gradle jmh -PjmhIncludes=<regex>".
+ * Profilers can be added with "gradle jmh -PjmhProfilers=gc".
+ */
+plugins {
+    java
+    id("me.champeau.gradle.jmh")
+}
+
+jmh {
+    jmhVersion = "1.26"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    if (project.hasProperty("jmhIncludes")) {
+        include = listOf(project.property("jmhIncludes").toString())
+    }
+    if (project.hasProperty("jmhProfilers")) {
+        profilers = project.property("jmhProfilers").toString().split(",")
+    }
+}
+
+// Benchmarks are not part of the library. Fields that are injected by JMH would otherwise be reported by SpotBugs.
+tasks.matching { it.name == "spotbugsJmh" }.configureEach {
+    enabled = false
+}
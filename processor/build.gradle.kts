@@ -0,0 +1,35 @@
+plugins {
+    `java-library`
+    `my-checkstyle`
+    `my-artifact-publisher` apply false // We can only apply the plugin after the version has been determined.
+}
+
+group = rootProject.group
+version = rootProject.version
+plugins.apply("my-artifact-publisher")
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+    withJavadocJar()
+    withSourcesJar()
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // The processor evaluates the builder expressions, so it needs the library itself at compile time of the user.
+    implementation(rootProject)
+
+    testImplementation("org.hamcrest:hamcrest:2.2")
+
+    val junitVersion = "5.6.2"
+    testImplementation("org.junit.jupiter:junit-jupiter-api:$junitVersion")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:$junitVersion")
+}
+
+val test by tasks.getting(Test::class) {
+    useJUnitPlatform()
+}
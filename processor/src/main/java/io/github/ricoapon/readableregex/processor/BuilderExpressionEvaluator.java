@@ -0,0 +1,282 @@
+package io.github.ricoapon.readableregex.processor;
+
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.SimpleTreeVisitor;
+import com.sun.source.util.Trees;
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegex;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates the initializer of a field at compile time. The expression is not compiled, but interpreted: every method
+ * call on the builder is executed using reflection on a real builder instance.
+ * <p>
+ * Only a small subset of Java is supported: calls to {@link ReadableRegex#regex()} and the methods of the builder,
+ * literals, string concatenation, constants of {@link PatternFlag} and other static fields of the same class.
+ */
+class BuilderExpressionEvaluator extends SimpleTreeVisitor<Object, Void> {
+    private final Trees trees;
+    private final TypeElement enclosingClass;
+
+    /** Names of the fields that are being evaluated, to detect fields that refer to themselves. */
+    private final Set<String> fieldsInEvaluation = new HashSet<>();
+
+    /**
+     * Constructor.
+     * @param trees          Utility to retrieve the source of elements.
+     * @param enclosingClass The class in which the expressions are declared.
+     */
+    BuilderExpressionEvaluator(Trees trees, TypeElement enclosingClass) {
+        this.trees = trees;
+        this.enclosingClass = enclosingClass;
+    }
+
+    /**
+     * @param field The field to evaluate.
+     * @return The value of the initializer of the field.
+     */
+    Object evaluateField(VariableElement field) {
+        if (field.getConstantValue() != null) {
+            return field.getConstantValue();
+        }
+
+        VariableTree tree = (VariableTree) trees.getTree(field);
+        if (tree == null || tree.getInitializer() == null) {
+            throw new EvaluationException("The field '" + field.getSimpleName() + "' has no initializer that can be evaluated.");
+        }
+        if (!fieldsInEvaluation.add(field.getSimpleName().toString())) {
+            throw new EvaluationException("The field '" + field.getSimpleName() + "' refers to itself.");
+        }
+
+        try {
+            return tree.getInitializer().accept(this, null);
+        } finally {
+            fieldsInEvaluation.remove(field.getSimpleName().toString());
+        }
+    }
+
+    @Override
+    protected Object defaultAction(Tree node, Void unused) {
+        throw new EvaluationException("The expression '" + node + "' cannot be evaluated at compile time.");
+    }
+
+    @Override
+    public Object visitLiteral(LiteralTree node, Void unused) {
+        return node.getValue();
+    }
+
+    @Override
+    public Object visitParenthesized(ParenthesizedTree node, Void unused) {
+        return node.getExpression().accept(this, null);
+    }
+
+    @Override
+    public Object visitUnary(UnaryTree node, Void unused) {
+        Object value = node.getExpression().accept(this, null);
+        if (node.getKind() == Tree.Kind.UNARY_MINUS && value instanceof Integer) {
+            return -(Integer) value;
+        }
+        return defaultAction(node, null);
+    }
+
+    @Override
+    public Object visitBinary(BinaryTree node, Void unused) {
+        Object left = node.getLeftOperand().accept(this, null);
+        Object right = node.getRightOperand().accept(this, null);
+        if (node.getKind() == Tree.Kind.PLUS && (left instanceof String || right instanceof String)) {
+            return String.valueOf(left) + right;
+        }
+        if (node.getKind() == Tree.Kind.PLUS && left instanceof Integer && right instanceof Integer) {
+            return (Integer) left + (Integer) right;
+        }
+        return defaultAction(node, null);
+    }
+
+    @Override
+    public Object visitIdentifier(IdentifierTree node, Void unused) {
+        // Constants of PatternFlag can be statically imported.
+        String name = node.getName().toString();
+        VariableElement field = findField(name);
+        if (field != null) {
+            return evaluateField(field);
+        }
+        return patternFlag(name, node);
+    }
+
+    @Override
+    public Object visitMemberSelect(MemberSelectTree node, Void unused) {
+        String qualifier = node.getExpression().toString();
+        String name = node.getIdentifier().toString();
+        if (isName(qualifier, PatternFlag.class.getName())) {
+            return patternFlag(name, node);
+        }
+
+        VariableElement field = findField(name);
+        if (field != null && isName(qualifier, enclosingClass.getQualifiedName().toString())) {
+            return evaluateField(field);
+        }
+        return defaultAction(node, null);
+    }
+
+    @Override
+    public Object visitMethodInvocation(MethodInvocationTree node, Void unused) {
+        ExpressionTree methodSelect = node.getMethodSelect();
+        Object[] arguments = node.getArguments().stream().map(argument -> argument.accept(this, null)).toArray();
+
+        if (methodSelect instanceof IdentifierTree) {
+            // Method is called without a receiver. The only supported method is the statically imported regex().
+            return invoke(null, ((IdentifierTree) methodSelect).getName().toString(), arguments, node);
+        }
+
+        MemberSelectTree memberSelect = (MemberSelectTree) methodSelect;
+        String methodName = memberSelect.getIdentifier().toString();
+        if (isName(memberSelect.getExpression().toString(), ReadableRegex.class.getName())) {
+            return invoke(null, methodName, arguments, node);
+        }
+
+        Object receiver = memberSelect.getExpression().accept(this, null);
+        if (!(receiver instanceof ReadableRegex)) {
+            return defaultAction(node, null);
+        }
+        return invoke(receiver, methodName, arguments, node);
+    }
+
+    /**
+     * @param name The simple name of the field.
+     * @return The static field of the enclosing class with the given name, or {@code null} if it does not exist.
+     */
+    private VariableElement findField(String name) {
+        for (Element element : enclosingClass.getEnclosedElements()) {
+            if (element.getKind() == ElementKind.FIELD && element.getModifiers().contains(Modifier.STATIC)
+                    && element.getSimpleName().contentEquals(name)) {
+                return (VariableElement) element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param name The name of the constant of {@link PatternFlag}.
+     * @param node The node that is evaluated.
+     * @return The constant of {@link PatternFlag}.
+     */
+    private PatternFlag patternFlag(String name, Tree node) {
+        for (PatternFlag patternFlag : PatternFlag.values()) {
+            if (patternFlag.name().equals(name)) {
+                return patternFlag;
+            }
+        }
+        throw new EvaluationException("The expression '" + node + "' cannot be evaluated at compile time.");
+    }
+
+    /**
+     * @param name          The name as written in the source code.
+     * @param qualifiedName The qualified name of a class.
+     * @return {@code true} if the name is the simple or qualified name of the class.
+     */
+    private static boolean isName(String name, String qualifiedName) {
+        return name.equals(qualifiedName) || qualifiedName.endsWith("." + name);
+    }
+
+    /**
+     * Invokes the first public method of {@link ReadableRegex} with the given name that accepts the arguments.
+     * @param receiver  The object on which to invoke the method, or {@code null} for static methods.
+     * @param name      The name of the method.
+     * @param arguments The evaluated arguments.
+     * @param node      The node that is evaluated.
+     * @return The result of the method.
+     */
+    private Object invoke(Object receiver, String name, Object[] arguments, Tree node) {
+        for (Method method : ReadableRegex.class.getMethods()) {
+            if (!method.getName().equals(name) || (receiver == null) != java.lang.reflect.Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+
+            Object[] convertedArguments = convertArguments(method, arguments);
+            if (convertedArguments == null) {
+                continue;
+            }
+
+            try {
+                return method.invoke(receiver, convertedArguments);
+            } catch (InvocationTargetException e) {
+                // Exceptions from the builder itself, for example IncorrectConstructionException, are reported to the user.
+                throw new EvaluationException(e.getCause().getClass().getSimpleName() + ": " + e.getCause().getMessage());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        List<String> argumentTypes = Arrays.stream(arguments)
+                .map(argument -> argument == null ? "null" : argument.getClass().getSimpleName())
+                .collect(Collectors.toList());
+        throw new EvaluationException("The method '" + name + "' with arguments " + argumentTypes + " in '" + node
+                + "' cannot be evaluated at compile time.");
+    }
+
+    /**
+     * @param method    The method.
+     * @param arguments The evaluated arguments.
+     * @return The arguments that can be used to invoke the method, or {@code null} if the method does not accept the arguments.
+     */
+    private static Object[] convertArguments(Method method, Object[] arguments) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        int nrOfFixedParameters = method.isVarArgs() ? parameterTypes.length - 1 : parameterTypes.length;
+        if (arguments.length < nrOfFixedParameters || (!method.isVarArgs() && arguments.length != nrOfFixedParameters)) {
+            return null;
+        }
+
+        Object[] result = new Object[parameterTypes.length];
+        for (int i = 0; i < nrOfFixedParameters; i++) {
+            if (!isAssignable(parameterTypes[i], arguments[i])) {
+                return null;
+            }
+            result[i] = arguments[i];
+        }
+
+        if (method.isVarArgs()) {
+            Class<?> componentType = parameterTypes[nrOfFixedParameters].getComponentType();
+            Object varArgs = Array.newInstance(componentType, arguments.length - nrOfFixedParameters);
+            for (int i = nrOfFixedParameters; i < arguments.length; i++) {
+                if (!isAssignable(componentType, arguments[i])) {
+                    return null;
+                }
+                Array.set(varArgs, i - nrOfFixedParameters, arguments[i]);
+            }
+            result[nrOfFixedParameters] = varArgs;
+        }
+
+        return result;
+    }
+
+    private static boolean isAssignable(Class<?> parameterType, Object argument) {
+        if (parameterType == char.class) {
+            return argument instanceof Character;
+        } else if (parameterType == int.class) {
+            return argument instanceof Integer;
+        }
+        return argument == null || parameterType.isInstance(argument);
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.ricoapon.readableregex.processor;
+
+/**
+ * Exception that will be thrown when an expression cannot be evaluated at compile time.
+ */
+class EvaluationException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     * @param message The message of the exception.
+     */
+    EvaluationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.ricoapon.readableregex.processor;
+
+import com.sun.source.util.Trees;
+import io.github.ricoapon.readableregex.FinishBuilder;
+import io.github.ricoapon.readableregex.GeneratePattern;
+import io.github.ricoapon.readableregex.IncorrectConstructionException;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Annotation processor for {@link GeneratePattern}. All the annotated fields are evaluated at compile time and the
+ * resulting patterns are written to a generated class. Errors in the builder expressions fail the compilation.
+ */
+@SupportedAnnotationTypes("io.github.ricoapon.readableregex.GeneratePattern")
+public class GeneratePatternProcessor extends AbstractProcessor {
+    /** The suffix of the name of the generated class. */
+    static final String GENERATED_CLASS_SUFFIX = "Generated";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, Map<VariableElement, ReadableRegexPattern>> patternsPerClass = new LinkedHashMap<>();
+        Trees trees = Trees.instance(processingEnv);
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(GeneratePattern.class)) {
+            VariableElement field = (VariableElement) element;
+            TypeElement enclosingClass = (TypeElement) field.getEnclosingElement();
+            if (!field.getModifiers().contains(Modifier.STATIC)) {
+                error(field, "Only static fields can be annotated with @GeneratePattern.");
+                continue;
+            }
+
+            try {
+                ReadableRegexPattern pattern = toPattern(new BuilderExpressionEvaluator(trees, enclosingClass).evaluateField(field));
+                patternsPerClass.computeIfAbsent(enclosingClass, c -> new LinkedHashMap<>()).put(field, pattern);
+            } catch (EvaluationException | IllegalArgumentException e) {
+                error(field, e.getMessage());
+            } catch (IncorrectConstructionException e) {
+                // Thrown by build(), for example if not all the groups are closed.
+                error(field, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+
+        patternsPerClass.forEach(this::writeGeneratedClass);
+        return true;
+    }
+
+    /**
+     * @param value The evaluated value of the field.
+     * @return The pattern that is built from the value. The regular expression is compiled to check the syntax.
+     */
+    private static ReadableRegexPattern toPattern(Object value) {
+        ReadableRegexPattern pattern;
+        if (value instanceof FinishBuilder) {
+            pattern = ((FinishBuilder) value).build();
+        } else if (value instanceof ReadableRegexPattern) {
+            pattern = (ReadableRegexPattern) value;
+        } else {
+            throw new EvaluationException("The field must be a builder or a pattern, but was: " + value);
+        }
+
+        // Compile the pattern to check the syntax. PatternSyntaxException is a subclass of IllegalArgumentException.
+        pattern.getUnderlyingPattern();
+        return pattern;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * Writes the class with the generated patterns.
+     * @param enclosingClass The class that contains the annotated fields.
+     * @param patterns       The patterns for each annotated field.
+     */
+    private void writeGeneratedClass(TypeElement enclosingClass, Map<VariableElement, ReadableRegexPattern> patterns) {
+        Elements elements = processingEnv.getElementUtils();
+        String packageName = elements.getPackageOf(enclosingClass).getQualifiedName().toString();
+        String className = generatedClassName(enclosingClass);
+        String qualifiedClassName = packageName.isEmpty() ? className : packageName + "." + className;
+
+        try (PrintWriter writer = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedClassName, enclosingClass).openWriter())) {
+            if (!packageName.isEmpty()) {
+                writer.println("package " + packageName + ";");
+                writer.println();
+            }
+            writer.println("import io.github.ricoapon.readableregex.PatternFlag;");
+            writer.println("import io.github.ricoapon.readableregex.ReadableRegexPattern;");
+            writer.println();
+            writer.println("import java.util.Arrays;");
+            writer.println("import java.util.Collections;");
+            writer.println("import java.util.List;");
+            writer.println();
+            writer.println("/**");
+            writer.println(" * Patterns generated from the fields annotated with @GeneratePattern in {@link "
+                    + enclosingClass.getQualifiedName() + "}. Do not edit.");
+            writer.println(" */");
+            writer.println("public final class " + className + " {");
+
+            patterns.forEach((field, pattern) -> {
+                String name = field.getSimpleName().toString();
+                String groups = pattern.groups().stream()
+                        .map(group -> group == null ? "null" : elements.getConstantExpression(group))
+                        .collect(Collectors.joining(", "));
+                String flags = pattern.enabledFlags().stream().sorted().map(flag -> ", PatternFlag." + flag.name()).collect(Collectors.joining());
+
+                writer.println("    public static final String " + name + "_REGEX = " + elements.getConstantExpression(pattern.toString()) + ";");
+                writer.println("    public static final List<String> " + name + "_GROUPS = Collections.unmodifiableList(Arrays.asList(" + groups + "));");
+                writer.println("    public static final ReadableRegexPattern " + name + " = ReadableRegexPattern.of(" + name + "_REGEX, "
+                        + name + "_GROUPS" + flags + ");");
+                writer.println();
+            });
+
+            writer.println("    private " + className + "() {");
+            writer.println("    }");
+            writer.println("}");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param enclosingClass The class that contains the annotated fields.
+     * @return The simple name of the generated class. For nested classes, the names of the outer classes are included.
+     */
+    static String generatedClassName(TypeElement enclosingClass) {
+        StringBuilder name = new StringBuilder(enclosingClass.getSimpleName());
+        Element outer = enclosingClass.getEnclosingElement();
+        while (outer instanceof TypeElement) {
+            name.insert(0, outer.getSimpleName() + "_");
+            outer = outer.getEnclosingElement();
+        }
+        return name.append(GENERATED_CLASS_SUFFIX).toString();
+    }
+}
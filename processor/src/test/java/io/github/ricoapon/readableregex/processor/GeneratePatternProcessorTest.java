@@ -0,0 +1,174 @@
+package io.github.ricoapon.readableregex.processor;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+class GeneratePatternProcessorTest {
+    private static final String IMPORTS = "import io.github.ricoapon.readableregex.*;\n" +
+            "import static io.github.ricoapon.readableregex.ReadableRegex.regex;\n";
+
+    /** Result of compiling source code with the annotation processor. */
+    private static class CompilationResult {
+        private final boolean success;
+        private final String errors;
+        private final Path outputDirectory;
+
+        CompilationResult(boolean success, String errors, Path outputDirectory) {
+            this.success = success;
+            this.errors = errors;
+            this.outputDirectory = outputDirectory;
+        }
+
+        ReadableRegexPattern loadPattern(String className, String fieldName) throws Exception {
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, getClass().getClassLoader())) {
+                return (ReadableRegexPattern) classLoader.loadClass(className).getField(fieldName).get(null);
+            }
+        }
+
+        String generatedSource(String relativePath) throws IOException {
+            return new String(Files.readAllBytes(outputDirectory.resolve(relativePath)), "UTF-8");
+        }
+    }
+
+    private static CompilationResult compile(String className, String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Path outputDirectory = Files.createTempDirectory("processor");
+
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                Arrays.asList("-d", outputDirectory.toString(), "-s", outputDirectory.toString(),
+                        "-classpath", System.getProperty("java.class.path")),
+                null, Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(new GeneratePatternProcessor()));
+        boolean success = task.call();
+
+        String errors = diagnostics.getDiagnostics().stream()
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.joining("\n"));
+        return new CompilationResult(success, errors, outputDirectory);
+    }
+
+    @Test
+    void patternIsGeneratedFromBuilder() throws Exception {
+        CompilationResult result = compile("example.Patterns", "package example;\n" + IMPORTS +
+                "public class Patterns {\n" +
+                "    @GeneratePattern\n" +
+                "    static final ReadableRegex<?> DATE = regex().group(\"year\", regex().digit().exactlyNTimes(4))\n" +
+                "            .literal(\"-\").group(regex().digit().betweenNAndMTimes(1, 2));\n" +
+                "}\n");
+
+        assertThat(result.errors, result.success, equalTo(true));
+        ReadableRegexPattern pattern = result.loadPattern("example.PatternsGenerated", "DATE");
+        assertThat(pattern.matchesTextExactly("2020-12"), equalTo(true));
+        assertThat(pattern.groups(), contains("year", null));
+        assertThat(result.generatedSource("example/PatternsGenerated.java"),
+                containsString("DATE_REGEX = \"(?<year>\\\\d{4})-(\\\\d{1,2})\";"));
+    }
+
+    @Test
+    void fieldsFlagsAndNestedClassesAreSupported() throws Exception {
+        CompilationResult result = compile("Outer", IMPORTS +
+                "public class Outer {\n" +
+                "    public static class Inner {\n" +
+                "        static final String SEPARATOR = \"-\" + ';';\n" +
+                "        static final ReadableRegexPattern WORD = ReadableRegex.regex().word().build();\n" +
+                "        @GeneratePattern\n" +
+                "        static final ReadableRegexPattern LINE = regex().startOfLine().add(WORD).literal(Inner.SEPARATOR)\n" +
+                "                .anything().range('a', 'z').exactlyNTimes(-(-1) + 1).buildWithFlags(PatternFlag.DOT_ALL);\n" +
+                "    }\n" +
+                "}\n");
+
+        assertThat(result.errors, result.success, equalTo(true));
+        ReadableRegexPattern pattern = result.loadPattern("Outer_InnerGenerated", "LINE");
+        assertThat(pattern.matchesTextExactly("abc-;\nxy"), equalTo(true));
+        assertThat(pattern.enabledFlags(), equalTo(Arrays.stream(PatternFlag.values())
+                .filter(flag -> flag != PatternFlag.CASE_INSENSITIVE).collect(Collectors.toSet())));
+    }
+
+    @Test
+    void incorrectConstructionFailsCompilation() throws Exception {
+        CompilationResult result = compile("Patterns", IMPORTS +
+                "public class Patterns {\n" +
+                "    @GeneratePattern\n" +
+                "    static final ReadableRegex<?> WRONG = regex().digit().oneOrMore().optional();\n" +
+                "}\n");
+
+        assertThat(result.success, equalTo(false));
+        assertThat(result.errors, containsString("IncorrectConstructionException"));
+    }
+
+    @Test
+    void unclosedGroupFailsCompilation() throws Exception {
+        CompilationResult result = compile("Patterns", IMPORTS +
+                "public class Patterns {\n" +
+                "    @GeneratePattern\n" +
+                "    static final ReadableRegex<?> WRONG = regex().startGroup().digit();\n" +
+                "}\n");
+
+        assertThat(result.success, equalTo(false));
+        assertThat(result.errors, containsString("IncorrectConstructionException"));
+        assertThat(result.errors, not(containsString("uncaught exception")));
+    }
+
+    @Test
+    void invalidRegularExpressionFailsCompilation() throws Exception {
+        CompilationResult result = compile("Patterns", IMPORTS +
+                "public class Patterns {\n" +
+                "    @GeneratePattern\n" +
+                "    static final ReadableRegex<?> WRONG = regex(\"(\");\n" +
+                "}\n");
+
+        assertThat(result.success, equalTo(false));
+        assertThat(result.errors, containsString("Unclosed group"));
+    }
+
+    @Test
+    void unsupportedExpressionsFailCompilation() throws Exception {
+        CompilationResult result = compile("Patterns", IMPORTS +
+                "public class Patterns {\n" +
+                "    @GeneratePattern\n" +
+                "    static final ReadableRegex<?> UNKNOWN_METHOD = regex().literal(String.valueOf(1));\n" +
+                "    @GeneratePattern\n" +
+                "    static final ReadableRegex<?> SELF = regex().add(Patterns.SELF);\n" +
+                "    @GeneratePattern\n" +
+                "    static final String NOT_A_BUILDER = \"a\";\n" +
+                "    @GeneratePattern\n" +
+                "    final ReadableRegex<?> notStatic = regex();\n" +
+                "}\n");
+
+        assertThat(result.success, equalTo(false));
+        assertThat(result.errors, containsString("cannot be evaluated at compile time"));
+        assertThat(result.errors, containsString("refers to itself"));
+        assertThat(result.errors, containsString("must be a builder or a pattern"));
+        assertThat(result.errors, containsString("Only static fields"));
+    }
+}
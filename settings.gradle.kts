@@ -8,3 +8,4 @@
  */
 
 rootProject.name = "readable-regex"
+include("processor")
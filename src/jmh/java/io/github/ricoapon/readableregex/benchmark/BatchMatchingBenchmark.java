@@ -0,0 +1,57 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares {@link ReadableRegexPattern#matchAll(List)} with calling {@link ReadableRegexPattern#matchesTextExactly(String)}
+ * for every text. The scores are per text.
+ */
+@State(Scope.Benchmark)
+public class BatchMatchingBenchmark {
+    private static final int NR_OF_TEXTS = 100_000;
+
+    /** {@link Integer#MAX_VALUE} always uses a single thread. */
+    @Param({"16384", "2147483647"})
+    private int parallelThreshold;
+
+    private ReadableRegexPattern pattern;
+    private final List<String> texts = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        pattern = regex().group("key", regex().word()).literal("=").group("value", regex().digit().oneOrMore()).build();
+        for (int i = 0; i < NR_OF_TEXTS; i++) {
+            texts.add("key_" + i + (i % 2 == 0 ? "=" : ":") + i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NR_OF_TEXTS)
+    public BitSet matchesTextExactlyPerText() {
+        BitSet result = new BitSet(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            if (pattern.matchesTextExactly(texts.get(i))) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NR_OF_TEXTS)
+    public BitSet matchAll() {
+        return pattern.matchAll(texts, parallelThreshold);
+    }
+}
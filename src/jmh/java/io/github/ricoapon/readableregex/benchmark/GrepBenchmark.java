@@ -0,0 +1,82 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares {@link ReadableRegexPattern#grep(Path)} with filtering {@link Files#lines(Path)}, for a log file of about
+ * 20 MB in which one percent of the lines match.
+ */
+@State(Scope.Benchmark)
+public class GrepBenchmark {
+    private static final int NR_OF_LINES = 250_000;
+
+    private ReadableRegexPattern pattern;
+
+    /** Case-insensitive patterns have no required literal, so every line is matched. */
+    private ReadableRegexPattern caseInsensitivePattern;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        pattern = regex().literal("ERROR").whitespace().literal("user=").group("user", regex().word()).build();
+        caseInsensitivePattern = regex().literal("error").whitespace().literal("user=").group("user", regex().word())
+                .buildWithFlags(PatternFlag.CASE_INSENSITIVE);
+        file = Files.createTempFile("grep-benchmark", ".log");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < NR_OF_LINES; i++) {
+                String level = i % 100 == 0 ? "ERROR" : "INFO";
+                writer.write("2024-01-01T12:00:00." + (i % 1000) + " " + level + " user=user" + i + " request handled in " + i % 97 + " ms");
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public long filesLines() throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.filter(pattern::find).count();
+        }
+    }
+
+    @Benchmark
+    public long grep() throws IOException {
+        try (Stream<String> lines = pattern.grep(file)) {
+            return lines.count();
+        }
+    }
+
+    @Benchmark
+    public long filesLinesCaseInsensitive() throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.filter(caseInsensitivePattern::find).count();
+        }
+    }
+
+    @Benchmark
+    public long grepCaseInsensitive() throws IOException {
+        try (Stream<String> lines = caseInsensitivePattern.grep(file)) {
+            return lines.count();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.LinearTimeMatching;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.MatchResult;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares the JDK engine with {@link LinearTimeMatching}. The adversarial benchmarks search {@code \w+\w+!} in a word
+ * of {@code textLength} characters without an exclamation mark directly after it. The JDK engine tries every way to
+ * divide the rest of the word over the two quantifiers at every position, which takes cubic time. The other benchmarks
+ * find all the key-value pairs in an ordinary text.
+ */
+@State(Scope.Benchmark)
+public class LinearTimeMatchingBenchmark {
+    @Param({"100", "300", "1000"})
+    private int textLength;
+
+    private ReadableRegexPattern jdkAdversarialPattern;
+    private ReadableRegexPattern linearTimeAdversarialPattern;
+    private String adversarialText;
+
+    private ReadableRegexPattern jdkKeyValuePattern;
+    private ReadableRegexPattern linearTimeKeyValuePattern;
+    private String keyValueText;
+
+    @Setup
+    public void setUp() {
+        ReadableRegex<?> adversarial = regex().word().word().literal("!");
+        ReadableRegex<?> keyValue = regex().group("key", regex().wordCharacter().oneOrMore()).literal("=")
+                .group("value", regex().digit().oneOrMore()).wordBoundary();
+
+        jdkAdversarialPattern = adversarial.build();
+        jdkKeyValuePattern = keyValue.build();
+        LinearTimeMatching.enable();
+        try {
+            linearTimeAdversarialPattern = adversarial.build();
+            linearTimeKeyValuePattern = keyValue.build();
+        } finally {
+            LinearTimeMatching.disable();
+        }
+
+        StringBuilder adversarialTextBuilder = new StringBuilder();
+        for (int i = 0; i < textLength; i++) {
+            adversarialTextBuilder.append('a');
+        }
+        // The text contains the required literal, so that it is not rejected before matching.
+        adversarialText = adversarialTextBuilder.append(" !").toString();
+
+        // Words and pairs like "x1=42", where some pairs have a value that is not a number.
+        Random random = new Random(42);
+        StringBuilder keyValueTextBuilder = new StringBuilder();
+        while (keyValueTextBuilder.length() < 10_000) {
+            keyValueTextBuilder.append("word x").append(random.nextInt(100)).append('=')
+                    .append(random.nextBoolean() ? String.valueOf(random.nextInt(1000)) : "none").append(' ');
+        }
+        keyValueText = keyValueTextBuilder.toString();
+    }
+
+    @Benchmark
+    public List<MatchResult> jdkAdversarial() {
+        return jdkAdversarialPattern.findAll(adversarialText);
+    }
+
+    @Benchmark
+    public List<MatchResult> linearTimeAdversarial() {
+        return linearTimeAdversarialPattern.findAll(adversarialText);
+    }
+
+    @Benchmark
+    public List<MatchResult> jdkFindAll() {
+        return jdkKeyValuePattern.findAll(keyValueText);
+    }
+
+    @Benchmark
+    public List<MatchResult> linearTimeFindAll() {
+        return linearTimeKeyValuePattern.findAll(keyValueText);
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares finding keywords with the pattern created by {@code oneOf(literal(...), ...)}, which is written as a
+ * prefix-factored trie, with the pattern where all the keywords are joined with {@code |}. The built pattern itself
+ * finds the keywords using an Aho-Corasick automaton.
+ */
+@State(Scope.Benchmark)
+public class LiteralAlternationBenchmark {
+    /** Keywords share a lot of prefixes when they are created from a small alphabet. */
+    private static final String ALPHABET = "ABCDEFGH";
+    private static final int TEXT_LENGTH = 10_000;
+
+    @Param({"10", "100", "1000"})
+    private int nrOfKeywords;
+
+    private Pattern naivePattern;
+    private ReadableRegexPattern keywordPattern;
+    private Pattern triePattern;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < nrOfKeywords; i++) {
+            keywords.add(randomWord(random, 3 + random.nextInt(6)));
+        }
+
+        naivePattern = Pattern.compile(keywords.stream().map(Pattern::quote).collect(Collectors.joining("|")));
+        keywordPattern = regex()
+                .oneOf(keywords.stream().map(keyword -> regex().literal(keyword)).toArray(ReadableRegex<?>[]::new))
+                .build();
+        triePattern = keywordPattern.getUnderlyingPattern();
+
+        StringBuilder textBuilder = new StringBuilder();
+        while (textBuilder.length() < TEXT_LENGTH) {
+            textBuilder.append(randomWord(random, 1 + random.nextInt(10))).append(' ');
+        }
+        text = textBuilder.toString();
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+
+    private int countMatches(Pattern pattern) {
+        Matcher matcher = pattern.matcher(text);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int naiveJoin() {
+        return countMatches(naivePattern);
+    }
+
+    @Benchmark
+    public int prefixTrie() {
+        return countMatches(triePattern);
+    }
+
+    @Benchmark
+    public int ahoCorasick() {
+        return keywordPattern.findAll(text).size();
+    }
+}
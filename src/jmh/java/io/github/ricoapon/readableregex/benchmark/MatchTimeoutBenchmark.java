@@ -0,0 +1,64 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.MatchResult;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Measures the overhead of matching with a timeout, see {@link ReadableRegexPattern#findAll(String, Duration)}, compared
+ * to matching without a timeout. The text consists of {@code textLength} characters of words and key-value pairs.
+ */
+@State(Scope.Benchmark)
+public class MatchTimeoutBenchmark {
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+    @Param({"100", "10000", "1000000"})
+    private int textLength;
+
+    private ReadableRegexPattern pattern;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        pattern = regex().group("key", regex().wordCharacter().oneOrMore()).literal("=")
+                .group("value", regex().digit().oneOrMore()).wordBoundary().build();
+
+        Random random = new Random(42);
+        StringBuilder textBuilder = new StringBuilder();
+        while (textBuilder.length() < textLength) {
+            textBuilder.append("word x").append(random.nextInt(100)).append('=')
+                    .append(random.nextBoolean() ? String.valueOf(random.nextInt(1000)) : "none").append(' ');
+        }
+        text = textBuilder.substring(0, textLength);
+    }
+
+    @Benchmark
+    public boolean withoutTimeoutMatchesTextExactly() {
+        return pattern.matchesTextExactly(text);
+    }
+
+    @Benchmark
+    public boolean withTimeoutMatchesTextExactly() {
+        return pattern.matchesTextExactly(text, TIMEOUT);
+    }
+
+    @Benchmark
+    public List<MatchResult> withoutTimeoutFindAll() {
+        return pattern.findAll(text);
+    }
+
+    @Benchmark
+    public List<MatchResult> withTimeoutFindAll() {
+        return pattern.findAll(text, TIMEOUT);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares {@link ReadableRegexPattern#matchesTextExactly(String)}, which reuses matchers, with creating a new matcher
+ * for every text. Run with {@code gradle jmh -PjmhIncludes=MatcherReuseBenchmark -PjmhProfilers=gc} to see the number
+ * of bytes that are allocated per operation ({@code gc.alloc.rate.norm}).
+ * <p>
+ * {@link #reusedMatcher()} also runs the prefilter on the required literal {@code =}. The pattern of
+ * {@link #reusedMatcherWithoutPrefilter()} has no required literal, so it only measures taking the matcher out of the pool
+ * and putting it back.
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+public class MatcherReuseBenchmark {
+    private ReadableRegexPattern pattern;
+    private ReadableRegexPattern patternWithoutRequiredLiteral;
+    private Pattern jdkPattern;
+    private final String text = "key_1=12345";
+
+    @Setup
+    public void setUp() {
+        pattern = regex().group("key", regex().word()).literal("=").group("value", regex().digit().oneOrMore()).build();
+        jdkPattern = pattern.getUnderlyingPattern();
+        patternWithoutRequiredLiteral = regex().group("key", regex().word()).anyCharacterOf("=:")
+                .group("value", regex().digit().oneOrMore()).build();
+    }
+
+    @Benchmark
+    public boolean newMatcher() {
+        return jdkPattern.matcher(text).matches();
+    }
+
+    @Benchmark
+    public boolean reusedMatcher() {
+        return pattern.matchesTextExactly(text);
+    }
+
+    @Benchmark
+    public boolean reusedMatcherWithoutPrefilter() {
+        return patternWithoutRequiredLiteral.matchesTextExactly(text);
+    }
+
+    @Benchmark
+    public boolean reusedMatcherFind() {
+        return pattern.find(text);
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares {@link ReadableRegexPattern#findAllParallel(CharSequence, ForkJoinPool)} with
+ * {@link ReadableRegexPattern#findAll(CharSequence)}, for a log of about 20 MB. The speed-up depends on the number of
+ * processors of {@link ForkJoinPool#commonPool()}.
+ */
+@State(Scope.Benchmark)
+public class ParallelSearchBenchmark {
+    private static final int NR_OF_LINES = 250_000;
+
+    /** Matches have a maximum length, so every chunk only looks a few characters past its end. */
+    private ReadableRegexPattern boundedPattern;
+
+    /** Matches have no maximum length, but never contain a line feed, so every chunk looks until the next line. */
+    private ReadableRegexPattern linePattern;
+
+    /** Matches can contain any number of line feeds, so the text is searched by a single thread. */
+    private ReadableRegexPattern unboundedPattern;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        boundedPattern = regex().literal("user=user").digit().betweenNAndMTimes(1, 6).build();
+        linePattern = regex().literal("user=").word().build();
+        unboundedPattern = regex().literal("ERROR").anything().literal("ms").buildWithFlags(PatternFlag.DOT_ALL);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < NR_OF_LINES; i++) {
+            String level = i % 100 == 0 ? "ERROR" : "INFO";
+            builder.append("2024-01-01T12:00:00.").append(i % 1000).append(' ').append(level).append(" user=user").append(i)
+                    .append(" request handled in ").append(i % 97).append(" ms\n");
+        }
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public int findAllBounded() {
+        return boundedPattern.findAll(text).size();
+    }
+
+    @Benchmark
+    public int findAllParallelBounded() {
+        return boundedPattern.findAllParallel(text, ForkJoinPool.commonPool()).size();
+    }
+
+    @Benchmark
+    public int findAllLine() {
+        return linePattern.findAll(text).size();
+    }
+
+    @Benchmark
+    public int findAllParallelLine() {
+        return linePattern.findAllParallel(text, ForkJoinPool.commonPool()).size();
+    }
+
+    @Benchmark
+    public int findAllParallelUnbounded() {
+        return unboundedPattern.findAllParallel(text, ForkJoinPool.commonPool()).size();
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.PatternRouter;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares a {@link PatternRouter} with calling {@link ReadableRegexPattern#matchesTextExactly(String)} of every route
+ * until one matches. The text matches the last route, which is the worst case of the loop.
+ */
+@State(Scope.Benchmark)
+public class PatternRouterBenchmark {
+    @Param({"50", "500"})
+    private int nrOfRoutes;
+
+    private final List<ReadableRegexPattern> patterns = new ArrayList<>();
+    private PatternRouter<Integer> router;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        PatternRouter.Builder<Integer> routerBuilder = PatternRouter.builder();
+        for (int i = 0; i < nrOfRoutes; i++) {
+            ReadableRegex<?> route = regex().literal("/api/v1/resource" + i + "/").group("id", regex().digit().oneOrMore());
+            patterns.add(route.build());
+            routerBuilder.route(route, i);
+        }
+        router = routerBuilder.build();
+        text = "/api/v1/resource" + (nrOfRoutes - 1) + "/12345";
+    }
+
+    @Benchmark
+    public int linearLoop() {
+        for (int i = 0; i < patterns.size(); i++) {
+            if (patterns.get(i).matchesTextExactly(text)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int router() {
+        return router.route(text).map(PatternRouter.RouteMatch::handler).orElse(-1);
+    }
+}
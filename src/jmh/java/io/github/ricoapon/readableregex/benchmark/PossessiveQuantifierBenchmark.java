@@ -0,0 +1,63 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.AutomaticPossessiveQuantifiers;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares finding a pattern with greedy quantifiers with the same pattern built with
+ * {@link AutomaticPossessiveQuantifiers} enabled, on a text that does not contain a match. The greedy quantifiers give
+ * back every digit before the search continues at the next position.
+ */
+@State(Scope.Benchmark)
+public class PossessiveQuantifierBenchmark {
+    @Param({"10", "100", "1000"})
+    private int digitsPerNumber;
+
+    private Pattern greedyPattern;
+    private Pattern possessivePattern;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        // Numbers with a decimal part, for example "12.5%". The text only has numbers without a percent sign.
+        ReadableRegex<?> percentage = regex().digit().oneOrMore().literal(".").digit().oneOrMore().literal("%");
+
+        greedyPattern = percentage.buildJdkPattern();
+        AutomaticPossessiveQuantifiers.enable();
+        try {
+            possessivePattern = percentage.buildJdkPattern();
+        } finally {
+            AutomaticPossessiveQuantifiers.disable();
+        }
+
+        Random random = new Random(42);
+        StringBuilder textBuilder = new StringBuilder();
+        while (textBuilder.length() < 10_000) {
+            for (int i = 0; i < digitsPerNumber; i++) {
+                textBuilder.append(random.nextInt(10));
+            }
+            textBuilder.append('.').append(random.nextInt(10)).append(' ');
+        }
+        text = textBuilder.toString();
+    }
+
+    @Benchmark
+    public boolean greedy() {
+        return greedyPattern.matcher(text).find();
+    }
+
+    @Benchmark
+    public boolean possessive() {
+        return possessivePattern.matcher(text).find();
+    }
+}
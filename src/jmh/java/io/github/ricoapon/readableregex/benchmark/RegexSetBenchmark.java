@@ -0,0 +1,52 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.ReadableRegexSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares classifying a text with a {@link ReadableRegexSet} of 300 patterns with calling
+ * {@link ReadableRegexPattern#find(CharSequence)} of every pattern.
+ */
+@State(Scope.Benchmark)
+public class RegexSetBenchmark {
+    private static final int NR_OF_PATTERNS = 300;
+
+    private final List<ReadableRegexPattern> patterns = new ArrayList<>();
+    private ReadableRegexSet set;
+    private final String text = "2024-01-01T12:00:00 host=web-7 event=login_failed user=alice attempts=3";
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < NR_OF_PATTERNS; i++) {
+            patterns.add(regex().literal("event=").literal("event_" + i).wordBoundary().build());
+        }
+        patterns.set(42, regex().literal("event=login_failed").whitespace().anything().literal("attempts=").digit().build());
+        set = ReadableRegexSet.of(patterns);
+    }
+
+    @Benchmark
+    public BitSet everyPattern() {
+        BitSet result = new BitSet(patterns.size());
+        for (int i = 0; i < patterns.size(); i++) {
+            if (patterns.get(i).find(text)) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BitSet regexSet() {
+        return set.find(text);
+    }
+}
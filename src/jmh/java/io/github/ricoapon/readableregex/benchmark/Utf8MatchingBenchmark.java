@@ -0,0 +1,75 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares {@link ReadableRegexPattern#matchesTextExactly(byte[], int, int)} with decoding every record to a {@link String}
+ * and calling {@link ReadableRegexPattern#matchesTextExactly(String)}. The scores are per record.
+ */
+@State(Scope.Benchmark)
+public class Utf8MatchingBenchmark {
+    private static final int NR_OF_RECORDS = 10_000;
+
+    private ReadableRegexPattern byteSafePattern;
+    private ReadableRegexPattern decodingPattern;
+    private final List<byte[]> records = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        byteSafePattern = regex().literal("order-").digit().oneOrMore().literal(":")
+                .range('A', 'Z').exactlyNTimes(3).literal(":").digit().oneOrMore().build();
+        decodingPattern = regex().literal("order-").digit().oneOrMore().literal(":")
+                .anyCharacterExcept(":").oneOrMore().literal(":").digit().oneOrMore().build();
+        for (int i = 0; i < NR_OF_RECORDS; i++) {
+            String currency = i % 10 == 0 ? "\u20AC" : "EUR";
+            records.add(("order-" + i + ":" + currency + ":" + (i * 31 % 1000)).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NR_OF_RECORDS)
+    public int decodeToString() {
+        int count = 0;
+        for (byte[] record : records) {
+            if (byteSafePattern.matchesTextExactly(new String(record, StandardCharsets.UTF_8))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NR_OF_RECORDS)
+    public int byteSafe() {
+        int count = 0;
+        for (byte[] record : records) {
+            if (byteSafePattern.matchesTextExactly(record, 0, record.length)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NR_OF_RECORDS)
+    public int notByteSafe() {
+        int count = 0;
+        for (byte[] record : records) {
+            if (decodingPattern.matchesTextExactly(record, 0, record.length)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.AutomaticPossessiveQuantifiersImpl;
+
+/**
+ * Process-wide setting that makes greedy quantifiers possessive when this can never change what the pattern matches.
+ * The setting is disabled by default.
+ * <p>
+ * A greedy quantifier gives back repetitions when the rest of the pattern fails to match. For a pattern like
+ * {@code regex().digit().oneOrMore().literal(",")}, this is wasted effort: the text after fewer digits starts with a
+ * digit, which never matches the comma. When this setting is enabled, {@link FinishBuilder#buildWithFlags(PatternFlag...)}
+ * and {@link FinishBuilder#buildLazilyWithFlags(PatternFlag...)} write such quantifiers as if
+ * {@link QuantifierBuilder#possessive()} was used. They are written as an atomic group, for example {@code (?>\d+),},
+ * which the JDK engine matches faster than {@code \d++,}. This makes patterns fail faster on texts that do not match.
+ * <p>
+ * Only quantifiers over a single character or a literal that can repeat more than once are changed, and only if the
+ * blocks following them in the same group can never start with the same character. Patterns that use {@link PatternFlag#CASE_INSENSITIVE} or that contain
+ * blocks created with {@link StandaloneBlockBuilder#regexFromString(String)} are never changed.
+ */
+public interface AutomaticPossessiveQuantifiers {
+    /**
+     * Enables the setting for all patterns that are built afterwards.
+     */
+    static void enable() {
+        AutomaticPossessiveQuantifiersImpl.enable();
+    }
+
+    /**
+     * Disables the setting for all patterns that are built afterwards.
+     */
+    static void disable() {
+        AutomaticPossessiveQuantifiersImpl.disable();
+    }
+
+    /**
+     * @return {@code true} if the setting is enabled, else {@code false}.
+     */
+    static boolean isEnabled() {
+        return AutomaticPossessiveQuantifiersImpl.isEnabled();
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.BacktrackingAnalysisImpl;
+
+import java.util.List;
+
+/**
+ * Analysis of quantifiers that can cause catastrophic backtracking. This happens when a repeated block can match the same
+ * text in many different ways, for example {@code startGroup().word().whitespace().optional().endGroup().oneOrMore()}.
+ * If such a pattern does not match a long text, finding this out can take exponential time.
+ * <p>
+ * The analysis is a heuristic: it may miss problems and it may report quantifiers that are harmless for all texts you
+ * will ever match. Blocks created with {@link StandaloneBlockBuilder#regexFromString(String)} are not analyzed.
+ * <p>
+ * Strict mode is disabled by default. When it is enabled, {@link FinishBuilder#buildWithFlags(PatternFlag...)} and
+ * {@link FinishBuilder#buildLazilyWithFlags(PatternFlag...)} throw an {@link IncorrectConstructionException} for
+ * builders that have problems.
+ */
+public interface BacktrackingAnalysis {
+    /**
+     * Analyzes the builder without building it.
+     * @param regex        The builder.
+     * @param patternFlags The flags that the regular expression will be compiled with.
+     * @return A description of every quantifier that can cause catastrophic backtracking, written as the builder methods
+     * that created it. The list is empty if there are none.
+     */
+    static List<String> analyze(ReadableRegex<?> regex, PatternFlag... patternFlags) {
+        return BacktrackingAnalysisImpl.analyze(regex, patternFlags);
+    }
+
+    /**
+     * Enables strict mode: builders with quantifiers that can cause catastrophic backtracking are refused when they are built.
+     */
+    static void enableStrictMode() {
+        BacktrackingAnalysisImpl.enableStrictMode();
+    }
+
+    /**
+     * Disables strict mode.
+     */
+    static void disableStrictMode() {
+        BacktrackingAnalysisImpl.disableStrictMode();
+    }
+
+    /**
+     * @return {@code true} if strict mode is enabled, else {@code false}.
+     */
+    static boolean isStrictModeEnabled() {
+        return BacktrackingAnalysisImpl.isStrictModeEnabled();
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.ricoapon.readableregex;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Everything the builder knows about an expression, passed to {@link MatchingEngine#compile(BuiltExpression)}. Instances
+ * are only created by the builder.
+ */
+public interface BuiltExpression {
+    /**
+     * @return The regular expression, which is what the JDK {@link java.util.regex.Pattern} compiles.
+     */
+    String getRegex();
+
+    /**
+     * @return The flags of {@link java.util.regex.Pattern}, including the flags that are enabled by the builder itself.
+     */
+    int getJdkFlags();
+
+    /**
+     * @return All the {@link PatternFlag}s that are enabled.
+     */
+    Set<PatternFlag> getFlags();
+
+    /**
+     * @return List of all group names. If the name is null, it is an unnamed group.
+     */
+    List<String> getGroups();
+
+    /**
+     * @return The longest literal that is part of every match, or empty if there is no such literal. See
+     * {@link ReadableRegexPattern#requiredLiteral()}.
+     */
+    Optional<String> getRequiredLiteral();
+
+    /**
+     * @return Whether a match can contain a line feed. See {@link ReadableRegexPattern#canMatchLineBreak()}.
+     */
+    boolean canMatchLineBreak();
+}
@@ -0,0 +1,47 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.ByteBufferTextImpl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Text of the bytes of a {@link ByteBuffer}, so that a {@link ReadableRegexPattern} or {@link PatternRouter} can match
+ * the bytes without copying them to the heap. This also works for direct buffers. Every byte is one character, decoded
+ * as ISO-8859-1 (Latin-1), which also decodes ASCII texts correctly.
+ * <p>
+ * The text reads the bytes using absolute reads, so the position and limit of the buffer are never used or changed after
+ * the text has been created. The bytes are not copied, so they should not be changed while the text is used. To get the
+ * indices of matches in the buffer directly, use {@link ReadableRegexPattern#findAll(ByteBuffer, Charset)} or
+ * {@link ReadableRegexPattern#forEachMatch(ByteBuffer, Charset, MatchVisitor)} instead.
+ */
+public interface ByteBufferText extends CharSequence {
+    /**
+     * @param buffer The buffer.
+     * @return The text of the bytes between the position and the limit of the buffer.
+     */
+    static ByteBufferText latin1(ByteBuffer buffer) {
+        return ByteBufferTextImpl.latin1(buffer);
+    }
+
+    /**
+     * @return The index in the buffer of the first character of the text. Add this to the indices of a match to get the
+     * index of the match in the buffer.
+     */
+    int bufferPosition();
+
+    /**
+     * @param start The index of the first character, inclusive.
+     * @param end   The index of the last character, exclusive.
+     * @return The text between the given indices, which reads from the same buffer.
+     */
+    @Override
+    ByteBufferText subSequence(int start, int end);
+
+    /**
+     * Copies the content to a {@link String}.
+     * @return The text.
+     */
+    @Override
+    String toString();
+}
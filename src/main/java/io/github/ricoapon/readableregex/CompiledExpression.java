@@ -0,0 +1,57 @@
+package io.github.ricoapon.readableregex;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.MatchResult;
+
+/**
+ * The result of compiling an expression by a {@link MatchingEngine}. This is independent of the engine: every engine
+ * must give the same results as the JDK {@link java.util.regex.Pattern}.
+ * <p>
+ * All the methods of the {@link ReadableRegexPattern} that is built with the engine are matched using these methods, for
+ * example regions, iterating over the matches, streams and timeouts. Only the methods that return a JDK
+ * {@link java.util.regex.Matcher} or {@link java.util.regex.Pattern} use the JDK engine. If an engine cannot match a
+ * text in one of the ways below, it must throw an {@link UnsupportedOperationException}, which is passed on to the caller
+ * of the pattern. The pattern never falls back to the JDK engine by itself.
+ * <p>
+ * Instances are used by multiple threads at the same time, so implementations must be thread-safe. The returned
+ * {@link MatchResult}s must stay valid after the method returns.
+ */
+public interface CompiledExpression {
+    /**
+     * @param text The text to be matched.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     */
+    boolean matchesTextExactly(String text);
+
+    /**
+     * Finds all the matches in the text, like calling {@link java.util.regex.Matcher#find()} until no match is found.
+     * @param text The text to be matched.
+     * @return All the matches in order of occurrence.
+     */
+    List<MatchResult> findAll(String text);
+
+    /**
+     * Same as {@link #matchesTextExactly(String)}, but for any {@link CharSequence}. The text must not be copied.
+     * @param text The text to be matched.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     */
+    boolean matchesTextExactly(CharSequence text);
+
+    /**
+     * @param text The text to be matched.
+     * @return {@code true} if the start of the text matches, else {@code false}. This is the same as
+     * {@link java.util.regex.Matcher#lookingAt()}.
+     */
+    boolean lookingAt(CharSequence text);
+
+    /**
+     * Finds the first match that starts at or after the given index, like {@link java.util.regex.Matcher#find(int)}.
+     * Anchors and lookarounds can see the text before the index.
+     * @param text The text to be matched.
+     * @param from The index where the search starts.
+     * @return The match, or empty if there is no match.
+     * @throws IndexOutOfBoundsException If the index is negative or larger than the length of the text.
+     */
+    Optional<MatchResult> find(CharSequence text, int from);
+}
@@ -19,6 +19,35 @@ public interface FinishBuilder {
      */
     ReadableRegexPattern buildWithFlags(PatternFlag... patternFlags);
 
+    /**
+     * Same as {@link #buildWithFlags(PatternFlag...)}, but matches using the given engine instead of the default engine
+     * of {@link MatchingEngines}. If the engine does not support the expression, the JDK engine is used.
+     * @param engineName   The name of the {@link MatchingEngine}.
+     * @param patternFlags The flags that are enabled for the regular expression.
+     * @return Compiled regular expression into {@link ReadableRegexPattern} object.
+     * @throws IllegalArgumentException If there is no engine with the given name.
+     */
+    ReadableRegexPattern buildWithEngine(String engineName, PatternFlag... patternFlags);
+
+    /**
+     * See {@link #buildLazilyWithFlags(PatternFlag...)}.
+     * @return Regular expression that is compiled on first use into {@link ReadableRegexPattern} object.
+     */
+    default ReadableRegexPattern buildLazily() {
+        return buildLazilyWithFlags();
+    }
+
+    /**
+     * Records the regular expression without compiling it. The expression is compiled when the pattern is used for
+     * the first time, using {@link ReadableRegexPattern#matches(String)} or {@link ReadableRegexPattern#getUnderlyingPattern()}.
+     * This is useful for patterns that are declared as constants, but are rarely used.
+     * <p>
+     * Note that a syntax error in the regular expression is only detected when the pattern is used for the first time.
+     * @param patternFlags The flags that are enabled for the regular expression.
+     * @return Regular expression that is compiled on first use into {@link ReadableRegexPattern} object.
+     */
+    ReadableRegexPattern buildLazilyWithFlags(PatternFlag... patternFlags);
+
     /**
      * @return Compiled regular expression into {@link Pattern} object.
      */
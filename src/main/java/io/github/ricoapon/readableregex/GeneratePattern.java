@@ -0,0 +1,31 @@
+package io.github.ricoapon.readableregex;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a static field whose initializer is a builder expression, so that the pattern is generated at compile time.
+ * This requires the annotation processor from the artifact {@code readable-regex-processor}.
+ * <p>
+ * The processor evaluates the builder expression during compilation. If the builder methods are called in the wrong order
+ * or the regular expression is invalid, compilation fails. For every class with annotated fields, a class with the
+ * suffix {@code Generated} is created that contains a constant with the same name for every annotated field. Using these
+ * constants skips the builder completely at runtime. Example:
+ * <pre>
+ * public class Patterns {
+ *     {@literal @}GeneratePattern
+ *     static final ReadableRegex&lt;?&gt; DATE = regex().digit().exactlyNTimes(4).literal("-").digit().exactlyNTimes(2);
+ * }
+ *
+ * // The generated class can be used as follows:
+ * ReadableRegexPattern pattern = PatternsGenerated.DATE;
+ * </pre>
+ * The initializer can only contain calls to the methods of {@link ReadableRegex}, literals, constants of {@link PatternFlag}
+ * and other static fields of the same class that can be evaluated in the same way.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface GeneratePattern {
+}
@@ -0,0 +1,52 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.MatchingEnginesImpl;
+
+/**
+ * Process-wide setting that matches patterns using finite automata instead of the backtracking JDK engine. The setting
+ * is disabled by default.
+ * <p>
+ * The JDK engine can take exponential time on some texts (catastrophic backtracking), which is a risk when matching
+ * untrusted input. When this setting is enabled, {@link FinishBuilder#buildWithFlags(PatternFlag...)} returns patterns
+ * of which {@link ReadableRegexPattern#matchesTextExactly(String)} and {@link ReadableRegexPattern#findAll(String)}
+ * take linear time in the length of the text. The results, including the positions of the groups, are exactly the same
+ * as those of the JDK engine. Whether there is a match is decided by a deterministic automaton. Only if there is a match,
+ * a second pass determines the positions of the groups.
+ * <p>
+ * Patterns that contain any of the following are still matched by the JDK engine:
+ * <ul>
+ *     <li>lookarounds, for example {@link GroupBuilder#startPositiveLookahead()};</li>
+ *     <li>{@link QuantifierBuilder#possessive()};</li>
+ *     <li>blocks created with {@link StandaloneBlockBuilder#regexFromString(String)};</li>
+ *     <li>quantifiers that can repeat a block that can match an empty text more than once;</li>
+ *     <li>groups inside quantifiers other than {@link QuantifierBuilder#optional()};</li>
+ *     <li>{@link PatternFlag#CASE_INSENSITIVE}.</li>
+ * </ul>
+ * {@link ReadableRegexPattern#matches(String)} always uses the JDK engine.
+ * <p>
+ * This setting selects the default {@link MatchingEngine}: enabling it is the same as
+ * {@code MatchingEngines.setDefault(MatchingEngines.LINEAR_TIME)}. The engine can also be used for a single pattern with
+ * {@code buildWithEngine(MatchingEngines.LINEAR_TIME)}.
+ */
+public interface LinearTimeMatching {
+    /**
+     * Enables the setting for all patterns that are built afterwards.
+     */
+    static void enable() {
+        MatchingEnginesImpl.setDefault(MatchingEngines.LINEAR_TIME);
+    }
+
+    /**
+     * Disables the setting for all patterns that are built afterwards, which makes {@link MatchingEngines#JDK} the default engine.
+     */
+    static void disable() {
+        MatchingEnginesImpl.setDefault(MatchingEngines.JDK);
+    }
+
+    /**
+     * @return {@code true} if the setting is enabled, else {@code false}.
+     */
+    static boolean isEnabled() {
+        return MatchingEngines.LINEAR_TIME.equals(MatchingEnginesImpl.getDefault());
+    }
+}
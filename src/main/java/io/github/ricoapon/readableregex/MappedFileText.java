@@ -0,0 +1,64 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.MappedFileTextImpl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Text of a file that is read directly from a memory mapping of the file, so that a {@link ReadableRegexPattern} can
+ * match the file without copying its content to the heap. Every byte of the file is one character, decoded as ISO-8859-1
+ * (Latin-1), which also decodes ASCII files correctly. Files in other encodings, like UTF-8, can be read with
+ * {@link ReadableRegexPattern#grep(Path, java.nio.charset.Charset)} instead.
+ * <p>
+ * The index of a {@link CharSequence} is an {@code int}, so a single text contains at most {@link Integer#MAX_VALUE}
+ * characters. Larger files are matched in multiple windows using {@link #open(Path, long, int)}. Windows should overlap
+ * by at least the length of the longest possible match, so that matches that cross the border of two windows are found.
+ * <p>
+ * The mapping stays valid until the text is garbage collected, also after the file has been closed. The content of the
+ * file should not be changed while the text is used. Instances are immutable and can be used by multiple threads.
+ */
+public interface MappedFileText extends CharSequence {
+    /**
+     * @param file The file to be mapped.
+     * @return The text of the full file.
+     * @throws IOException              If the file cannot be opened or mapped.
+     * @throws IllegalArgumentException If the file is larger than {@link Integer#MAX_VALUE} bytes.
+     */
+    static MappedFileText open(Path file) throws IOException {
+        return MappedFileTextImpl.open(file);
+    }
+
+    /**
+     * @param file     The file to be mapped.
+     * @param position The position in the file of the first character of the text.
+     * @param size     The number of characters of the text.
+     * @return The text of the given window of the file.
+     * @throws IOException              If the file cannot be opened or mapped.
+     * @throws IllegalArgumentException If the window is not inside the file.
+     */
+    static MappedFileText open(Path file, long position, int size) throws IOException {
+        return MappedFileTextImpl.open(file, position, size);
+    }
+
+    /**
+     * @return The position in the file of the first character of the text. Add this to the indices of a match to get the
+     * position of the match in the file.
+     */
+    long filePosition();
+
+    /**
+     * @param start The index of the first character, inclusive.
+     * @param end   The index of the last character, exclusive.
+     * @return The text between the given indices, which reads from the same mapping.
+     */
+    @Override
+    MappedFileText subSequence(int start, int end);
+
+    /**
+     * Copies the content to a {@link String}. Note that for large files this uses as much memory as the file itself.
+     * @return The text.
+     */
+    @Override
+    String toString();
+}
@@ -0,0 +1,29 @@
+package io.github.ricoapon.readableregex;
+
+import java.time.Duration;
+
+/**
+ * Exception that will be thrown when matching a text takes longer than the given timeout, for example using
+ * {@link ReadableRegexPattern#matchesTextExactly(String, Duration)}.
+ */
+public class MatchTimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final Duration timeout;
+
+    /**
+     * Constructor.
+     * @param timeout The timeout that has been exceeded.
+     */
+    public MatchTimeoutException(Duration timeout) {
+        super("Matching the text took longer than the timeout of " + timeout.toMillis() + " ms.");
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return The timeout that has been exceeded.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.ricoapon.readableregex;
+
+import java.util.regex.MatchResult;
+
+/**
+ * Callback for {@link ReadableRegexPattern#forEachMatch(CharSequence, MatchVisitor)}, which is called for every match
+ * in the text. The positions of the match and its groups are available without allocating any object. Strings are only
+ * created if they are requested using one of the {@code group} methods.
+ */
+@FunctionalInterface
+public interface MatchVisitor {
+    /**
+     * Called for every match in order of occurrence.
+     * @param match The current match. The object is reused for the next match, so it is only valid during this call.
+     *              Use {@link Match#toMatchResult()} to keep the match.
+     */
+    void visit(Match match);
+
+    /**
+     * View on the current match.
+     */
+    interface Match {
+        /**
+         * @return The index of the first character of the match.
+         */
+        int start();
+
+        /**
+         * @return The index after the last character of the match.
+         */
+        int end();
+
+        /**
+         * @param group The index of the group, where group 0 is the whole match.
+         * @return The index of the first character of the group, or -1 if the group did not match.
+         */
+        int start(int group);
+
+        /**
+         * @param group The index of the group, where group 0 is the whole match.
+         * @return The index after the last character of the group, or -1 if the group did not match.
+         */
+        int end(int group);
+
+        /**
+         * @param name The name of the group, as used in {@link ReadableRegexPattern#groups()}.
+         * @return The index of the first character of the group, or -1 if the group did not match.
+         */
+        int start(String name);
+
+        /**
+         * @param name The name of the group, as used in {@link ReadableRegexPattern#groups()}.
+         * @return The index after the last character of the group, or -1 if the group did not match.
+         */
+        int end(String name);
+
+        /**
+         * @return The number of groups in the pattern.
+         */
+        int groupCount();
+
+        /**
+         * @return The matched text. This creates a new string.
+         */
+        String group();
+
+        /**
+         * @param group The index of the group, where group 0 is the whole match.
+         * @return The text of the group, or {@code null} if the group did not match. This creates a new string.
+         */
+        String group(int group);
+
+        /**
+         * @param name The name of the group, as used in {@link ReadableRegexPattern#groups()}.
+         * @return The text of the group, or {@code null} if the group did not match. This creates a new string.
+         */
+        String group(String name);
+
+        /**
+         * @return A copy of the match that stays valid after the visit.
+         */
+        MatchResult toMatchResult();
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.ricoapon.readableregex;
+
+/**
+ * Service provider interface for engines that match the patterns created by the builder.
+ * <p>
+ * Engines are discovered using {@link java.util.ServiceLoader}: add a file
+ * {@code META-INF/services/io.github.ricoapon.readableregex.MatchingEngine} containing the fully qualified name of the
+ * implementation, which must have a public constructor without arguments. An engine can be used for a single pattern with
+ * {@link FinishBuilder#buildWithEngine(String, PatternFlag...)} or for all patterns with {@link MatchingEngines#setDefault(String)}.
+ * <p>
+ * Callers of the built {@link ReadableRegexPattern} do not notice which engine is used: all the methods that match a text
+ * are delegated to the {@link CompiledExpression} of the engine. Only the JDK-only methods that return a
+ * {@link java.util.regex.Matcher} or {@link java.util.regex.Pattern}, such as {@link ReadableRegexPattern#matches(String)}
+ * and {@link ReadableRegexPattern#getUnderlyingPattern()}, keep using the JDK {@link java.util.regex.Pattern}.
+ */
+public interface MatchingEngine {
+    /**
+     * @return The unique name of the engine, used to select the engine.
+     */
+    String name();
+
+    /**
+     * Compiles the built expression. Implementations must be thread-safe, because the same engine is used for all patterns.
+     * @param expression The expression created by the builder.
+     * @return The compiled expression, or {@code null} if the engine does not support the expression. In that case, the
+     * JDK engine is used.
+     */
+    CompiledExpression compile(BuiltExpression expression);
+}
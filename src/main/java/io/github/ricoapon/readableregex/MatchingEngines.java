@@ -0,0 +1,52 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.MatchingEnginesImpl;
+
+import java.util.List;
+
+/**
+ * Process-wide registry of the {@link MatchingEngine}s. Next to the built-in engines {@link #JDK} and {@link #LINEAR_TIME},
+ * all the engines that are registered using {@link java.util.ServiceLoader} are available.
+ * <p>
+ * The default engine is used by {@link FinishBuilder#buildWithFlags(PatternFlag...)}. Patterns that are not supported
+ * by the selected engine always fall back to the JDK engine.
+ */
+public interface MatchingEngines {
+    /** Name of the engine that uses the JDK {@link java.util.regex.Pattern}. This is the default engine. */
+    String JDK = "jdk";
+
+    /** Name of the engine that matches in linear time using finite automata. See {@link LinearTimeMatching}. */
+    String LINEAR_TIME = "linear-time";
+
+    /**
+     * @param name The name of the engine.
+     * @return The engine with the given name.
+     * @throws IllegalArgumentException If there is no engine with the given name.
+     */
+    static MatchingEngine get(String name) {
+        return MatchingEnginesImpl.get(name);
+    }
+
+    /**
+     * @return The names of all the available engines.
+     */
+    static List<String> names() {
+        return MatchingEnginesImpl.names();
+    }
+
+    /**
+     * Selects the engine that is used for all patterns that are built afterwards.
+     * @param name The name of the engine.
+     * @throws IllegalArgumentException If there is no engine with the given name.
+     */
+    static void setDefault(String name) {
+        MatchingEnginesImpl.setDefault(name);
+    }
+
+    /**
+     * @return The name of the engine that is used for all patterns that are built.
+     */
+    static String getDefault() {
+        return MatchingEnginesImpl.getDefault();
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.PatternCacheImpl;
+
+/**
+ * Process-wide cache of compiled patterns. The cache is disabled by default.
+ * <p>
+ * When the cache is enabled, {@link FinishBuilder#buildWithFlags(PatternFlag...)} and
+ * {@link FinishBuilder#buildWithEngine(String, PatternFlag...)} first look up the builder methods that were called, the
+ * flags and the engine in the cache. Only if the pattern is not present, the expression is analyzed, compiled and stored.
+ * {@link ReadableRegexPattern#of(String, java.util.List, PatternFlag...)} looks up the regular expression. This is useful
+ * if the same patterns are built over and over again, for example once per request. Looking up a pattern does not
+ * acquire any locks. If the cache exceeds the maximum size, patterns that have not been used recently are evicted.
+ */
+public interface PatternCache {
+    /**
+     * Enables the cache. If the cache was already enabled, it is replaced by a new empty cache.
+     * @param maximumSize The maximum number of patterns in the cache. Must be larger than zero.
+     */
+    static void enable(int maximumSize) {
+        PatternCacheImpl.enable(maximumSize);
+    }
+
+    /**
+     * Disables the cache and removes all the patterns from it.
+     */
+    static void disable() {
+        PatternCacheImpl.disable();
+    }
+
+    /**
+     * @return {@code true} if the cache is enabled, else {@code false}.
+     */
+    static boolean isEnabled() {
+        return PatternCacheImpl.isEnabled();
+    }
+
+    /**
+     * @return The number of patterns that were found in the cache since it has been enabled.
+     */
+    static long hitCount() {
+        return PatternCacheImpl.hitCount();
+    }
+
+    /**
+     * @return The number of patterns that were not found in the cache and had to be compiled since it has been enabled.
+     */
+    static long missCount() {
+        return PatternCacheImpl.missCount();
+    }
+
+    /**
+     * @return The number of patterns that were removed from the cache because the maximum size was exceeded since it has been enabled.
+     */
+    static long evictionCount() {
+        return PatternCacheImpl.evictionCount();
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.PatternRouterImpl;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ordered list of routes, each consisting of a pattern and a handler. A text is routed to the first route whose pattern
+ * matches the full text, like a chain of {@link ReadableRegexPattern#matchesTextExactly(String)} calls.
+ * <p>
+ * All the routes are combined into a single regular expression, in which every route is a capturing group of an
+ * alternation. The JDK engine tries the alternatives in order, so a single match determines the first matching route and
+ * the groups of that route. Routes that contain {@link StandaloneBlockBuilder#regexFromString(String)} cannot be combined,
+ * because their groups are unknown. These routes are matched separately, in the same order.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * PatternRouter<String> router = PatternRouter.<String>builder()
+ *         .route(regex().literal("/users/").group("id", regex().digit().oneOrMore()), "user")
+ *         .route(regex().literal("/users/").group("name", regex().word()), "userByName")
+ *         .build();
+ * router.route("/users/42").get().handler(); // "user"
+ * }</pre>
+ * @param <R> The type of the handlers.
+ */
+public interface PatternRouter<R> {
+    /**
+     * @param <R> The type of the handlers.
+     * @return A new builder without routes.
+     */
+    static <R> Builder<R> builder() {
+        return new PatternRouterImpl.BuilderImpl<>();
+    }
+
+    /**
+     * @param text The text to be routed.
+     * @return The first route whose pattern matches the full text, or empty if no route matches.
+     */
+    Optional<RouteMatch<R>> route(CharSequence text);
+
+    /**
+     * @return The number of routes.
+     */
+    int nrOfRoutes();
+
+    /**
+     * Builder of a {@link PatternRouter}.
+     * @param <R> The type of the handlers.
+     */
+    interface Builder<R> {
+        /**
+         * Adds a route after the routes that have been added before. The group names of different routes may be the same.
+         * @param regex   The builder of the pattern of the route.
+         * @param handler The handler of the route.
+         * @return This builder.
+         */
+        Builder<R> route(ReadableRegex<?> regex, R handler);
+
+        /**
+         * @param patternFlags The flags that are used for all the routes.
+         * @return The router of all the routes that have been added.
+         */
+        PatternRouter<R> build(PatternFlag... patternFlags);
+    }
+
+    /**
+     * The route that matches a text, with the groups of its pattern.
+     * @param <R> The type of the handlers.
+     */
+    interface RouteMatch<R> {
+        /**
+         * @return The handler of the route.
+         */
+        R handler();
+
+        /**
+         * @return The index of the route, in the order in which the routes have been added.
+         */
+        int routeIndex();
+
+        /**
+         * @return The groups of the pattern of the route. See {@link ReadableRegexPattern#groups()}.
+         */
+        List<String> groups();
+
+        /**
+         * @param group The index of the group in the pattern of the route, where group 0 is the whole text. For routes that
+         *              contain {@link StandaloneBlockBuilder#regexFromString(String)}, all the groups of the pattern are
+         *              available, also if they are not part of {@link #groups()}.
+         * @return The text of the group, or {@code null} if the group did not match.
+         * @throws IndexOutOfBoundsException If the pattern of the route has no group with the given index.
+         */
+        String group(int group);
+
+        /**
+         * @param name The name of the group, as used in {@link #groups()}.
+         * @return The text of the group, or {@code null} if the group did not match.
+         * @throws IllegalArgumentException If the pattern of the route has no group with the given name.
+         */
+        String group(String name);
+    }
+}
@@ -1,19 +1,54 @@
 package io.github.ricoapon.readableregex;
 
+import io.github.ricoapon.readableregex.internal.PatternCacheImpl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Wrapper of {@link Pattern} with some extra useful methods.
  * <p>
  * If you want to use methods from {@link Pattern} that are missing in this interface, you can use {@link #getUnderlyingPattern()}
  * to get the {@link Pattern} object.
+ * <p>
+ * If the pattern is built with another {@link MatchingEngine}, all the methods match using that engine, except the
+ * methods that return a {@link Matcher} or {@link Pattern}. These are only available for the JDK engine: they always use
+ * the JDK {@link Pattern}, which is compiled when it is used for the first time.
  */
-public interface ReadableRegexPattern {
+public interface ReadableRegexPattern extends CompiledExpression {
+    /**
+     * Creates a pattern from a regular expression that has been generated by the builder before, for example by the
+     * processor of {@link GeneratePattern}. The builder and its checks are skipped completely.
+     * @param regex        The regular expression.
+     * @param groups       List of all group names. If the name is null, it is an unnamed group.
+     * @param patternFlags The flags that are enabled for the regular expression.
+     * @return Compiled regular expression into {@link ReadableRegexPattern} object.
+     */
+    static ReadableRegexPattern of(String regex, List<String> groups, PatternFlag... patternFlags) {
+        int flags = Arrays.stream(patternFlags).map(PatternFlag::getJdkPatternFlagCode)
+                .reduce(0, (integer, integer2) -> integer | integer2);
+        return PatternCacheImpl.compile(regex, flags, groups);
+    }
+
     /**
      * Matches the regular expression to the text. See {@link Pattern#matcher(CharSequence)} for more information.
+     * <p>
+     * This method is JDK-only: it always uses the JDK {@link Pattern}, also if the pattern is built with another
+     * {@link MatchingEngine}.
      * @param text The text to be matched.
      * @return {@link Matcher}
      */
@@ -23,10 +58,344 @@ public interface ReadableRegexPattern {
      * @param text The text to be matched.
      * @return {@code true} if the pattern matches the full text, else {@code false}.
      */
+    @Override
     default boolean matchesTextExactly(String text) {
         return matches(text).matches();
     }
 
+    /**
+     * Finds all the matches in the text. This is the same as calling {@link Matcher#find()} until no match is found.
+     * @param text The text to be matched.
+     * @return All the matches in order of occurrence.
+     */
+    @Override
+    List<MatchResult> findAll(String text);
+
+    /**
+     * @param text The text to be matched.
+     * @return {@code true} if the text contains a match, else {@code false}. This is the same as {@link Matcher#find()}.
+     */
+    boolean find(CharSequence text);
+
+    /**
+     * @param text The text to be matched.
+     * @return {@code true} if the start of the text matches, else {@code false}. This is the same as {@link Matcher#lookingAt()}.
+     */
+    boolean lookingAt(CharSequence text);
+
+    /**
+     * Same as {@link #matches(String)}, but for any {@link CharSequence}, for example a {@link StringBuilder} or a
+     * {@link java.nio.CharBuffer}. The text is not copied, so it must not be changed while the matcher is used.
+     * <p>
+     * This method is JDK-only: it always uses the JDK {@link Pattern}, also if the pattern is built with another
+     * {@link MatchingEngine}.
+     * @param text The text to be matched.
+     * @return {@link Matcher}
+     */
+    Matcher matches(CharSequence text);
+
+    /**
+     * Same as {@link #matches(CharSequence)}, but the matcher only matches the region of the text between {@code start}
+     * and {@code end}. See {@link Matcher#region(int, int)} for more information. The region is matched as if it is the
+     * whole text, but the indices of the matches are indices in the whole text.
+     * <p>
+     * This method is JDK-only: it always uses the JDK {@link Pattern}, also if the pattern is built with another
+     * {@link MatchingEngine}.
+     * @param text  The text to be matched.
+     * @param start The index of the first character of the region to be matched.
+     * @param end   The index after the last character of the region to be matched.
+     * @return {@link Matcher}
+     * @throws IndexOutOfBoundsException If the region is not inside the text.
+     */
+    Matcher matches(CharSequence text, int start, int end);
+
+    /**
+     * Same as {@link #matchesTextExactly(String)}, but for any {@link CharSequence}. The text is not copied.
+     * @param text The text to be matched.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     */
+    boolean matchesTextExactly(CharSequence text);
+
+    /**
+     * Same as calling {@link #matchesTextExactly(CharSequence)} for every text, but much faster for many short texts: a
+     * single {@link Matcher} is reused for all the texts that are matched by the same thread. Lists with at least
+     * 16384 texts are divided into chunks that are matched at the same time by
+     * the threads of the {@link ForkJoinPool#commonPool()}.
+     * <p>
+     * Patterns of another {@link MatchingEngine} match every text using the engine, in the same chunks.
+     * @param texts The texts to be matched. They are read by multiple threads if the list is large.
+     * @return The indices of the texts that are fully matched by the pattern.
+     */
+    BitSet matchAll(List<? extends CharSequence> texts);
+
+    /**
+     * Same as {@link #matchAll(List)}, but with a custom threshold for matching the texts at the same time.
+     * @param texts             The texts to be matched. They are read by multiple threads if the list is large.
+     * @param parallelThreshold Lists with fewer texts are matched by a single thread. Use {@link Integer#MAX_VALUE} to
+     *                          always use a single thread.
+     * @return The indices of the texts that are fully matched by the pattern.
+     * @throws IllegalArgumentException If the threshold is not positive.
+     */
+    BitSet matchAll(List<? extends CharSequence> texts, int parallelThreshold);
+
+    /**
+     * Same as {@link #matchesTextExactly(CharSequence)}, but only matches the region of the text between {@code start}
+     * and {@code end}, without copying the region.
+     * @param text  The text to be matched.
+     * @param start The index of the first character of the region to be matched.
+     * @param end   The index after the last character of the region to be matched.
+     * @return {@code true} if the pattern matches the full region, else {@code false}.
+     * @throws IndexOutOfBoundsException If the region is not inside the text.
+     */
+    boolean matchesTextExactly(CharSequence text, int start, int end);
+
+    /**
+     * Same as {@link #findAll(String)}, but for any {@link CharSequence}. Only the matched parts of the text are copied.
+     * @param text The text to be matched.
+     * @return All the matches in order of occurrence.
+     */
+    List<MatchResult> findAll(CharSequence text);
+
+    /**
+     * Same as {@link #findAll(CharSequence)}, but only finds the matches in the region of the text between {@code start}
+     * and {@code end}. The region is matched as if it is the whole text, but the indices of the matches are indices in the
+     * whole text.
+     * @param text  The text to be matched.
+     * @param start The index of the first character of the region to be matched.
+     * @param end   The index after the last character of the region to be matched.
+     * @return All the matches in order of occurrence.
+     * @throws IndexOutOfBoundsException If the region is not inside the text.
+     */
+    List<MatchResult> findAll(CharSequence text, int start, int end);
+
+    /**
+     * Calls the visitor for every match in the text, in order of occurrence. Unlike {@link #findAll(CharSequence)}, no
+     * object is created for a match, unless the visitor asks for it. This is useful for texts with many matches, when only
+     * the positions are needed.
+     * @param text    The text to be matched.
+     * @param visitor The visitor that is called for every match.
+     */
+    void forEachMatch(CharSequence text, MatchVisitor visitor);
+
+    /**
+     * Same as {@link #forEachMatch(CharSequence, MatchVisitor)}, but only finds the matches in the region of the text
+     * between {@code start} and {@code end}. The region is matched as if it is the whole text, but the indices of the
+     * matches are indices in the whole text.
+     * @param text    The text to be matched.
+     * @param start   The index of the first character of the region to be matched.
+     * @param end     The index after the last character of the region to be matched.
+     * @param visitor The visitor that is called for every match.
+     * @throws IndexOutOfBoundsException If the region is not inside the text.
+     */
+    void forEachMatch(CharSequence text, int start, int end, MatchVisitor visitor);
+
+    /**
+     * Returns the matches in the text as a lazy stream: the next match is only searched when it is needed. A sequential
+     * stream therefore uses constant memory, also for very large texts such as a memory-mapped file.
+     * <p>
+     * If no match can contain a line feed (see {@link #canMatchLineBreak()}), a parallel stream divides the text into parts
+     * at line feeds, which are searched at the same time. The matches are the same as those of {@link #findAll(CharSequence)}.
+     * Otherwise, and for patterns of another {@link MatchingEngine}, the text is always searched by a single thread.
+     * @param text The text to be matched. It is read by multiple threads if the stream is parallel.
+     * @return The stream of matches in order of occurrence.
+     */
+    Stream<MatchResult> stream(CharSequence text);
+
+    /**
+     * Same as {@link #findAll(CharSequence)}, but the text is divided into chunks that are searched at the same time by the
+     * threads of the pool. This is useful for very large texts. The matches are exactly the same as those of
+     * {@link #findAll(CharSequence)}, in order of occurrence, also if matches cross the borders of the chunks.
+     * <p>
+     * The search of a chunk only continues after the end of the chunk as far as a match that starts in the chunk can go:
+     * the maximum length of a match, or, if no match can contain a line feed (see {@link #canMatchLineBreak()}), the next
+     * line feed. If matches can be of any length and contain line feeds, for example patterns created from a regular
+     * expression string, the text is searched by a single thread. Chunks are at least 64K characters, so smaller texts are
+     * also searched by a single thread. Patterns of another {@link MatchingEngine} are always searched by a single thread,
+     * because an engine cannot limit how far a search looks.
+     * @param text The text to be matched. It is read by multiple threads at the same time.
+     * @param pool The pool that searches the chunks, for example {@link ForkJoinPool#commonPool()}.
+     * @return All the matches in order of occurrence.
+     */
+    List<MatchResult> findAllParallel(CharSequence text, ForkJoinPool pool);
+
+    /**
+     * Same as {@link #grep(Path, Charset)} with the {@link StandardCharsets#UTF_8 UTF-8} charset.
+     * @param file The file to be read.
+     * @return The lines of the file that contain a match, in order.
+     * @throws IOException If the file cannot be opened.
+     */
+    Stream<String> grep(Path file) throws IOException;
+
+    /**
+     * Returns the lines of the file that contain a match, like the {@code grep} command. This is the same as
+     * {@code Files.lines(file, charset).filter(line -> find(line))}, but much faster for large files in which most lines
+     * do not match: the file is decoded in large chunks into a single buffer and every line is matched as a region of the
+     * buffer. A {@link String} is only created for the lines that contain a match. If the pattern has a
+     * {@link #requiredLiteral()}, only the lines that contain the literal are matched.
+     * <p>
+     * Every line is matched as if it is the whole text: {@code ^} and {@code $} match at the start and end of the line and
+     * lookarounds cannot see the other lines. Lines end with {@code \n}, {@code \r} or {@code \r\n}.
+     * <p>
+     * The stream must be closed to close the file, for example using a try-with-resources statement. If the file cannot be
+     * read or decoded while the stream is consumed, an {@link java.io.UncheckedIOException} is thrown.
+     * @param file    The file to be read.
+     * @param charset The charset of the file.
+     * @return The lines of the file that contain a match, in order.
+     * @throws IOException If the file cannot be opened.
+     */
+    Stream<String> grep(Path file, Charset charset) throws IOException;
+
+    /**
+     * Same as {@link #matchesTextExactly(CharSequence)}, but for a UTF-8 encoded text. If the pattern is
+     * {@link #isByteSafe()}, the bytes are matched directly, without decoding or copying them. If the pattern also has no
+     * anchors, lookarounds or other constructs that a finite automaton cannot match, the bytes are matched by a DFA that
+     * reads every byte once, which is much faster than the JDK engine. Patterns of another {@link MatchingEngine} never use
+     * this DFA. Otherwise, the bytes are decoded first. Bytes that are not part of a valid UTF-8 sequence are decoded as
+     * {@code U+FFFD}.
+     * @param utf8   The bytes of the text.
+     * @param offset The index of the first byte of the text.
+     * @param length The number of bytes of the text.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     * @throws IndexOutOfBoundsException If the text is not inside the array.
+     */
+    boolean matchesTextExactly(byte[] utf8, int offset, int length);
+
+    /**
+     * Same as {@link #matchesTextExactly(byte[], int, int)}, for the bytes between the position and the limit of the buffer.
+     * The position of the buffer is not changed. Direct buffers are matched without copying the bytes to the heap if the
+     * pattern is {@link #isByteSafe()}.
+     * @param utf8 The bytes of the text.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     */
+    boolean matchesTextExactly(ByteBuffer utf8);
+
+    /**
+     * Same as {@link #findAll(CharSequence)}, but for a UTF-8 encoded text. See {@link #matchesTextExactly(byte[], int, int)}
+     * for how the bytes are matched. The indices of the matches and groups are indices in the array, so
+     * {@link MatchResult#start()} is at least {@code offset}. The groups are decoded.
+     * @param utf8   The bytes of the text.
+     * @param offset The index of the first byte of the text.
+     * @param length The number of bytes of the text.
+     * @return All the matches in order of occurrence.
+     * @throws IndexOutOfBoundsException If the text is not inside the array.
+     */
+    List<MatchResult> findAll(byte[] utf8, int offset, int length);
+
+    /**
+     * Same as {@link #findAll(byte[], int, int)}, for the bytes between the position and the limit of the buffer. The
+     * indices of the matches and groups are indices in the buffer. The position of the buffer is not changed.
+     * @param utf8 The bytes of the text.
+     * @return All the matches in order of occurrence.
+     */
+    List<MatchResult> findAll(ByteBuffer utf8);
+
+    /**
+     * Same as {@link #forEachMatch(CharSequence, MatchVisitor)}, for the bytes between the position and the limit of the
+     * buffer, which contain a UTF-8 encoded text. See {@link #matchesTextExactly(byte[], int, int)} for how the bytes are
+     * matched. The indices of the matches and groups are indices in the buffer. The position of the buffer is not changed.
+     * @param utf8    The bytes of the text.
+     * @param visitor The visitor that is called for every match.
+     */
+    void forEachMatch(ByteBuffer utf8, MatchVisitor visitor);
+
+    /**
+     * Same as {@link #matchesTextExactly(ByteBuffer)}, for a text in the given charset. ISO-8859-1 and US-ASCII texts are
+     * matched like a {@link ByteBufferText}: every byte is a Latin-1 character, so the bytes are never decoded or copied to
+     * the heap, also if the buffer is direct.
+     * @param bytes   The bytes of the text, between the position and the limit of the buffer.
+     * @param charset The charset of the text: {@link StandardCharsets#UTF_8 UTF-8}, {@link StandardCharsets#ISO_8859_1 ISO-8859-1}
+     *                or {@link StandardCharsets#US_ASCII US-ASCII}.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     * @throws IllegalArgumentException If the charset is not supported.
+     */
+    boolean matchesTextExactly(ByteBuffer bytes, Charset charset);
+
+    /**
+     * Same as {@link #findAll(ByteBuffer)}, for a text in the given charset. See {@link #matchesTextExactly(ByteBuffer, Charset)}
+     * for how the bytes are matched. The indices of the matches and groups are indices in the buffer.
+     * @param bytes   The bytes of the text, between the position and the limit of the buffer.
+     * @param charset The charset of the text.
+     * @return All the matches in order of occurrence.
+     * @throws IllegalArgumentException If the charset is not supported.
+     */
+    List<MatchResult> findAll(ByteBuffer bytes, Charset charset);
+
+    /**
+     * Same as {@link #forEachMatch(ByteBuffer, MatchVisitor)}, for a text in the given charset. See
+     * {@link #matchesTextExactly(ByteBuffer, Charset)} for how the bytes are matched. The indices of the matches and groups
+     * are indices in the buffer, so no object is created to validate a text or to extract the positions of its groups.
+     * @param bytes   The bytes of the text, between the position and the limit of the buffer.
+     * @param charset The charset of the text.
+     * @param visitor The visitor that is called for every match.
+     * @throws IllegalArgumentException If the charset is not supported.
+     */
+    void forEachMatch(ByteBuffer bytes, Charset charset, MatchVisitor visitor);
+
+    /**
+     * Same as {@link #matchesTextExactly(String)}, but stops matching when it takes longer than the timeout. Use this
+     * for texts from untrusted sources, so that a single text cannot occupy the thread for a long time because of
+     * catastrophic backtracking.
+     * <p>
+     * The clock is checked while the text is read, which makes matching roughly 10 to 20 percent slower than without a
+     * timeout.
+     * @param text    The text to be matched.
+     * @param timeout The maximum duration of matching the text.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     * @throws MatchTimeoutException If matching the text takes longer than the timeout.
+     */
+    boolean matchesTextExactly(String text, Duration timeout);
+
+    /**
+     * Same as {@link #findAll(String)}, but stops matching when it takes longer than the timeout. The timeout applies to
+     * finding all the matches together. See {@link #matchesTextExactly(String, Duration)} for more information.
+     * @param text    The text to be matched.
+     * @param timeout The maximum duration of finding all the matches.
+     * @return All the matches in order of occurrence.
+     * @throws MatchTimeoutException If finding all the matches takes longer than the timeout.
+     */
+    List<MatchResult> findAll(String text, Duration timeout);
+
+    /**
+     * Returns the longest literal that is part of every match. Texts that do not contain this literal are rejected by
+     * {@link #matchesTextExactly(String)} and {@link #findAll(String)} without evaluating the regular expression.
+     * <p>
+     * The literal is determined by the builder, so it is only available for patterns that are built. It is never available
+     * when {@link PatternFlag#CASE_INSENSITIVE} is enabled.
+     * @return The required literal, or empty if there is no such literal.
+     */
+    Optional<String> requiredLiteral();
+
+    /**
+     * @return The number of texts that contained the {@link #requiredLiteral()}, so the regular expression was evaluated.
+     */
+    long prefilterHitCount();
+
+    /**
+     * @return The number of texts that did not contain the {@link #requiredLiteral()}, so the regular expression was skipped.
+     */
+    long prefilterSkipCount();
+
+    /**
+     * Returns whether a match can contain a line feed ({@code \n}). This is determined by the builder: for example,
+     * {@link SyntacticSugarBuilder#lineBreak()}, {@link SyntacticSugarBuilder#anything()} with {@link PatternFlag#DOT_ALL} or
+     * {@link StandaloneBlockBuilder#whitespace()} can match a line feed, while {@link SyntacticSugarBuilder#anything()}
+     * without {@link PatternFlag#DOT_ALL} cannot. If it is not known, for example because of
+     * {@link StandaloneBlockBuilder#regexFromString(String)}, {@code true} is returned.
+     * @return {@code false} if no match can contain a line feed, else {@code true}.
+     */
+    boolean canMatchLineBreak();
+
+    /**
+     * Returns whether the pattern can be matched against the bytes of a UTF-8 encoded text, using for example
+     * {@link #matchesTextExactly(byte[], int, int)}, without decoding the text. This is determined by the builder: patterns
+     * that only consist of ASCII literals and blocks that only match ASCII characters, like {@link StandaloneBlockBuilder#digit()}
+     * or {@link StandaloneBlockBuilder#range(char...)}, and that cannot match an empty text, are byte-safe. Blocks that
+     * can match other characters, like {@link SyntacticSugarBuilder#anything()}, word boundaries, line anchors and
+     * {@link StandaloneBlockBuilder#regexFromString(String)} are not.
+     * @return {@code true} if the bytes of a UTF-8 text can be matched directly, else {@code false}.
+     */
+    boolean isByteSafe();
+
     /**
      * @return All the {@link PatternFlag}s that are enabled on this pattern.
      */
@@ -50,6 +419,8 @@ public interface ReadableRegexPattern {
     }
 
     /**
+     * This method is JDK-only. If the pattern is built with another {@link MatchingEngine}, the {@link Pattern} of the
+     * same regular expression is compiled when this method is called for the first time.
      * @return The wrapped {@link Pattern} object.
      */
     Pattern getUnderlyingPattern();
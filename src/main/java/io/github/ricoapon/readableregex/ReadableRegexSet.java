@@ -0,0 +1,52 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.ReadableRegexSetImpl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Set of patterns that are matched against the same text together, for example to classify the text.
+ * <p>
+ * The text is first scanned once for the {@link ReadableRegexPattern#requiredLiteral()} of all the patterns at the same
+ * time. Only the patterns whose literal occurs in the text, and the patterns without a required literal, are evaluated.
+ * With many patterns that each contain a different literal, this means that only a few patterns are evaluated per text.
+ * <p>
+ * Every pattern is evaluated with its own {@link MatchingEngine}, so patterns built with
+ * {@link MatchingEngines#LINEAR_TIME} keep matching in linear time.
+ */
+public interface ReadableRegexSet {
+    /**
+     * @param patterns The patterns of the set, in order.
+     * @return A set of the given patterns. Patterns that have been built lazily are compiled when they are first evaluated.
+     */
+    static ReadableRegexSet of(ReadableRegexPattern... patterns) {
+        return of(Arrays.asList(patterns));
+    }
+
+    /**
+     * @param patterns The patterns of the set, in order.
+     * @return A set of the given patterns. Patterns that have been built lazily are compiled when they are first evaluated.
+     */
+    static ReadableRegexSet of(List<? extends ReadableRegexPattern> patterns) {
+        return new ReadableRegexSetImpl(patterns);
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return The indices of the patterns that find a match in the text. See {@link ReadableRegexPattern#find(CharSequence)}.
+     */
+    BitSet find(CharSequence text);
+
+    /**
+     * @param text The text to be matched.
+     * @return The indices of the patterns that match the full text. See {@link ReadableRegexPattern#matchesTextExactly(CharSequence)}.
+     */
+    BitSet matchesTextExactly(CharSequence text);
+
+    /**
+     * @return The patterns of the set, in order.
+     */
+    List<ReadableRegexPattern> patterns();
+}
@@ -0,0 +1,300 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.MatchVisitor;
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Base class of the implementations of {@link ReadableRegexPattern}, which matches texts using the JDK
+ * {@link java.util.regex.Pattern}. Texts without the required literal are rejected before the pattern is used, and boolean
+ * queries reuse the matchers of a {@link MatcherPool}. Subclasses decide when the pattern is compiled, and can match some
+ * of the methods in another way.
+ */
+abstract class AbstractReadableRegexPattern implements ReadableRegexPattern {
+    private final int flags;
+
+    /** Maps group index to the name. If the name is null, it means it is an unnamed group. */
+    private final List<String> groups;
+
+    private final PatternProperties properties;
+    private final LiteralPrefilter prefilter;
+
+    /**
+     * Constructor.
+     * @param flags      The flags of {@link java.util.regex.Pattern}.
+     * @param groups     List of group names in order.
+     * @param properties What the builder knows about the pattern.
+     */
+    AbstractReadableRegexPattern(int flags, List<String> groups, PatternProperties properties) {
+        this.flags = flags;
+        this.groups = Collections.unmodifiableList(groups);
+        this.properties = properties;
+        this.prefilter = new LiteralPrefilter(properties.getRequiredLiteral());
+    }
+
+    /**
+     * @return The pool of matchers of the compiled pattern.
+     */
+    abstract MatcherPool matcherPool();
+
+    /**
+     * @return The prefilter that rejects texts without the required literal.
+     */
+    LiteralPrefilter prefilter() {
+        return prefilter;
+    }
+
+    @Override
+    public Matcher matches(String text) {
+        return getUnderlyingPattern().matcher(text);
+    }
+
+    @Override
+    public boolean matchesTextExactly(String text) {
+        return prefilter.mayMatch(text) && matcherPool().test(text, Matcher::matches);
+    }
+
+    @Override
+    public List<MatchResult> findAll(String text) {
+        if (!prefilter.mayMatch(text)) {
+            return Collections.emptyList();
+        }
+        Matcher matcher = matches(text);
+        List<MatchResult> results = new ArrayList<>();
+        while (matcher.find()) {
+            results.add(matcher.toMatchResult());
+        }
+        return results;
+    }
+
+    @Override
+    public boolean find(CharSequence text) {
+        return prefilter.mayMatch(text, 0, text.length()) && matcherPool().test(text, Matcher::find);
+    }
+
+    @Override
+    public boolean lookingAt(CharSequence text) {
+        return prefilter.mayMatch(text, 0, text.length()) && matcherPool().test(text, Matcher::lookingAt);
+    }
+
+    @Override
+    public Optional<MatchResult> find(CharSequence text, int from) {
+        Matcher matcher = matches(text);
+        return matcher.find(from) ? Optional.of(GroupPositionsMatchResult.copyOf(matcher, text)) : Optional.empty();
+    }
+
+    @Override
+    public Matcher matches(CharSequence text) {
+        return getUnderlyingPattern().matcher(text);
+    }
+
+    @Override
+    public Matcher matches(CharSequence text, int start, int end) {
+        return matches(text).region(start, end);
+    }
+
+    @Override
+    public boolean matchesTextExactly(CharSequence text) {
+        if (text instanceof String) {
+            return matchesTextExactly((String) text);
+        }
+        return matchesTextExactly(text, 0, text.length());
+    }
+
+    @Override
+    public BitSet matchAll(List<? extends CharSequence> texts) {
+        return matchAll(texts, BatchMatching.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    @Override
+    public BitSet matchAll(List<? extends CharSequence> texts, int parallelThreshold) {
+        return BatchMatching.matchAll(getUnderlyingPattern(), texts, text -> prefilter.mayMatch(text, 0, text.length()), parallelThreshold);
+    }
+
+    @Override
+    public boolean matchesTextExactly(CharSequence text, int start, int end) {
+        if (!prefilter.mayMatch(text, start, end)) {
+            return false;
+        } else if (start == 0 && end == text.length()) {
+            return matcherPool().test(text, Matcher::matches);
+        }
+        return matcherPool().test(text, matcher -> matcher.region(start, end).matches());
+    }
+
+    @Override
+    public List<MatchResult> findAll(CharSequence text) {
+        if (text instanceof String) {
+            return findAll((String) text);
+        }
+        return findAll(text, 0, text.length());
+    }
+
+    @Override
+    public List<MatchResult> findAll(CharSequence text, int start, int end) {
+        if (!prefilter.mayMatch(text, start, end)) {
+            return Collections.emptyList();
+        }
+        Matcher matcher = matches(text, start, end);
+        List<MatchResult> results = new ArrayList<>();
+        while (matcher.find()) {
+            results.add(GroupPositionsMatchResult.copyOf(matcher, text));
+        }
+        return results;
+    }
+
+    @Override
+    public void forEachMatch(CharSequence text, MatchVisitor visitor) {
+        if (prefilter.mayMatch(text, 0, text.length())) {
+            matcherPool().test(text, matcher -> {
+                MatcherMatch.visitAll(matcher, text, visitor);
+                return true;
+            });
+        }
+    }
+
+    @Override
+    public void forEachMatch(CharSequence text, int start, int end, MatchVisitor visitor) {
+        if (prefilter.mayMatch(text, start, end)) {
+            MatcherMatch.visitAll(matches(text, start, end), text, visitor);
+        }
+    }
+
+    @Override
+    public Stream<MatchResult> stream(CharSequence text) {
+        return StreamSupport.stream(new MatchSpliterator(getUnderlyingPattern(), text, !canMatchLineBreak()), false);
+    }
+
+    @Override
+    public List<MatchResult> findAllParallel(CharSequence text, ForkJoinPool pool) {
+        return ParallelSearch.findAll(getUnderlyingPattern(), text, pool, properties);
+    }
+
+    @Override
+    public Stream<String> grep(Path file) throws IOException {
+        return grep(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Stream<String> grep(Path file, Charset charset) throws IOException {
+        return LineGrepSpliterator.lines(getUnderlyingPattern(), requiredLiteral().orElse(null), file, charset);
+    }
+
+    @Override
+    public boolean matchesTextExactly(byte[] utf8, int offset, int length) {
+        return matchesTextExactly(ByteBuffer.wrap(utf8, offset, length));
+    }
+
+    @Override
+    public boolean matchesTextExactly(ByteBuffer utf8) {
+        return Utf8Matching.matchesTextExactly(this, properties.getByteSafeMatcher(), utf8);
+    }
+
+    @Override
+    public List<MatchResult> findAll(byte[] utf8, int offset, int length) {
+        return findAll(ByteBuffer.wrap(utf8, offset, length));
+    }
+
+    @Override
+    public List<MatchResult> findAll(ByteBuffer utf8) {
+        return Utf8Matching.findAll(this, utf8);
+    }
+
+    @Override
+    public void forEachMatch(ByteBuffer utf8, MatchVisitor visitor) {
+        forEachMatch(utf8, StandardCharsets.UTF_8, visitor);
+    }
+
+    @Override
+    public boolean matchesTextExactly(ByteBuffer bytes, Charset charset) {
+        return ByteBufferMatching.matchesTextExactly(this, bytes, charset);
+    }
+
+    @Override
+    public List<MatchResult> findAll(ByteBuffer bytes, Charset charset) {
+        return ByteBufferMatching.findAll(this, bytes, charset);
+    }
+
+    @Override
+    public void forEachMatch(ByteBuffer bytes, Charset charset, MatchVisitor visitor) {
+        ByteBufferMatching.forEachMatch(this, bytes, charset, visitor);
+    }
+
+    @Override
+    public boolean matchesTextExactly(String text, Duration timeout) {
+        DeadlineCharSequence.checkTimeout(timeout);
+        if (!prefilter.mayMatch(text)) {
+            return false;
+        }
+        return getUnderlyingPattern().matcher(new DeadlineCharSequence(text, timeout)).matches();
+    }
+
+    @Override
+    public List<MatchResult> findAll(String text, Duration timeout) {
+        DeadlineCharSequence.checkTimeout(timeout);
+        if (!prefilter.mayMatch(text)) {
+            return Collections.emptyList();
+        }
+        DeadlineCharSequence deadlineText = new DeadlineCharSequence(text, timeout);
+        Matcher matcher = getUnderlyingPattern().matcher(deadlineText);
+        List<MatchResult> results = new ArrayList<>();
+        while (matcher.find()) {
+            // Creating the result of a match also takes time, which is not visible to the text.
+            deadlineText.countReads(matcher.groupCount() + 1);
+            results.add(matcher.toMatchResult());
+        }
+        return results;
+    }
+
+    @Override
+    public Optional<String> requiredLiteral() {
+        return prefilter.requiredLiteral();
+    }
+
+    @Override
+    public long prefilterHitCount() {
+        return prefilter.hitCount();
+    }
+
+    @Override
+    public long prefilterSkipCount() {
+        return prefilter.skipCount();
+    }
+
+    @Override
+    public boolean canMatchLineBreak() {
+        return properties.canMatchLineBreak();
+    }
+
+    @Override
+    public boolean isByteSafe() {
+        return properties.getByteSafeMatcher() != null;
+    }
+
+    @Override
+    public Set<PatternFlag> enabledFlags() {
+        return ReadableRegexPatternImpl.toPatternFlags(flags);
+    }
+
+    @Override
+    public List<String> groups() {
+        return groups;
+    }
+}
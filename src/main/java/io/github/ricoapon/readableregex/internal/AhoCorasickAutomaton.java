@@ -0,0 +1,168 @@
+package io.github.ricoapon.readableregex.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Aho-Corasick automaton that finds a set of literals in a single pass over the text.
+ * <p>
+ * The automaton has the same semantics as the JDK alternation {@code (?:literal1|literal2|...)}: the match that starts first
+ * is found and if multiple literals match at that position, the literal that comes first in the list is used.
+ */
+final class AhoCorasickAutomaton {
+    /** Sorted characters of the outgoing transitions of every state. */
+    private final char[][] transitionCharacters;
+    /** Target states of the outgoing transitions of every state, in the same order as {@link #transitionCharacters}. */
+    private final int[][] transitionTargets;
+    /** State that represents the longest proper suffix of every state. */
+    private final int[] failure;
+    /** Index of the literal that ends in every state, or -1 if no literal ends in the state. */
+    private final int[] literalIndex;
+    /** First state in the failure chain of every state (excluding itself) in which a literal ends, or -1 if there is none. */
+    private final int[] outputLink;
+    /** Length of the literals. */
+    private final int[] literalLength;
+    private final int maxLiteralLength;
+
+    /**
+     * Constructor.
+     * @param literals The literals in order of preference. Literals may not be empty.
+     */
+    AhoCorasickAutomaton(List<String> literals) {
+        List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+        List<Integer> literalIndexOfState = new ArrayList<>();
+        transitions.add(new TreeMap<>());
+        literalIndexOfState.add(-1);
+
+        literalLength = new int[literals.size()];
+        int maxLength = 0;
+        for (int i = 0; i < literals.size(); i++) {
+            String literal = literals.get(i);
+            int state = 0;
+            for (char c : literal.toCharArray()) {
+                Integer next = transitions.get(state).get(c);
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.get(state).put(c, next);
+                    transitions.add(new TreeMap<>());
+                    literalIndexOfState.add(-1);
+                }
+                state = next;
+            }
+            // If a literal occurs multiple times, only the first one can ever be used.
+            if (literalIndexOfState.get(state) == -1) {
+                literalIndexOfState.set(state, i);
+            }
+            literalLength[i] = literal.length();
+            maxLength = Math.max(maxLength, literal.length());
+        }
+        maxLiteralLength = maxLength;
+
+        int nrOfStates = transitions.size();
+        transitionCharacters = new char[nrOfStates][];
+        transitionTargets = new int[nrOfStates][];
+        literalIndex = new int[nrOfStates];
+        for (int state = 0; state < nrOfStates; state++) {
+            Map<Character, Integer> stateTransitions = transitions.get(state);
+            transitionCharacters[state] = new char[stateTransitions.size()];
+            transitionTargets[state] = new int[stateTransitions.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> transition : stateTransitions.entrySet()) {
+                transitionCharacters[state][i] = transition.getKey();
+                transitionTargets[state][i] = transition.getValue();
+                i++;
+            }
+            literalIndex[state] = literalIndexOfState.get(state);
+        }
+
+        failure = new int[nrOfStates];
+        outputLink = new int[nrOfStates];
+        outputLink[0] = -1;
+        // Breadth-first, so that the failure state of the parent is always computed already.
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int parent = queue.remove();
+            for (int i = 0; i < transitionCharacters[parent].length; i++) {
+                int state = transitionTargets[parent][i];
+                failure[state] = parent == 0 ? 0 : next(failure[parent], transitionCharacters[parent][i]);
+                outputLink[state] = literalIndex[failure[state]] != -1 ? failure[state] : outputLink[failure[state]];
+                queue.add(state);
+            }
+        }
+    }
+
+    /**
+     * @return The state after reading the given character in the given state.
+     */
+    private int next(int state, char c) {
+        while (true) {
+            int i = Arrays.binarySearch(transitionCharacters[state], c);
+            if (i >= 0) {
+                return transitionTargets[state][i];
+            } else if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+
+    /**
+     * Finds the first match in the text that starts at or after the given index.
+     * @param text       The text to search in.
+     * @param from       The index to start searching from.
+     * @param isBoundary Predicate that returns whether a match may start or end at the given index.
+     * @return The start and end index of the match, or {@code null} if there is no match.
+     */
+    int[] find(CharSequence text, int from, IntPredicate isBoundary) {
+        int bestStart = Integer.MAX_VALUE;
+        int bestLiteral = -1;
+        int state = 0;
+        for (int end = from + 1; end <= text.length(); end++) {
+            // No literal that ends from here on can start at or before the best match that was found.
+            if (end - maxLiteralLength > bestStart) {
+                break;
+            }
+            state = next(state, text.charAt(end - 1));
+            for (int output = literalIndex[state] != -1 ? state : outputLink[state]; output != -1; output = outputLink[output]) {
+                int literal = literalIndex[output];
+                int start = end - literalLength[literal];
+                boolean better = start < bestStart || (start == bestStart && literal < bestLiteral);
+                if (better && isBoundary.test(start) && isBoundary.test(end)) {
+                    bestStart = start;
+                    bestLiteral = literal;
+                }
+            }
+        }
+
+        if (bestLiteral == -1) {
+            return null;
+        }
+        return new int[]{bestStart, bestStart + literalLength[bestLiteral]};
+    }
+
+    /**
+     * Finds all the literals that occur anywhere in the text, in a single pass over the text.
+     * @param text The text to search in.
+     * @return The indices of the literals that occur in the text. If a literal occurs multiple times in the list, only
+     * the first index is returned.
+     */
+    BitSet occurringLiterals(CharSequence text) {
+        BitSet result = new BitSet(literalLength.length);
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            for (int output = literalIndex[state] != -1 ? state : outputLink[state]; output != -1; output = outputLink[output]) {
+                result.set(literalIndex[output]);
+            }
+        }
+        return result;
+    }
+}
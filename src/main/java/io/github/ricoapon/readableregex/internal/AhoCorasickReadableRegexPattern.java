@@ -0,0 +1,238 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.internal.expression.Alternation;
+import io.github.ricoapon.readableregex.internal.expression.Anchor;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.blocksOf;
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.containsRaw;
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.flatten;
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.literalsOf;
+
+/**
+ * Implementation of {@link io.github.ricoapon.readableregex.ReadableRegexPattern} for an alternation of literals, optionally
+ * surrounded by word boundaries. For example: {@code regex().wordBoundary().oneOf(regex().literal("a"), ...).wordBoundary()}.
+ * <p>
+ * The methods {@link #matchesTextExactly(CharSequence)}, {@link #find(CharSequence)} and {@link #findAll(CharSequence)}
+ * (and their {@link String} variants) use an {@link AhoCorasickAutomaton}, which only needs a single pass over the text
+ * regardless of the number of literals. All the other methods, for example the variants with a region,
+ * {@link #forEachMatch(CharSequence, io.github.ricoapon.readableregex.MatchVisitor)} and {@link #stream(CharSequence)},
+ * use the JDK {@link Pattern}. It is only compiled when such a method is used for the first time.
+ */
+public class AhoCorasickReadableRegexPattern extends LazyReadableRegexPattern {
+    /**
+     * Whether the JDK only considers ASCII letters, digits and {@code _} as word characters for {@code \b}. This is the
+     * case since Java 19. Older versions use {@link Character#isLetterOrDigit(int)}.
+     */
+    private static final boolean ASCII_WORD_BOUNDARIES = !Pattern.compile("\\b").matcher("\u00E9").lookingAt();
+
+    private final AhoCorasickAutomaton automaton;
+    private final Set<String> literals;
+    private final boolean wordBoundaries;
+
+    /**
+     * Constructor.
+     * @param regex           The regular expression.
+     * @param flags           The flags of {@link Pattern}.
+     * @param literals        The literals of the alternation in order.
+     * @param wordBoundaries  Whether the alternation is surrounded by word boundaries.
+     * @param byteSafeMatcher The matcher of the bytes of a UTF-8 text, or {@code null} if the pattern is not byte-safe.
+     */
+    AhoCorasickReadableRegexPattern(String regex, int flags, List<String> literals, boolean wordBoundaries,
+                                    ByteSafeMatcher byteSafeMatcher) {
+        super(regex, flags, Collections.emptyList(),
+                new PatternProperties(null, true, literals.stream().mapToInt(String::length).max().orElse(0), byteSafeMatcher));
+        this.automaton = new AhoCorasickAutomaton(literals);
+        this.literals = new HashSet<>(literals);
+        this.wordBoundaries = wordBoundaries;
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param regex      The regular expression of the expression tree.
+     * @param flags      The flags of {@link Pattern}.
+     * @return Pattern that matches using an Aho-Corasick automaton, or {@code null} if the expression is not an alternation
+     * of literals that can be matched by the automaton.
+     */
+    static AhoCorasickReadableRegexPattern fromExpression(Expression expression, String regex, int flags) {
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0 || containsRaw(blocksOf(expression))) {
+            return null;
+        }
+
+        List<Expression> blocks = flatten(expression);
+        boolean wordBoundaries = blocks.size() == 3 && isWordBoundary(blocks.get(0)) && isWordBoundary(blocks.get(2));
+        if (blocks.size() != 1 && !wordBoundaries) {
+            return null;
+        }
+        Expression alternation = blocks.get(wordBoundaries ? 1 : 0);
+        if (!(alternation instanceof Alternation)) {
+            return null;
+        }
+
+        List<String> literals = literalsOf(((Alternation) alternation).getAlternatives());
+        if (literals == null || literals.stream().anyMatch(AhoCorasickReadableRegexPattern::isUnsupportedLiteral)) {
+            return null;
+        }
+        return new AhoCorasickReadableRegexPattern(regex, flags, literals, wordBoundaries, ByteSafeMatcher.of(expression, flags));
+    }
+
+    private static boolean isWordBoundary(Expression block) {
+        return block instanceof Anchor && ((Anchor) block).getType() == Anchor.Type.WORD_BOUNDARY;
+    }
+
+    /**
+     * The JDK matches surrogate pairs as a single character, while the automaton matches every {@code char} separately.
+     * Empty literals match at every position, which the automaton does not support.
+     */
+    private static boolean isUnsupportedLiteral(String literal) {
+        return literal.isEmpty() || literal.chars().anyMatch(c -> Character.isSurrogate((char) c));
+    }
+
+    /**
+     * @param text  The text to be matched.
+     * @param index The index in the text.
+     * @return Whether {@code \b} matches at the given index, exactly like the JDK {@link Pattern} without
+     * {@link Pattern#UNICODE_CHARACTER_CLASS} and with transparent bounds.
+     */
+    static boolean isWordBoundaryAt(CharSequence text, int index) {
+        boolean left = index > 0 && isWordCharacter(text, Character.codePointBefore(text, index), index - 1);
+        boolean right = index < text.length() && isWordCharacter(text, Character.codePointAt(text, index), index);
+        return left != right;
+    }
+
+    /**
+     * @param codePoint The character at the given index.
+     * @return Whether the character is part of a word. A non-spacing mark is part of a word if the letter or digit it
+     * belongs to is, just like the JDK does.
+     */
+    private static boolean isWordCharacter(CharSequence text, int codePoint, int index) {
+        if (codePoint == '_' || (Character.isLetterOrDigit(codePoint) && (codePoint < 0x80 || !ASCII_WORD_BOUNDARIES))) {
+            return true;
+        }
+        return Character.getType(codePoint) == Character.NON_SPACING_MARK && hasBaseCharacter(text, index);
+    }
+
+    private static boolean hasBaseCharacter(CharSequence text, int index) {
+        for (int i = index; i >= 0; i--) {
+            int codePoint = Character.codePointAt(text, i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                return true;
+            } else if (Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return Predicate that returns whether a match may start or end at the given index.
+     */
+    private IntPredicate boundaryPredicate(CharSequence text) {
+        if (!wordBoundaries) {
+            return index -> true;
+        }
+        return index -> isWordBoundaryAt(text, index);
+    }
+
+    @Override
+    public boolean matchesTextExactly(String text) {
+        return matchesTextExactly((CharSequence) text);
+    }
+
+    @Override
+    public boolean matchesTextExactly(CharSequence text) {
+        IntPredicate isBoundary = boundaryPredicate(text);
+        return literals.contains(text.toString()) && isBoundary.test(0) && isBoundary.test(text.length());
+    }
+
+    @Override
+    public boolean find(CharSequence text) {
+        return automaton.find(text, 0, boundaryPredicate(text)) != null;
+    }
+
+    @Override
+    public List<MatchResult> findAll(String text) {
+        return findAll((CharSequence) text);
+    }
+
+    @Override
+    public List<MatchResult> findAll(CharSequence text) {
+        IntPredicate isBoundary = boundaryPredicate(text);
+        List<MatchResult> results = new ArrayList<>();
+        int[] match = automaton.find(text, 0, isBoundary);
+        while (match != null) {
+            results.add(new LiteralMatchResult(text, match[0], match[1]));
+            match = automaton.find(text, match[1], isBoundary);
+        }
+        return results;
+    }
+
+    /**
+     * Result of a match without groups.
+     */
+    static class LiteralMatchResult implements MatchResult {
+        private final CharSequence text;
+        private final int start;
+        private final int end;
+
+        LiteralMatchResult(CharSequence text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        private static void checkGroup(int group) {
+            if (group != 0) {
+                throw new IndexOutOfBoundsException("No group " + group);
+            }
+        }
+
+        @Override
+        public int start() {
+            return start;
+        }
+
+        @Override
+        public int start(int group) {
+            checkGroup(group);
+            return start;
+        }
+
+        @Override
+        public int end() {
+            return end;
+        }
+
+        @Override
+        public int end(int group) {
+            checkGroup(group);
+            return end;
+        }
+
+        @Override
+        public String group() {
+            return text.subSequence(start, end).toString();
+        }
+
+        @Override
+        public String group(int group) {
+            checkGroup(group);
+            return group();
+        }
+
+        @Override
+        public int groupCount() {
+            return 0;
+        }
+    }
+}
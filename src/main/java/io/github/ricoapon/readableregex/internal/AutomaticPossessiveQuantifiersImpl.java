@@ -0,0 +1,50 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import io.github.ricoapon.readableregex.internal.expression.PossessiveQuantifierRewriter;
+
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of {@link io.github.ricoapon.readableregex.AutomaticPossessiveQuantifiers}.
+ */
+public final class AutomaticPossessiveQuantifiersImpl {
+    private static volatile boolean enabled = false;
+
+    private AutomaticPossessiveQuantifiersImpl() {
+    }
+
+    /**
+     * See {@link io.github.ricoapon.readableregex.AutomaticPossessiveQuantifiers#enable()}.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * See {@link io.github.ricoapon.readableregex.AutomaticPossessiveQuantifiers#disable()}.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * @return See {@link io.github.ricoapon.readableregex.AutomaticPossessiveQuantifiers#isEnabled()}.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param flags      The flags of {@link Pattern}.
+     * @return The expression tree with the safe quantifiers made possessive if the setting is enabled, else the given tree.
+     */
+    static Expression rewrite(Expression expression, int flags) {
+        // Proving that quantifiers can be possessive assumes that characters are compared case-sensitively.
+        if (!enabled || (flags & Pattern.CASE_INSENSITIVE) != 0) {
+            return expression;
+        }
+        return PossessiveQuantifierRewriter.rewrite(expression);
+    }
+}
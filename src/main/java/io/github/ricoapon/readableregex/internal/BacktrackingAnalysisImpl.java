@@ -0,0 +1,68 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.IncorrectConstructionException;
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.internal.expression.BacktrackingAnalyzer;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+
+import java.util.List;
+
+/**
+ * Implementation of {@link io.github.ricoapon.readableregex.BacktrackingAnalysis}.
+ */
+public final class BacktrackingAnalysisImpl {
+    private static volatile boolean strictMode = false;
+
+    private BacktrackingAnalysisImpl() {
+    }
+
+    /**
+     * See {@link io.github.ricoapon.readableregex.BacktrackingAnalysis#analyze(ReadableRegex, PatternFlag...)}.
+     * @param regex        The builder.
+     * @param patternFlags The flags that the regular expression will be compiled with.
+     * @return The descriptions of the quantifiers that can cause catastrophic backtracking.
+     */
+    public static List<String> analyze(ReadableRegex<?> regex, PatternFlag... patternFlags) {
+        Expression expression = ReadableRegexBuilder._expressionOf(regex);
+        return BacktrackingAnalyzer.analyze(expression, ReadableRegexBuilder._flags(expression, patternFlags));
+    }
+
+    /**
+     * See {@link io.github.ricoapon.readableregex.BacktrackingAnalysis#enableStrictMode()}.
+     */
+    public static void enableStrictMode() {
+        strictMode = true;
+    }
+
+    /**
+     * See {@link io.github.ricoapon.readableregex.BacktrackingAnalysis#disableStrictMode()}.
+     */
+    public static void disableStrictMode() {
+        strictMode = false;
+    }
+
+    /**
+     * @return See {@link io.github.ricoapon.readableregex.BacktrackingAnalysis#isStrictModeEnabled()}.
+     */
+    public static boolean isStrictModeEnabled() {
+        return strictMode;
+    }
+
+    /**
+     * Throws an exception if strict mode is enabled and the expression can cause catastrophic backtracking.
+     * @param expression The expression tree.
+     * @param flags      The flags of {@link java.util.regex.Pattern}.
+     */
+    static void checkStrictMode(Expression expression, int flags) {
+        if (!strictMode) {
+            return;
+        }
+
+        List<String> warnings = BacktrackingAnalyzer.analyze(expression, flags);
+        if (!warnings.isEmpty()) {
+            throw new IncorrectConstructionException("The regular expression can cause catastrophic backtracking:\n- "
+                    + String.join("\n- ", warnings));
+        }
+    }
+}
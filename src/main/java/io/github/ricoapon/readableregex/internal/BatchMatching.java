@@ -0,0 +1,96 @@
+package io.github.ricoapon.readableregex.internal;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches a single pattern against many texts. Every chunk of texts is matched by a single {@link Matcher}, which is reset
+ * for every text, so no matcher is created per text. Large lists are divided into chunks that are matched at the same time
+ * by the threads of the {@link ForkJoinPool#commonPool()}. Patterns of other engines are matched in the same chunks, with
+ * a predicate instead of a matcher.
+ */
+public final class BatchMatching {
+    /** Lists with fewer texts are matched by a single thread, because matching them is faster than the overhead of a task. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 14;
+
+    /** The number of chunks per thread, so that threads that finish early can take over work. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private BatchMatching() {
+    }
+
+    /**
+     * @param pattern           The pattern.
+     * @param texts             The texts to be matched. They are read by multiple threads at the same time.
+     * @param mayMatch          Returns {@code false} for texts that can never match, which are then skipped.
+     * @param parallelThreshold Lists with fewer texts are matched by a single thread.
+     * @return The indices of the texts that are fully matched by the pattern.
+     * @throws IllegalArgumentException If the threshold is not positive.
+     */
+    public static BitSet matchAll(Pattern pattern, List<? extends CharSequence> texts, Predicate<CharSequence> mayMatch,
+                                  int parallelThreshold) {
+        return matchAll(() -> {
+            Matcher matcher = pattern.matcher("");
+            return text -> mayMatch.test(text) && matcher.reset(text).matches();
+        }, texts, parallelThreshold);
+    }
+
+    /**
+     * @param matchers          Creates the predicate that returns whether a text is fully matched by the pattern. Every
+     *                          chunk creates its own predicate, which is only used by a single thread.
+     * @param texts             The texts to be matched. They are read by multiple threads at the same time.
+     * @param parallelThreshold Lists with fewer texts are matched by a single thread.
+     * @return The indices of the texts that are fully matched by the pattern.
+     * @throws IllegalArgumentException If the threshold is not positive.
+     */
+    public static BitSet matchAll(Supplier<Predicate<CharSequence>> matchers, List<? extends CharSequence> texts,
+                                  int parallelThreshold) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("The parallel threshold must be positive, but was " + parallelThreshold);
+        }
+        if (texts.size() < parallelThreshold) {
+            return matchChunk(matchers.get(), texts);
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunkSize = texts.size() / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1;
+        List<ForkJoinTask<BitSet>> tasks = new ArrayList<>();
+        for (int start = 0; start < texts.size(); start += chunkSize) {
+            List<? extends CharSequence> chunk = texts.subList(start, Math.min(start + chunkSize, texts.size()));
+            tasks.add(pool.submit(() -> matchChunk(matchers.get(), chunk)));
+        }
+
+        BitSet result = new BitSet(texts.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            BitSet chunkResult = tasks.get(i).join();
+            int offset = i * chunkSize;
+            for (int index = chunkResult.nextSetBit(0); index >= 0; index = chunkResult.nextSetBit(index + 1)) {
+                result.set(offset + index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The indices in the chunk of the texts that are fully matched by the pattern.
+     */
+    private static BitSet matchChunk(Predicate<CharSequence> matches, List<? extends CharSequence> texts) {
+        BitSet result = new BitSet(texts.size());
+        int index = 0;
+        // Iterate instead of using get(int), which is slow for lists without random access.
+        for (CharSequence text : texts) {
+            if (matches.test(text)) {
+                result.set(index);
+            }
+            index++;
+        }
+        return result;
+    }
+}
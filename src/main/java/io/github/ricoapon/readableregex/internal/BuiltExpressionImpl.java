@@ -0,0 +1,79 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.BuiltExpression;
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import io.github.ricoapon.readableregex.internal.expression.LineBreakFinder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of {@link BuiltExpression}. The built-in engines also use the expression tree, which is not part of the
+ * public API.
+ */
+final class BuiltExpressionImpl implements BuiltExpression {
+    private final Expression expression;
+    private final String regex;
+    private final int flags;
+    private final List<String> groups;
+    private final String requiredLiteral;
+
+    /**
+     * Constructor.
+     * @param expression      The expression tree.
+     * @param regex           The regular expression of the expression tree.
+     * @param flags           The flags of {@link Pattern}.
+     * @param groups          List of group names in order.
+     * @param requiredLiteral The literal that is part of every match, or {@code null} if there is none.
+     */
+    BuiltExpressionImpl(Expression expression, String regex, int flags, List<String> groups, String requiredLiteral) {
+        this.expression = expression;
+        this.regex = regex;
+        this.flags = flags;
+        this.groups = Collections.unmodifiableList(groups);
+        this.requiredLiteral = requiredLiteral;
+    }
+
+    /**
+     * @param expression The expression that is passed to a {@link io.github.ricoapon.readableregex.MatchingEngine}, which is
+     *                   always created by the builder.
+     * @return The expression tree.
+     */
+    static Expression expressionOf(BuiltExpression expression) {
+        return ((BuiltExpressionImpl) expression).expression;
+    }
+
+    @Override
+    public String getRegex() {
+        return regex;
+    }
+
+    @Override
+    public int getJdkFlags() {
+        return flags;
+    }
+
+    @Override
+    public Set<PatternFlag> getFlags() {
+        return ReadableRegexPatternImpl.toPatternFlags(flags);
+    }
+
+    @Override
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    @Override
+    public Optional<String> getRequiredLiteral() {
+        return Optional.ofNullable(requiredLiteral);
+    }
+
+    @Override
+    public boolean canMatchLineBreak() {
+        return LineBreakFinder.canMatchLineBreak(expression, (flags & Pattern.DOTALL) != 0);
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.MatchVisitor;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.MatchResult;
+
+/**
+ * Matches the bytes between the position and the limit of a buffer in one of the supported charsets. All the indices,
+ * also those of the matches, are indices of bytes in the buffer. The position of the buffer is not changed.
+ * <p>
+ * UTF-8 texts are matched by {@link Utf8Matching}. ISO-8859-1 and US-ASCII texts are matched as a {@link Latin1CharSequence},
+ * so they are never decoded or copied. Bytes of a US-ASCII text that are not ASCII are therefore read as Latin-1 characters
+ * instead of {@code U+FFFD}.
+ */
+public final class ByteBufferMatching {
+    private ByteBufferMatching() {
+    }
+
+    /**
+     * @param pattern The pattern.
+     * @param bytes   The bytes of the text.
+     * @param charset The charset of the text.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     */
+    public static boolean matchesTextExactly(ReadableRegexPattern pattern, ByteBuffer bytes, Charset charset) {
+        // Byte-safe patterns only match ASCII characters, which are the same in all the supported charsets. This way, the
+        // automaton of the pattern is also used for Latin-1 texts.
+        if (isUtf8(charset) || pattern.isByteSafe()) {
+            return pattern.matchesTextExactly(bytes);
+        }
+        return pattern.matchesTextExactly(new Latin1CharSequence(bytes, bytes.position(), bytes.remaining()));
+    }
+
+    /**
+     * @param pattern The pattern.
+     * @param bytes   The bytes of the text.
+     * @param charset The charset of the text.
+     * @return All the matches in order of occurrence, with the indices of the bytes in the buffer.
+     */
+    public static List<MatchResult> findAll(ReadableRegexPattern pattern, ByteBuffer bytes, Charset charset) {
+        if (isUtf8(charset)) {
+            return pattern.findAll(bytes);
+        }
+        return pattern.findAll(Latin1CharSequence.upToLimit(bytes), bytes.position(), bytes.limit());
+    }
+
+    /**
+     * @param pattern The pattern.
+     * @param bytes   The bytes of the text.
+     * @param charset The charset of the text.
+     * @param visitor The visitor that is called for every match, with the indices of the bytes in the buffer.
+     */
+    public static void forEachMatch(ReadableRegexPattern pattern, ByteBuffer bytes, Charset charset, MatchVisitor visitor) {
+        if (isUtf8(charset)) {
+            Utf8Matching.forEachMatch(pattern, bytes, visitor);
+            return;
+        }
+        pattern.forEachMatch(Latin1CharSequence.upToLimit(bytes), bytes.position(), bytes.limit(), visitor);
+    }
+
+    /**
+     * @return Whether the charset is UTF-8.
+     * @throws IllegalArgumentException If the charset is not supported.
+     */
+    private static boolean isUtf8(Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            return true;
+        } else if (charset.equals(StandardCharsets.ISO_8859_1) || charset.equals(StandardCharsets.US_ASCII)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Charset " + charset.name() + " is not supported. Use UTF-8, ISO-8859-1 or US-ASCII.");
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ByteBufferText;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Implementation of {@link ByteBufferText}, which reads the buffer as a {@link Latin1CharSequence}.
+ */
+public final class ByteBufferTextImpl implements ByteBufferText {
+    private final Latin1CharSequence text;
+    private final int bufferPosition;
+
+    private ByteBufferTextImpl(Latin1CharSequence text, int bufferPosition) {
+        this.text = text;
+        this.bufferPosition = bufferPosition;
+    }
+
+    /**
+     * @param buffer The buffer.
+     * @return The text of the bytes between the position and the limit of the buffer.
+     */
+    public static ByteBufferText latin1(ByteBuffer buffer) {
+        return new ByteBufferTextImpl(new Latin1CharSequence(buffer, buffer.position(), buffer.remaining()), buffer.position());
+    }
+
+    @Override
+    public int bufferPosition() {
+        return bufferPosition;
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return text.charAt(index);
+    }
+
+    @Override
+    public ByteBufferText subSequence(int start, int end) {
+        return new ByteBufferTextImpl(text.subSequence(start, end), bufferPosition + start);
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.internal.automaton.ByteDfa;
+import io.github.ricoapon.readableregex.internal.expression.ByteSafety;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Matches a byte-safe expression (see {@link ByteSafety}) against the bytes of a UTF-8 text. If possible, full matches are
+ * decided by a {@link ByteDfa}, which is much faster than the JDK engine. The automaton is only created when bytes are
+ * matched for the first time, because most patterns are never used to match bytes.
+ */
+public final class ByteSafeMatcher {
+    private final Expression expression;
+    private final int flags;
+
+    /** The automaton, or empty if it is not available. It is {@code null} if it has not been created yet. */
+    private volatile Optional<ByteDfa> dfa = null;
+
+    private ByteSafeMatcher(Expression expression, int flags) {
+        this.expression = expression;
+        this.flags = flags;
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param flags      The flags of {@link Pattern}.
+     * @return The matcher, or {@code null} if the expression is not byte-safe.
+     */
+    public static ByteSafeMatcher of(Expression expression, int flags) {
+        return ByteSafety.isByteSafe(expression, flags) ? new ByteSafeMatcher(expression, flags) : null;
+    }
+
+    /**
+     * @return The automaton that decides whether the bytes of a text fully match, or {@code null} if the expression cannot
+     * be matched by a {@link ByteDfa}.
+     */
+    ByteDfa dfa() {
+        // Double-checked locking, so that the automaton is created only once and no lock is needed after that.
+        Optional<ByteDfa> result = dfa;
+        if (result == null) {
+            synchronized (this) {
+                result = dfa;
+                if (result == null) {
+                    result = Optional.ofNullable(ByteDfa.compile(expression, flags));
+                    dfa = result;
+                }
+            }
+        }
+        return result.orElse(null);
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.MatchTimeoutException;
+
+import java.time.Duration;
+
+/**
+ * Wrapper of a text that throws {@link MatchTimeoutException} when a character is read after the timeout has passed.
+ * The JDK engine reads the text using {@link #charAt(int)} for every step it takes, also while backtracking, so this
+ * bounds the time of a match without the engine knowing about it.
+ * <p>
+ * Reading the clock is much slower than reading a character, so the clock is only read once every {@link #CHECK_INTERVAL}
+ * reads. Instances are meant for a single match and are not thread-safe.
+ */
+public final class DeadlineCharSequence implements CharSequence {
+    /** The number of characters that are read between two checks of the clock. */
+    static final int CHECK_INTERVAL = 1024;
+
+    private final CharSequence text;
+    private final Duration timeout;
+    private final long startNanos;
+    private final long timeoutNanos;
+    /** The number of reads until the clock is checked again. */
+    private int remainingReads = CHECK_INTERVAL;
+
+    /**
+     * Constructor. The time starts running when the object is created.
+     * @param text    The text to be matched.
+     * @param timeout The maximum duration of matching the text.
+     */
+    public DeadlineCharSequence(CharSequence text, Duration timeout) {
+        checkTimeout(timeout);
+        this.text = text;
+        this.timeout = timeout;
+        this.startNanos = System.nanoTime();
+        this.timeoutNanos = toNanosOrMax(timeout);
+    }
+
+    /**
+     * @param timeout The maximum duration of matching a text.
+     * @throws IllegalArgumentException If the timeout is negative.
+     */
+    public static void checkTimeout(Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("The timeout cannot be negative.");
+        }
+    }
+
+    private static long toNanosOrMax(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            // More than 292 years, so this will never be reached.
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * @throws MatchTimeoutException If the timeout has passed.
+     */
+    private void checkDeadline() {
+        // Comparing the elapsed time instead of a deadline prevents overflow.
+        if (System.nanoTime() - startNanos > timeoutNanos) {
+            throw new MatchTimeoutException(timeout);
+        }
+    }
+
+    /**
+     * Counts as a number of reads, for work of the engine that does not read characters. For example, finding many
+     * empty matches hardly reads any characters.
+     * @param nrOfReads The number of reads that the work is worth.
+     * @throws MatchTimeoutException If the clock is checked and the timeout has passed.
+     */
+    public void countReads(int nrOfReads) {
+        remainingReads -= nrOfReads;
+        if (remainingReads <= 0) {
+            remainingReads = CHECK_INTERVAL;
+            checkDeadline();
+        }
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (--remainingReads <= 0) {
+            remainingReads = CHECK_INTERVAL;
+            checkDeadline();
+        }
+        return text.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        // Only used to extract groups, which does not need a check.
+        return text.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
@@ -0,0 +1,301 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.BuiltExpression;
+import io.github.ricoapon.readableregex.CompiledExpression;
+import io.github.ricoapon.readableregex.MatchVisitor;
+import io.github.ricoapon.readableregex.MatchingEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementation of {@link io.github.ricoapon.readableregex.ReadableRegexPattern} that uses a {@link MatchingEngine} for
+ * all the methods that match a text. Texts without the required literal are rejected before the engine is called.
+ * <p>
+ * Regions are matched by the engine as a view on the region, because a region is matched as if it is the whole text. The
+ * matches are found one by one using {@link CompiledExpression#find(CharSequence, int)}, so the visitor of
+ * {@link #forEachMatch(CharSequence, MatchVisitor)} receives the results of the engine. The engine cannot limit how far a
+ * search looks, so {@link #findAllParallel(CharSequence, ForkJoinPool)} and parallel streams search the text using a single
+ * thread. The JDK {@link Pattern} is only compiled when it is requested using one of the methods that return a
+ * {@link java.util.regex.Matcher} or {@link #getUnderlyingPattern()}.
+ */
+public class EngineReadableRegexPattern extends LazyReadableRegexPattern {
+    private final String engineName;
+    private final CompiledExpression compiledExpression;
+
+    /**
+     * Constructor.
+     * @param engineName         The name of the engine.
+     * @param expression         The expression created by the builder.
+     * @param compiledExpression The expression compiled by the engine.
+     */
+    EngineReadableRegexPattern(String engineName, BuiltExpression expression, CompiledExpression compiledExpression) {
+        super(expression.getRegex(), expression.getJdkFlags(), expression.getGroups(), PatternProperties.of(expression));
+        this.engineName = engineName;
+        this.compiledExpression = compiledExpression;
+    }
+
+    /**
+     * @return The name of the {@link MatchingEngine} that matches this pattern.
+     */
+    public String getEngineName() {
+        return engineName;
+    }
+
+    /**
+     * @return The text itself if the region is the whole text, else a view on the region without copying it.
+     */
+    private static CharSequence region(CharSequence text, int start, int end) {
+        return start == 0 && end == text.length() ? text : CharBuffer.wrap(text, start, end);
+    }
+
+    /**
+     * Calls the action for every match in the text, like calling {@link java.util.regex.Matcher#find()} until no match is
+     * found.
+     */
+    private void forEachResult(CharSequence text, Consumer<MatchResult> action) {
+        Optional<MatchResult> match = compiledExpression.find(text, 0);
+        while (match.isPresent()) {
+            action.accept(match.get());
+            // Same as Matcher#find(): after an empty match, the next search starts one character further.
+            int from = match.get().end() == match.get().start() ? match.get().end() + 1 : match.get().end();
+            match = from > text.length() ? Optional.empty() : compiledExpression.find(text, from);
+        }
+    }
+
+    @Override
+    public boolean matchesTextExactly(String text) {
+        return prefilter().mayMatch(text) && compiledExpression.matchesTextExactly(text);
+    }
+
+    @Override
+    public boolean matchesTextExactly(CharSequence text, int start, int end) {
+        return prefilter().mayMatch(text, start, end) && compiledExpression.matchesTextExactly(region(text, start, end));
+    }
+
+    @Override
+    public boolean find(CharSequence text) {
+        return prefilter().mayMatch(text, 0, text.length()) && compiledExpression.find(text, 0).isPresent();
+    }
+
+    @Override
+    public Optional<MatchResult> find(CharSequence text, int from) {
+        return compiledExpression.find(text, from);
+    }
+
+    @Override
+    public boolean lookingAt(CharSequence text) {
+        return prefilter().mayMatch(text, 0, text.length()) && compiledExpression.lookingAt(text);
+    }
+
+    @Override
+    public List<MatchResult> findAll(String text) {
+        return prefilter().mayMatch(text) ? compiledExpression.findAll(text) : Collections.emptyList();
+    }
+
+    @Override
+    public List<MatchResult> findAll(CharSequence text, int start, int end) {
+        if (!prefilter().mayMatch(text, start, end)) {
+            return Collections.emptyList();
+        }
+        CharSequence region = region(text, start, end);
+        List<MatchResult> results = new ArrayList<>();
+        forEachResult(region, match -> results.add(region == text ? match : GroupPositionsMatchResult.copyOf(match, region, start)));
+        return results;
+    }
+
+    @Override
+    public void forEachMatch(CharSequence text, MatchVisitor visitor) {
+        forEachMatch(text, 0, text.length(), visitor);
+    }
+
+    @Override
+    public void forEachMatch(CharSequence text, int start, int end, MatchVisitor visitor) {
+        if (!prefilter().mayMatch(text, start, end)) {
+            return;
+        }
+        CharSequence region = region(text, start, end);
+        MatchResultMatch current = new MatchResultMatch(groups());
+        forEachResult(region, match -> visitor.visit(current.of(region == text ? match : GroupPositionsMatchResult.copyOf(match, region, start))));
+    }
+
+    @Override
+    public BitSet matchAll(List<? extends CharSequence> texts, int parallelThreshold) {
+        return BatchMatching.matchAll(() -> text -> prefilter().mayMatch(text, 0, text.length()) && compiledExpression.matchesTextExactly(text),
+                texts, parallelThreshold);
+    }
+
+    @Override
+    public Stream<MatchResult> stream(CharSequence text) {
+        return StreamSupport.stream(new ResultSpliterator(text), false);
+    }
+
+    @Override
+    public List<MatchResult> findAllParallel(CharSequence text, ForkJoinPool pool) {
+        return findAll(text);
+    }
+
+    @Override
+    public Stream<String> grep(Path file, Charset charset) throws IOException {
+        return LineGrepSpliterator.lines((chars, start, end) -> compiledExpression.find(CharBuffer.wrap(chars.array(), start, end - start), 0).isPresent(),
+                requiredLiteral().orElse(null), file, charset);
+    }
+
+    @Override
+    public boolean matchesTextExactly(ByteBuffer utf8) {
+        // The automaton of the byte-safe matcher is not part of the engine.
+        return Utf8Matching.matchesTextExactly(this, utf8);
+    }
+
+    @Override
+    public boolean matchesTextExactly(String text, Duration timeout) {
+        DeadlineCharSequence.checkTimeout(timeout);
+        return prefilter().mayMatch(text) && compiledExpression.matchesTextExactly(new DeadlineCharSequence(text, timeout));
+    }
+
+    @Override
+    public List<MatchResult> findAll(String text, Duration timeout) {
+        DeadlineCharSequence.checkTimeout(timeout);
+        if (!prefilter().mayMatch(text)) {
+            return Collections.emptyList();
+        }
+        DeadlineCharSequence deadlineText = new DeadlineCharSequence(text, timeout);
+        List<MatchResult> results = new ArrayList<>();
+        forEachResult(deadlineText, match -> {
+            // Creating the result of a match also takes time, which is not visible to the text.
+            deadlineText.countReads(match.groupCount() + 1);
+            results.add(match);
+        });
+        return results;
+    }
+
+    /**
+     * Finds the matches of a text one by one. The text is never divided, because the engine cannot limit how far a search
+     * looks.
+     */
+    private final class ResultSpliterator extends Spliterators.AbstractSpliterator<MatchResult> {
+        private final CharSequence text;
+
+        /** The index where the next search starts, or -1 if there are no more matches. */
+        private int from = 0;
+
+        ResultSpliterator(CharSequence text) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.text = text;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super MatchResult> action) {
+            Optional<MatchResult> match = from < 0 || from > text.length() ? Optional.empty() : compiledExpression.find(text, from);
+            if (!match.isPresent()) {
+                from = -1;
+                return false;
+            }
+            from = match.get().end() == match.get().start() ? match.get().end() + 1 : match.get().end();
+            action.accept(match.get());
+            return true;
+        }
+    }
+
+    /**
+     * Implementation of {@link MatchVisitor.Match} that reads a match of the engine.
+     */
+    private static final class MatchResultMatch implements MatchVisitor.Match {
+        /** Maps group index to the name. If the name is null, it means it is an unnamed group. */
+        private final List<String> groups;
+        private MatchResult match;
+
+        MatchResultMatch(List<String> groups) {
+            this.groups = groups;
+        }
+
+        /**
+         * @param currentMatch The current match of the engine.
+         * @return This object, which reads the current match.
+         */
+        MatchResultMatch of(MatchResult currentMatch) {
+            this.match = currentMatch;
+            return this;
+        }
+
+        private int groupIndex(String name) {
+            int index = groups.indexOf(name);
+            if (name == null || index < 0) {
+                throw new IllegalArgumentException("No group with name <" + name + ">");
+            }
+            return index + 1;
+        }
+
+        @Override
+        public int start() {
+            return match.start();
+        }
+
+        @Override
+        public int end() {
+            return match.end();
+        }
+
+        @Override
+        public int start(int group) {
+            return match.start(group);
+        }
+
+        @Override
+        public int end(int group) {
+            return match.end(group);
+        }
+
+        @Override
+        public int start(String name) {
+            return match.start(groupIndex(name));
+        }
+
+        @Override
+        public int end(String name) {
+            return match.end(groupIndex(name));
+        }
+
+        @Override
+        public int groupCount() {
+            return match.groupCount();
+        }
+
+        @Override
+        public String group() {
+            return match.group();
+        }
+
+        @Override
+        public String group(int group) {
+            return match.group(group);
+        }
+
+        @Override
+        public String group(String name) {
+            return match.group(groupIndex(name));
+        }
+
+        @Override
+        public MatchResult toMatchResult() {
+            return match;
+        }
+    }
+}
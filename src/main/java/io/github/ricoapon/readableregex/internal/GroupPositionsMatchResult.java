@@ -0,0 +1,127 @@
+package io.github.ricoapon.readableregex.internal;
+
+import java.util.regex.MatchResult;
+
+/**
+ * Result of a match, given the start and end of every group.
+ * <p>
+ * Only the part of the text that contains the groups is stored. {@link java.util.regex.Matcher#toMatchResult()} copies
+ * the whole text if it is not a {@link String}, which is expensive for every match in a large buffer.
+ */
+public final class GroupPositionsMatchResult implements MatchResult {
+    /** The part of the text that starts at {@link #offset}. */
+    private final String text;
+    private final int offset;
+
+    /** Group {@code n} starts at index {@code 2n} and ends at index {@code 2n+1}. A position is -1 if the group did not match. */
+    private final int[] positions;
+
+    /**
+     * Constructor.
+     * @param text      The matched text.
+     * @param positions The positions of the groups, where group {@code n} starts at index {@code 2n} and ends at index
+     *                  {@code 2n+1}. A position is -1 if the group did not match.
+     */
+    GroupPositionsMatchResult(String text, int[] positions) {
+        this(text, 0, positions);
+    }
+
+    private GroupPositionsMatchResult(String text, int offset, int[] positions) {
+        this.text = text;
+        this.offset = offset;
+        this.positions = positions;
+    }
+
+    /**
+     * @param match The current match, for example a {@link java.util.regex.Matcher} after a successful find.
+     * @param text  The text that has been matched.
+     * @return A copy of the match, which only contains the part of the text that is covered by the groups.
+     */
+    public static MatchResult copyOf(MatchResult match, CharSequence text) {
+        return copyOf(match, text, 0);
+    }
+
+    /**
+     * Same as {@link #copyOf(MatchResult, CharSequence)}, but the indices of the copy are moved by the offset. This is used
+     * for matches in a part of a larger text.
+     * @param match  The current match.
+     * @param text   The text that has been matched.
+     * @param offset The index in the larger text of the first character of the text.
+     * @return A copy of the match with the indices in the larger text.
+     */
+    public static MatchResult copyOf(MatchResult match, CharSequence text, int offset) {
+        int[] positions = new int[2 * match.groupCount() + 2];
+        for (int group = 0; group <= match.groupCount(); group++) {
+            positions[2 * group] = match.start(group);
+            positions[2 * group + 1] = match.end(group);
+        }
+        return of(text, positions, offset);
+    }
+
+    /**
+     * @param text      The text that has been matched.
+     * @param positions The positions of the groups, where group {@code n} starts at index {@code 2n} and ends at index
+     *                  {@code 2n+1}. A position is -1 if the group did not match. The array is moved into the result.
+     * @param offset    The index in the larger text of the first character of the text.
+     * @return The match, which only contains the part of the text that is covered by the groups.
+     */
+    static MatchResult of(CharSequence text, int[] positions, int offset) {
+        // Groups inside lookarounds can lie outside the match itself.
+        int start = positions[0];
+        int end = positions[1];
+        for (int i = 0; i < positions.length; i += 2) {
+            if (positions[i] >= 0) {
+                start = Math.min(start, positions[i]);
+                end = Math.max(end, positions[i + 1]);
+                positions[i] += offset;
+                positions[i + 1] += offset;
+            }
+        }
+        return new GroupPositionsMatchResult(text.subSequence(start, end).toString(), start + offset, positions);
+    }
+
+    private void checkGroup(int group) {
+        if (group < 0 || group > groupCount()) {
+            throw new IndexOutOfBoundsException("No group " + group);
+        }
+    }
+
+    @Override
+    public int start() {
+        return start(0);
+    }
+
+    @Override
+    public int start(int group) {
+        checkGroup(group);
+        return positions[2 * group];
+    }
+
+    @Override
+    public int end() {
+        return end(0);
+    }
+
+    @Override
+    public int end(int group) {
+        checkGroup(group);
+        return positions[2 * group + 1];
+    }
+
+    @Override
+    public String group() {
+        return group(0);
+    }
+
+    @Override
+    public String group(int group) {
+        checkGroup(group);
+        int start = positions[2 * group];
+        return start < 0 ? null : text.substring(start - offset, positions[2 * group + 1] - offset);
+    }
+
+    @Override
+    public int groupCount() {
+        return positions.length / 2 - 1;
+    }
+}
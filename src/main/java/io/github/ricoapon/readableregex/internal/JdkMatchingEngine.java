@@ -0,0 +1,27 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.BuiltExpression;
+import io.github.ricoapon.readableregex.CompiledExpression;
+import io.github.ricoapon.readableregex.MatchingEngine;
+import io.github.ricoapon.readableregex.MatchingEngines;
+
+import java.util.regex.Pattern;
+
+/**
+ * The engine that uses the JDK {@link java.util.regex.Pattern}. The compiled expressions are
+ * {@link io.github.ricoapon.readableregex.ReadableRegexPattern}s. They are not looked up in the
+ * {@link io.github.ricoapon.readableregex.PatternCache}, because the builder already does that before it calls the engine.
+ */
+public final class JdkMatchingEngine implements MatchingEngine {
+    @Override
+    public String name() {
+        return MatchingEngines.JDK;
+    }
+
+    @Override
+    @SuppressWarnings("MagicConstant")
+    public CompiledExpression compile(BuiltExpression expression) {
+        return new ReadableRegexPatternImpl(Pattern.compile(expression.getRegex(), expression.getJdkFlags()), expression.getGroups(),
+                PatternProperties.of(expression));
+    }
+}
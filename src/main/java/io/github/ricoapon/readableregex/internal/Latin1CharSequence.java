@@ -0,0 +1,81 @@
+package io.github.ricoapon.readableregex.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Text of which every character is a single byte of a {@link ByteBuffer}, decoded as ISO-8859-1 (Latin-1). The bytes are
+ * read using absolute reads, so the position of the buffer is never used or changed. The bytes are not copied, so they
+ * must not be changed while the text is used.
+ * <p>
+ * If the buffer is backed by an accessible array, the array is read directly, which is noticeably faster than reading
+ * the buffer for the many calls of {@link #charAt(int)} that a match needs.
+ */
+public final class Latin1CharSequence implements CharSequence {
+    private final ByteBuffer bytes;
+    /** The array of {@link #bytes}, or {@code null} if the buffer is not backed by an accessible array. */
+    private final byte[] array;
+    /** The index in {@link #array} of the first character, or the index in {@link #bytes} if there is no array. */
+    private final int offset;
+    private final int length;
+
+    /**
+     * Constructor.
+     * @param bytes  The bytes.
+     * @param offset The index in the buffer of the first character.
+     * @param length The number of characters.
+     */
+    public Latin1CharSequence(ByteBuffer bytes, int offset, int length) {
+        this(bytes, bytes.hasArray() ? bytes.array() : null, bytes.hasArray() ? bytes.arrayOffset() + offset : offset, length);
+    }
+
+    private Latin1CharSequence(ByteBuffer bytes, byte[] array, int offset, int length) {
+        this.bytes = bytes;
+        this.array = array;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @param bytes The bytes.
+     * @return The text of all the bytes up to the limit of the buffer, so that the indices of the text are the indices
+     * in the buffer.
+     */
+    public static Latin1CharSequence upToLimit(ByteBuffer bytes) {
+        return new Latin1CharSequence(bytes, 0, bytes.limit());
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is not inside the text of length " + length);
+        }
+        return (char) ((array != null ? array[offset + index] : bytes.get(offset + index)) & 0xFF);
+    }
+
+    @Override
+    public Latin1CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException("Region [" + start + ", " + end + ") is not inside the text of length " + length);
+        }
+        return new Latin1CharSequence(bytes, array, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        if (array != null) {
+            return new String(array, offset, length, StandardCharsets.ISO_8859_1);
+        }
+        byte[] content = new byte[length];
+        // The buffer can be shared between threads, so the bytes are copied using a duplicate with its own position.
+        ByteBuffer duplicate = bytes.duplicate();
+        duplicate.position(offset);
+        duplicate.get(content);
+        return new String(content, StandardCharsets.ISO_8859_1);
+    }
+}
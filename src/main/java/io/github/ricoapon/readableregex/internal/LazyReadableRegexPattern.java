@@ -0,0 +1,65 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of {@link ReadableRegexPattern} that compiles the regular expression on first use. The regular expression,
+ * flags and groups are available without compiling, and texts without the required literal are rejected without compiling.
+ */
+public class LazyReadableRegexPattern extends AbstractReadableRegexPattern {
+    private final String regex;
+    private final int flags;
+
+    /** The pool of matchers of the compiled pattern, or {@code null} if the pattern has not been used yet. */
+    private volatile MatcherPool matcherPool = null;
+
+    /**
+     * Constructor.
+     * @param regex      The regular expression.
+     * @param flags      The flags of {@link Pattern}.
+     * @param groups     List of group names in order.
+     * @param properties What the builder knows about the pattern.
+     */
+    public LazyReadableRegexPattern(String regex, int flags, List<String> groups, PatternProperties properties) {
+        super(flags, groups, properties);
+        this.regex = regex;
+        this.flags = flags;
+    }
+
+    @SuppressWarnings("MagicConstant")
+    @Override
+    MatcherPool matcherPool() {
+        // Double-checked locking, so that the pattern is compiled only once and no lock is needed after that.
+        MatcherPool result = matcherPool;
+        if (result == null) {
+            synchronized (this) {
+                result = matcherPool;
+                if (result == null) {
+                    result = new MatcherPool(Pattern.compile(regex, flags));
+                    matcherPool = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Pattern getUnderlyingPattern() {
+        return matcherPool().getPattern();
+    }
+
+    /**
+     * @return {@code true} if the regular expression has been compiled, else {@code false}.
+     */
+    boolean isCompiled() {
+        return matcherPool != null;
+    }
+
+    @Override
+    public String toString() {
+        return regex;
+    }
+}
@@ -0,0 +1,359 @@
+package io.github.ricoapon.readableregex.internal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link Spliterator} of the lines of a file that contain a match, without creating a {@link String} for the other lines.
+ * <p>
+ * The file is decoded in large chunks into a single {@link CharBuffer}. Every line is matched as a region of this buffer,
+ * so {@code ^} and {@code $} match at the start and end of the line and lookarounds cannot see the other lines. Only the
+ * lines that contain a match are copied into a {@link String}. Lines end with {@code \n}, {@code \r} or {@code \r\n},
+ * like {@link java.io.BufferedReader#readLine()}. The buffer grows if a line does not fit.
+ * <p>
+ * If the pattern has a required literal, the buffer is searched for the literal instead of matching every line. Only the
+ * line that contains the literal is matched, while the lines before it are skipped without looking at their line breaks.
+ */
+public final class LineGrepSpliterator extends Spliterators.AbstractSpliterator<String> {
+    /** The initial number of bytes and characters of the buffers. */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final CharsetDecoder decoder;
+    private final LineMatcher matcher;
+
+    /** The literal that is part of every match, or {@code null} if every line must be matched. */
+    private final String requiredLiteral;
+
+    private ByteBuffer bytes;
+
+    /** The decoded characters from index 0 until the limit. The index in the buffer is the same as in its array. */
+    private CharBuffer chars;
+
+    /** The index of the first character of the current line. */
+    private int lineStart = 0;
+
+    /** The index from where the end of the current line is searched. */
+    private int scanStart = 0;
+
+    /** The index from where the required literal is searched. */
+    private int literalSearchStart = 0;
+
+    /** Whether the current line contains the required literal. */
+    private boolean candidateLine = false;
+
+    /** Whether the previous line ended with {@code \r}, so that a {@code \n} that directly follows must be skipped. */
+    private boolean skipLineFeed = false;
+
+    private boolean endOfBytes = false;
+    private boolean flushing = false;
+    private boolean endOfInput = false;
+
+    /**
+     * Constructor.
+     * @param pattern         The pattern.
+     * @param requiredLiteral The literal that is part of every match, or {@code null} if there is none.
+     * @param channel         The channel to read the bytes from.
+     * @param charset         The charset of the bytes.
+     * @param bufferSize      The initial number of bytes and characters of the buffers.
+     */
+    LineGrepSpliterator(Pattern pattern, String requiredLiteral, ReadableByteChannel channel, Charset charset, int bufferSize) {
+        this(lineMatcherOf(pattern), requiredLiteral, channel, charset, bufferSize);
+    }
+
+    /**
+     * Constructor.
+     * @param matcher         The matcher of the lines.
+     * @param requiredLiteral The literal that is part of every match, or {@code null} if there is none.
+     * @param channel         The channel to read the bytes from.
+     * @param charset         The charset of the bytes.
+     * @param bufferSize      The initial number of bytes and characters of the buffers.
+     */
+    LineGrepSpliterator(LineMatcher matcher, String requiredLiteral, ReadableByteChannel channel, Charset charset, int bufferSize) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.requiredLiteral = requiredLiteral == null || requiredLiteral.isEmpty() ? null : requiredLiteral;
+        this.channel = channel;
+        this.decoder = charset.newDecoder();
+        this.bytes = ByteBuffer.allocate(bufferSize);
+        this.chars = CharBuffer.allocate(bufferSize);
+        this.chars.flip();
+        this.matcher = matcher;
+    }
+
+    /**
+     * @return The matcher of the lines that reuses a single {@link Matcher} of the pattern.
+     */
+    private static LineMatcher lineMatcherOf(Pattern pattern) {
+        Matcher matcher = pattern.matcher("");
+        return (chars, start, end) -> matcher.reset(chars).region(start, end).find();
+    }
+
+    /**
+     * @param pattern         The pattern.
+     * @param requiredLiteral The literal that is part of every match, or {@code null} if there is none.
+     * @param file            The file.
+     * @param charset         The charset of the file.
+     * @return The lines of the file that contain a match. The stream must be closed to close the file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static Stream<String> lines(Pattern pattern, String requiredLiteral, Path file, Charset charset) throws IOException {
+        return lines(lineMatcherOf(pattern), requiredLiteral, file, charset);
+    }
+
+    /**
+     * @param matcher         The matcher of the lines.
+     * @param requiredLiteral The literal that is part of every match, or {@code null} if there is none.
+     * @param file            The file.
+     * @param charset         The charset of the file.
+     * @return The lines of the file that contain a match. The stream must be closed to close the file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static Stream<String> lines(LineMatcher matcher, String requiredLiteral, Path file, Charset charset) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            LineGrepSpliterator spliterator = new LineGrepSpliterator(matcher, requiredLiteral, channel, charset, BUFFER_SIZE);
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+        } catch (RuntimeException | Error e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        try {
+            return advance(action);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean advance(Consumer<? super String> action) throws IOException {
+        while (true) {
+            if (skipLineFeed && lineStart < chars.limit()) {
+                skipLineFeed = false;
+                if (chars.get(lineStart) == '\n') {
+                    lineStart++;
+                    scanStart = lineStart;
+                }
+            }
+
+            if (requiredLiteral != null && !candidateLine && !findCandidateLine()) {
+                if (endOfInput) {
+                    return false;
+                }
+                fill();
+                continue;
+            }
+
+            int lineEnd = scanStart;
+            while (lineEnd < chars.limit() && chars.get(lineEnd) != '\n' && chars.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+
+            if (lineEnd < chars.limit()) {
+                skipLineFeed = chars.get(lineEnd) == '\r';
+                if (acceptIfMatched(lineEnd, lineEnd + 1, action)) {
+                    return true;
+                }
+            } else if (endOfInput) {
+                // The last line does not end with a line break.
+                return lineStart < lineEnd && acceptIfMatched(lineEnd, lineEnd, action);
+            } else {
+                scanStart = lineEnd;
+                fill();
+            }
+        }
+    }
+
+    /**
+     * Matches the current line and continues with the next line.
+     * @param lineEnd   The index after the last character of the line.
+     * @param nextStart The index of the first character of the next line.
+     * @param action    The action that is called with the line if it contains a match.
+     * @return Whether the line contains a match.
+     */
+    private boolean acceptIfMatched(int lineEnd, int nextStart, Consumer<? super String> action) {
+        boolean matched = matcher.find(chars, lineStart, lineEnd);
+        String line = matched ? new String(chars.array(), lineStart, lineEnd - lineStart) : null;
+        lineStart = nextStart;
+        scanStart = nextStart;
+        candidateLine = false;
+        if (matched) {
+            action.accept(line);
+        }
+        return matched;
+    }
+
+    /**
+     * Skips the lines before the first line that contains the required literal.
+     * @return Whether the literal occurs in the decoded characters. If not, all the lines are skipped that end before the
+     * literal could start.
+     */
+    private boolean findCandidateLine() {
+        int literalStart = indexOfLiteral(Math.max(literalSearchStart, lineStart));
+        if (literalStart == -1) {
+            // The literal can still start in the last characters, if it continues in the characters that are not decoded yet.
+            literalSearchStart = Math.max(lineStart, chars.limit() - requiredLiteral.length() + 1);
+            int lastLineBreak = lastLineBreak(literalSearchStart);
+            if (lastLineBreak != -1) {
+                skipLineFeed = chars.get(lastLineBreak) == '\r';
+                lineStart = lastLineBreak + 1;
+                scanStart = lineStart;
+            }
+            return false;
+        }
+
+        int lastLineBreak = lastLineBreak(literalStart);
+        if (lastLineBreak != -1) {
+            lineStart = lastLineBreak + 1;
+        }
+        // There is no line break between the start of the line and the literal.
+        scanStart = literalStart;
+        candidateLine = true;
+        return true;
+    }
+
+    /**
+     * @return The index of the first occurrence of the required literal at or after the given index, or -1 if there is none.
+     */
+    private int indexOfLiteral(int from) {
+        char[] array = chars.array();
+        char first = requiredLiteral.charAt(0);
+        int last = chars.limit() - requiredLiteral.length();
+        for (int i = from; i <= last; i++) {
+            if (array[i] == first && arrayEqualsLiteral(array, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean arrayEqualsLiteral(char[] array, int start) {
+        for (int i = 1; i < requiredLiteral.length(); i++) {
+            if (array[start + i] != requiredLiteral.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The index of the last line break between the start of the current line and the given index, or -1 if there
+     * is none.
+     */
+    private int lastLineBreak(int end) {
+        char[] array = chars.array();
+        for (int i = end - 1; i >= lineStart; i--) {
+            if (array[i] == '\n' || array[i] == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the current line to the start of the buffer and decodes more characters after it.
+     */
+    private void fill() throws IOException {
+        chars.position(lineStart);
+        chars.compact();
+        scanStart -= lineStart;
+        literalSearchStart = Math.max(0, literalSearchStart - lineStart);
+        lineStart = 0;
+
+        int start = chars.position();
+        while (chars.position() == start && !endOfInput) {
+            if (!chars.hasRemaining()) {
+                grow();
+            }
+            if (flushing) {
+                // Only the decoder can still contain characters.
+                if (decoder.flush(chars).isOverflow()) {
+                    grow();
+                } else {
+                    endOfInput = true;
+                }
+                continue;
+            }
+
+            bytes.flip();
+            CoderResult result = decoder.decode(bytes, chars, endOfBytes);
+            bytes.compact();
+            if (result.isError()) {
+                result.throwException();
+            } else if (result.isOverflow() && chars.position() == start) {
+                // A single character needs more space than is left, for example a surrogate pair.
+                grow();
+            } else if (result.isUnderflow() && chars.position() == start) {
+                if (endOfBytes) {
+                    flushing = true;
+                } else if (!bytes.hasRemaining()) {
+                    // A single character consists of more bytes than fit in the buffer.
+                    growBytes();
+                } else if (channel.read(bytes) == -1) {
+                    endOfBytes = true;
+                }
+            }
+        }
+        chars.flip();
+    }
+
+    /**
+     * Doubles the capacity of the byte buffer, which is in write mode.
+     */
+    private void growBytes() {
+        ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+        bytes.flip();
+        larger.put(bytes);
+        bytes = larger;
+    }
+
+    /**
+     * Doubles the capacity of the character buffer, which is in write mode.
+     */
+    private void grow() {
+        CharBuffer larger = CharBuffer.allocate(chars.capacity() * 2);
+        chars.flip();
+        larger.put(chars);
+        chars = larger;
+    }
+
+    private void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finds a match in a line of the buffer. The line is matched as if it is the whole text.
+     */
+    @FunctionalInterface
+    public interface LineMatcher {
+        /**
+         * @param chars The buffer, of which the index is the same as in its array.
+         * @param start The index of the first character of the line.
+         * @param end   The index after the last character of the line.
+         * @return Whether the line contains a match.
+         */
+        boolean find(CharBuffer chars, int start, int end);
+    }
+}
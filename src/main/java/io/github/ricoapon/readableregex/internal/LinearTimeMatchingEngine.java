@@ -0,0 +1,81 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.BuiltExpression;
+import io.github.ricoapon.readableregex.CompiledExpression;
+import io.github.ricoapon.readableregex.MatchingEngine;
+import io.github.ricoapon.readableregex.MatchingEngines;
+import io.github.ricoapon.readableregex.internal.automaton.LinearTimeMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.MatchResult;
+
+/**
+ * The engine that matches in linear time in the length of the text, using a {@link LinearTimeMatcher}. Texts can never
+ * cause catastrophic backtracking. See {@link io.github.ricoapon.readableregex.LinearTimeMatching}.
+ */
+public final class LinearTimeMatchingEngine implements MatchingEngine {
+    @Override
+    public String name() {
+        return MatchingEngines.LINEAR_TIME;
+    }
+
+    @Override
+    public CompiledExpression compile(BuiltExpression expression) {
+        LinearTimeMatcher matcher = LinearTimeMatcher.compile(BuiltExpressionImpl.expressionOf(expression), expression.getRegex(),
+                expression.getJdkFlags());
+        if (matcher == null) {
+            return null;
+        }
+        return new LinearTimeCompiledExpression(matcher);
+    }
+
+    /**
+     * Expression compiled into a {@link LinearTimeMatcher}.
+     */
+    private static class LinearTimeCompiledExpression implements CompiledExpression {
+        private final LinearTimeMatcher matcher;
+
+        LinearTimeCompiledExpression(LinearTimeMatcher matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean matchesTextExactly(String text) {
+            return matcher.matches(text);
+        }
+
+        @Override
+        public List<MatchResult> findAll(String text) {
+            List<MatchResult> results = new ArrayList<>();
+            int[] positions = matcher.find(text, 0);
+            while (positions != null) {
+                results.add(new GroupPositionsMatchResult(text, positions));
+                // Same as Matcher#find(): after an empty match, the next search starts one character further.
+                int from = positions[1] == positions[0] ? positions[1] + 1 : positions[1];
+                positions = from > text.length() ? null : matcher.find(text, from);
+            }
+            return results;
+        }
+
+        @Override
+        public boolean matchesTextExactly(CharSequence text) {
+            return matcher.matches(text);
+        }
+
+        @Override
+        public boolean lookingAt(CharSequence text) {
+            return matcher.lookingAt(text);
+        }
+
+        @Override
+        public Optional<MatchResult> find(CharSequence text, int from) {
+            if (from < 0 || from > text.length()) {
+                throw new IndexOutOfBoundsException("Illegal start index " + from);
+            }
+            int[] positions = matcher.find(text, from);
+            return positions == null ? Optional.empty() : Optional.of(GroupPositionsMatchResult.of(text, positions, 0));
+        }
+    }
+}
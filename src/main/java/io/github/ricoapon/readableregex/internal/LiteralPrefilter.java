@@ -0,0 +1,96 @@
+package io.github.ricoapon.readableregex.internal;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rejects texts that do not contain a literal that is part of every match, without evaluating the regular expression.
+ */
+class LiteralPrefilter {
+    /** The literal that is part of every match, or {@code null} if texts are never rejected. */
+    private final String requiredLiteral;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder skips = new LongAdder();
+
+    /**
+     * Constructor.
+     * @param requiredLiteral The literal that is part of every match, or {@code null} if texts are never rejected.
+     */
+    LiteralPrefilter(String requiredLiteral) {
+        this.requiredLiteral = requiredLiteral;
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return {@code false} if the regular expression can never match the text, else {@code true}.
+     */
+    boolean mayMatch(String text) {
+        if (requiredLiteral == null) {
+            return true;
+        }
+        // String#indexOf is an intrinsic of the JVM, which is faster than any search implemented in Java.
+        if (text.contains(requiredLiteral)) {
+            hits.increment();
+            return true;
+        }
+        skips.increment();
+        return false;
+    }
+
+    /**
+     * @param text  The text to be matched.
+     * @param start The index of the first character of the region to be matched.
+     * @param end   The index after the last character of the region to be matched.
+     * @return {@code false} if the regular expression can never match the region, else {@code true}.
+     * @throws IndexOutOfBoundsException If the region is not inside the text.
+     */
+    boolean mayMatch(CharSequence text, int start, int end) {
+        if (start < 0 || start > end || end > text.length()) {
+            throw new IndexOutOfBoundsException("Region [" + start + ", " + end + ") is not inside the text of length " + text.length());
+        }
+        if (requiredLiteral == null) {
+            return true;
+        }
+        if (contains(text, start, end)) {
+            hits.increment();
+            return true;
+        }
+        skips.increment();
+        return false;
+    }
+
+    private boolean contains(CharSequence text, int start, int end) {
+        if (text instanceof String && start == 0 && end == text.length()) {
+            return ((String) text).contains(requiredLiteral);
+        }
+        char first = requiredLiteral.charAt(0);
+        int lastStart = end - requiredLiteral.length();
+        for (int i = start; i <= lastStart; i++) {
+            if (text.charAt(i) == first && regionEqualsLiteral(text, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionEqualsLiteral(CharSequence text, int start) {
+        for (int i = 1; i < requiredLiteral.length(); i++) {
+            if (text.charAt(start + i) != requiredLiteral.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Optional<String> requiredLiteral() {
+        return Optional.ofNullable(requiredLiteral);
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long skipCount() {
+        return skips.sum();
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.MappedFileText;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implementation of {@link MappedFileText}, which reads the mapping as a {@link Latin1CharSequence}. Texts that are created
+ * using {@link #subSequence(int, int)} share the mapping of the original text.
+ */
+public final class MappedFileTextImpl implements MappedFileText {
+    private final Latin1CharSequence text;
+    private final long filePosition;
+
+    private MappedFileTextImpl(Latin1CharSequence text, long filePosition) {
+        this.text = text;
+        this.filePosition = filePosition;
+    }
+
+    /**
+     * @param file The file to be mapped.
+     * @return The text of the full file.
+     * @throws IOException              If the file cannot be opened or mapped.
+     * @throws IllegalArgumentException If the file is larger than {@link Integer#MAX_VALUE} bytes.
+     */
+    public static MappedFileText open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The file has " + fileSize + " bytes, which does not fit in a single text. "
+                        + "Use MappedFileText#open(Path, long, int) to map a part of the file.");
+            }
+            return map(channel, 0, (int) fileSize);
+        }
+    }
+
+    /**
+     * @param file     The file to be mapped.
+     * @param position The position in the file of the first character of the text.
+     * @param size     The number of characters of the text.
+     * @return The text of the given window of the file.
+     * @throws IOException              If the file cannot be opened or mapped.
+     * @throws IllegalArgumentException If the window is not inside the file.
+     */
+    public static MappedFileText open(Path file, long position, int size) throws IOException {
+        if (position < 0 || size < 0) {
+            throw new IllegalArgumentException("The position and size cannot be negative.");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (position + size > fileSize) {
+                throw new IllegalArgumentException("Window [" + position + ", " + (position + size)
+                        + ") is not inside the file of size " + fileSize);
+            }
+            return map(channel, position, size);
+        }
+    }
+
+    private static MappedFileText map(FileChannel channel, long position, int size) throws IOException {
+        return new MappedFileTextImpl(new Latin1CharSequence(channel.map(FileChannel.MapMode.READ_ONLY, position, size), 0, size), position);
+    }
+
+    @Override
+    public long filePosition() {
+        return filePosition;
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return text.charAt(index);
+    }
+
+    @Override
+    public MappedFileText subSequence(int start, int end) {
+        return new MappedFileTextImpl(text.subSequence(start, end), filePosition + start);
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
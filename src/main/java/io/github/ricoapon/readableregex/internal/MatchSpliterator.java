@@ -0,0 +1,107 @@
+package io.github.ricoapon.readableregex.internal;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link Spliterator} of the matches in a text, which finds the next match only when it is requested.
+ * <p>
+ * If no match can contain a line feed, the text can be split after a line feed: every match then lies before or after
+ * the split. Each part starts searching at its first character, while the whole text stays visible to anchors and
+ * lookarounds, so that the parts together find exactly the same matches as a single search.
+ */
+public final class MatchSpliterator implements Spliterator<MatchResult> {
+    /** Parts smaller than this are not split, because searching them is faster than the overhead of splitting. */
+    static final int MIN_SPLIT_SIZE = 1 << 16;
+
+    private final Pattern pattern;
+    private final CharSequence text;
+    private final boolean splittable;
+
+    /** The index where the search starts. */
+    private int start;
+
+    /** Matches that start at or after this index belong to the next part. */
+    private final long limit;
+
+    /** The matcher of this part, or {@code null} if the search has not started yet. */
+    private Matcher matcher = null;
+    private boolean done = false;
+
+    /**
+     * Constructor.
+     * @param pattern    The pattern.
+     * @param text       The text to be matched.
+     * @param splittable Whether the text can be split after a line feed, because no match can contain a line feed.
+     */
+    public MatchSpliterator(Pattern pattern, CharSequence text, boolean splittable) {
+        // The limit is after the end of the text, because an empty match can start at the end of the text.
+        this(pattern, text, splittable, 0, text.length() + 1L);
+    }
+
+    private MatchSpliterator(Pattern pattern, CharSequence text, boolean splittable, int start, long limit) {
+        this.pattern = pattern;
+        this.text = text;
+        this.splittable = splittable;
+        this.start = start;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super MatchResult> action) {
+        if (done) {
+            return false;
+        }
+        if (matcher == null) {
+            matcher = pattern.matcher(text).useTransparentBounds(true).useAnchoringBounds(false).region(start, text.length());
+        }
+        if (!matcher.find() || matcher.start() >= limit) {
+            done = true;
+            matcher = null;
+            return false;
+        }
+        action.accept(GroupPositionsMatchResult.copyOf(matcher, text));
+        return true;
+    }
+
+    @Override
+    public Spliterator<MatchResult> trySplit() {
+        if (!splittable || matcher != null || done || limit - start < MIN_SPLIT_SIZE) {
+            return null;
+        }
+        int splitIndex = indexAfterLineFeed((int) (start + (limit - start) / 2));
+        if (splitIndex < 0) {
+            return null;
+        }
+        MatchSpliterator prefix = new MatchSpliterator(pattern, text, true, start, splitIndex);
+        start = splitIndex;
+        return prefix;
+    }
+
+    /**
+     * @return The index after the first line feed at or after {@code from}, or -1 if there is no line feed in this part.
+     */
+    private int indexAfterLineFeed(int from) {
+        int end = (int) Math.min(limit, text.length());
+        for (int i = from; i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long estimateSize() {
+        // The number of matches is not known, but it is roughly proportional to the length.
+        return limit - start;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
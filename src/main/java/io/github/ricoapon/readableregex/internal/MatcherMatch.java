@@ -0,0 +1,88 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.MatchVisitor;
+
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+
+/**
+ * Implementation of {@link MatchVisitor.Match} that reads the current match of a {@link Matcher}. The matcher itself is not
+ * given to the visitor, so that the visitor cannot change its state.
+ */
+public final class MatcherMatch implements MatchVisitor.Match {
+    private final Matcher matcher;
+    private final CharSequence text;
+
+    private MatcherMatch(Matcher matcher, CharSequence text) {
+        this.matcher = matcher;
+        this.text = text;
+    }
+
+    /**
+     * Calls the visitor for all the matches that the matcher finds.
+     * @param matcher The matcher of the text.
+     * @param text    The text of the matcher.
+     * @param visitor The visitor.
+     */
+    public static void visitAll(Matcher matcher, CharSequence text, MatchVisitor visitor) {
+        MatcherMatch match = new MatcherMatch(matcher, text);
+        while (matcher.find()) {
+            visitor.visit(match);
+        }
+    }
+
+    @Override
+    public int start() {
+        return matcher.start();
+    }
+
+    @Override
+    public int end() {
+        return matcher.end();
+    }
+
+    @Override
+    public int start(int group) {
+        return matcher.start(group);
+    }
+
+    @Override
+    public int end(int group) {
+        return matcher.end(group);
+    }
+
+    @Override
+    public int start(String name) {
+        return matcher.start(name);
+    }
+
+    @Override
+    public int end(String name) {
+        return matcher.end(name);
+    }
+
+    @Override
+    public int groupCount() {
+        return matcher.groupCount();
+    }
+
+    @Override
+    public String group() {
+        return matcher.group();
+    }
+
+    @Override
+    public String group(int group) {
+        return matcher.group(group);
+    }
+
+    @Override
+    public String group(String name) {
+        return matcher.group(name);
+    }
+
+    @Override
+    public MatchResult toMatchResult() {
+        return GroupPositionsMatchResult.copyOf(matcher, text);
+    }
+}
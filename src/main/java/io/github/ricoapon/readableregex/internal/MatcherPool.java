@@ -0,0 +1,72 @@
+package io.github.ricoapon.readableregex.internal;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Small pool of {@link Matcher}s of a single pattern, so that boolean queries do not allocate a new matcher every time.
+ * <p>
+ * A {@link ThreadLocal} would keep a matcher for every thread that ever used the pattern, which is expensive with many
+ * (virtual) threads. Instead, the pool has a fixed number of slots. A thread takes the matcher out of the slot that belongs
+ * to its id and puts it back afterwards. Thread ids say nothing about which threads run at the same time, especially for
+ * virtual threads that share a few carrier threads. If the slot is empty because another thread is using the matcher, the
+ * next few slots are tried as well. Only if these are all in use, a new matcher is created, so threads never wait for
+ * each other.
+ */
+final class MatcherPool {
+    private static final int NR_OF_SLOTS = slotsFor(Runtime.getRuntime().availableProcessors());
+    /** The number of slots that are tried before a new matcher is created. */
+    private static final int NR_OF_PROBES = Math.min(4, NR_OF_SLOTS);
+
+    private final Pattern pattern;
+    private final AtomicReferenceArray<Matcher> slots = new AtomicReferenceArray<>(NR_OF_SLOTS);
+
+    MatcherPool(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * @return The smallest power of two that is at least twice the number of processors, so that threads that run at the
+     * same time rarely share a slot.
+     */
+    static int slotsFor(int nrOfProcessors) {
+        return Integer.highestOneBit(Math.max(1, 2 * nrOfProcessors - 1)) << 1;
+    }
+
+    /**
+     * @return The pattern of the matchers.
+     */
+    Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @param text  The text to be matched.
+     * @param query The query on the matcher, which must not keep a reference to the matcher.
+     * @return The result of the query on a matcher of the text.
+     */
+    boolean test(CharSequence text, Predicate<Matcher> query) {
+        int firstSlot = (int) Thread.currentThread().getId();
+        int slot = firstSlot & (NR_OF_SLOTS - 1);
+        Matcher matcher = slots.getAndSet(slot, null);
+        for (int i = 1; matcher == null && i < NR_OF_PROBES; i++) {
+            slot = (firstSlot + i) & (NR_OF_SLOTS - 1);
+            matcher = slots.getAndSet(slot, null);
+        }
+        if (matcher == null) {
+            slot = firstSlot & (NR_OF_SLOTS - 1);
+            matcher = pattern.matcher(text);
+        } else {
+            matcher.reset(text);
+        }
+        try {
+            return query.test(matcher);
+        } finally {
+            // The matcher should not keep the text from being garbage collected.
+            matcher.reset("");
+            slots.lazySet(slot, matcher);
+        }
+    }
+}
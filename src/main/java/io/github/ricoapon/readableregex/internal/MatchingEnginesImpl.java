@@ -0,0 +1,101 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.BuiltExpression;
+import io.github.ricoapon.readableregex.CompiledExpression;
+import io.github.ricoapon.readableregex.MatchingEngine;
+import io.github.ricoapon.readableregex.MatchingEngines;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Implementation of {@link MatchingEngines}.
+ */
+public final class MatchingEnginesImpl {
+    private static volatile String defaultEngine = MatchingEngines.JDK;
+
+    private MatchingEnginesImpl() {
+    }
+
+    /**
+     * The engines are discovered when they are used for the first time, so that building patterns with the JDK engine
+     * never scans the class path.
+     */
+    private static final class Registry {
+        private static final Map<String, MatchingEngine> ENGINES = discover();
+
+        private static Map<String, MatchingEngine> discover() {
+            Map<String, MatchingEngine> engines = new LinkedHashMap<>();
+            register(engines, new JdkMatchingEngine());
+            register(engines, new LinearTimeMatchingEngine());
+            for (MatchingEngine engine : ServiceLoader.load(MatchingEngine.class)) {
+                register(engines, engine);
+            }
+            return Collections.unmodifiableMap(engines);
+        }
+
+        private static void register(Map<String, MatchingEngine> engines, MatchingEngine engine) {
+            MatchingEngine existingEngine = engines.putIfAbsent(engine.name(), engine);
+            if (existingEngine != null) {
+                throw new IllegalStateException("The matching engines " + existingEngine.getClass().getName() + " and "
+                        + engine.getClass().getName() + " have the same name '" + engine.name() + "'.");
+            }
+        }
+    }
+
+    /**
+     * See {@link MatchingEngines#get(String)}.
+     */
+    public static MatchingEngine get(String name) {
+        MatchingEngine engine = Registry.ENGINES.get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("There is no matching engine with the name '" + name + "'. The available engines are "
+                    + names() + ".");
+        }
+        return engine;
+    }
+
+    /**
+     * See {@link MatchingEngines#names()}.
+     */
+    public static List<String> names() {
+        return new ArrayList<>(Registry.ENGINES.keySet());
+    }
+
+    /**
+     * See {@link MatchingEngines#setDefault(String)}.
+     */
+    public static void setDefault(String name) {
+        get(name);
+        defaultEngine = name;
+    }
+
+    /**
+     * See {@link MatchingEngines#getDefault()}.
+     */
+    public static String getDefault() {
+        return defaultEngine;
+    }
+
+    /**
+     * @param engineName The name of the engine, or {@code null} for the default engine.
+     * @param expression The expression created by the builder.
+     * @return The pattern that uses the engine, or that uses the JDK engine if the engine does not support the expression.
+     */
+    static ReadableRegexPattern compile(String engineName, BuiltExpression expression) {
+        MatchingEngine engine = get(engineName == null ? defaultEngine : engineName);
+        CompiledExpression compiledExpression = engine.compile(expression);
+        if (compiledExpression == null) {
+            compiledExpression = Registry.ENGINES.get(MatchingEngines.JDK).compile(expression);
+        }
+        if (compiledExpression instanceof ReadableRegexPattern) {
+            return (ReadableRegexPattern) compiledExpression;
+        }
+        return new EngineReadableRegexPattern(engine.name(), expression, compiledExpression);
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.internal.expression.MaxLengthFinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds all the matches in a large text using multiple threads, with exactly the same result as calling
+ * {@link Matcher#find()} until no match is found.
+ * <p>
+ * The text is divided into chunks that are searched at the same time. Every chunk is searched as if the previous match
+ * ended at the start of the chunk, and keeps the matches that start inside the chunk. A match that starts inside the chunk
+ * ends at most the maximum match length after the end of the chunk, or, if no match can contain a line feed, before the
+ * first line feed after the end of the chunk. The search of a chunk never looks further than that, while lookarounds and
+ * anchors still see the whole text. If neither is known, the text is searched by a single thread.
+ * <p>
+ * A match that continues into the next chunk can overlap matches that the next chunk has found. Therefore the results are
+ * combined in order: at the start of every chunk, the search continues from where the previous match ended, until it finds
+ * a match that the chunk has also found. From that match on, the matches of the chunk are the same as those of a single
+ * search, because the search always continues in the same way after the same match. Usually this takes a single search,
+ * and it never looks further than the search of the chunk itself.
+ */
+public final class ParallelSearch {
+    /** Chunks are at least this large, because searching a small chunk is faster than the overhead of a task. */
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    /** The number of chunks per thread, so that threads that finish early can take over work. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelSearch() {
+    }
+
+    /**
+     * @param pattern    The pattern.
+     * @param text       The text to be matched. It is read by multiple threads at the same time.
+     * @param pool       The pool that searches the chunks.
+     * @param properties What the builder knows about the pattern, used to bound the search of every chunk.
+     * @return All the matches in order of occurrence.
+     */
+    public static List<MatchResult> findAll(Pattern pattern, CharSequence text, ForkJoinPool pool, PatternProperties properties) {
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, text.length() / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+        return findAll(pattern, text, pool, properties, chunkSize);
+    }
+
+    static List<MatchResult> findAll(Pattern pattern, CharSequence text, ForkJoinPool pool, PatternProperties properties,
+                                     int chunkSize) {
+        if (properties.getMaxMatchLength() == MaxLengthFinder.UNBOUNDED && properties.canMatchLineBreak()) {
+            // A match can continue until the end of the text, so every chunk would have to search the rest of the text.
+            return searchChunk(pattern, text, 0, text.length() + 1L, text.length());
+        }
+
+        int[] searchEnds = searchEnds(text, pool, properties, chunkSize);
+        List<ForkJoinTask<List<MatchResult>>> tasks = new ArrayList<>();
+        for (int i = 0; i < searchEnds.length; i++) {
+            int chunkStart = i * chunkSize;
+            int searchEnd = searchEnds[i];
+            tasks.add(pool.submit(() -> searchChunk(pattern, text, chunkStart, chunkEnd(text, chunkStart, chunkSize), searchEnd)));
+        }
+
+        List<MatchResult> results = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text).useTransparentBounds(true).useAnchoringBounds(false);
+        long from = 0;
+        for (int i = 0; i < tasks.size() && from <= text.length(); i++) {
+            int chunkStart = i * chunkSize;
+            from = combine(results, text, tasks.get(i).join(), matcher, from, chunkStart, chunkEnd(text, chunkStart, chunkSize),
+                    searchEnds[i]);
+        }
+        return results;
+    }
+
+    /**
+     * @return The index after the last character of the chunk. The last chunk ends after the text, because an empty match
+     * can start at the end of the text.
+     */
+    private static long chunkEnd(CharSequence text, int chunkStart, int chunkSize) {
+        return Math.min((long) chunkStart + chunkSize, text.length() + 1L);
+    }
+
+    /**
+     * @return For every chunk, the index after which no match that starts in the chunk can continue. If no match can
+     * contain a line feed, this is at most the first line feed after the chunk. The chunks are searched for line feeds at the
+     * same time.
+     */
+    private static int[] searchEnds(CharSequence text, ForkJoinPool pool, PatternProperties properties, int chunkSize) {
+        int nrOfChunks = text.length() / chunkSize + 1;
+        int[] searchEnds = new int[nrOfChunks];
+        for (int i = 0; i < nrOfChunks; i++) {
+            searchEnds[i] = (int) Math.min(text.length(), chunkEnd(text, i * chunkSize, chunkSize) + properties.getMaxMatchLength());
+        }
+        if (properties.canMatchLineBreak()) {
+            return searchEnds;
+        }
+
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < nrOfChunks; i++) {
+            int chunkStart = i * chunkSize;
+            int end = (int) Math.min(chunkEnd(text, chunkStart, chunkSize), text.length());
+            tasks.add(pool.submit(() -> firstLineFeed(text, chunkStart, end)));
+        }
+        int lineFeedAfterChunk = text.length();
+        for (int i = nrOfChunks - 1; i >= 0; i--) {
+            searchEnds[i] = Math.min(searchEnds[i], lineFeedAfterChunk);
+            int lineFeed = tasks.get(i).join();
+            if (lineFeed >= 0) {
+                lineFeedAfterChunk = lineFeed;
+            }
+        }
+        return searchEnds;
+    }
+
+    /**
+     * @return The index of the first line feed between the indices, or {@code -1} if there is none.
+     */
+    private static int firstLineFeed(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param searchEnd The index after which no match that starts in the chunk can continue.
+     * @return The matches that start in the chunk, when the search starts at the start of the chunk.
+     */
+    private static List<MatchResult> searchChunk(Pattern pattern, CharSequence text, int chunkStart, long chunkEnd, int searchEnd) {
+        Matcher matcher = pattern.matcher(text).useTransparentBounds(true).useAnchoringBounds(false).region(chunkStart, searchEnd);
+        List<MatchResult> results = new ArrayList<>();
+        while (matcher.find() && matcher.start() < chunkEnd) {
+            results.add(GroupPositionsMatchResult.copyOf(matcher, text));
+        }
+        return results;
+    }
+
+    /**
+     * Adds the matches of a single search that start in the chunk.
+     * @param results      The matches of the previous chunks.
+     * @param text         The text to be matched.
+     * @param chunkMatches The matches of the chunk.
+     * @param matcher      Matcher of the whole text with transparent bounds, used to continue the single search.
+     * @param from         The index where the single search continues.
+     * @param chunkStart   The index of the first character of the chunk.
+     * @param chunkEnd     The index after the last character of the chunk.
+     * @param searchEnd    The index after which no match that starts in the chunk can continue.
+     * @return The index where the single search continues after the chunk.
+     */
+    private static long combine(List<MatchResult> results, CharSequence text, List<MatchResult> chunkMatches, Matcher matcher,
+                                long from, long chunkStart, long chunkEnd, int searchEnd) {
+        int next = 0;
+        while (from != chunkStart) {
+            if (from >= chunkEnd || !matcher.region((int) from, searchEnd).find() || matcher.start() >= chunkEnd) {
+                // No match starts in the rest of the chunk, so searching from the end of the chunk gives the same result.
+                return Math.max(from, chunkEnd);
+            }
+            while (next < chunkMatches.size() && chunkMatches.get(next).start() < matcher.start()) {
+                next++;
+            }
+            if (next < chunkMatches.size() && chunkMatches.get(next).start() == matcher.start()) {
+                // The chunk has found the same match, so the following matches of the chunk are the same as well.
+                break;
+            }
+            results.add(GroupPositionsMatchResult.copyOf(matcher, text));
+            from = nextSearchIndex(matcher);
+        }
+
+        List<MatchResult> sameMatches = chunkMatches.subList(next, chunkMatches.size());
+        if (sameMatches.isEmpty()) {
+            return Math.max(from, chunkEnd);
+        }
+        results.addAll(sameMatches);
+        return nextSearchIndex(sameMatches.get(sameMatches.size() - 1));
+    }
+
+    /**
+     * Same as {@link Matcher#find()}: after an empty match, the next search starts one character further.
+     */
+    private static long nextSearchIndex(MatchResult match) {
+        return match.end() == match.start() ? match.end() + 1 : match.end();
+    }
+}
@@ -0,0 +1,271 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of {@link io.github.ricoapon.readableregex.PatternCache}.
+ * <p>
+ * Patterns of the builder are stored by their expression tree, so a hit skips the analyses of the builder and also returns
+ * patterns that do not compile a JDK {@link Pattern}, such as the Aho-Corasick patterns. Patterns created from a regular
+ * expression are stored by the regular expression.
+ * <p>
+ * Lookups only read from a {@link ConcurrentHashMap} and never lock. Eviction uses the second chance (clock) algorithm:
+ * every lookup marks the entry as referenced, and when the cache is too large the oldest entry that has not been referenced
+ * since the last time it was considered is removed.
+ */
+public class PatternCacheImpl {
+    /** The enabled cache, or {@code null} if the cache is disabled. */
+    private static volatile PatternCacheImpl instance = null;
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<>();
+
+    /** The keys of all the entries, in the order they will be considered for eviction. */
+    private final Queue<Object> evictionQueue = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor.
+     * @param maximumSize The maximum number of patterns in the cache.
+     */
+    PatternCacheImpl(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * See {@link io.github.ricoapon.readableregex.PatternCache#enable(int)}.
+     * @param maximumSize The maximum number of patterns in the cache.
+     */
+    public static void enable(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size of the cache must be larger than zero.");
+        }
+
+        instance = new PatternCacheImpl(maximumSize);
+    }
+
+    /**
+     * See {@link io.github.ricoapon.readableregex.PatternCache#disable()}.
+     */
+    public static void disable() {
+        instance = null;
+    }
+
+    /**
+     * @return See {@link io.github.ricoapon.readableregex.PatternCache#isEnabled()}.
+     */
+    public static boolean isEnabled() {
+        return instance != null;
+    }
+
+    /**
+     * @return See {@link io.github.ricoapon.readableregex.PatternCache#hitCount()}.
+     */
+    public static long hitCount() {
+        PatternCacheImpl cache = instance;
+        return cache == null ? 0 : cache.hits.sum();
+    }
+
+    /**
+     * @return See {@link io.github.ricoapon.readableregex.PatternCache#missCount()}.
+     */
+    public static long missCount() {
+        PatternCacheImpl cache = instance;
+        return cache == null ? 0 : cache.misses.sum();
+    }
+
+    /**
+     * @return See {@link io.github.ricoapon.readableregex.PatternCache#evictionCount()}.
+     */
+    public static long evictionCount() {
+        PatternCacheImpl cache = instance;
+        return cache == null ? 0 : cache.evictions.sum();
+    }
+
+    /**
+     * Compiles the regular expression into a {@link ReadableRegexPattern}. If the cache is enabled, the pattern is
+     * retrieved from the cache or stored in the cache after compiling.
+     * @param regex  The regular expression.
+     * @param flags  The flags of {@link Pattern}.
+     * @param groups List of group names in order.
+     * @return The compiled pattern.
+     */
+    public static ReadableRegexPattern compile(String regex, int flags, List<String> groups) {
+        return compile(regex, flags, groups, PatternProperties.UNKNOWN);
+    }
+
+    /**
+     * Same as {@link #compile(String, int, List)}, where the pattern uses what the builder knows about it, for example to
+     * reject texts without the required literal.
+     * @param regex      The regular expression.
+     * @param flags      The flags of {@link Pattern}.
+     * @param groups     List of group names in order.
+     * @param properties What the builder knows about the pattern.
+     * @return The compiled pattern.
+     */
+    @SuppressWarnings("MagicConstant")
+    public static ReadableRegexPattern compile(String regex, int flags, List<String> groups, PatternProperties properties) {
+        Supplier<ReadableRegexPattern> compiler = () -> new ReadableRegexPatternImpl(Pattern.compile(regex, flags), groups, properties);
+        PatternCacheImpl cache = instance;
+        if (cache == null) {
+            return compiler.get();
+        }
+
+        return cache.getOrCompile(new Key(regex, flags, groups, properties), compiler);
+    }
+
+    /**
+     * Builds the pattern of the builder. If the cache is enabled, the pattern is retrieved from the cache, so that the
+     * builder only analyzes and compiles the expression if the pattern is not present.
+     * @param expression The expression tree.
+     * @param flags      The flags of {@link Pattern}.
+     * @param engineName The name of the engine.
+     * @param builder    Analyzes and compiles the expression.
+     * @return The pattern.
+     */
+    public static ReadableRegexPattern build(Expression expression, int flags, String engineName, Supplier<ReadableRegexPattern> builder) {
+        PatternCacheImpl cache = instance;
+        if (cache == null) {
+            return builder.get();
+        }
+
+        return cache.getOrCompile(new ExpressionKey(expression, flags, engineName), builder);
+    }
+
+    private ReadableRegexPattern getOrCompile(Object key, Supplier<ReadableRegexPattern> compiler) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.referenced = true;
+            hits.increment();
+            return entry.pattern;
+        }
+
+        misses.increment();
+        Entry newEntry = new Entry(compiler.get());
+        Entry existingEntry = entries.putIfAbsent(key, newEntry);
+        if (existingEntry != null) {
+            // Another thread has compiled the same pattern at the same time.
+            return existingEntry.pattern;
+        }
+
+        evictionQueue.add(key);
+        evictIfNeeded();
+        return newEntry.pattern;
+    }
+
+    private void evictIfNeeded() {
+        Object key;
+        // The queue can be empty while another thread is between adding the entry and adding the key to the queue.
+        while (entries.size() > maximumSize && (key = evictionQueue.poll()) != null) {
+            Entry entry = entries.get(key);
+            if (entry.referenced) {
+                // Give the entry a second chance.
+                entry.referenced = false;
+                evictionQueue.add(key);
+            } else {
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Key of the cache for patterns created from a regular expression. Patterns are equal if the regular expression, flags,
+     * recorded groups and the information from the builder are equal.
+     */
+    private static class Key {
+        private final String regex;
+        private final int flags;
+        private final List<String> groups;
+        private final PatternProperties properties;
+        private final int hashCode;
+
+        Key(String regex, int flags, List<String> groups, PatternProperties properties) {
+            this.regex = regex;
+            this.flags = flags;
+            this.groups = new ArrayList<>(groups);
+            this.properties = properties;
+            this.hashCode = Objects.hash(regex, flags, groups, properties);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return flags == key.flags && regex.equals(key.regex) && groups.equals(key.groups) && properties.equals(key.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Key of the cache for patterns of the builder. Patterns are equal if the expression trees, flags and engines are equal,
+     * and the settings that change the built pattern were the same.
+     */
+    private static class ExpressionKey {
+        private final Expression expression;
+        private final int flags;
+        private final String engineName;
+        private final boolean possessiveQuantifiers;
+        private final boolean strictMode;
+        private final int hashCode;
+
+        ExpressionKey(Expression expression, int flags, String engineName) {
+            this.expression = expression;
+            this.flags = flags;
+            this.engineName = engineName;
+            this.possessiveQuantifiers = AutomaticPossessiveQuantifiersImpl.isEnabled();
+            // Patterns built outside strict mode have not been checked, so they must not be returned in strict mode.
+            this.strictMode = BacktrackingAnalysisImpl.isStrictModeEnabled();
+            this.hashCode = Objects.hash(expression, flags, engineName, possessiveQuantifiers, strictMode);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ExpressionKey)) {
+                return false;
+            }
+            ExpressionKey key = (ExpressionKey) o;
+            return flags == key.flags && possessiveQuantifiers == key.possessiveQuantifiers && strictMode == key.strictMode
+                    && engineName.equals(key.engineName) && expression.equals(key.expression);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Value of the cache.
+     */
+    private static class Entry {
+        private final ReadableRegexPattern pattern;
+
+        /** Indicates whether the entry has been used since it was last considered for eviction. */
+        private volatile boolean referenced = false;
+
+        Entry(ReadableRegexPattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+}
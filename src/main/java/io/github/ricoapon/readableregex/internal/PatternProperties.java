@@ -0,0 +1,120 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.BuiltExpression;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import io.github.ricoapon.readableregex.internal.expression.LineBreakFinder;
+import io.github.ricoapon.readableregex.internal.expression.MaxLengthFinder;
+import io.github.ricoapon.readableregex.internal.expression.RequiredLiteralFinder;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * What the builder knows about a pattern from its expression tree, next to the regular expression, flags and groups.
+ * Patterns that are created from a regular expression string have {@link #UNKNOWN} properties.
+ */
+public final class PatternProperties {
+    /**
+     * Properties of a pattern without an expression tree: no text is rejected up front and matches can contain line feeds
+     * and be of any length.
+     */
+    public static final PatternProperties UNKNOWN = new PatternProperties(null, true, MaxLengthFinder.UNBOUNDED, null);
+
+    private final String requiredLiteral;
+    private final boolean canMatchLineBreak;
+    private final int maxMatchLength;
+    private final ByteSafeMatcher byteSafeMatcher;
+
+    /**
+     * Constructor.
+     * @param requiredLiteral   The literal that is part of every match, or {@code null} if there is none.
+     * @param canMatchLineBreak Whether a match can contain a line feed.
+     * @param maxMatchLength    The maximum number of characters of a match, or {@link MaxLengthFinder#UNBOUNDED}.
+     * @param byteSafeMatcher   The matcher of the bytes of a UTF-8 text, or {@code null} if the pattern is not byte-safe.
+     */
+    public PatternProperties(String requiredLiteral, boolean canMatchLineBreak, int maxMatchLength, ByteSafeMatcher byteSafeMatcher) {
+        this.requiredLiteral = requiredLiteral;
+        this.canMatchLineBreak = canMatchLineBreak;
+        this.maxMatchLength = maxMatchLength;
+        this.byteSafeMatcher = byteSafeMatcher;
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param flags      The flags of {@link Pattern}.
+     * @return The properties of the pattern of the expression tree.
+     */
+    public static PatternProperties of(Expression expression, int flags) {
+        return new PatternProperties(requiredLiteral(expression, flags),
+                LineBreakFinder.canMatchLineBreak(expression, (flags & Pattern.DOTALL) != 0), MaxLengthFinder.maxLength(expression),
+                ByteSafeMatcher.of(expression, flags));
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param flags      The flags of {@link Pattern}.
+     * @return The longest literal that is part of every match, or {@code null} if there is none.
+     */
+    public static String requiredLiteral(Expression expression, int flags) {
+        // Searching for the literal is case-sensitive.
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+            return null;
+        }
+        return RequiredLiteralFinder.find(expression);
+    }
+
+    /**
+     * @param expression The expression that is passed to a {@link io.github.ricoapon.readableregex.MatchingEngine}.
+     * @return The properties of the pattern of the expression.
+     */
+    public static PatternProperties of(BuiltExpression expression) {
+        return new PatternProperties(expression.getRequiredLiteral().orElse(null), expression.canMatchLineBreak(),
+                MaxLengthFinder.maxLength(BuiltExpressionImpl.expressionOf(expression)),
+                ByteSafeMatcher.of(BuiltExpressionImpl.expressionOf(expression), expression.getJdkFlags()));
+    }
+
+    /**
+     * @return The literal that is part of every match, or {@code null} if there is none.
+     */
+    public String getRequiredLiteral() {
+        return requiredLiteral;
+    }
+
+    /**
+     * @return Whether a match can contain a line feed.
+     */
+    public boolean canMatchLineBreak() {
+        return canMatchLineBreak;
+    }
+
+    /**
+     * @return The maximum number of characters of a match, or {@link MaxLengthFinder#UNBOUNDED} if there is no maximum.
+     */
+    public int getMaxMatchLength() {
+        return maxMatchLength;
+    }
+
+    /**
+     * @return The matcher of the bytes of a UTF-8 text, or {@code null} if the pattern is not byte-safe.
+     */
+    public ByteSafeMatcher getByteSafeMatcher() {
+        return byteSafeMatcher;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof PatternProperties)) {
+            return false;
+        }
+        PatternProperties properties = (PatternProperties) o;
+        // The byte-safe matcher is derived from the same expression tree, so it only matters whether there is one.
+        return Objects.equals(requiredLiteral, properties.requiredLiteral) && canMatchLineBreak == properties.canMatchLineBreak
+                && maxMatchLength == properties.maxMatchLength
+                && (byteSafeMatcher != null) == (properties.byteSafeMatcher != null);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(requiredLiteral, canMatchLineBreak, maxMatchLength, byteSafeMatcher != null);
+    }
+}
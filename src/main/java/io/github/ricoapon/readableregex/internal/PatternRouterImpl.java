@@ -0,0 +1,367 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.PatternRouter;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.internal.expression.Alternation;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener;
+import io.github.ricoapon.readableregex.internal.expression.Group;
+import io.github.ricoapon.readableregex.internal.expression.GroupNameRemover;
+import io.github.ricoapon.readableregex.internal.expression.Literal;
+import io.github.ricoapon.readableregex.internal.expression.OptimizedRegexWriter;
+import io.github.ricoapon.readableregex.internal.expression.Sequence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of {@link PatternRouter}.
+ * @param <R> The type of the handlers.
+ */
+public class PatternRouterImpl<R> implements PatternRouter<R> {
+    private final List<R> handlers;
+
+    /** Maps route index to the groups of the pattern of the route. */
+    private final List<List<String>> groupsOfRoute;
+
+    /** Consecutive routes that are matched by a single pattern, in order. */
+    private final List<Segment> segments = new ArrayList<>();
+
+    /**
+     * Constructor.
+     * @param regexBuilders The builders of the patterns of the routes.
+     * @param handlers      The handlers of the routes.
+     * @param patternFlags  The flags that are used for all the routes.
+     */
+    PatternRouterImpl(List<ReadableRegex<?>> regexBuilders, List<R> handlers, PatternFlag... patternFlags) {
+        this.handlers = Collections.unmodifiableList(new ArrayList<>(handlers));
+        this.groupsOfRoute = new ArrayList<>();
+
+        int firstRoute = 0;
+        List<Expression> combinedRoutes = new ArrayList<>();
+        for (int route = 0; route < regexBuilders.size(); route++) {
+            Expression expression = ReadableRegexBuilder._expressionOf(regexBuilders.get(route));
+            List<String> groups = new ArrayList<>();
+            expression.collectGroups(groups);
+            groupsOfRoute.add(Collections.unmodifiableList(groups));
+
+            Expression withoutNames = GroupNameRemover.removeNames(expression);
+            if (withoutNames != null) {
+                combinedRoutes.add(withoutNames);
+                continue;
+            }
+            // The groups of this route are unknown, so it is matched by its own pattern.
+            addCombinedSegment(firstRoute, combinedRoutes, patternFlags);
+            Pattern pattern = regexBuilders.get(route).buildWithFlags(patternFlags).getUnderlyingPattern();
+            segments.add(new Segment(pattern, route, new int[] {0}, new int[] {0}));
+            firstRoute = route + 1;
+            combinedRoutes.clear();
+        }
+        addCombinedSegment(firstRoute, combinedRoutes, patternFlags);
+    }
+
+    /**
+     * Adds the segment that matches all the given routes with a single pattern. Every route ends with an empty capturing
+     * group, the tag, which only participates in the match if the route has matched.
+     * @param firstRoute   The index of the first route.
+     * @param routes       The expressions of the routes without group names.
+     * @param patternFlags The flags that are used for all the routes.
+     */
+    private void addCombinedSegment(int firstRoute, List<Expression> routes, PatternFlag... patternFlags) {
+        if (routes.isEmpty()) {
+            return;
+        }
+        int flags = ReadableRegexBuilder._flags(new Alternation(new ArrayList<>(routes)), patternFlags);
+        // Literals that start with different characters only exclude each other if they are matched case-sensitively.
+        boolean dispatch = (flags & (Pattern.CASE_INSENSITIVE | Pattern.CANON_EQ)) == 0;
+
+        List<RouteEntry> entries = new ArrayList<>();
+        for (int i = 0; i < routes.size(); i++) {
+            entries.add(new RouteEntry(i, routes.get(i), dispatch));
+        }
+        List<Integer> writtenOrder = new ArrayList<>();
+        Expression expression = dispatch ? dispatch(entries, 0, writtenOrder) : alternation(entries, writtenOrder);
+
+        // Groups are numbered in the order in which the routes are written, which differs from the order of the routes.
+        int[] groupOffset = new int[routes.size()];
+        int[] tagGroup = new int[routes.size()];
+        int group = 0;
+        for (int i : writtenOrder) {
+            groupOffset[i] = group;
+            group += groupsOfRoute.get(firstRoute + i).size() + 1;
+            tagGroup[i] = group;
+        }
+
+        BacktrackingAnalysisImpl.checkStrictMode(expression, flags);
+        String regex = OptimizedRegexWriter.write(AutomaticPossessiveQuantifiersImpl.rewrite(expression, flags), flags);
+        //noinspection MagicConstant
+        segments.add(new Segment(Pattern.compile(regex, flags), firstRoute, groupOffset, tagGroup));
+    }
+
+    /**
+     * @param entries      The routes in order.
+     * @param writtenOrder The list to which the routes are added in the order in which they are written.
+     * @return Plain alternation of the routes.
+     */
+    private static Expression alternation(List<RouteEntry> entries, List<Integer> writtenOrder) {
+        List<Expression> alternatives = new ArrayList<>();
+        for (RouteEntry entry : entries) {
+            alternatives.add(entry.withLiteralFrom(0));
+            writtenOrder.add(entry.route);
+        }
+        return new Alternation(alternatives);
+    }
+
+    /**
+     * Returns the alternation of the routes, where the routes that start with the same literal are combined into a
+     * single alternative that matches the literal only once. For example, the routes {@code abc\d} and {@code abd\w}
+     * result in {@code ab(?:c\d|d\w)}. Otherwise, the JDK would match the literal again for every route.
+     * <p>
+     * Routes that continue with different characters can never both match, so their order does not matter. A route whose
+     * literal has ended can match the same texts as any other route, so the order of the routes before and after it is kept.
+     * @param entries      The routes in order, which all start with the same {@code offset} characters.
+     * @param offset       The number of characters of the literals that is already written.
+     * @param writtenOrder The list to which the routes are added in the order in which they are written.
+     * @return The alternation of the routes, without the first {@code offset} characters.
+     */
+    private static Expression dispatch(List<RouteEntry> entries, int offset, List<Integer> writtenOrder) {
+        List<Expression> alternatives = new ArrayList<>();
+        Map<Integer, List<RouteEntry>> byCharacter = new LinkedHashMap<>();
+        for (RouteEntry entry : entries) {
+            if (entry.literal.length() > offset) {
+                byCharacter.computeIfAbsent(entry.literal.codePointAt(offset), c -> new ArrayList<>()).add(entry);
+                continue;
+            }
+            addDispatchAlternatives(alternatives, byCharacter, offset, writtenOrder);
+            byCharacter.clear();
+            alternatives.add(entry.withLiteralFrom(offset));
+            writtenOrder.add(entry.route);
+        }
+        addDispatchAlternatives(alternatives, byCharacter, offset, writtenOrder);
+        return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+    }
+
+    /**
+     * Adds an alternative for every group of routes that continue with the same character.
+     */
+    private static void addDispatchAlternatives(List<Expression> alternatives, Map<Integer, List<RouteEntry>> byCharacter,
+                                                int offset, List<Integer> writtenOrder) {
+        for (List<RouteEntry> sameCharacter : byCharacter.values()) {
+            if (sameCharacter.size() == 1) {
+                alternatives.add(sameCharacter.get(0).withLiteralFrom(offset));
+                writtenOrder.add(sameCharacter.get(0).route);
+                continue;
+            }
+            int prefixEnd = commonPrefixEnd(sameCharacter, offset);
+            String prefix = sameCharacter.get(0).literal.substring(offset, prefixEnd);
+            alternatives.add(new Sequence(Arrays.asList(new Literal(prefix), dispatch(sameCharacter, prefixEnd, writtenOrder))));
+        }
+    }
+
+    /**
+     * @return The index after the longest common prefix of the literals, which never ends between the two characters of a
+     * surrogate pair.
+     */
+    private static int commonPrefixEnd(List<RouteEntry> entries, int offset) {
+        String first = entries.get(0).literal;
+        int end = offset;
+        while (end < first.length()) {
+            int codePoint = first.codePointAt(end);
+            for (RouteEntry entry : entries) {
+                if (end >= entry.literal.length() || entry.literal.codePointAt(end) != codePoint) {
+                    return end;
+                }
+            }
+            end += Character.charCount(codePoint);
+        }
+        return end;
+    }
+
+    @Override
+    public Optional<RouteMatch<R>> route(CharSequence text) {
+        List<RouteMatch<R>> result = new ArrayList<>(1);
+        for (Segment segment : segments) {
+            if (segment.matcherPool.test(text, matcher -> matcher.matches() && result.add(routeMatch(segment, matcher, text)))) {
+                return Optional.of(result.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param segment The segment whose pattern has matched the text.
+     * @param matcher The matcher of the segment that has matched the text.
+     * @param text    The text.
+     * @return The route that has matched, with only the positions of its own groups.
+     */
+    private RouteMatch<R> routeMatch(Segment segment, Matcher matcher, CharSequence text) {
+        int i = 0;
+        // Exactly one route has matched.
+        while (matcher.start(segment.tagGroup[i]) == -1) {
+            i++;
+        }
+        int route = segment.firstRoute + i;
+        List<String> groups = groupsOfRoute.get(route);
+        // A route that is matched by its own pattern (without tag) may contain groups that are unknown.
+        int groupCount = segment.tagGroup[i] == 0 ? matcher.groupCount() : groups.size();
+        int[] positions = new int[2 * (groupCount + 1)];
+        for (int group = 0; group <= groupCount; group++) {
+            int index = group == 0 ? 0 : segment.groupOffset[i] + group;
+            positions[2 * group] = matcher.start(index);
+            positions[2 * group + 1] = matcher.end(index);
+        }
+        return new RouteMatchImpl<>(handlers.get(route), route, groups, text.toString(), positions);
+    }
+
+    @Override
+    public int nrOfRoutes() {
+        return handlers.size();
+    }
+
+    /**
+     * Implementation of {@link PatternRouter.Builder}.
+     * @param <R> The type of the handlers.
+     */
+    public static class BuilderImpl<R> implements PatternRouter.Builder<R> {
+        private final List<ReadableRegex<?>> regexBuilders = new ArrayList<>();
+        private final List<R> handlers = new ArrayList<>();
+
+        @Override
+        public PatternRouter.Builder<R> route(ReadableRegex<?> regex, R handler) {
+            Objects.requireNonNull(regex);
+            regexBuilders.add(regex);
+            handlers.add(handler);
+            return this;
+        }
+
+        @Override
+        public PatternRouter<R> build(PatternFlag... patternFlags) {
+            return new PatternRouterImpl<>(regexBuilders, handlers, patternFlags);
+        }
+    }
+
+    /**
+     * Implementation of {@link PatternRouter.RouteMatch}.
+     * @param <R> The type of the handlers.
+     */
+    private static class RouteMatchImpl<R> implements RouteMatch<R> {
+        private final R handler;
+        private final int routeIndex;
+        private final List<String> groups;
+        private final String text;
+
+        /** The start and end index of every group of the route, where group 0 is the whole text. */
+        private final int[] positions;
+
+        RouteMatchImpl(R handler, int routeIndex, List<String> groups, String text, int[] positions) {
+            this.handler = handler;
+            this.routeIndex = routeIndex;
+            this.groups = groups;
+            this.text = text;
+            this.positions = positions;
+        }
+
+        @Override
+        public R handler() {
+            return handler;
+        }
+
+        @Override
+        public int routeIndex() {
+            return routeIndex;
+        }
+
+        @Override
+        public List<String> groups() {
+            return groups;
+        }
+
+        @Override
+        public String group(int group) {
+            if (group < 0 || 2 * group >= positions.length) {
+                throw new IndexOutOfBoundsException("No group " + group);
+            }
+            int start = positions[2 * group];
+            return start == -1 ? null : text.substring(start, positions[2 * group + 1]);
+        }
+
+        @Override
+        public String group(String name) {
+            int index = name == null ? -1 : groups.indexOf(name);
+            if (index == -1) {
+                throw new IllegalArgumentException("No group with name <" + name + ">");
+            }
+            return group(index + 1);
+        }
+    }
+
+    /**
+     * Routes that are matched by a single pattern.
+     */
+    private static class Segment {
+        private final MatcherPool matcherPool;
+        private final int firstRoute;
+
+        /** Maps route index minus {@link #firstRoute} to the index of the group before the first group of the route. */
+        private final int[] groupOffset;
+
+        /** Maps route index minus {@link #firstRoute} to the index of the group that only participates if the route matches. */
+        private final int[] tagGroup;
+
+        Segment(Pattern pattern, int firstRoute, int[] groupOffset, int[] tagGroup) {
+            this.matcherPool = new MatcherPool(pattern);
+            this.firstRoute = firstRoute;
+            this.groupOffset = groupOffset;
+            this.tagGroup = tagGroup;
+        }
+    }
+
+    /**
+     * Route of a combined segment, split into its leading literal and the remaining blocks.
+     */
+    private static class RouteEntry {
+        /** The index of the route minus the index of the first route of the segment. */
+        private final int route;
+
+        /** The literal that the route starts with, which is empty if the route does not start with a literal. */
+        private final String literal;
+
+        /** The blocks after the literal, followed by the tag of the route. */
+        private final List<Expression> rest;
+
+        RouteEntry(int route, Expression expression, boolean splitLiteral) {
+            this.route = route;
+            List<Expression> blocks = splitLiteral ? ExpressionFlattener.flatten(expression) : new ArrayList<>(Collections.singletonList(expression));
+            if (!blocks.isEmpty() && blocks.get(0) instanceof Literal) {
+                this.literal = ((Literal) blocks.get(0)).getValue();
+                blocks.remove(0);
+            } else {
+                this.literal = "";
+            }
+            blocks.add(new Group(Group.Type.CAPTURING, null, new Sequence(Collections.emptyList())));
+            this.rest = blocks;
+        }
+
+        /**
+         * @param offset The number of characters of the literal that is already written.
+         * @return The expression of the route without the first {@code offset} characters.
+         */
+        Expression withLiteralFrom(int offset) {
+            List<Expression> blocks = new ArrayList<>();
+            if (literal.length() > offset) {
+                blocks.add(new Literal(literal.substring(offset)));
+            }
+            blocks.addAll(rest);
+            return new Sequence(blocks);
+        }
+    }
+}
@@ -1,11 +1,27 @@
 package io.github.ricoapon.readableregex.internal;
 
+import io.github.ricoapon.readableregex.BuiltExpression;
+import io.github.ricoapon.readableregex.MatchingEngines;
 import io.github.ricoapon.readableregex.PatternFlag;
 import io.github.ricoapon.readableregex.ReadableRegex;
 import io.github.ricoapon.readableregex.ReadableRegexPattern;
-
+import io.github.ricoapon.readableregex.internal.expression.Alternation;
+import io.github.ricoapon.readableregex.internal.expression.Anchor;
+import io.github.ricoapon.readableregex.internal.expression.CharacterClass;
+import io.github.ricoapon.readableregex.internal.expression.CharacterSet;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import io.github.ricoapon.readableregex.internal.expression.Group;
+import io.github.ricoapon.readableregex.internal.expression.Literal;
+import io.github.ricoapon.readableregex.internal.expression.OptimizedRegexWriter;
+import io.github.ricoapon.readableregex.internal.expression.Quantified;
+import io.github.ricoapon.readableregex.internal.expression.Raw;
+import io.github.ricoapon.readableregex.internal.expression.Sequence;
+
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 import java.util.regex.Pattern;
@@ -13,30 +29,114 @@ import java.util.stream.Collectors;
 
 /**
  * Implementation that builds the regular expressions.
+ * <p>
+ * The builder constructs a tree of {@link Expression} nodes. Other builders that are included (for example using
+ * {@link #add(ReadableRegex)} or {@link #oneOf(ReadableRegex[])}) contribute their tree directly, so only the outermost
+ * builder compiles a {@link Pattern}.
  */
 public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implements ReadableRegex<T> {
-    /** The internal regular expression. This field should only be modified using the {@link #_addRegex(String)} method. */
-    private final StringBuilder regexBuilder = new StringBuilder();
+    /** The characters matched by {@code \d}. */
+    private static final CharacterSet DIGITS = CharacterSet.of('0', '9');
 
-    /** Indicates whether the flag {@link PatternFlag#MULTILINE} should be enabled when building the pattern object. */
-    private boolean enableMultilineFlag = false;
+    /** The characters matched by {@code \s}: space, tab, line feed, vertical tab, form feed and carriage return. */
+    private static final CharacterSet WHITESPACE = CharacterSet.of(' ', ' ', '\t', '\r');
 
-    /** List of group names in order. If the name is {@code null}, it means it is an unnamed group. */
-    private final List<String> groups = new ArrayList<>();
+    /** The characters matched by {@code \w}. */
+    private static final CharacterSet WORD_CHARACTERS = CharacterSet.of('a', 'z', 'A', 'Z', '0', '9', '_', '_');
+
+    /**
+     * The groups that have been started, but not yet ended. The first element is the group that has been started last.
+     * The last element is the root of the expression, which is never ended. This field should only be modified using
+     * the methods {@link #_addBlock(Expression)}, {@link #_startGroup(Group.Type, String)} and {@link #endGroup()}.
+     */
+    private final Deque<OpenGroup> openGroups = new ArrayDeque<>(Collections.singleton(new OpenGroup(null, null)));
 
-    @SuppressWarnings("MagicConstant")
     @Override
     public ReadableRegexPattern buildWithFlags(PatternFlag... patternFlags) {
+        return _build(null, patternFlags);
+    }
+
+    @Override
+    public ReadableRegexPattern buildWithEngine(String engineName, PatternFlag... patternFlags) {
+        Objects.requireNonNull(engineName);
+        return _build(engineName, patternFlags);
+    }
+
+    /**
+     * Looks up the pattern in the {@link PatternCacheImpl} before the expression is analyzed, so that a hit only costs
+     * creating and comparing the expression tree.
+     * @param engineName The name of the engine, or {@code null} for the default engine.
+     */
+    private ReadableRegexPattern _build(String engineName, PatternFlag... patternFlags) {
+        Expression expression = toExpression();
+        int flags = _flags(expression, patternFlags);
+        String engine = engineName == null ? MatchingEnginesImpl.getDefault() : engineName;
+        return PatternCacheImpl.build(expression, flags, engine, () -> _compile(expression, flags, engine));
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param flags      The flags of {@link Pattern}.
+     * @param engine     The name of the engine.
+     * @return The pattern, without looking it up in the cache.
+     */
+    private static ReadableRegexPattern _compile(Expression expression, int flags, String engine) {
+        BacktrackingAnalysisImpl.checkStrictMode(expression, flags);
+        String regex = OptimizedRegexWriter.write(AutomaticPossessiveQuantifiersImpl.rewrite(expression, flags), flags);
+        if (MatchingEngines.JDK.equals(engine)) {
+            ReadableRegexPattern literalAlternationPattern = AhoCorasickReadableRegexPattern.fromExpression(expression, regex, flags);
+            if (literalAlternationPattern != null) {
+                return literalAlternationPattern;
+            }
+        }
+        BuiltExpression builtExpression = new BuiltExpressionImpl(expression, regex, flags, _groups(expression),
+                PatternProperties.requiredLiteral(expression, flags));
+        return MatchingEnginesImpl.compile(engine, builtExpression);
+    }
+
+    @Override
+    public ReadableRegexPattern buildLazilyWithFlags(PatternFlag... patternFlags) {
+        Expression expression = toExpression();
+        int flags = _flags(expression, patternFlags);
+        BacktrackingAnalysisImpl.checkStrictMode(expression, flags);
+        String regex = OptimizedRegexWriter.write(AutomaticPossessiveQuantifiersImpl.rewrite(expression, flags), flags);
+        return new LazyReadableRegexPattern(regex, flags, _groups(expression), PatternProperties.of(expression, flags));
+    }
+
+    /**
+     * @param expression   The expression tree.
+     * @param patternFlags The flags that are enabled by the user.
+     * @return The flags of {@link Pattern} that should be used to compile the expression.
+     */
+    static int _flags(Expression expression, PatternFlag... patternFlags) {
         int flags = Arrays.stream(patternFlags).map(PatternFlag::getJdkPatternFlagCode)
                 .reduce(0, (integer, integer2) -> integer | integer2);
 
         // If we should enable multiline, make sure it is part of the flags variable.
-        if (enableMultilineFlag && (flags & PatternFlag.MULTILINE.getJdkPatternFlagCode()) == 0) {
+        if (expression.requiresMultilineFlag() && (flags & PatternFlag.MULTILINE.getJdkPatternFlagCode()) == 0) {
             flags = flags | PatternFlag.MULTILINE.getJdkPatternFlagCode();
         }
 
-        Pattern pattern = Pattern.compile(regexBuilder.toString(), flags);
-        return new ReadableRegexPatternImpl(pattern, groups);
+        return flags;
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @return List of group names in order. If the name is {@code null}, it means it is an unnamed group.
+     */
+    private static List<String> _groups(Expression expression) {
+        List<String> groups = new ArrayList<>();
+        expression.collectGroups(groups);
+        return groups;
+    }
+
+    /**
+     * Returns the expression tree that has been constructed so far. The returned tree is not affected by calling methods
+     * on this builder afterwards.
+     * @return The expression tree.
+     */
+    Expression toExpression() {
+        return new Sequence(openGroups.getLast().blocks);
     }
 
     /**
@@ -48,61 +148,120 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
     }
 
     /**
-     * Adds the regular expression to {@link #regexBuilder}.
-     * @param regex The regular expression.
+     * Adds the block to the group that has been started last.
+     * @param block The block.
      * @return This builder.
      */
-    private T _addRegex(String regex) {
-        Objects.requireNonNull(regex);
-        regexBuilder.append(regex);
+    private T _addBlock(Expression block) {
+        openGroups.getFirst().blocks.add(block);
         return thisT();
     }
 
+    /**
+     * Replaces the last block of the group that has been started last with a quantified version of the block.
+     * @param min      The minimum number of repetitions.
+     * @param max      The maximum number of repetitions, or {@link Quantified#UNBOUNDED}.
+     * @param notation The quantifier as it is written in the regular expression.
+     * @return This builder.
+     */
+    private T _quantifyLastBlock(int min, int max, String notation) {
+        List<Expression> blocks = openGroups.getFirst().blocks;
+        Expression lastBlock = blocks.remove(blocks.size() - 1);
+        return _addBlock(new Quantified(lastBlock, min, max, notation, Quantified.Mode.GREEDY));
+    }
+
+    /**
+     * Changes the mode of the quantifier of the last block of the group that has been started last.
+     * @param mode The new mode.
+     * @return This builder.
+     */
+    private T _changeModeOfLastQuantifier(Quantified.Mode mode) {
+        List<Expression> blocks = openGroups.getFirst().blocks;
+        Quantified lastBlock = (Quantified) blocks.remove(blocks.size() - 1);
+        return _addBlock(lastBlock.withMode(mode));
+    }
+
+    /**
+     * Starts a new group. All blocks are added to this group until {@link #endGroup()} is called.
+     * @param type The type of group.
+     * @param name The name of the group, or {@code null} if the group has no name.
+     * @return This builder.
+     */
+    private T _startGroup(Group.Type type, String name) {
+        openGroups.push(new OpenGroup(type, name));
+        return thisT();
+    }
+
+    /**
+     * Returns the expression tree of the given builder. If possible, the tree is taken directly from the builder. Otherwise,
+     * the builder is built and the resulting pattern is included as is.
+     * @param regexBuilder The builder.
+     * @return The expression tree.
+     */
+    static Expression _expressionOf(ReadableRegex<?> regexBuilder) {
+        if (regexBuilder instanceof ReadableRegexBuilder) {
+            return ((ReadableRegexBuilder<?>) regexBuilder).toExpression();
+        }
+
+        return _expressionOf(regexBuilder.build());
+    }
+
+    /**
+     * @param pattern The pattern.
+     * @return The expression tree that includes the pattern as is.
+     */
+    private static Expression _expressionOf(ReadableRegexPattern pattern) {
+        return new Raw(pattern.toString(), pattern.groups());
+    }
+
     @Override
     public T regexFromString(String regex) {
-        return _addRegex(regex);
+        Objects.requireNonNull(regex);
+        return _addBlock(new Raw(regex, Collections.emptyList()));
+    }
+
+    @Override
+    public T add(ReadableRegex<?> regexBuilder) {
+        Objects.requireNonNull(regexBuilder);
+        // Wrap in an unnamed group, to make sure that quantifiers work on the entire block.
+        return _addBlock(new Group(Group.Type.NON_CAPTURING, null, _expressionOf(regexBuilder)));
     }
 
     @Override
     public T add(ReadableRegexPattern pattern) {
         Objects.requireNonNull(pattern);
-        String regexToInclude = pattern.toString();
-
         // Wrap in an unnamed group, to make sure that quantifiers work on the entire block.
-        return _addRegex("(?:" + regexToInclude + ")");
+        return _addBlock(new Group(Group.Type.NON_CAPTURING, null, _expressionOf(pattern)));
     }
 
     @Override
     public T literal(String literalValue) {
         Objects.requireNonNull(literalValue);
-        // Surround input with \Q\E to make sure that all the meta characters are escaped.
-        // Wrap in an unnamed group, to make sure that quantifiers work on the entire block.
-        return _addRegex("(?:\\Q" + literalValue + "\\E)");
+        return _addBlock(new Literal(literalValue));
     }
 
     @Override
     public T digit() {
-        return _addRegex("\\d");
+        return _addBlock(new CharacterClass("\\d", "digit()", DIGITS));
     }
 
     @Override
     public T whitespace() {
-        return _addRegex("\\s");
+        return _addBlock(new CharacterClass("\\s", "whitespace()", WHITESPACE));
     }
 
     @Override
     public T tab() {
-        return _addRegex("\\t");
+        return _addBlock(new CharacterClass("\\t", "tab()", CharacterSet.of('\t', '\t')));
     }
 
     @Override
     public T oneOf(ReadableRegex<?>... regexBuilders) {
-        String middlePart = Arrays.stream(regexBuilders)
-                .map(ReadableRegex::build)
-                .map(ReadableRegexPattern::toString)
-                .collect(Collectors.joining("|"));
+        List<Expression> alternatives = Arrays.stream(regexBuilders)
+                .map(ReadableRegexBuilder::_expressionOf)
+                .collect(Collectors.toList());
 
-        return _addRegex("(?:" + middlePart + ")");
+        return _addBlock(new Alternation(alternatives));
     }
 
     @Override
@@ -121,7 +280,8 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
         }
         expression.append("]");
 
-        return _addRegex(expression.toString());
+        return _addBlock(new CharacterClass(expression.toString(), "range(" + _describeBoundaries(boundaries) + ")",
+                CharacterSet.ofBoundaries(boundaries)));
     }
 
     @Override
@@ -140,7 +300,31 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
         }
         expression.append("]");
 
-        return _addRegex(expression.toString());
+        return _addBlock(new CharacterClass(expression.toString(), "notInRange(" + _describeBoundaries(boundaries) + ")",
+                _complementOf(CharacterSet.ofBoundaries(boundaries))));
+    }
+
+    /**
+     * @param boundaries The boundaries of a range.
+     * @return The boundaries as they are written in Java code, for example {@code 'a', 'z'}.
+     */
+    private static String _describeBoundaries(char... boundaries) {
+        StringBuilder description = new StringBuilder();
+        for (char boundary : boundaries) {
+            if (description.length() > 0) {
+                description.append(", ");
+            }
+            description.append('\'').append(boundary).append('\'');
+        }
+        return description.toString();
+    }
+
+    /**
+     * @param characters The set of characters, or {@code null} if it is not known exactly.
+     * @return The complement of the set, or {@code null} if the set is not known exactly.
+     */
+    private static CharacterSet _complementOf(CharacterSet characters) {
+        return characters == null ? null : characters.complement();
     }
 
     @Override
@@ -150,7 +334,8 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
             throw new IllegalArgumentException("An empty range is pointless. Please supply boundaries!");
         }
 
-        return _addRegex("[" + characters + "]");
+        return _addBlock(new CharacterClass("[" + characters + "]", "anyCharacterOf(\"" + characters + "\")",
+                CharacterSet.ofCharacters(characters)));
     }
 
     @Override
@@ -160,71 +345,68 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
             throw new IllegalArgumentException("An empty range is pointless. Please supply boundaries!");
         }
 
-        return _addRegex("[^" + characters + "]");
+        return _addBlock(new CharacterClass("[^" + characters + "]", "anyCharacterExcept(\"" + characters + "\")",
+                _complementOf(CharacterSet.ofCharacters(characters))));
     }
 
     @Override
     public T wordCharacter() {
-        return _addRegex("\\w");
+        return _addBlock(new CharacterClass("\\w", "wordCharacter()", WORD_CHARACTERS));
     }
 
     @Override
     public T nonWordCharacter() {
-        return _addRegex("\\W");
+        return _addBlock(new CharacterClass("\\W", "nonWordCharacter()", WORD_CHARACTERS.complement()));
     }
 
     @Override
     public T wordBoundary() {
-        return _addRegex("\\b");
+        return _addBlock(new Anchor(Anchor.Type.WORD_BOUNDARY));
     }
 
     @Override
     public T nonWordBoundary() {
-        return _addRegex("\\B");
+        return _addBlock(new Anchor(Anchor.Type.NON_WORD_BOUNDARY));
     }
 
     @Override
     public T anyCharacter() {
-        return _addRegex(".");
+        return _addBlock(new CharacterClass(".", "anyCharacter()"));
     }
 
     @Override
     public T startOfLine() {
-        enableMultilineFlag = true;
-        // Surround with an unnamed group, to make sure that it can be followed up with quantifiers.
-        return _addRegex("(?:^)");
+        return _addBlock(new Anchor(Anchor.Type.START_OF_LINE));
     }
 
     @Override
     public T startOfInput() {
-        return _addRegex("\\A");
+        return _addBlock(new Anchor(Anchor.Type.START_OF_INPUT));
     }
 
     @Override
     public T endOfLine() {
-        enableMultilineFlag = true;
-        // Surround with an unnamed group, to make sure that it can be followed up with quantifiers.
-        return _addRegex("(?:$)");
+        return _addBlock(new Anchor(Anchor.Type.END_OF_LINE));
     }
 
     @Override
     public T endOfInput() {
-        return _addRegex("\\z");
+        return _addBlock(new Anchor(Anchor.Type.END_OF_INPUT));
     }
 
     @Override
     public T oneOrMore() {
-        return _addRegex("+");
+        return _quantifyLastBlock(1, Quantified.UNBOUNDED, "+");
     }
 
     @Override
     public T optional() {
-        return _addRegex("?");
+        return _quantifyLastBlock(0, 1, "?");
     }
 
     @Override
     public T zeroOrMore() {
-        return _addRegex("*");
+        return _quantifyLastBlock(0, Quantified.UNBOUNDED, "*");
     }
 
     private T _countRange(int n, Integer m) {
@@ -235,10 +417,10 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
         }
 
         if (Integer.MAX_VALUE == m) {
-            return _addRegex("{" + n + ",}");
+            return _quantifyLastBlock(n, m, "{" + n + ",}");
         }
 
-        return _addRegex("{" + n + "," + m + "}");
+        return _quantifyLastBlock(n, m, "{" + n + "," + m + "}");
     }
 
     @Override
@@ -258,18 +440,17 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
 
     @Override
     public T reluctant() {
-        return _addRegex("?");
+        return _changeModeOfLastQuantifier(Quantified.Mode.RELUCTANT);
     }
 
     @Override
     public T possessive() {
-        return _addRegex("+");
+        return _changeModeOfLastQuantifier(Quantified.Mode.POSSESSIVE);
     }
 
     @Override
     public T startGroup() {
-        groups.add(null);
-        return _addRegex("(");
+        return _startGroup(Group.Type.CAPTURING, null);
     }
 
     @Override
@@ -280,37 +461,51 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
                     "and only contain letters and digits.");
         }
 
-        groups.add(groupName);
-        return _addRegex("(?<" + groupName + ">");
+        return _startGroup(Group.Type.CAPTURING, groupName);
     }
 
     @Override
     public T startUnnamedGroup() {
-        return _addRegex("(?:");
+        return _startGroup(Group.Type.NON_CAPTURING, null);
     }
 
     @Override
     public T startPositiveLookbehind() {
-        return _addRegex("(?<=");
+        return _startGroup(Group.Type.POSITIVE_LOOKBEHIND, null);
     }
 
     @Override
     public T startNegativeLookbehind() {
-        return _addRegex("(?<!");
+        return _startGroup(Group.Type.NEGATIVE_LOOKBEHIND, null);
     }
 
     @Override
     public T startPositiveLookahead() {
-        return _addRegex("(?=");
+        return _startGroup(Group.Type.POSITIVE_LOOKAHEAD, null);
     }
 
     @Override
     public T startNegativeLookahead() {
-        return _addRegex("(?!");
+        return _startGroup(Group.Type.NEGATIVE_LOOKAHEAD, null);
     }
 
     @Override
     public T endGroup() {
-        return _addRegex(")");
+        OpenGroup group = openGroups.pop();
+        return _addBlock(new Group(group.type, group.name, new Sequence(group.blocks)));
+    }
+
+    /**
+     * Group that has been started, but not yet ended.
+     */
+    private static class OpenGroup {
+        private final Group.Type type;
+        private final String name;
+        private final List<Expression> blocks = new ArrayList<>();
+
+        OpenGroup(Group.Type type, String name) {
+            this.type = type;
+            this.name = name;
+        }
     }
 }
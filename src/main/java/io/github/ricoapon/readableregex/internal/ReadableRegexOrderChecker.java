@@ -3,6 +3,7 @@ package io.github.ricoapon.readableregex.internal;
 import io.github.ricoapon.readableregex.PatternFlag;
 import io.github.ricoapon.readableregex.ReadableRegex;
 import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
 
 import static io.github.ricoapon.readableregex.internal.MethodOrderChecker.Method.*;
 
@@ -28,6 +29,25 @@ public class ReadableRegexOrderChecker<T extends ReadableRegex<T>> extends Reada
         return super.buildWithFlags(patternFlags);
     }
 
+    @Override
+    public ReadableRegexPattern buildWithEngine(String engineName, PatternFlag... patternFlags) {
+        methodOrderChecker.checkCallingMethod(FINISH);
+        return super.buildWithEngine(engineName, patternFlags);
+    }
+
+    @Override
+    public ReadableRegexPattern buildLazilyWithFlags(PatternFlag... patternFlags) {
+        methodOrderChecker.checkCallingMethod(FINISH);
+        return super.buildLazilyWithFlags(patternFlags);
+    }
+
+    @Override
+    Expression toExpression() {
+        // Including the expression in another builder is the same as finishing this builder.
+        methodOrderChecker.checkCallingMethod(FINISH);
+        return super.toExpression();
+    }
+
     @Override
     public T regexFromString(String regex) {
         // We are not actually sure that the regex is a standalone block. If we don't do this however, it is never possible
@@ -36,6 +56,12 @@ public class ReadableRegexOrderChecker<T extends ReadableRegex<T>> extends Reada
         return super.regexFromString(regex);
     }
 
+    @Override
+    public T add(ReadableRegex<?> regexBuilder) {
+        methodOrderChecker.checkCallingMethod(STANDALONE_BLOCK);
+        return super.add(regexBuilder);
+    }
+
     @Override
     public T add(ReadableRegexPattern pattern) {
         methodOrderChecker.checkCallingMethod(STANDALONE_BLOCK);
@@ -4,42 +4,37 @@ import io.github.ricoapon.readableregex.PatternFlag;
 import io.github.ricoapon.readableregex.ReadableRegexPattern;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link ReadableRegexPattern}.
  */
-public class ReadableRegexPatternImpl implements ReadableRegexPattern {
+public class ReadableRegexPatternImpl extends AbstractReadableRegexPattern {
     private final Pattern pattern;
-
-    /** Maps group index to the name. If the name is null, it means it is an unnamed group. */
-    private final List<String> groups;
+    private final MatcherPool matcherPool;
 
     public ReadableRegexPatternImpl(Pattern pattern, List<String> groups) {
-        this.pattern = pattern;
-        this.groups = Collections.unmodifiableList(groups);
+        this(pattern, groups, PatternProperties.UNKNOWN);
     }
 
-    @Override
-    public Matcher matches(String text) {
-        return pattern.matcher(text);
-    }
-
-    @Override
-    public Set<PatternFlag> enabledFlags() {
-        return Arrays.stream(PatternFlag.values())
-                .filter(flag -> (pattern.flags() & flag.getJdkPatternFlagCode()) != 0)
-                .collect(Collectors.toSet());
+    /**
+     * Constructor.
+     * @param pattern    The compiled pattern.
+     * @param groups     List of group names in order.
+     * @param properties What the builder knows about the pattern.
+     */
+    public ReadableRegexPatternImpl(Pattern pattern, List<String> groups, PatternProperties properties) {
+        super(pattern.flags(), groups, properties);
+        this.pattern = pattern;
+        this.matcherPool = new MatcherPool(pattern);
     }
 
     @Override
-    public List<String> groups() {
-        return groups;
+    MatcherPool matcherPool() {
+        return matcherPool;
     }
 
     @Override
@@ -47,6 +42,16 @@ public class ReadableRegexPatternImpl implements ReadableRegexPattern {
         return pattern;
     }
 
+    /**
+     * @param flags The flags of {@link Pattern}.
+     * @return All the {@link PatternFlag}s that are enabled in the given flags.
+     */
+    public static Set<PatternFlag> toPatternFlags(int flags) {
+        return Arrays.stream(PatternFlag.values())
+                .filter(flag -> (flags & flag.getJdkPatternFlagCode()) != 0)
+                .collect(Collectors.toSet());
+    }
+
     @Override
     public String toString() {
         return pattern.toString();
@@ -0,0 +1,110 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.ReadableRegexSet;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+
+/**
+ * Implementation of {@link ReadableRegexSet}.
+ * <p>
+ * Patterns that always match with the JDK engine are evaluated using a pool of matchers of their own. All other patterns,
+ * for example those built with another {@link io.github.ricoapon.readableregex.MatchingEngine} or those that use an
+ * Aho-Corasick automaton, are evaluated by calling the pattern itself, so that they keep matching in their own way.
+ */
+public class ReadableRegexSetImpl implements ReadableRegexSet {
+    private final List<ReadableRegexPattern> patterns;
+
+    /** The pool of matchers of each pattern, or {@code null} if the pattern is evaluated by calling the pattern itself. */
+    private final MatcherPool[] matcherPools;
+
+    /** The patterns without a required literal, which are evaluated for every text. */
+    private final BitSet patternsWithoutLiteral = new BitSet();
+
+    /** The automaton of the distinct required literals, or {@code null} if no pattern has a required literal. */
+    private final AhoCorasickAutomaton literalAutomaton;
+
+    /** The patterns that require each literal of the automaton. */
+    private final List<BitSet> patternsOfLiteral;
+
+    /**
+     * Constructor.
+     * @param patterns The patterns of the set, in order.
+     */
+    public ReadableRegexSetImpl(List<? extends ReadableRegexPattern> patterns) {
+        this.patterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+        this.matcherPools = new MatcherPool[patterns.size()];
+
+        Map<String, BitSet> patternsByLiteral = new LinkedHashMap<>();
+        for (int i = 0; i < this.patterns.size(); i++) {
+            ReadableRegexPattern pattern = this.patterns.get(i);
+            if (pattern instanceof ReadableRegexPatternImpl) {
+                matcherPools[i] = new MatcherPool(pattern.getUnderlyingPattern());
+            }
+            Optional<String> requiredLiteral = pattern.requiredLiteral();
+            if (requiredLiteral.isPresent()) {
+                patternsByLiteral.computeIfAbsent(requiredLiteral.get(), literal -> new BitSet()).set(i);
+            } else {
+                patternsWithoutLiteral.set(i);
+            }
+        }
+
+        literalAutomaton = patternsByLiteral.isEmpty() ? null : new AhoCorasickAutomaton(new ArrayList<>(patternsByLiteral.keySet()));
+        patternsOfLiteral = new ArrayList<>(patternsByLiteral.values());
+    }
+
+    @Override
+    public BitSet find(CharSequence text) {
+        return evaluate(text, Matcher::find, ReadableRegexPattern::find);
+    }
+
+    @Override
+    public BitSet matchesTextExactly(CharSequence text) {
+        return evaluate(text, Matcher::matches, ReadableRegexPattern::matchesTextExactly);
+    }
+
+    /**
+     * @param text         The text to be matched.
+     * @param query        The query on the matcher of patterns that have a pool of matchers.
+     * @param patternQuery The same query on the other patterns.
+     * @return The indices of the patterns for which the query is true.
+     */
+    private BitSet evaluate(CharSequence text, Predicate<Matcher> query, BiPredicate<ReadableRegexPattern, CharSequence> patternQuery) {
+        BitSet result = candidates(text);
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            boolean matches = matcherPools[i] != null ? matcherPools[i].test(text, query) : patternQuery.test(patterns.get(i), text);
+            if (!matches) {
+                result.clear(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The indices of the patterns that can match the text, because the text contains their required literal.
+     */
+    private BitSet candidates(CharSequence text) {
+        BitSet result = (BitSet) patternsWithoutLiteral.clone();
+        if (literalAutomaton != null) {
+            BitSet literals = literalAutomaton.occurringLiterals(text);
+            for (int literal = literals.nextSetBit(0); literal >= 0; literal = literals.nextSetBit(literal + 1)) {
+                result.or(patternsOfLiteral.get(literal));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<ReadableRegexPattern> patterns() {
+        return patterns;
+    }
+}
@@ -0,0 +1,318 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.MatchVisitor;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.internal.automaton.ByteDfa;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.MatchResult;
+
+/**
+ * Matches the bytes between the position and the limit of a buffer, which contain a UTF-8 encoded text. All the indices,
+ * also those of the matches, are indices of bytes in the buffer. The position of the buffer is not changed.
+ * <p>
+ * If the pattern is {@link ReadableRegexPattern#isByteSafe()}, the bytes are matched as a {@link Latin1CharSequence}, so
+ * they are not decoded or copied. Otherwise, the bytes are decoded and the indices of the matches are converted back to
+ * indices of bytes. Bytes that are not part of a valid UTF-8 sequence are decoded as {@code U+FFFD}. To determine the
+ * indices of the matches, this is done for every byte separately.
+ */
+public final class Utf8Matching {
+    /** The character that replaces a byte that is not part of a valid UTF-8 sequence. */
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private Utf8Matching() {
+    }
+
+    /**
+     * @param pattern The pattern.
+     * @param bytes   The bytes of the text.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     */
+    public static boolean matchesTextExactly(ReadableRegexPattern pattern, ByteBuffer bytes) {
+        int start = bytes.position();
+        int end = bytes.limit();
+        if (pattern.isByteSafe()) {
+            return pattern.matchesTextExactly(new Latin1CharSequence(bytes, start, end - start));
+        }
+        // The indices of the characters are not needed, so the faster decoder of the JDK is used. Decoding a duplicate
+        // leaves the position of the buffer unchanged.
+        return pattern.matchesTextExactly(bytes.hasArray()
+                ? new String(bytes.array(), bytes.arrayOffset() + start, end - start, StandardCharsets.UTF_8)
+                : StandardCharsets.UTF_8.decode(bytes.duplicate()).toString());
+    }
+
+    /**
+     * Same as {@link #matchesTextExactly(ReadableRegexPattern, ByteBuffer)}, but the text is matched by the automaton of the
+     * byte-safe matcher if it is available.
+     * @param pattern         The pattern.
+     * @param byteSafeMatcher The matcher of the pattern, or {@code null} if the pattern is not byte-safe.
+     * @param bytes           The bytes of the text.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     */
+    public static boolean matchesTextExactly(ReadableRegexPattern pattern, ByteSafeMatcher byteSafeMatcher, ByteBuffer bytes) {
+        ByteDfa dfa = byteSafeMatcher == null ? null : byteSafeMatcher.dfa();
+        if (dfa != null) {
+            return dfa.matches(bytes, bytes.position(), bytes.limit());
+        }
+        return matchesTextExactly(pattern, bytes);
+    }
+
+    /**
+     * @param pattern The pattern.
+     * @param bytes   The bytes of the text.
+     * @return All the matches in order of occurrence, with the indices of the bytes in the buffer.
+     */
+    public static List<MatchResult> findAll(ReadableRegexPattern pattern, ByteBuffer bytes) {
+        int start = bytes.position();
+        int end = bytes.limit();
+        if (pattern.isByteSafe()) {
+            return pattern.findAll(Latin1CharSequence.upToLimit(bytes), start, end);
+        }
+
+        DecodedText decodedText = DecodedText.decode(bytes, start, end);
+        List<MatchResult> matches = pattern.findAll(decodedText.text);
+        List<MatchResult> results = new ArrayList<>(matches.size());
+        for (MatchResult match : matches) {
+            results.add(new ByteIndicesMatchResult(match, decodedText.byteIndices));
+        }
+        return results;
+    }
+
+    /**
+     * @param pattern The pattern.
+     * @param bytes   The bytes of the text.
+     * @param visitor The visitor that is called for every match, with the indices of the bytes in the buffer.
+     */
+    public static void forEachMatch(ReadableRegexPattern pattern, ByteBuffer bytes, MatchVisitor visitor) {
+        int start = bytes.position();
+        int end = bytes.limit();
+        if (pattern.isByteSafe()) {
+            pattern.forEachMatch(Latin1CharSequence.upToLimit(bytes), start, end, visitor);
+            return;
+        }
+
+        DecodedText decodedText = DecodedText.decode(bytes, start, end);
+        ByteIndicesMatch byteIndicesMatch = new ByteIndicesMatch(decodedText.byteIndices);
+        pattern.forEachMatch(decodedText.text, match -> visitor.visit(byteIndicesMatch.of(match)));
+    }
+
+    /**
+     * @return Whether the byte is the second, third or fourth byte of a UTF-8 sequence and lies between the given bounds.
+     */
+    private static boolean isContinuation(int b, int min, int max) {
+        return b >= min && b <= max;
+    }
+
+    /**
+     * Decodes a single character of which the first byte is at least {@code 0x80}.
+     * @return The code point and the number of bytes, packed as {@code nrOfBytes << 24 | codePoint}. If the bytes are not
+     * a valid UTF-8 sequence, the result is the replacement character with a single byte.
+     */
+    private static int decodeNonAscii(ByteBuffer bytes, int index, int end) {
+        int b0 = bytes.get(index) & 0xFF;
+        int b1 = index + 1 < end ? bytes.get(index + 1) & 0xFF : -1;
+        if (b0 >= 0xC2 && b0 <= 0xDF && isContinuation(b1, 0x80, 0xBF)) {
+            return 2 << 24 | (b0 & 0x1F) << 6 | (b1 & 0x3F);
+        }
+
+        int b2 = index + 2 < end ? bytes.get(index + 2) & 0xFF : -1;
+        // The bounds of the second byte exclude overlong encodings, surrogates and code points after U+10FFFF.
+        if (b0 >= 0xE0 && b0 <= 0xEF && isContinuation(b1, b0 == 0xE0 ? 0xA0 : 0x80, b0 == 0xED ? 0x9F : 0xBF)
+                && isContinuation(b2, 0x80, 0xBF)) {
+            return 3 << 24 | (b0 & 0x0F) << 12 | (b1 & 0x3F) << 6 | (b2 & 0x3F);
+        }
+
+        int b3 = index + 3 < end ? bytes.get(index + 3) & 0xFF : -1;
+        if (b0 >= 0xF0 && b0 <= 0xF4 && isContinuation(b1, b0 == 0xF0 ? 0x90 : 0x80, b0 == 0xF4 ? 0x8F : 0xBF)
+                && isContinuation(b2, 0x80, 0xBF) && isContinuation(b3, 0x80, 0xBF)) {
+            return 4 << 24 | (b0 & 0x07) << 18 | (b1 & 0x3F) << 12 | (b2 & 0x3F) << 6 | (b3 & 0x3F);
+        }
+        return 1 << 24 | REPLACEMENT_CHARACTER;
+    }
+
+    /**
+     * Decoded text, together with the index of the byte of every character.
+     */
+    private static final class DecodedText {
+        private final String text;
+        /** The index of the first byte of every character, followed by the index after the last byte. */
+        private final int[] byteIndices;
+
+        private DecodedText(String text, int[] byteIndices) {
+            this.text = text;
+            this.byteIndices = byteIndices;
+        }
+
+        static DecodedText decode(ByteBuffer bytes, int start, int end) {
+            // UTF-8 never needs more bytes than characters: four bytes are decoded as a surrogate pair.
+            char[] chars = new char[end - start];
+            int[] byteIndices = new int[end - start + 1];
+            int length = 0;
+            int index = start;
+            while (index < end) {
+                int b = bytes.get(index);
+                if (b >= 0) {
+                    byteIndices[length] = index;
+                    chars[length++] = (char) b;
+                    index++;
+                    continue;
+                }
+
+                int decoded = decodeNonAscii(bytes, index, end);
+                int codePoint = decoded & 0xFFFFFF;
+                // Both characters of a surrogate pair start at the first byte.
+                for (char c : Character.toChars(codePoint)) {
+                    byteIndices[length] = index;
+                    chars[length++] = c;
+                }
+                index += decoded >>> 24;
+            }
+            byteIndices[length] = end;
+            return new DecodedText(new String(chars, 0, length), byteIndices);
+        }
+    }
+
+    /**
+     * Match in the decoded text, of which the indices are converted to the indices of the bytes.
+     */
+    private static final class ByteIndicesMatchResult implements MatchResult {
+        private final MatchResult match;
+        /** Group {@code n} starts at index {@code 2n} and ends at index {@code 2n+1}. A position is -1 if the group did not match. */
+        private final int[] positions;
+
+        ByteIndicesMatchResult(MatchResult match, int[] byteIndices) {
+            this.match = match;
+            this.positions = new int[2 * match.groupCount() + 2];
+            for (int group = 0; group <= match.groupCount(); group++) {
+                positions[2 * group] = match.start(group) < 0 ? -1 : byteIndices[match.start(group)];
+                positions[2 * group + 1] = match.end(group) < 0 ? -1 : byteIndices[match.end(group)];
+            }
+        }
+
+        private void checkGroup(int group) {
+            if (group < 0 || group > groupCount()) {
+                throw new IndexOutOfBoundsException("No group " + group);
+            }
+        }
+
+        @Override
+        public int start() {
+            return positions[0];
+        }
+
+        @Override
+        public int start(int group) {
+            checkGroup(group);
+            return positions[2 * group];
+        }
+
+        @Override
+        public int end() {
+            return positions[1];
+        }
+
+        @Override
+        public int end(int group) {
+            checkGroup(group);
+            return positions[2 * group + 1];
+        }
+
+        @Override
+        public String group() {
+            return match.group();
+        }
+
+        @Override
+        public String group(int group) {
+            return match.group(group);
+        }
+
+        @Override
+        public int groupCount() {
+            return match.groupCount();
+        }
+    }
+
+    /**
+     * Current match in the decoded text, of which the indices are converted to the indices of the bytes.
+     */
+    private static final class ByteIndicesMatch implements MatchVisitor.Match {
+        private final int[] byteIndices;
+        private MatchVisitor.Match match;
+
+        ByteIndicesMatch(int[] byteIndices) {
+            this.byteIndices = byteIndices;
+        }
+
+        /**
+         * @param currentMatch The current match in the decoded text.
+         * @return This object, which converts the indices of the current match.
+         */
+        ByteIndicesMatch of(MatchVisitor.Match currentMatch) {
+            this.match = currentMatch;
+            return this;
+        }
+
+        private int toByteIndex(int index) {
+            return index < 0 ? -1 : byteIndices[index];
+        }
+
+        @Override
+        public int start() {
+            return byteIndices[match.start()];
+        }
+
+        @Override
+        public int end() {
+            return byteIndices[match.end()];
+        }
+
+        @Override
+        public int start(int group) {
+            return toByteIndex(match.start(group));
+        }
+
+        @Override
+        public int end(int group) {
+            return toByteIndex(match.end(group));
+        }
+
+        @Override
+        public int start(String name) {
+            return toByteIndex(match.start(name));
+        }
+
+        @Override
+        public int end(String name) {
+            return toByteIndex(match.end(name));
+        }
+
+        @Override
+        public int groupCount() {
+            return match.groupCount();
+        }
+
+        @Override
+        public String group() {
+            return match.group();
+        }
+
+        @Override
+        public String group(int group) {
+            return match.group(group);
+        }
+
+        @Override
+        public String group(String name) {
+            return match.group(name);
+        }
+
+        @Override
+        public MatchResult toMatchResult() {
+            return new ByteIndicesMatchResult(match.toMatchResult(), byteIndices);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.ricoapon.readableregex.internal.automaton;
+
+import io.github.ricoapon.readableregex.internal.expression.ByteSafety;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+
+import java.nio.ByteBuffer;
+import java.util.regex.Pattern;
+
+/**
+ * Decides whether the bytes of a UTF-8 text fully match a byte-safe expression (see {@link ByteSafety}), using a {@link Dfa}
+ * that reads every byte as a single character. Every character that is not ASCII is in the same class, because no block
+ * of a byte-safe expression matches it, so reading the bytes of such a character gives the same result as reading the
+ * character itself: there is no match.
+ */
+public final class ByteDfa {
+    private final Dfa dfa;
+
+    private ByteDfa(Dfa dfa) {
+        this.dfa = dfa;
+    }
+
+    /**
+     * @param expression The byte-safe expression tree.
+     * @param flags      The flags of {@link Pattern}.
+     * @return The automaton, or {@code null} if the expression cannot be matched by a {@link Dfa}. See {@link NfaCompiler}
+     * for the supported constructs. Anchors are not supported either.
+     */
+    public static ByteDfa compile(Expression expression, int flags) {
+        Nfa nfa = Nfa.compile(expression, flags);
+        if (nfa == null || nfa.containsAnchors()) {
+            return null;
+        }
+        Dfa dfa = Dfa.forFullMatch(nfa);
+        return dfa == null ? null : new ByteDfa(dfa);
+    }
+
+    /**
+     * @param bytes The bytes of the UTF-8 text.
+     * @param start The index of the first byte of the text.
+     * @param end   The index after the last byte of the text.
+     * @return {@code true} if the whole text matches, else {@code false}.
+     */
+    public boolean matches(ByteBuffer bytes, int start, int end) {
+        return dfa.accepts(bytes, start, end);
+    }
+}
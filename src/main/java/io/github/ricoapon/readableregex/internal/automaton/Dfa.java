@@ -0,0 +1,382 @@
+package io.github.ricoapon.readableregex.internal.automaton;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Deterministic finite automaton, created from an {@link Nfa} without anchors by subset construction and minimized with
+ * Moore's algorithm. It only answers whether there is a match, but it does so by following a single transition for every
+ * character in the text.
+ * <p>
+ * Code points are not used directly as input. Instead, the code points are divided into classes: two code points are in
+ * the same class if every {@link Nfa#CHAR} instruction either matches both or neither of them.
+ */
+final class Dfa {
+    /** The maximum number of states, because subset construction can result in exponentially many states. */
+    private static final int MAX_NR_OF_STATES = 2000;
+
+    /** Code points below this value have their class in {@link #asciiClasses}, others are found by binary search. */
+    private static final int ASCII_LIMIT = 128;
+
+    private static final int NR_OF_BYTE_VALUES = 256;
+
+    /** The first code point of every class except the first one, which starts at 0. Class {@code i} starts at {@code classStarts[i - 1]}. */
+    private final int[] classStarts;
+
+    /** Maps a code point of a class to the index used in {@link #transitions}, so that equivalent classes share transitions. */
+    private final int[] classIndices;
+
+    private final int[] asciiClasses = new int[ASCII_LIMIT];
+
+    /** The class index of every byte, read as an ISO-8859-1 (Latin-1) character. */
+    private final int[] byteClasses = new int[NR_OF_BYTE_VALUES];
+
+    /**
+     * Same as {@link #transitions}, but the targets are the index of the first transition of the state instead of the
+     * number of the state, so that following a transition does not need a multiplication.
+     */
+    private final int[] rowTransitions;
+
+    /** Transition of state {@code s} for class index {@code c} is at {@code s * nrOfClassIndices + c}. The value -1 means no match is possible. */
+    private final int[] transitions;
+
+    private final int nrOfClassIndices;
+    private final boolean[] accepting;
+
+    /** Whether reading more characters after reaching an accepting state keeps the state accepting, which is true for searching. */
+    private final boolean acceptsPrefixes;
+
+    private Dfa(int[] classStarts, int[] classIndices, int nrOfClassIndices, int[] transitions, boolean[] accepting, boolean acceptsPrefixes) {
+        this.classStarts = classStarts;
+        this.classIndices = classIndices;
+        this.nrOfClassIndices = nrOfClassIndices;
+        this.transitions = transitions;
+        this.accepting = accepting;
+        this.acceptsPrefixes = acceptsPrefixes;
+        for (int codePoint = 0; codePoint < ASCII_LIMIT; codePoint++) {
+            asciiClasses[codePoint] = classIndexOf(codePoint);
+        }
+        for (int b = 0; b < NR_OF_BYTE_VALUES; b++) {
+            byteClasses[b] = classIndexOf(b);
+        }
+        rowTransitions = new int[transitions.length];
+        for (int i = 0; i < transitions.length; i++) {
+            rowTransitions[i] = transitions[i] < 0 ? -1 : transitions[i] * nrOfClassIndices;
+        }
+    }
+
+    /**
+     * Creates the automaton that accepts a text if the whole text matches.
+     * @param nfa The automaton without {@link Nfa#ASSERT} instructions.
+     * @return The automaton, or {@code null} if it would have too many states.
+     */
+    static Dfa forFullMatch(Nfa nfa) {
+        return new Builder(nfa, false).build();
+    }
+
+    /**
+     * Creates the automaton that accepts a text if a match can be found anywhere in the text.
+     * @param nfa The automaton without {@link Nfa#ASSERT} instructions.
+     * @return The automaton, or {@code null} if it would have too many states.
+     */
+    static Dfa forSearch(Nfa nfa) {
+        return new Builder(nfa, true).build();
+    }
+
+    /**
+     * @return The number of states after minimization.
+     */
+    int nrOfStates() {
+        return accepting.length;
+    }
+
+    /**
+     * @param text The text.
+     * @return For an automaton of {@link #forFullMatch(Nfa)}, whether the whole text matches. For an automaton of
+     * {@link #forSearch(Nfa)}, whether a match ends somewhere in the text. The latter also returns {@code true} if the
+     * text contains surrogate characters, without checking the rest of the text.
+     */
+    boolean accepts(CharSequence text) {
+        int state = 0;
+        int length = text.length();
+        int index = 0;
+        while (index < length) {
+            if (acceptsPrefixes && accepting[state]) {
+                return true;
+            }
+            int codePoint = Character.codePointAt(text, index);
+            if (acceptsPrefixes && (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT || Character.isSurrogate((char) codePoint))) {
+                // The JDK engine also searches for matches starting between the two characters of a surrogate pair.
+                return true;
+            }
+            index += Character.charCount(codePoint);
+            int classIndex = codePoint < ASCII_LIMIT ? asciiClasses[codePoint] : classIndexOf(codePoint);
+            state = transitions[state * nrOfClassIndices + classIndex];
+            if (state < 0) {
+                return false;
+            }
+        }
+        return accepting[state];
+    }
+
+    /**
+     * Same as {@link #accepts(CharSequence)}, where every byte is read as an ISO-8859-1 (Latin-1) character. This avoids
+     * the call of {@link CharSequence#charAt(int)} for every character, so the loop only consists of two array reads.
+     * @param bytes The bytes of the text.
+     * @param start The index of the first byte of the text.
+     * @param end   The index after the last byte of the text.
+     * @return See {@link #accepts(CharSequence)}.
+     */
+    boolean accepts(ByteBuffer bytes, int start, int end) {
+        // Local copies of the fields, so that the loop only reads from the arrays.
+        int[] rowTransitions = this.rowTransitions;
+        int[] byteClasses = this.byteClasses;
+        boolean acceptsPrefixes = this.acceptsPrefixes;
+        int row = 0;
+        if (bytes.hasArray()) {
+            byte[] array = bytes.array();
+            int offset = bytes.arrayOffset();
+            for (int index = start + offset; index < end + offset; index++) {
+                if (acceptsPrefixes && accepting[row / nrOfClassIndices]) {
+                    return true;
+                }
+                row = rowTransitions[row + byteClasses[array[index] & 0xFF]];
+                if (row < 0) {
+                    return false;
+                }
+            }
+        } else {
+            for (int index = start; index < end; index++) {
+                if (acceptsPrefixes && accepting[row / nrOfClassIndices]) {
+                    return true;
+                }
+                row = rowTransitions[row + byteClasses[bytes.get(index) & 0xFF]];
+                if (row < 0) {
+                    return false;
+                }
+            }
+        }
+        return accepting[row / nrOfClassIndices];
+    }
+
+    private int classIndexOf(int codePoint) {
+        // Number of class starts that are smaller than or equal to the code point.
+        int position = Arrays.binarySearch(classStarts, codePoint);
+        int classNumber = position >= 0 ? position + 1 : -position - 1;
+        return classIndices[classNumber];
+    }
+
+    /**
+     * Subset construction and minimization.
+     */
+    private static final class Builder {
+        private final Nfa nfa;
+        private final boolean search;
+
+        /** The first code point of every class except the first one. */
+        private int[] classStarts;
+
+        /** A code point of every class, used to compute the transitions. */
+        private int[] classRepresentatives;
+
+        /** Maps every class to the index of an equivalent class with the same transitions. */
+        private int[] classIndices;
+        private int nrOfClassIndices;
+
+        private final List<BitSet> states = new ArrayList<>();
+        private final Map<BitSet, Integer> stateNumbers = new HashMap<>();
+
+        Builder(Nfa nfa, boolean search) {
+            this.nfa = nfa;
+            this.search = search;
+        }
+
+        Dfa build() {
+            divideIntoClasses();
+
+            BitSet start = closure(0, new BitSet());
+            addState(start);
+            List<int[]> transitionRows = new ArrayList<>();
+            for (int state = 0; state < states.size(); state++) {
+                if (states.size() > MAX_NR_OF_STATES) {
+                    return null;
+                }
+                int[] row = new int[nrOfClassIndices];
+                for (int classIndex = 0; classIndex < nrOfClassIndices; classIndex++) {
+                    BitSet target = step(states.get(state), classRepresentatives[classIndex]);
+                    if (search) {
+                        target.or(start);
+                    }
+                    row[classIndex] = target.isEmpty() ? -1 : addState(target);
+                }
+                transitionRows.add(row);
+            }
+
+            boolean[] accepting = new boolean[states.size()];
+            for (int state = 0; state < states.size(); state++) {
+                accepting[state] = containsMatch(states.get(state));
+            }
+            return minimize(transitionRows, accepting);
+        }
+
+        /**
+         * Divides the code points into classes by the boundaries of all the character sets. Classes that are matched by
+         * exactly the same instructions get the same index.
+         */
+        private void divideIntoClasses() {
+            TreeSet<Integer> starts = new TreeSet<>();
+            for (int instruction = 0; instruction < nfa.size(); instruction++) {
+                if (nfa.getOpcode(instruction) == Nfa.CHAR) {
+                    int[] boundaries = nfa.getCharacters(instruction).getBoundaries();
+                    for (int i = 0; i < boundaries.length; i += 2) {
+                        starts.add(boundaries[i]);
+                        starts.add(boundaries[i + 1] + 1);
+                    }
+                }
+            }
+            starts.remove(Character.MIN_CODE_POINT);
+            starts.remove(Character.MAX_CODE_POINT + 1);
+            classStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+
+            Map<BitSet, Integer> indexOfSignature = new HashMap<>();
+            List<Integer> representatives = new ArrayList<>();
+            classIndices = new int[classStarts.length + 1];
+            for (int classNumber = 0; classNumber <= classStarts.length; classNumber++) {
+                int representative = classNumber == 0 ? Character.MIN_CODE_POINT : classStarts[classNumber - 1];
+                BitSet signature = new BitSet();
+                for (int instruction = 0; instruction < nfa.size(); instruction++) {
+                    if (nfa.getOpcode(instruction) == Nfa.CHAR && nfa.getCharacters(instruction).contains(representative)) {
+                        signature.set(instruction);
+                    }
+                }
+                Integer index = indexOfSignature.get(signature);
+                if (index == null) {
+                    index = representatives.size();
+                    indexOfSignature.put(signature, index);
+                    representatives.add(representative);
+                }
+                classIndices[classNumber] = index;
+            }
+            nrOfClassIndices = representatives.size();
+            classRepresentatives = representatives.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private int addState(BitSet state) {
+            Integer number = stateNumbers.get(state);
+            if (number == null) {
+                number = states.size();
+                states.add(state);
+                stateNumbers.put(state, number);
+            }
+            return number;
+        }
+
+        /**
+         * @return The {@link Nfa#CHAR} and {@link Nfa#MATCH} instructions that can be reached from the given state by reading the code point.
+         */
+        private BitSet step(BitSet state, int codePoint) {
+            BitSet target = new BitSet();
+            for (int instruction = state.nextSetBit(0); instruction >= 0; instruction = state.nextSetBit(instruction + 1)) {
+                if (nfa.getOpcode(instruction) == Nfa.CHAR && nfa.getCharacters(instruction).contains(codePoint)) {
+                    closure(instruction + 1, target);
+                }
+            }
+            return target;
+        }
+
+        /**
+         * Adds the {@link Nfa#CHAR} and {@link Nfa#MATCH} instructions that can be reached without reading a character.
+         */
+        private BitSet closure(int startInstruction, BitSet result) {
+            BitSet visited = new BitSet();
+            List<Integer> stack = new ArrayList<>();
+            stack.add(startInstruction);
+            while (!stack.isEmpty()) {
+                int instruction = stack.remove(stack.size() - 1);
+                if (visited.get(instruction)) {
+                    continue;
+                }
+                visited.set(instruction);
+                switch (nfa.getOpcode(instruction)) {
+                    case Nfa.SPLIT:
+                        stack.add(nfa.getSecondTarget(instruction));
+                        stack.add(nfa.getFirstTarget(instruction));
+                        break;
+                    case Nfa.JUMP:
+                        stack.add(nfa.getFirstTarget(instruction));
+                        break;
+                    case Nfa.SAVE:
+                        stack.add(instruction + 1);
+                        break;
+                    default:
+                        result.set(instruction);
+                        break;
+                }
+            }
+            return result;
+        }
+
+        private boolean containsMatch(BitSet state) {
+            for (int instruction = state.nextSetBit(0); instruction >= 0; instruction = state.nextSetBit(instruction + 1)) {
+                if (nfa.getOpcode(instruction) == Nfa.MATCH) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Moore's algorithm: states start in two groups (accepting or not) and groups are split until all the states in a
+         * group have transitions to the same groups. Every group then becomes a single state.
+         */
+        private Dfa minimize(List<int[]> transitionRows, boolean[] accepting) {
+            int nrOfStates = transitionRows.size();
+            int[] group = new int[nrOfStates];
+            for (int state = 0; state < nrOfStates; state++) {
+                group[state] = accepting[state] ? 1 : 0;
+            }
+
+            int nrOfGroups = 0;
+            while (true) {
+                Map<List<Integer>, Integer> groupOfSignature = new HashMap<>();
+                int[] newGroup = new int[nrOfStates];
+                // State 0 is handled first, so that the start state stays state 0.
+                for (int state = 0; state < nrOfStates; state++) {
+                    List<Integer> signature = new ArrayList<>(nrOfClassIndices + 1);
+                    signature.add(group[state]);
+                    for (int target : transitionRows.get(state)) {
+                        signature.add(target < 0 ? -1 : group[target]);
+                    }
+                    Integer number = groupOfSignature.get(signature);
+                    if (number == null) {
+                        number = groupOfSignature.size();
+                        groupOfSignature.put(signature, number);
+                    }
+                    newGroup[state] = number;
+                }
+                group = newGroup;
+                if (groupOfSignature.size() == nrOfGroups) {
+                    break;
+                }
+                nrOfGroups = groupOfSignature.size();
+            }
+
+            int[] transitions = new int[nrOfGroups * nrOfClassIndices];
+            boolean[] minimizedAccepting = new boolean[nrOfGroups];
+            for (int state = 0; state < nrOfStates; state++) {
+                int[] row = transitionRows.get(state);
+                for (int classIndex = 0; classIndex < nrOfClassIndices; classIndex++) {
+                    transitions[group[state] * nrOfClassIndices + classIndex] = row[classIndex] < 0 ? -1 : group[row[classIndex]];
+                }
+                minimizedAccepting[group[state]] = accepting[state];
+            }
+            return new Dfa(classStarts, classIndices, nrOfClassIndices, transitions, minimizedAccepting, search);
+        }
+    }
+}
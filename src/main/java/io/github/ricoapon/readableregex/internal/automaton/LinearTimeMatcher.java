@@ -0,0 +1,79 @@
+package io.github.ricoapon.readableregex.internal.automaton;
+
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+
+import java.util.regex.Pattern;
+
+/**
+ * Matches an expression tree in linear time in the length of the text, with exactly the same results as the JDK engine.
+ * <p>
+ * Matching is done in two passes. Whether there is a match is decided by a {@link Dfa}, which reads every character once
+ * and does not need to keep track of positions. Only if there is a match, the {@link PikeVm} determines the positions of
+ * the match and its groups. The {@link Dfa} is not available for expressions with anchors or if it would have too many
+ * states, in which case the {@link PikeVm} is used directly.
+ */
+public final class LinearTimeMatcher {
+    private final PikeVm pikeVm;
+
+    /** The automaton for full matches, or {@code null} if it is not available. */
+    private final Dfa fullMatchDfa;
+
+    /** The automaton for finding a match anywhere in the text, or {@code null} if it is not available. */
+    private final Dfa searchDfa;
+
+    private LinearTimeMatcher(Nfa nfa, int flags, boolean startsAtCodePoints) {
+        this.pikeVm = new PikeVm(nfa, flags, startsAtCodePoints);
+        this.fullMatchDfa = nfa.containsAnchors() ? null : Dfa.forFullMatch(nfa);
+        this.searchDfa = nfa.containsAnchors() ? null : Dfa.forSearch(nfa);
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param regex      The regular expression of the expression tree.
+     * @param flags      The flags of {@link Pattern}.
+     * @return The matcher, or {@code null} if the expression contains constructs that are not supported. See
+     * {@link NfaCompiler} for the supported constructs.
+     */
+    public static LinearTimeMatcher compile(Expression expression, String regex, int flags) {
+        Nfa nfa = Nfa.compile(expression, flags);
+        if (nfa == null) {
+            return null;
+        }
+        // The JDK engine only starts matches at the start of a code point if the regular expression contains a surrogate.
+        boolean startsAtCodePoints = regex.chars().anyMatch(c -> Character.isSurrogate((char) c));
+        return new LinearTimeMatcher(nfa, flags, startsAtCodePoints);
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return {@code true} if the whole text matches, else {@code false}.
+     */
+    public boolean matches(CharSequence text) {
+        if (fullMatchDfa != null) {
+            return fullMatchDfa.accepts(text);
+        }
+        return pikeVm.match(text, 0, true, true) != null;
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return {@code true} if the start of the text matches, else {@code false}.
+     */
+    public boolean lookingAt(CharSequence text) {
+        return pikeVm.match(text, 0, true, false) != null;
+    }
+
+    /**
+     * Finds the first match starting at or after the given index, like {@link java.util.regex.Matcher#find(int)}.
+     * @param text The text to be matched.
+     * @param from The index where the search starts.
+     * @return The positions of the groups, where group {@code n} starts at index {@code 2n} and ends at index
+     * {@code 2n+1}. A position is -1 if the group did not match. If there is no match, {@code null} is returned.
+     */
+    public int[] find(CharSequence text, int from) {
+        if (from == 0 && searchDfa != null && !searchDfa.accepts(text)) {
+            return null;
+        }
+        return pikeVm.match(text, from, false, false);
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.ricoapon.readableregex.internal.automaton;
+
+import io.github.ricoapon.readableregex.internal.expression.Anchor;
+import io.github.ricoapon.readableregex.internal.expression.CharacterSet;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+
+/**
+ * Nondeterministic finite automaton, written as a program of instructions. A thread starts at instruction 0 and follows
+ * the instructions until it reaches {@link #MATCH}. The program of {@code a(b|c)*} with the capturing group is:
+ * <pre>
+ * 0: SAVE 0          6: JUMP 8
+ * 1: CHAR a          7: CHAR c
+ * 2: SPLIT 3, 10     8: SAVE 3
+ * 3: SAVE 2          9: JUMP 2
+ * 4: SPLIT 5, 7      10: SAVE 1
+ * 5: CHAR b          11: MATCH
+ * </pre>
+ * The first target of {@link #SPLIT} has priority over the second target, which makes it possible to match exactly like
+ * the JDK engine: the first match that the JDK would find by backtracking is the match of the thread with the highest priority.
+ */
+final class Nfa {
+    /** Consumes a single code point that is in {@link #getCharacters(int)}. */
+    static final int CHAR = 0;
+
+    /** Continues at both {@link #getFirstTarget(int)} and {@link #getSecondTarget(int)}, in that order of priority. */
+    static final int SPLIT = 1;
+
+    /** Continues at {@link #getFirstTarget(int)}. */
+    static final int JUMP = 2;
+
+    /** Stores the current position in the slot {@link #getFirstTarget(int)}. Group {@code n} uses slots {@code 2n} and {@code 2n+1}. */
+    static final int SAVE = 3;
+
+    /** Only continues if the anchor {@link #getAnchor(int)} matches at the current position. */
+    static final int ASSERT = 4;
+
+    /** The thread has matched. */
+    static final int MATCH = 5;
+
+    private final int[] opcodes;
+    private final int[] firstTargets;
+    private final int[] secondTargets;
+    private final CharacterSet[] characters;
+    private final Anchor.Type[] anchors;
+    private final int nrOfSlots;
+
+    /**
+     * Constructor.
+     * @param opcodes       The opcode of every instruction.
+     * @param firstTargets  The first argument of every instruction.
+     * @param secondTargets The second argument of every instruction.
+     * @param characters    The characters of every {@link #CHAR} instruction.
+     * @param anchors       The anchor of every {@link #ASSERT} instruction.
+     * @param nrOfSlots     The number of slots for storing positions.
+     */
+    Nfa(int[] opcodes, int[] firstTargets, int[] secondTargets, CharacterSet[] characters, Anchor.Type[] anchors, int nrOfSlots) {
+        this.opcodes = opcodes;
+        this.firstTargets = firstTargets;
+        this.secondTargets = secondTargets;
+        this.characters = characters;
+        this.anchors = anchors;
+        this.nrOfSlots = nrOfSlots;
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param flags      The flags of {@link java.util.regex.Pattern}.
+     * @return The automaton that matches the expression exactly like the JDK engine, or {@code null} if the expression
+     * contains constructs that are not supported. See {@link NfaCompiler} for the supported constructs.
+     */
+    static Nfa compile(Expression expression, int flags) {
+        return NfaCompiler.compile(expression, flags);
+    }
+
+    int size() {
+        return opcodes.length;
+    }
+
+    int getOpcode(int instruction) {
+        return opcodes[instruction];
+    }
+
+    int getFirstTarget(int instruction) {
+        return firstTargets[instruction];
+    }
+
+    int getSecondTarget(int instruction) {
+        return secondTargets[instruction];
+    }
+
+    CharacterSet getCharacters(int instruction) {
+        return characters[instruction];
+    }
+
+    Anchor.Type getAnchor(int instruction) {
+        return anchors[instruction];
+    }
+
+    /**
+     * @return The number of slots, which is two times the number of groups including group 0 (the whole match).
+     */
+    int getNrOfSlots() {
+        return nrOfSlots;
+    }
+
+    /**
+     * @return Whether the automaton contains an {@link #ASSERT} instruction.
+     */
+    boolean containsAnchors() {
+        for (int opcode : opcodes) {
+            if (opcode == ASSERT) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,251 @@
+package io.github.ricoapon.readableregex.internal.automaton;
+
+import io.github.ricoapon.readableregex.internal.expression.Alternation;
+import io.github.ricoapon.readableregex.internal.expression.Anchor;
+import io.github.ricoapon.readableregex.internal.expression.CharacterClass;
+import io.github.ricoapon.readableregex.internal.expression.CharacterSet;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import io.github.ricoapon.readableregex.internal.expression.ExpressionVisitor;
+import io.github.ricoapon.readableregex.internal.expression.Group;
+import io.github.ricoapon.readableregex.internal.expression.Literal;
+import io.github.ricoapon.readableregex.internal.expression.Quantified;
+import io.github.ricoapon.readableregex.internal.expression.Raw;
+import io.github.ricoapon.readableregex.internal.expression.Sequence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles an expression tree into an {@link Nfa}. The following constructs are not supported, because they can not be
+ * matched by a finite automaton or because the JDK engine matches them in a way that an automaton can not imitate:
+ * <ul>
+ *     <li>blocks created from a regular expression string;</li>
+ *     <li>lookarounds;</li>
+ *     <li>possessive quantifiers;</li>
+ *     <li>quantifiers that allow multiple repetitions of a block that can match an empty text;</li>
+ *     <li>capturing groups inside quantifiers other than {@code ?}, because the JDK engine does not always restore the
+ *     positions of such groups when it backtracks;</li>
+ *     <li>character classes of which the characters are not known exactly;</li>
+ *     <li>{@link Pattern#CASE_INSENSITIVE}.</li>
+ * </ul>
+ * Quantifiers with a maximum are written out, so expressions that become too large are not supported either.
+ * <p>
+ * The visitor returns whether the block can match an empty text.
+ */
+final class NfaCompiler implements ExpressionVisitor<Boolean, Void> {
+    /** The maximum number of instructions, to keep the automaton and its memory usage small. */
+    private static final int MAX_NR_OF_INSTRUCTIONS = 10_000;
+
+    /** The characters matched by {@code .} without {@link Pattern#DOTALL}: all characters except line terminators. */
+    private static final CharacterSet ANY_CHARACTER_EXCEPT_LINE_TERMINATORS =
+            CharacterSet.of('\n', '\n', '\r', '\r', '\u0085', '\u0085', '\u2028', '\u2029').complement();
+
+    private static final CharacterSet ANY_CHARACTER = CharacterSet.of(Character.MIN_CODE_POINT, Character.MAX_CODE_POINT);
+
+    private final boolean dotAll;
+    private final List<Integer> opcodes = new ArrayList<>();
+    private final List<Integer> firstTargets = new ArrayList<>();
+    private final List<Integer> secondTargets = new ArrayList<>();
+    private final List<CharacterSet> characters = new ArrayList<>();
+    private final List<Anchor.Type> anchors = new ArrayList<>();
+    private int nrOfGroups = 0;
+
+    /** The number of quantifiers other than {@code ?} around the block that is compiled. */
+    private int repetitionDepth = 0;
+
+    private NfaCompiler(boolean dotAll) {
+        this.dotAll = dotAll;
+    }
+
+    /**
+     * See {@link Nfa#compile(Expression, int)}.
+     */
+    static Nfa compile(Expression expression, int flags) {
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+            return null;
+        }
+
+        NfaCompiler compiler = new NfaCompiler((flags & Pattern.DOTALL) != 0);
+        try {
+            compiler.emit(Nfa.SAVE, 0, 0);
+            expression.accept(compiler, null);
+            compiler.emit(Nfa.SAVE, 1, 0);
+            compiler.emit(Nfa.MATCH, 0, 0);
+        } catch (UnsupportedExpressionException e) {
+            return null;
+        }
+
+        return new Nfa(compiler.opcodes.stream().mapToInt(Integer::intValue).toArray(),
+                compiler.firstTargets.stream().mapToInt(Integer::intValue).toArray(),
+                compiler.secondTargets.stream().mapToInt(Integer::intValue).toArray(),
+                compiler.characters.toArray(new CharacterSet[0]),
+                compiler.anchors.toArray(new Anchor.Type[0]),
+                2 * (compiler.nrOfGroups + 1));
+    }
+
+    /**
+     * Adds an instruction.
+     * @return The index of the instruction.
+     */
+    private int emit(int opcode, int firstTarget, int secondTarget) {
+        if (opcodes.size() == MAX_NR_OF_INSTRUCTIONS) {
+            throw new UnsupportedExpressionException();
+        }
+        opcodes.add(opcode);
+        firstTargets.add(firstTarget);
+        secondTargets.add(secondTarget);
+        characters.add(null);
+        anchors.add(null);
+        return opcodes.size() - 1;
+    }
+
+    /**
+     * @return The index of the next instruction that will be added.
+     */
+    private int next() {
+        return opcodes.size();
+    }
+
+    private void emitCharacters(CharacterSet characterSet) {
+        characters.set(emit(Nfa.CHAR, 0, 0), characterSet);
+    }
+
+    @Override
+    public Boolean visitSequence(Sequence sequence, Void parameter) {
+        boolean nullable = true;
+        for (Expression block : sequence.getBlocks()) {
+            nullable &= block.accept(this, null);
+        }
+        return nullable;
+    }
+
+    @Override
+    public Boolean visitLiteral(Literal literal, Void parameter) {
+        literal.getValue().codePoints().forEach(codePoint -> emitCharacters(CharacterSet.of(codePoint, codePoint)));
+        return literal.getValue().isEmpty();
+    }
+
+    @Override
+    public Boolean visitCharacterClass(CharacterClass characterClass, Void parameter) {
+        CharacterSet characterSet = characterClass.getCharacters();
+        if (characterSet == null && characterClass.getRegex().equals(".")) {
+            characterSet = dotAll ? ANY_CHARACTER : ANY_CHARACTER_EXCEPT_LINE_TERMINATORS;
+        } else if (characterSet == null) {
+            throw new UnsupportedExpressionException();
+        }
+        emitCharacters(characterSet);
+        return false;
+    }
+
+    @Override
+    public Boolean visitAnchor(Anchor anchor, Void parameter) {
+        anchors.set(emit(Nfa.ASSERT, 0, 0), anchor.getType());
+        return true;
+    }
+
+    @Override
+    public Boolean visitRaw(Raw raw, Void parameter) {
+        throw new UnsupportedExpressionException();
+    }
+
+    @Override
+    public Boolean visitAlternation(Alternation alternation, Void parameter) {
+        List<Expression> alternatives = alternation.getAlternatives();
+        List<Integer> jumpsToEnd = new ArrayList<>();
+        boolean nullable = false;
+        for (int i = 0; i < alternatives.size(); i++) {
+            int split = -1;
+            if (i < alternatives.size() - 1) {
+                split = emit(Nfa.SPLIT, next() + 1, 0);
+            }
+            nullable |= alternatives.get(i).accept(this, null);
+            if (split >= 0) {
+                jumpsToEnd.add(emit(Nfa.JUMP, 0, 0));
+                secondTargets.set(split, next());
+            }
+        }
+        for (int jump : jumpsToEnd) {
+            firstTargets.set(jump, next());
+        }
+        return nullable;
+    }
+
+    @Override
+    public Boolean visitGroup(Group group, Void parameter) {
+        if (group.getType() == Group.Type.NON_CAPTURING) {
+            return group.getContent().accept(this, null);
+        } else if (group.getType() != Group.Type.CAPTURING || repetitionDepth > 0) {
+            throw new UnsupportedExpressionException();
+        }
+
+        int groupNumber = ++nrOfGroups;
+        emit(Nfa.SAVE, 2 * groupNumber, 0);
+        boolean nullable = group.getContent().accept(this, null);
+        emit(Nfa.SAVE, 2 * groupNumber + 1, 0);
+        return nullable;
+    }
+
+    @Override
+    public Boolean visitQuantified(Quantified quantified, Void parameter) {
+        if (quantified.getMode() == Quantified.Mode.POSSESSIVE) {
+            throw new UnsupportedExpressionException();
+        }
+        boolean greedy = quantified.getMode() == Quantified.Mode.GREEDY;
+        boolean optional = quantified.getMin() == 0 && quantified.getMax() == 1;
+        if (!optional) {
+            repetitionDepth++;
+        }
+
+        // The block is written out once for every repetition that is required and once for every optional repetition.
+        boolean nullable = true;
+        for (int i = 0; i < quantified.getMin(); i++) {
+            nullable = emitBlock(quantified);
+        }
+        if (quantified.getMax() == Quantified.UNBOUNDED) {
+            int split = emit(Nfa.SPLIT, 0, 0);
+            nullable = emitBlock(quantified);
+            emit(Nfa.JUMP, split, 0);
+            setSplitTargets(split, split + 1, next(), greedy);
+        } else {
+            List<Integer> splits = new ArrayList<>();
+            for (int i = quantified.getMin(); i < quantified.getMax(); i++) {
+                splits.add(emit(Nfa.SPLIT, 0, 0));
+                nullable = emitBlock(quantified);
+            }
+            for (int split : splits) {
+                setSplitTargets(split, split + 1, next(), greedy);
+            }
+        }
+
+        if (!optional) {
+            repetitionDepth--;
+        }
+        return nullable || quantified.getMin() == 0;
+    }
+
+    /**
+     * Writes out the block of the quantifier once.
+     * @return Whether the block can match an empty text.
+     */
+    private boolean emitBlock(Quantified quantified) {
+        boolean nullable = quantified.getBlock().accept(this, null);
+        if (nullable && quantified.getMax() > 1) {
+            // The JDK engine stops repeating a block that matched an empty text, which an automaton can not imitate.
+            throw new UnsupportedExpressionException();
+        }
+        return nullable;
+    }
+
+    private void setSplitTargets(int split, int repeat, int exit, boolean greedy) {
+        firstTargets.set(split, greedy ? repeat : exit);
+        secondTargets.set(split, greedy ? exit : repeat);
+    }
+
+    /**
+     * Thrown when the expression contains a construct that is not supported.
+     */
+    private static class UnsupportedExpressionException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
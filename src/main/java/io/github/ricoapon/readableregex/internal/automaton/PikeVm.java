@@ -0,0 +1,259 @@
+package io.github.ricoapon.readableregex.internal.automaton;
+
+import io.github.ricoapon.readableregex.internal.expression.Anchor;
+import io.github.ricoapon.readableregex.internal.expression.CharacterSet;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Simulates an {@link Nfa} on a text while keeping track of the positions of the groups. All the threads move through the
+ * text together, so every character is read only once per instruction: matching takes linear time in the length of the text.
+ * <p>
+ * The threads are ordered by priority. When a thread matches, all the threads with a lower priority are removed. The result
+ * is the same match that the JDK engine finds by backtracking, because the JDK engine tries the alternatives in the
+ * exact same order.
+ */
+final class PikeVm {
+    private final Nfa nfa;
+
+    /** The JDK pattern of every anchor in the automaton, so that the anchors behave exactly the same as in the JDK. */
+    private final Map<Anchor.Type, Pattern> anchorPatterns = new EnumMap<>(Anchor.Type.class);
+
+    /**
+     * Whether a match can only start at the start of a code point. The JDK engine does this if the regular expression
+     * contains surrogate characters. Otherwise, it also tries to find a match starting between the two characters of a surrogate pair.
+     */
+    private final boolean startsAtCodePoints;
+
+    /**
+     * The code points that every match starts with, or {@code null} if a match can start without reading a character. This is
+     * used to skip the parts of the text where no match can start.
+     */
+    private final CharacterSet firstCharacters;
+
+    /**
+     * Constructor.
+     * @param nfa                The automaton.
+     * @param flags              The flags of {@link Pattern}.
+     * @param startsAtCodePoints Whether a match can only start at the start of a code point.
+     */
+    @SuppressWarnings("MagicConstant")
+    PikeVm(Nfa nfa, int flags, boolean startsAtCodePoints) {
+        this.nfa = nfa;
+        this.startsAtCodePoints = startsAtCodePoints;
+        for (int instruction = 0; instruction < nfa.size(); instruction++) {
+            if (nfa.getOpcode(instruction) == Nfa.ASSERT) {
+                Anchor.Type type = nfa.getAnchor(instruction);
+                anchorPatterns.computeIfAbsent(type, t -> Pattern.compile(new Anchor(t).toRegex(), flags));
+            }
+        }
+        this.firstCharacters = firstCharactersOf(nfa);
+    }
+
+    private static CharacterSet firstCharactersOf(Nfa nfa) {
+        CharacterSet result = CharacterSet.of();
+        BitSet visited = new BitSet();
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(0);
+        while (!stack.isEmpty()) {
+            int instruction = stack.pop();
+            if (visited.get(instruction)) {
+                continue;
+            }
+            visited.set(instruction);
+            switch (nfa.getOpcode(instruction)) {
+                case Nfa.CHAR:
+                    result = result.union(nfa.getCharacters(instruction));
+                    break;
+                case Nfa.SPLIT:
+                    stack.push(nfa.getSecondTarget(instruction));
+                    stack.push(nfa.getFirstTarget(instruction));
+                    break;
+                case Nfa.JUMP:
+                    stack.push(nfa.getFirstTarget(instruction));
+                    break;
+                case Nfa.SAVE:
+                    stack.push(instruction + 1);
+                    break;
+                default:
+                    // An anchor or a match, so the match does not have to start with a character.
+                    return null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first match, like {@link Matcher#find(int)} if {@code anchored} is false, like {@link Matcher#lookingAt()}
+     * if only {@code anchored} is true and like {@link Matcher#matches()} if {@code fullMatch} is true.
+     * @param text      The text to be matched.
+     * @param from      The index where the search starts.
+     * @param anchored  Whether the match must start at {@code from}.
+     * @param fullMatch Whether the match must start at {@code from} and end at the end of the text.
+     * @return The positions of the groups, where group {@code n} starts at index {@code 2n} and ends at index
+     * {@code 2n+1}. A position is -1 if the group did not match. If there is no match, {@code null} is returned.
+     */
+    int[] match(CharSequence text, int from, boolean anchored, boolean fullMatch) {
+        return new Run(text).match(from, anchored || fullMatch, fullMatch);
+    }
+
+    /**
+     * State of matching a single text.
+     */
+    private final class Run {
+        private final CharSequence text;
+
+        /** A thread at index i can move to i + 1 or i + 2 (surrogate pair), so three lists are enough. */
+        private final ThreadList[] lists = {new ThreadList(nfa.size()), new ThreadList(nfa.size()), new ThreadList(nfa.size())};
+
+        /** Stack for {@link #addThread(ThreadList, int, int[], int)}, which is used instead of recursion to prevent stack overflows. */
+        private final int[] instructionStack = new int[nfa.size() + 1];
+        private final int[][] slotStack = new int[nfa.size() + 1][];
+
+        private final Map<Anchor.Type, Matcher> anchorMatchers = new EnumMap<>(Anchor.Type.class);
+
+        Run(CharSequence text) {
+            this.text = text;
+        }
+
+        int[] match(int from, boolean anchored, boolean fullMatch) {
+            int length = text.length();
+            int[] match = null;
+            for (int index = from; index <= length; index++) {
+                ThreadList current = lists[index % 3];
+                if (firstCharacters != null && match == null && !anchored && current.size == 0
+                        && lists[(index + 1) % 3].size == 0 && lists[(index + 2) % 3].size == 0) {
+                    // No thread is running, so skip to the next index where a match can start.
+                    while (index < length && !firstCharacters.contains(Character.codePointAt(text, index))) {
+                        index++;
+                    }
+                    if (index == length) {
+                        break;
+                    }
+                    current = lists[index % 3];
+                }
+                if (match == null && (index == from || !anchored) && !(startsAtCodePoints && isInsideSurrogatePair(from, index))) {
+                    int[] slots = new int[nfa.getNrOfSlots()];
+                    Arrays.fill(slots, -1);
+                    addThread(current, 0, slots, index);
+                }
+
+                int codePoint = index < length ? Character.codePointAt(text, index) : -1;
+                int next = index < length ? index + Character.charCount(codePoint) : index;
+                for (int i = 0; i < current.size; i++) {
+                    int instruction = current.instructions[i];
+                    int opcode = nfa.getOpcode(instruction);
+                    if (opcode == Nfa.MATCH && (!fullMatch || index == length)) {
+                        match = current.slots[i];
+                        // All the remaining threads have a lower priority.
+                        break;
+                    } else if (opcode == Nfa.CHAR && codePoint >= 0 && nfa.getCharacters(instruction).contains(codePoint)) {
+                        addThread(lists[next % 3], instruction + 1, current.slots[i], next);
+                    }
+                }
+                current.clear();
+
+                if ((match != null || anchored) && lists[(index + 1) % 3].size == 0 && lists[(index + 2) % 3].size == 0) {
+                    break;
+                }
+            }
+            return match;
+        }
+
+        private boolean isInsideSurrogatePair(int from, int index) {
+            return index > from && index < text.length()
+                    && Character.isHighSurrogate(text.charAt(index - 1)) && Character.isLowSurrogate(text.charAt(index));
+        }
+
+        /**
+         * Adds a thread and all the threads that it can reach without reading a character, in order of priority.
+         */
+        private void addThread(ThreadList list, int startInstruction, int[] startSlots, int index) {
+            int stackSize = 0;
+            instructionStack[stackSize] = startInstruction;
+            slotStack[stackSize++] = startSlots;
+
+            while (stackSize > 0) {
+                int instruction = instructionStack[--stackSize];
+                int[] slots = slotStack[stackSize];
+                if (list.contains(instruction)) {
+                    continue;
+                }
+                list.add(instruction, slots);
+
+                switch (nfa.getOpcode(instruction)) {
+                    case Nfa.SPLIT:
+                        // The first target is pushed last, so that it is handled first.
+                        instructionStack[stackSize] = nfa.getSecondTarget(instruction);
+                        slotStack[stackSize++] = slots;
+                        instructionStack[stackSize] = nfa.getFirstTarget(instruction);
+                        slotStack[stackSize++] = slots;
+                        break;
+                    case Nfa.JUMP:
+                        instructionStack[stackSize] = nfa.getFirstTarget(instruction);
+                        slotStack[stackSize++] = slots;
+                        break;
+                    case Nfa.SAVE:
+                        int[] newSlots = slots.clone();
+                        newSlots[nfa.getFirstTarget(instruction)] = index;
+                        instructionStack[stackSize] = instruction + 1;
+                        slotStack[stackSize++] = newSlots;
+                        break;
+                    case Nfa.ASSERT:
+                        if (matchesAnchor(nfa.getAnchor(instruction), index)) {
+                            instructionStack[stackSize] = instruction + 1;
+                            slotStack[stackSize++] = slots;
+                        }
+                        break;
+                    default:
+                        // CHAR and MATCH wait for the next character.
+                        break;
+                }
+            }
+        }
+
+        private boolean matchesAnchor(Anchor.Type type, int index) {
+            Matcher matcher = anchorMatchers.computeIfAbsent(type, t -> anchorPatterns.get(t).matcher(text)
+                    .useTransparentBounds(true).useAnchoringBounds(false));
+            return matcher.region(index, text.length()).lookingAt();
+        }
+    }
+
+    /**
+     * Ordered set of threads, where each instruction occurs at most once. The sparse set allows clearing in constant time.
+     */
+    private static final class ThreadList {
+        private final int[] instructions;
+        private final int[][] slots;
+        private final int[] indexOfInstruction;
+        private int size = 0;
+
+        ThreadList(int nrOfInstructions) {
+            instructions = new int[nrOfInstructions];
+            slots = new int[nrOfInstructions][];
+            indexOfInstruction = new int[nrOfInstructions];
+        }
+
+        boolean contains(int instruction) {
+            int i = indexOfInstruction[instruction];
+            return i < size && instructions[i] == instruction;
+        }
+
+        void add(int instruction, int[] threadSlots) {
+            indexOfInstruction[instruction] = size;
+            instructions[size] = instruction;
+            slots[size++] = threadSlots;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Finite automata that match an expression tree in linear time, without the backtracking of the JDK engine.
+ */
+package io.github.ricoapon.readableregex.internal.automaton;
@@ -0,0 +1,70 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Block where exactly one of the alternatives must match. This is the same as {@code (?:X|Y)}.
+ */
+public class Alternation extends Expression {
+    private final List<Expression> alternatives;
+
+    /**
+     * Constructor.
+     * @param alternatives The alternatives in order. The list is copied.
+     */
+    public Alternation(List<Expression> alternatives) {
+        this.alternatives = Collections.unmodifiableList(new ArrayList<>(alternatives));
+    }
+
+    /**
+     * @return The alternatives in order.
+     */
+    public List<Expression> getAlternatives() {
+        return alternatives;
+    }
+
+    @Override
+    public <R, P> R accept(ExpressionVisitor<R, P> visitor, P parameter) {
+        return visitor.visitAlternation(this, parameter);
+    }
+
+    @Override
+    public void appendTo(StringBuilder regex) {
+        regex.append("(?:");
+        for (int i = 0; i < alternatives.size(); i++) {
+            if (i > 0) {
+                regex.append('|');
+            }
+            alternatives.get(i).appendTo(regex);
+        }
+        regex.append(')');
+    }
+
+    @Override
+    public void collectGroups(List<String> groups) {
+        for (Expression alternative : alternatives) {
+            alternative.collectGroups(groups);
+        }
+    }
+
+    @Override
+    public boolean requiresMultilineFlag() {
+        return alternatives.stream().anyMatch(Expression::requiresMultilineFlag);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Alternation)) {
+            return false;
+        }
+        Alternation other = (Alternation) o;
+        return alternatives.equals(other.alternatives);
+    }
+
+    @Override
+    public int hashCode() {
+        return alternatives.hashCode();
+    }
+}
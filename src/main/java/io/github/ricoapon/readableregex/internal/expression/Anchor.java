@@ -0,0 +1,69 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+/**
+ * Block that matches a position instead of a character, for example {@code \b} or {@code ^}.
+ */
+public class Anchor extends Expression {
+    /** All the supported anchors. */
+    public enum Type {
+        // Line anchors are surrounded with an unnamed group, to make sure that they can be followed up with quantifiers.
+        START_OF_LINE("(?:^)"),
+        END_OF_LINE("(?:$)"),
+        START_OF_INPUT("\\A"),
+        END_OF_INPUT("\\z"),
+        WORD_BOUNDARY("\\b"),
+        NON_WORD_BOUNDARY("\\B");
+
+        private final String regex;
+
+        Type(String regex) {
+            this.regex = regex;
+        }
+    }
+
+    private final Type type;
+
+    /**
+     * Constructor.
+     * @param type The type of anchor.
+     */
+    public Anchor(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * @return The type of anchor.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public <R, P> R accept(ExpressionVisitor<R, P> visitor, P parameter) {
+        return visitor.visitAnchor(this, parameter);
+    }
+
+    @Override
+    public void appendTo(StringBuilder regex) {
+        regex.append(type.regex);
+    }
+
+    @Override
+    public boolean requiresMultilineFlag() {
+        return type == Type.START_OF_LINE || type == Type.END_OF_LINE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Anchor)) {
+            return false;
+        }
+        Anchor other = (Anchor) o;
+        return type == other.type;
+    }
+
+    @Override
+    public int hashCode() {
+        return type.hashCode();
+    }
+}
@@ -0,0 +1,253 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Finds quantifiers in an expression tree that can cause catastrophic backtracking. This happens when a repeated block
+ * can match the same text in many different ways. If the rest of the regular expression fails to match, the engine tries
+ * every one of these ways, which takes exponential time in the length of the text.
+ * <p>
+ * A quantifier that allows many repetitions is reported if one of the following holds:
+ * <ul>
+ *     <li>A quantifier at the end of the repeated block can match the characters that start the next repetition,
+ *     for example {@code (\w+\s?)+}.</li>
+ *     <li>Inside the repeated block, a quantifier can match the characters of the block that follows it,
+ *     for example {@code (\w+\d)+}.</li>
+ *     <li>Inside the repeated block, two alternatives that match a single character can match the same character,
+ *     for example {@code (?:\w|\d)+}.</li>
+ * </ul>
+ * Characters are compared by testing a sample of characters: representatives of the most common character classes and
+ * all the characters used in the regular expression. Possessive quantifiers and lookarounds never backtrack into their
+ * content, so they are not reported. Blocks created from a regular expression string are not analyzed.
+ */
+public final class BacktrackingAnalyzer implements ExpressionVisitor<BacktrackingAnalyzer.Info, Void> {
+    /** Quantifiers with a maximum number of repetitions above this value are considered for catastrophic backtracking. */
+    private static final int MAX_HARMLESS_REPETITIONS = 10;
+
+    /** Characters that are always used as sample, next to the characters of the regular expression itself. */
+    private static final String DEFAULT_SAMPLES = "azAZ09_ \t\n\r.-/:\u00E9\u00A0";
+
+    /** The flags that change which characters are matched by a character class. */
+    private static final int CHARACTER_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE
+            | Pattern.UNICODE_CHARACTER_CLASS | Pattern.DOTALL;
+
+    private final String samples;
+    private final int flags;
+    private final List<String> warnings = new ArrayList<>();
+
+    private BacktrackingAnalyzer(String samples, int flags) {
+        this.samples = samples;
+        this.flags = flags & CHARACTER_FLAGS;
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param flags      The flags of {@link Pattern} that the expression is compiled with.
+     * @return A description of every quantifier that can cause catastrophic backtracking, in the order they appear in
+     * the expression. The list is empty if there are none.
+     */
+    public static List<String> analyze(Expression expression, int flags) {
+        StringBuilder samples = new StringBuilder();
+        (DEFAULT_SAMPLES + expression.toRegex()).chars()
+                .filter(c -> !Character.isSurrogate((char) c) && samples.indexOf(String.valueOf((char) c)) < 0)
+                .forEach(c -> samples.append((char) c));
+
+        BacktrackingAnalyzer analyzer = new BacktrackingAnalyzer(samples.toString(), flags);
+        expression.accept(analyzer, null);
+        return Collections.unmodifiableList(analyzer.warnings);
+    }
+
+    /**
+     * @param singleCharacterRegex Regular expression that matches a single character.
+     * @return The samples that are matched by the regular expression.
+     */
+    @SuppressWarnings("MagicConstant")
+    private BitSet matchingSamples(String singleCharacterRegex) {
+        Pattern pattern = Pattern.compile(singleCharacterRegex, flags);
+        BitSet matching = new BitSet();
+        for (int i = 0; i < samples.length(); i++) {
+            if (pattern.matcher(samples.substring(i, i + 1)).matches()) {
+                matching.set(i);
+            }
+        }
+        return matching;
+    }
+
+    @Override
+    public Info visitSequence(Sequence sequence, Void parameter) {
+        if (sequence.getBlocks().size() == 1) {
+            return sequence.getBlocks().get(0).accept(this, null);
+        }
+
+        Info info = new Info(true);
+        List<Repeat> pendingRepeats = new ArrayList<>();
+        for (Expression block : sequence.getBlocks()) {
+            Info blockInfo = block.accept(this, null);
+            for (Repeat repeat : pendingRepeats) {
+                if (repeat.characters.intersects(blockInfo.first)) {
+                    info.ambiguities.add(repeat.description + " can match the same characters as " + BuilderNotationWriter.write(block));
+                }
+            }
+            if (info.nullable) {
+                info.first.or(blockInfo.first);
+            }
+            info.nullable &= blockInfo.nullable;
+            info.characters.or(blockInfo.characters);
+            info.ambiguities.addAll(blockInfo.ambiguities);
+            if (!blockInfo.nullable) {
+                pendingRepeats.clear();
+            }
+            pendingRepeats.addAll(blockInfo.tailRepeats);
+        }
+        info.tailRepeats.addAll(pendingRepeats);
+        return info;
+    }
+
+    @Override
+    public Info visitLiteral(Literal literal, Void parameter) {
+        String value = literal.getValue();
+        Info info = new Info(value.isEmpty());
+        if (!value.isEmpty()) {
+            info.first.or(matchingSamples(Pattern.quote(value.substring(0, Character.charCount(value.codePointAt(0))))));
+            value.codePoints().forEach(c -> info.characters.or(matchingSamples(Pattern.quote(new String(Character.toChars(c))))));
+            info.singleCharacter = value.codePointCount(0, value.length()) == 1;
+        }
+        return info;
+    }
+
+    @Override
+    public Info visitCharacterClass(CharacterClass characterClass, Void parameter) {
+        Info info = new Info(false);
+        info.first.or(matchingSamples(characterClass.getRegex()));
+        info.characters.or(info.first);
+        info.singleCharacter = true;
+        return info;
+    }
+
+    @Override
+    public Info visitAnchor(Anchor anchor, Void parameter) {
+        return new Info(true);
+    }
+
+    @Override
+    public Info visitRaw(Raw raw, Void parameter) {
+        return new Info(false);
+    }
+
+    @Override
+    public Info visitAlternation(Alternation alternation, Void parameter) {
+        List<Expression> alternatives = alternation.getAlternatives();
+        List<Info> alternativeInfos = new ArrayList<>();
+        Info info = new Info(false);
+        for (Expression alternative : alternatives) {
+            Info alternativeInfo = alternative.accept(this, null);
+            for (int i = 0; i < alternativeInfos.size(); i++) {
+                Info previousInfo = alternativeInfos.get(i);
+                if (previousInfo.singleCharacter && alternativeInfo.singleCharacter
+                        && previousInfo.first.intersects(alternativeInfo.first)) {
+                    info.ambiguities.add("the alternatives " + BuilderNotationWriter.write(alternatives.get(i)) + " and "
+                            + BuilderNotationWriter.write(alternative) + " can match the same character");
+                }
+            }
+            alternativeInfos.add(alternativeInfo);
+
+            info.nullable |= alternativeInfo.nullable;
+            info.first.or(alternativeInfo.first);
+            info.characters.or(alternativeInfo.characters);
+            info.tailRepeats.addAll(alternativeInfo.tailRepeats);
+            info.ambiguities.addAll(alternativeInfo.ambiguities);
+        }
+        return info;
+    }
+
+    @Override
+    public Info visitGroup(Group group, Void parameter) {
+        if (group.getType() == Group.Type.CAPTURING || group.getType() == Group.Type.NON_CAPTURING) {
+            return group.getContent().accept(this, null);
+        }
+
+        // Lookarounds match no characters and are never backtracked into once they have matched.
+        group.getContent().accept(this, null);
+        return new Info(true);
+    }
+
+    @Override
+    public Info visitQuantified(Quantified quantified, Void parameter) {
+        Info blockInfo = quantified.getBlock().accept(this, null);
+        Info info = new Info(quantified.getMin() == 0 || blockInfo.nullable);
+        info.first.or(blockInfo.first);
+        info.characters.or(blockInfo.characters);
+        if (quantified.getMode() == Quantified.Mode.POSSESSIVE) {
+            // Possessive quantifiers never give back what they have matched.
+            return info;
+        }
+
+        String description = BuilderNotationWriter.write(quantified);
+        if (quantified.getMax() > MAX_HARMLESS_REPETITIONS) {
+            List<String> problems = new ArrayList<>(blockInfo.ambiguities);
+            for (Repeat repeat : blockInfo.tailRepeats) {
+                if (repeat.characters.intersects(blockInfo.first)) {
+                    problems.add(repeat.description + " can match the same characters as the next repetition");
+                }
+            }
+            if (!problems.isEmpty()) {
+                warnings.add(description + " can cause catastrophic backtracking, because " + String.join(" and ", problems)
+                        + ". Consider using possessive() on the quantifiers.");
+            }
+        } else {
+            info.ambiguities.addAll(blockInfo.ambiguities);
+        }
+
+        if (quantified.getMax() > quantified.getMin()) {
+            info.tailRepeats.add(new Repeat(description, blockInfo.characters));
+        }
+        if (quantified.getMax() > 0) {
+            info.tailRepeats.addAll(blockInfo.tailRepeats);
+        }
+        return info;
+    }
+
+    /**
+     * Information about the text that a node can match.
+     */
+    static final class Info {
+        /** Whether the node can match an empty text. */
+        private boolean nullable;
+
+        /** Whether the node always matches exactly one character. */
+        private boolean singleCharacter = false;
+
+        /** The samples that can be the first character of a match. */
+        private final BitSet first = new BitSet();
+
+        /** The samples that can be part of a match. */
+        private final BitSet characters = new BitSet();
+
+        /** The quantifiers that can decide how many characters are matched at the end of a match. */
+        private final List<Repeat> tailRepeats = new ArrayList<>();
+
+        /** Descriptions of the parts that can match the same text in multiple ways. */
+        private final List<String> ambiguities = new ArrayList<>();
+
+        private Info(boolean nullable) {
+            this.nullable = nullable;
+        }
+    }
+
+    /**
+     * Quantifier that can match a variable number of repetitions.
+     */
+    private static final class Repeat {
+        private final String description;
+        private final BitSet characters;
+
+        private Repeat(String description, BitSet characters) {
+            this.description = description;
+            this.characters = characters;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes an expression tree as the builder methods that construct it, for example {@code wordCharacter().oneOrMore()}.
+ * This is used to point users to a part of their builder in messages.
+ * <p>
+ * Methods of the syntactic sugar builder are written as the methods they call, so {@code word()} is written as
+ * {@code wordCharacter().oneOrMore()}.
+ */
+public final class BuilderNotationWriter implements ExpressionVisitor<String, Void> {
+    private static final BuilderNotationWriter INSTANCE = new BuilderNotationWriter();
+
+    private BuilderNotationWriter() {
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @return The builder methods that construct the expression tree.
+     */
+    public static String write(Expression expression) {
+        return expression.accept(INSTANCE, null);
+    }
+
+    /**
+     * @param text Text that is written as an argument of a builder method.
+     * @return The text as a Java string literal.
+     */
+    private static String quote(String text) {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * @param methods Builder methods, where an empty string means that nothing is called.
+     * @return The methods chained together.
+     */
+    private static String chain(String... methods) {
+        List<String> nonEmptyMethods = new ArrayList<>();
+        for (String method : methods) {
+            if (!method.isEmpty()) {
+                nonEmptyMethods.add(method);
+            }
+        }
+        return String.join(".", nonEmptyMethods);
+    }
+
+    @Override
+    public String visitSequence(Sequence sequence, Void parameter) {
+        List<String> blocks = new ArrayList<>();
+        for (Expression block : sequence.getBlocks()) {
+            blocks.add(block.accept(this, null));
+        }
+        return chain(blocks.toArray(new String[0]));
+    }
+
+    @Override
+    public String visitLiteral(Literal literal, Void parameter) {
+        return "literal(" + quote(literal.getValue()) + ")";
+    }
+
+    @Override
+    public String visitCharacterClass(CharacterClass characterClass, Void parameter) {
+        return characterClass.getBuilderMethod();
+    }
+
+    @Override
+    public String visitAnchor(Anchor anchor, Void parameter) {
+        switch (anchor.getType()) {
+            case START_OF_LINE:
+                return "startOfLine()";
+            case END_OF_LINE:
+                return "endOfLine()";
+            case START_OF_INPUT:
+                return "startOfInput()";
+            case END_OF_INPUT:
+                return "endOfInput()";
+            case WORD_BOUNDARY:
+                return "wordBoundary()";
+            default:
+                return "nonWordBoundary()";
+        }
+    }
+
+    @Override
+    public String visitRaw(Raw raw, Void parameter) {
+        return "regexFromString(" + quote(raw.getRegex()) + ")";
+    }
+
+    @Override
+    public String visitAlternation(Alternation alternation, Void parameter) {
+        List<String> alternatives = new ArrayList<>();
+        for (Expression alternative : alternation.getAlternatives()) {
+            alternatives.add(chain("regex()", alternative.accept(this, null)));
+        }
+        return "oneOf(" + String.join(", ", alternatives) + ")";
+    }
+
+    @Override
+    public String visitGroup(Group group, Void parameter) {
+        return chain(startOf(group), group.getContent().accept(this, null), "endGroup()");
+    }
+
+    private static String startOf(Group group) {
+        switch (group.getType()) {
+            case CAPTURING:
+                return group.getName() == null ? "startGroup()" : "startGroup(" + quote(group.getName()) + ")";
+            case NON_CAPTURING:
+                return "startUnnamedGroup()";
+            case POSITIVE_LOOKBEHIND:
+                return "startPositiveLookbehind()";
+            case NEGATIVE_LOOKBEHIND:
+                return "startNegativeLookbehind()";
+            case POSITIVE_LOOKAHEAD:
+                return "startPositiveLookahead()";
+            default:
+                return "startNegativeLookahead()";
+        }
+    }
+
+    @Override
+    public String visitQuantified(Quantified quantified, Void parameter) {
+        return chain(quantified.getBlock().accept(this, null), quantifierOf(quantified), modeOf(quantified.getMode()));
+    }
+
+    private static String quantifierOf(Quantified quantified) {
+        int min = quantified.getMin();
+        int max = quantified.getMax();
+        if (min == 1 && max == Quantified.UNBOUNDED) {
+            return "oneOrMore()";
+        } else if (min == 0 && max == Quantified.UNBOUNDED) {
+            return "zeroOrMore()";
+        } else if (min == 0 && max == 1) {
+            return "optional()";
+        } else if (min == max) {
+            return "exactlyNTimes(" + min + ")";
+        } else if (max == Quantified.UNBOUNDED) {
+            return "atLeastNTimes(" + min + ")";
+        } else if (min == 0) {
+            return "atMostNTimes(" + max + ")";
+        }
+        return "betweenNAndMTimes(" + min + ", " + max + ")";
+    }
+
+    private static String modeOf(Quantified.Mode mode) {
+        switch (mode) {
+            case RELUCTANT:
+                return "reluctant()";
+            case POSSESSIVE:
+                return "possessive()";
+            default:
+                return "";
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Determines whether an expression tree can be matched against the bytes of a UTF-8 text, where every byte is read as a
+ * single character, with exactly the same matches as against the decoded text.
+ * <p>
+ * This holds if every block only matches ASCII characters. In UTF-8, an ASCII character is encoded as a single byte with
+ * the same value, and all the bytes of other characters are at least {@code 0x80}, so they are never matched by these
+ * blocks. The following constructs also look at characters that are not matched, so they make an expression unsafe:
+ * <ul>
+ *     <li>blocks created from a regular expression string and character classes of which the characters are not known
+ *     exactly, like {@code .} and {@code [^a]};</li>
+ *     <li>word boundaries, because letters outside ASCII are word characters;</li>
+ *     <li>line anchors, because {@code U+0085} is a line terminator and {@code 0x85} also occurs inside other characters;</li>
+ *     <li>expressions that can match an empty text, because an empty match could be found inside a character;</li>
+ *     <li>the flags {@link Pattern#UNICODE_CASE}, {@link Pattern#UNICODE_CHARACTER_CLASS} and {@link Pattern#CANON_EQ}.</li>
+ * </ul>
+ */
+public final class ByteSafety implements ExpressionVisitor<Boolean, Void> {
+    private static final ByteSafety INSTANCE = new ByteSafety();
+
+    /** Flags that make characters outside ASCII match blocks that only contain ASCII characters. */
+    private static final int UNSAFE_FLAGS = Pattern.UNICODE_CASE | Pattern.UNICODE_CHARACTER_CLASS | Pattern.CANON_EQ;
+
+    /** The last ASCII character. */
+    private static final int MAX_ASCII = 0x7F;
+
+    private ByteSafety() {
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param flags      The flags of {@link Pattern}.
+     * @return {@code true} if the expression can be matched against the bytes of a UTF-8 text, else {@code false}.
+     */
+    public static boolean isByteSafe(Expression expression, int flags) {
+        return (flags & UNSAFE_FLAGS) == 0 && expression.accept(INSTANCE, null) && !FirstCharacters.of(expression).isNullable();
+    }
+
+    private boolean allOf(List<Expression> blocks) {
+        for (Expression block : blocks) {
+            if (!block.accept(this, null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Boolean visitSequence(Sequence sequence, Void parameter) {
+        return allOf(sequence.getBlocks());
+    }
+
+    @Override
+    public Boolean visitLiteral(Literal literal, Void parameter) {
+        return literal.getValue().chars().allMatch(c -> c <= MAX_ASCII);
+    }
+
+    @Override
+    public Boolean visitCharacterClass(CharacterClass characterClass, Void parameter) {
+        CharacterSet characters = characterClass.getCharacters();
+        return characters != null && !characters.intersects(CharacterSet.of(MAX_ASCII + 1, Character.MAX_CODE_POINT));
+    }
+
+    @Override
+    public Boolean visitAnchor(Anchor anchor, Void parameter) {
+        return anchor.getType() == Anchor.Type.START_OF_INPUT || anchor.getType() == Anchor.Type.END_OF_INPUT;
+    }
+
+    @Override
+    public Boolean visitRaw(Raw raw, Void parameter) {
+        return false;
+    }
+
+    @Override
+    public Boolean visitAlternation(Alternation alternation, Void parameter) {
+        return allOf(alternation.getAlternatives());
+    }
+
+    @Override
+    public Boolean visitGroup(Group group, Void parameter) {
+        return group.getContent().accept(this, null);
+    }
+
+    @Override
+    public Boolean visitQuantified(Quantified quantified, Void parameter) {
+        return quantified.getBlock().accept(this, null);
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.Objects;
+
+/**
+ * Block that matches exactly one character, for example {@code \d} or {@code [a-z]}.
+ */
+public class CharacterClass extends Expression {
+    private final String regex;
+
+    /** The builder method that created this block, for example {@code digit()}. */
+    private final String builderMethod;
+
+    /** The characters that are matched, or {@code null} if they are not known exactly. */
+    private final CharacterSet characters;
+
+    /**
+     * Constructor for a block of which the matched characters are not known exactly.
+     * @param regex         The regular expression matching a single character.
+     * @param builderMethod The builder method that created this block, for example {@code digit()}.
+     */
+    public CharacterClass(String regex, String builderMethod) {
+        this(regex, builderMethod, null);
+    }
+
+    /**
+     * Constructor.
+     * @param regex         The regular expression matching a single character.
+     * @param builderMethod The builder method that created this block, for example {@code digit()}.
+     * @param characters    The characters that are matched when the pattern is compiled without flags, or {@code null}
+     *                      if they are not known exactly.
+     */
+    public CharacterClass(String regex, String builderMethod, CharacterSet characters) {
+        this.regex = regex;
+        this.builderMethod = builderMethod;
+        this.characters = characters;
+    }
+
+    /**
+     * @return The regular expression matching a single character.
+     */
+    public String getRegex() {
+        return regex;
+    }
+
+    /**
+     * @return The builder method that created this block, for example {@code digit()}.
+     */
+    public String getBuilderMethod() {
+        return builderMethod;
+    }
+
+    /**
+     * @return The characters that are matched when the pattern is compiled without flags, or {@code null} if they are
+     * not known exactly.
+     */
+    public CharacterSet getCharacters() {
+        return characters;
+    }
+
+    @Override
+    public <R, P> R accept(ExpressionVisitor<R, P> visitor, P parameter) {
+        return visitor.visitCharacterClass(this, parameter);
+    }
+
+    @Override
+    public void appendTo(StringBuilder regex) {
+        regex.append(this.regex);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CharacterClass)) {
+            return false;
+        }
+        CharacterClass other = (CharacterClass) o;
+        return regex.equals(other.regex) && builderMethod.equals(other.builderMethod)
+                && Objects.equals(characters, other.characters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(regex, builderMethod, characters);
+    }
+}
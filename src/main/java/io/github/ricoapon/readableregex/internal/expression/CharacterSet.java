@@ -0,0 +1,163 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable set of code points, stored as sorted ranges that do not overlap. This is used to prove that two blocks can
+ * never match the same character.
+ */
+public final class CharacterSet {
+    /** Characters that have a special meaning inside a character class, for example {@code [a-z]}. */
+    private static final String SPECIAL_CLASS_CHARACTERS = "\\[]&^-";
+
+    /** Start and end (inclusive) of every range, ordered by start. */
+    private final int[] ranges;
+
+    private CharacterSet(int[] ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * @param boundaries Pairs of the first and last code point (inclusive) of a range, for example {@code 'a', 'z'}.
+     * @return The set of all the code points in the ranges.
+     */
+    public static CharacterSet of(int... boundaries) {
+        List<int[]> sortedRanges = new ArrayList<>();
+        for (int i = 0; i < boundaries.length; i += 2) {
+            sortedRanges.add(new int[]{boundaries[i], boundaries[i + 1]});
+        }
+        sortedRanges.sort(Comparator.comparingInt(range -> range[0]));
+
+        List<int[]> mergedRanges = new ArrayList<>();
+        for (int[] range : sortedRanges) {
+            int[] last = mergedRanges.isEmpty() ? null : mergedRanges.get(mergedRanges.size() - 1);
+            if (last != null && range[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                mergedRanges.add(range);
+            }
+        }
+        return new CharacterSet(mergedRanges.stream().flatMapToInt(Arrays::stream).toArray());
+    }
+
+    /**
+     * @param characters The characters of the character class {@code [characters]}.
+     * @return The set of the characters, or {@code null} if the characters contain a character that has a special meaning
+     * inside a character class.
+     */
+    public static CharacterSet ofCharacters(String characters) {
+        if (characters.chars().anyMatch(c -> SPECIAL_CLASS_CHARACTERS.indexOf(c) >= 0)) {
+            return null;
+        }
+        return of(characters.codePoints().flatMap(c -> Arrays.stream(new int[]{c, c})).toArray());
+    }
+
+    /**
+     * @param boundaries Pairs of the first and last character (inclusive) of a range of the character class {@code [a-z]}.
+     * @return The set of all the characters in the ranges, or {@code null} if a boundary has a special meaning inside a
+     * character class or is part of a surrogate pair.
+     */
+    public static CharacterSet ofBoundaries(char... boundaries) {
+        int[] codePoints = new int[boundaries.length];
+        for (int i = 0; i < boundaries.length; i++) {
+            if (SPECIAL_CLASS_CHARACTERS.indexOf(boundaries[i]) >= 0 || Character.isSurrogate(boundaries[i])) {
+                return null;
+            }
+            codePoints[i] = boundaries[i];
+        }
+        return of(codePoints);
+    }
+
+    /**
+     * @return The set of all the code points that are not in this set.
+     */
+    public CharacterSet complement() {
+        List<Integer> boundaries = new ArrayList<>();
+        int next = Character.MIN_CODE_POINT;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                boundaries.add(next);
+                boundaries.add(ranges[i] - 1);
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= Character.MAX_CODE_POINT) {
+            boundaries.add(next);
+            boundaries.add(Character.MAX_CODE_POINT);
+        }
+        return new CharacterSet(boundaries.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @param other The other set.
+     * @return The set of all the code points that are in this set or in the other set.
+     */
+    public CharacterSet union(CharacterSet other) {
+        int[] boundaries = Arrays.copyOf(ranges, ranges.length + other.ranges.length);
+        System.arraycopy(other.ranges, 0, boundaries, ranges.length, other.ranges.length);
+        return of(boundaries);
+    }
+
+    /**
+     * @param other The other set.
+     * @return Whether there is a code point that is in both sets.
+     */
+    public boolean intersects(CharacterSet other) {
+        int i = 0;
+        int j = 0;
+        while (i < ranges.length && j < other.ranges.length) {
+            if (ranges[i + 1] < other.ranges[j]) {
+                i += 2;
+            } else if (other.ranges[j + 1] < ranges[i]) {
+                j += 2;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param codePoint The code point.
+     * @return Whether the code point is in this set.
+     */
+    public boolean contains(int codePoint) {
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (ranges[2 * middle + 1] < codePoint) {
+                low = middle + 1;
+            } else if (ranges[2 * middle] > codePoint) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The first and last code point (inclusive) of every range in this set, ordered by the first code point.
+     */
+    public int[] getBoundaries() {
+        return ranges.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CharacterSet)) {
+            return false;
+        }
+        CharacterSet other = (CharacterSet) o;
+        return Arrays.equals(ranges, other.ranges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ranges);
+    }
+}
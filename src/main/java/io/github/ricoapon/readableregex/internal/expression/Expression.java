@@ -0,0 +1,53 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.List;
+
+/**
+ * Node of the expression tree that is constructed by the builder. Every node represents a part of the regular expression
+ * and can write itself as a regular expression. Nodes are immutable, so they can be shared between builder instances.
+ * Nodes are equal if they are of the same type and their content and children are equal, so a tree can be used as a key.
+ * <p>
+ * The regular expression written by {@link #appendTo(StringBuilder)} corresponds one-to-one with the builder methods that
+ * were called. Use {@link OptimizedRegexWriter} to write a regular expression without redundant constructs.
+ */
+public abstract class Expression {
+    /**
+     * Calls the method of the visitor that corresponds to the type of this node.
+     * @param visitor   The visitor.
+     * @param parameter The additional parameter that is passed to the visitor.
+     * @param <R>       The type of the result.
+     * @param <P>       The type of the additional parameter.
+     * @return The result of the visitor.
+     */
+    public abstract <R, P> R accept(ExpressionVisitor<R, P> visitor, P parameter);
+
+    /**
+     * Appends the regular expression of this node to the given {@link StringBuilder}.
+     * @param regex The regular expression that is being constructed.
+     */
+    public abstract void appendTo(StringBuilder regex);
+
+    /**
+     * Adds all the capturing groups inside this node in order to the given list. By default, a node contains no groups.
+     * @param groups List of group names. If the name is {@code null}, it is an unnamed group.
+     */
+    public void collectGroups(List<String> groups) {
+        // Nothing to add.
+    }
+
+    /**
+     * @return {@code true} if this node contains an anchor that only works with {@link java.util.regex.Pattern#MULTILINE} enabled.
+     */
+    public boolean requiresMultilineFlag() {
+        return false;
+    }
+
+    /**
+     * @return The regular expression of this node.
+     */
+    public String toRegex() {
+        StringBuilder regex = new StringBuilder();
+        appendTo(regex);
+        return regex.toString();
+    }
+}
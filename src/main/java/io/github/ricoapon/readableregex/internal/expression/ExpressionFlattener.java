@@ -0,0 +1,86 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Utility methods to look at the content of an expression tree without the unnamed groups that do not change its meaning.
+ */
+public final class ExpressionFlattener {
+    private ExpressionFlattener() {
+    }
+
+    /**
+     * @param alternatives The alternatives of an alternation.
+     * @return The literal value of every alternative, or {@code null} if an alternative is not a single literal.
+     */
+    public static List<String> literalsOf(List<Expression> alternatives) {
+        List<String> literals = new ArrayList<>();
+        for (Expression alternative : alternatives) {
+            if (containsRaw(blocksOf(alternative))) {
+                return null;
+            }
+            List<Expression> blocks = flatten(alternative);
+            if (blocks.size() != 1 || !(blocks.get(0) instanceof Literal)) {
+                return null;
+            }
+            literals.add(((Literal) blocks.get(0)).getValue());
+        }
+        return literals;
+    }
+
+    /**
+     * @param content The content of a sequence, group or alternative.
+     * @return The blocks of the sequence, or a list with only the content itself if it is not a sequence.
+     */
+    public static List<Expression> blocksOf(Expression content) {
+        if (content instanceof Sequence) {
+            return ((Sequence) content).getBlocks();
+        }
+        return Collections.singletonList(content);
+    }
+
+    /**
+     * @param blocks The blocks of a sequence.
+     * @return Whether one of the blocks is created from a regular expression string, possibly followed by a quantifier.
+     */
+    public static boolean containsRaw(List<Expression> blocks) {
+        for (Expression block : blocks) {
+            if (block instanceof Raw || (block instanceof Quantified && ((Quantified) block).getBlock() instanceof Raw)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the blocks of the content, where unnamed groups that are not quantified are replaced with their content and
+     * adjacent literals are merged.
+     * @param content The content of a sequence, group or alternative that does not contain {@link Raw} blocks.
+     * @return The flattened blocks.
+     */
+    public static List<Expression> flatten(Expression content) {
+        List<Expression> result = new ArrayList<>();
+        for (Expression block : blocksOf(content)) {
+            if (block instanceof Group && ((Group) block).getType() == Group.Type.NON_CAPTURING
+                    && !containsRaw(blocksOf(((Group) block).getContent()))) {
+                for (Expression innerBlock : flatten(((Group) block).getContent())) {
+                    addMerged(result, innerBlock);
+                }
+            } else {
+                addMerged(result, block);
+            }
+        }
+        return result;
+    }
+
+    private static void addMerged(List<Expression> blocks, Expression block) {
+        int last = blocks.size() - 1;
+        if (block instanceof Literal && last >= 0 && blocks.get(last) instanceof Literal) {
+            blocks.set(last, new Literal(((Literal) blocks.get(last)).getValue() + ((Literal) block).getValue()));
+        } else {
+            blocks.add(block);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+/**
+ * Visitor of the nodes of the expression tree.
+ * @param <R> The type of the result.
+ * @param <P> The type of the additional parameter.
+ */
+public interface ExpressionVisitor<R, P> {
+    R visitSequence(Sequence sequence, P parameter);
+
+    R visitLiteral(Literal literal, P parameter);
+
+    R visitCharacterClass(CharacterClass characterClass, P parameter);
+
+    R visitAnchor(Anchor anchor, P parameter);
+
+    R visitRaw(Raw raw, P parameter);
+
+    R visitAlternation(Alternation alternation, P parameter);
+
+    R visitGroup(Group group, P parameter);
+
+    R visitQuantified(Quantified quantified, P parameter);
+}
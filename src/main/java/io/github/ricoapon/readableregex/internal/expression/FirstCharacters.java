@@ -0,0 +1,122 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+/**
+ * The characters that a block can start with. The result is exact: it is only known if the block does not contain a
+ * block of which the matched characters are not known exactly.
+ */
+final class FirstCharacters implements ExpressionVisitor<FirstCharacters, Void> {
+    /** Result of a block that never matches a character. The visitor is stateless, so this instance is also the visitor. */
+    private static final FirstCharacters EMPTY = new FirstCharacters(true, CharacterSet.of());
+
+    /** Whether the block can match an empty text. */
+    private final boolean nullable;
+
+    /** The characters that can be the first character of a match, or {@code null} if they are not known. */
+    private final CharacterSet characters;
+
+    private FirstCharacters(boolean nullable, CharacterSet characters) {
+        this.nullable = nullable;
+        this.characters = characters;
+    }
+
+    /**
+     * @param expression The block.
+     * @return The characters that the block can start with.
+     */
+    static FirstCharacters of(Expression expression) {
+        return expression.accept(EMPTY, null);
+    }
+
+    /**
+     * @return Whether the block can match an empty text.
+     */
+    boolean isNullable() {
+        return nullable;
+    }
+
+    /**
+     * @return The characters that can be the first character of a match, or {@code null} if they are not known.
+     */
+    CharacterSet getCharacters() {
+        return characters;
+    }
+
+    /**
+     * @param other The first characters of the block that follows this block.
+     * @return The first characters of this block followed by the other block.
+     */
+    private FirstCharacters followedBy(FirstCharacters other) {
+        if (!nullable || characters == null) {
+            return this;
+        } else if (other.characters == null) {
+            return other;
+        }
+        return new FirstCharacters(other.nullable, characters.union(other.characters));
+    }
+
+    @Override
+    public FirstCharacters visitSequence(Sequence sequence, Void parameter) {
+        FirstCharacters result = EMPTY;
+        for (Expression block : sequence.getBlocks()) {
+            result = result.followedBy(block.accept(this, null));
+        }
+        return result;
+    }
+
+    @Override
+    public FirstCharacters visitLiteral(Literal literal, Void parameter) {
+        String value = literal.getValue();
+        if (value.isEmpty()) {
+            return EMPTY;
+        }
+        int firstCodePoint = value.codePointAt(0);
+        return new FirstCharacters(false, CharacterSet.of(firstCodePoint, firstCodePoint));
+    }
+
+    @Override
+    public FirstCharacters visitCharacterClass(CharacterClass characterClass, Void parameter) {
+        return new FirstCharacters(false, characterClass.getCharacters());
+    }
+
+    @Override
+    public FirstCharacters visitAnchor(Anchor anchor, Void parameter) {
+        // Anchors never match a character.
+        return EMPTY;
+    }
+
+    @Override
+    public FirstCharacters visitRaw(Raw raw, Void parameter) {
+        return new FirstCharacters(false, null);
+    }
+
+    @Override
+    public FirstCharacters visitAlternation(Alternation alternation, Void parameter) {
+        boolean nullable = false;
+        CharacterSet characters = CharacterSet.of();
+        for (Expression alternative : alternation.getAlternatives()) {
+            FirstCharacters alternativeResult = alternative.accept(this, null);
+            if (alternativeResult.characters == null) {
+                return alternativeResult;
+            }
+            nullable |= alternativeResult.nullable;
+            characters = characters.union(alternativeResult.characters);
+        }
+        return new FirstCharacters(nullable, characters);
+    }
+
+    @Override
+    public FirstCharacters visitGroup(Group group, Void parameter) {
+        if (group.getType() == Group.Type.CAPTURING || group.getType() == Group.Type.NON_CAPTURING
+                || group.getType() == Group.Type.ATOMIC) {
+            return group.getContent().accept(this, null);
+        }
+        // Lookarounds never match a character.
+        return EMPTY;
+    }
+
+    @Override
+    public FirstCharacters visitQuantified(Quantified quantified, Void parameter) {
+        FirstCharacters blockResult = quantified.getBlock().accept(this, null);
+        return new FirstCharacters(blockResult.nullable || quantified.getMin() == 0, blockResult.characters);
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Block surrounded by parentheses, for example a capturing group or a lookahead.
+ */
+public class Group extends Expression {
+    /** All the supported types of groups. */
+    public enum Type {
+        CAPTURING("("),
+        NON_CAPTURING("(?:"),
+        POSITIVE_LOOKBEHIND("(?<="),
+        NEGATIVE_LOOKBEHIND("(?<!"),
+        POSITIVE_LOOKAHEAD("(?="),
+        NEGATIVE_LOOKAHEAD("(?!"),
+        /** Group that never gives back what it has matched. Not created by the builder, see {@link PossessiveQuantifierRewriter}. */
+        ATOMIC("(?>");
+
+        private final String opening;
+
+        Type(String opening) {
+            this.opening = opening;
+        }
+    }
+
+    private final Type type;
+
+    /** The name of the group. Can only be non-null if the type is {@link Type#CAPTURING}. */
+    private final String name;
+
+    private final Expression content;
+
+    /**
+     * Constructor.
+     * @param type    The type of group.
+     * @param name    The name of the group, or {@code null} if the group has no name.
+     * @param content The content of the group.
+     */
+    public Group(Type type, String name, Expression content) {
+        this.type = type;
+        this.name = name;
+        this.content = content;
+    }
+
+    /**
+     * @return The type of group.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The name of the group, or {@code null} if the group has no name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The content of the group.
+     */
+    public Expression getContent() {
+        return content;
+    }
+
+    /**
+     * @return Whether this group is a positive or negative lookbehind.
+     */
+    public boolean isLookbehind() {
+        return type == Type.POSITIVE_LOOKBEHIND || type == Type.NEGATIVE_LOOKBEHIND;
+    }
+
+    @Override
+    public <R, P> R accept(ExpressionVisitor<R, P> visitor, P parameter) {
+        return visitor.visitGroup(this, parameter);
+    }
+
+    /**
+     * Appends the opening parenthesis of this group, including the name if the group has one.
+     * @param regex The regular expression that is being constructed.
+     */
+    public void appendOpeningTo(StringBuilder regex) {
+        if (name != null) {
+            regex.append("(?<").append(name).append('>');
+        } else {
+            regex.append(type.opening);
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder regex) {
+        appendOpeningTo(regex);
+        content.appendTo(regex);
+        regex.append(')');
+    }
+
+    @Override
+    public void collectGroups(List<String> groups) {
+        if (type == Type.CAPTURING) {
+            groups.add(name);
+        }
+        content.collectGroups(groups);
+    }
+
+    @Override
+    public boolean requiresMultilineFlag() {
+        return content.requiresMultilineFlag();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Group)) {
+            return false;
+        }
+        Group other = (Group) o;
+        return type == other.type && Objects.equals(name, other.name) && content.equals(other.content);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, name, content);
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes the names of all the capturing groups. The groups are still capturing, so the index of every group stays the
+ * same. This is needed to combine expressions that use the same group names into a single regular expression.
+ */
+public final class GroupNameRemover implements ExpressionVisitor<Expression, Void> {
+    /** Whether a block created from a regular expression string is found. */
+    private boolean containsRaw = false;
+
+    private GroupNameRemover() {
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @return The expression tree without group names, or {@code null} if the expression contains a block created from a
+     * regular expression string, because the groups inside this block are unknown.
+     */
+    public static Expression removeNames(Expression expression) {
+        GroupNameRemover remover = new GroupNameRemover();
+        Expression result = expression.accept(remover, null);
+        return remover.containsRaw ? null : result;
+    }
+
+    @Override
+    public Expression visitSequence(Sequence sequence, Void parameter) {
+        List<Expression> blocks = new ArrayList<>();
+        for (Expression block : sequence.getBlocks()) {
+            blocks.add(block.accept(this, null));
+        }
+        return new Sequence(blocks);
+    }
+
+    @Override
+    public Expression visitLiteral(Literal literal, Void parameter) {
+        return literal;
+    }
+
+    @Override
+    public Expression visitCharacterClass(CharacterClass characterClass, Void parameter) {
+        return characterClass;
+    }
+
+    @Override
+    public Expression visitAnchor(Anchor anchor, Void parameter) {
+        return anchor;
+    }
+
+    @Override
+    public Expression visitRaw(Raw raw, Void parameter) {
+        containsRaw = true;
+        return raw;
+    }
+
+    @Override
+    public Expression visitAlternation(Alternation alternation, Void parameter) {
+        List<Expression> alternatives = new ArrayList<>();
+        for (Expression alternative : alternation.getAlternatives()) {
+            alternatives.add(alternative.accept(this, null));
+        }
+        return new Alternation(alternatives);
+    }
+
+    @Override
+    public Expression visitGroup(Group group, Void parameter) {
+        return new Group(group.getType(), null, group.getContent().accept(this, null));
+    }
+
+    @Override
+    public Expression visitQuantified(Quantified quantified, Void parameter) {
+        return quantified.withBlock(quantified.getBlock().accept(this, null));
+    }
+}
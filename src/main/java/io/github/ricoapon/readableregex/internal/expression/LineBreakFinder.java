@@ -0,0 +1,86 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.List;
+
+/**
+ * Determines whether a match of an expression tree can contain a line feed ({@code \n}). If not, a text can be divided
+ * into parts at line feeds, and every match lies within a single part.
+ * <p>
+ * The result is conservative: blocks created from a regular expression string and character classes of which the
+ * characters are not known are assumed to match a line feed. The content of lookarounds is also taken into account,
+ * even though it is not part of the match.
+ */
+public final class LineBreakFinder implements ExpressionVisitor<Boolean, Void> {
+    private static final LineBreakFinder WITHOUT_DOT_ALL = new LineBreakFinder(false);
+    private static final LineBreakFinder WITH_DOT_ALL = new LineBreakFinder(true);
+
+    /** Whether {@code .} matches a line feed. */
+    private final boolean dotAll;
+
+    private LineBreakFinder(boolean dotAll) {
+        this.dotAll = dotAll;
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param dotAll     Whether {@link java.util.regex.Pattern#DOTALL} is enabled.
+     * @return {@code true} if a match can contain a line feed, else {@code false}.
+     */
+    public static boolean canMatchLineBreak(Expression expression, boolean dotAll) {
+        return expression.accept(dotAll ? WITH_DOT_ALL : WITHOUT_DOT_ALL, null);
+    }
+
+    private boolean anyOf(List<Expression> blocks) {
+        for (Expression block : blocks) {
+            if (block.accept(this, null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Boolean visitSequence(Sequence sequence, Void parameter) {
+        return anyOf(sequence.getBlocks());
+    }
+
+    @Override
+    public Boolean visitLiteral(Literal literal, Void parameter) {
+        return literal.getValue().indexOf('\n') >= 0;
+    }
+
+    @Override
+    public Boolean visitCharacterClass(CharacterClass characterClass, Void parameter) {
+        CharacterSet characters = characterClass.getCharacters();
+        if (characters == null) {
+            // Without DOTALL, the dot matches all characters except line terminators.
+            return !characterClass.getRegex().equals(".") || dotAll;
+        }
+        return characters.contains('\n');
+    }
+
+    @Override
+    public Boolean visitAnchor(Anchor anchor, Void parameter) {
+        return false;
+    }
+
+    @Override
+    public Boolean visitRaw(Raw raw, Void parameter) {
+        return true;
+    }
+
+    @Override
+    public Boolean visitAlternation(Alternation alternation, Void parameter) {
+        return anyOf(alternation.getAlternatives());
+    }
+
+    @Override
+    public Boolean visitGroup(Group group, Void parameter) {
+        return group.getContent().accept(this, null);
+    }
+
+    @Override
+    public Boolean visitQuantified(Quantified quantified, Void parameter) {
+        return quantified.getBlock().accept(this, null);
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+/**
+ * Literal text, where all the metacharacters are escaped.
+ */
+public class Literal extends Expression {
+    private final String value;
+
+    /**
+     * Constructor.
+     * @param value The literal text.
+     */
+    public Literal(String value) {
+        this.value = value;
+    }
+
+    /**
+     * @return The literal text.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public <R, P> R accept(ExpressionVisitor<R, P> visitor, P parameter) {
+        return visitor.visitLiteral(this, parameter);
+    }
+
+    @Override
+    public void appendTo(StringBuilder regex) {
+        // Surround input with \Q\E to make sure that all the meta characters are escaped.
+        // Wrap in an unnamed group, to make sure that quantifiers work on the entire block.
+        regex.append("(?:\\Q").append(value).append("\\E)");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Literal)) {
+            return false;
+        }
+        Literal other = (Literal) o;
+        return value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes an alternation of literals as a prefix-factored trie, for example {@code (?:GET(?:ALL)??|PUT)} instead of
+ * {@code (?:GET|GETALL|PUT)}. The JDK tries every alternative of an alternation at every position, while the trie only
+ * follows the branch that matches the next character.
+ * <p>
+ * An alternation matches the first alternative (from left to right) that results in a match. The trie keeps these
+ * semantics: alternatives that start with different characters can never both match at the same position, so their order
+ * does not matter. When one literal is a prefix of other literals, the shorter literal is tried first or last depending
+ * on the original order. If the original order is mixed, that part of the trie is written as a plain alternation.
+ * <p>
+ * This only holds if the characters are matched case-sensitively.
+ */
+final class LiteralTrie {
+    /** Literal with its index in the original alternation. */
+    private static class Entry {
+        private final String literal;
+        private final int index;
+
+        Entry(String literal, int index) {
+            this.literal = literal;
+            this.index = index;
+        }
+    }
+
+    private LiteralTrie() {
+    }
+
+    /**
+     * Appends the alternation of the given literals as a single unit.
+     * @param regex    The regular expression that is being constructed.
+     * @param literals The literals in the order of the alternation.
+     */
+    static void appendAlternation(StringBuilder regex, List<String> literals) {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < literals.size(); i++) {
+            entries.add(new Entry(literals.get(i), i));
+        }
+        appendNode(regex, entries, 0, true);
+    }
+
+    /**
+     * Appends the part of the trie of all the given entries after the given offset.
+     * @param regex   The regular expression that is being constructed.
+     * @param entries The entries, which all share the first {@code offset} characters, in the original order.
+     * @param offset  The number of characters that is already written.
+     * @param root    Whether this is the root of the trie, which must always be written as a single unit.
+     */
+    private static void appendNode(StringBuilder regex, List<Entry> entries, int offset, boolean root) {
+        Entry ending = null;
+        Map<Integer, List<Entry>> children = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            if (entry.literal.length() == offset) {
+                // Duplicate literals never match when the first one did not match, so only the first one matters.
+                if (ending == null) {
+                    ending = entry;
+                }
+            } else {
+                children.computeIfAbsent(entry.literal.codePointAt(offset), c -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        boolean endingFirst = false;
+        boolean endingLast = false;
+        if (ending != null) {
+            int lowestIndex = Integer.MAX_VALUE;
+            int highestIndex = -1;
+            for (List<Entry> childEntries : children.values()) {
+                lowestIndex = Math.min(lowestIndex, childEntries.get(0).index);
+                highestIndex = Math.max(highestIndex, childEntries.get(childEntries.size() - 1).index);
+            }
+            endingFirst = lowestIndex > ending.index;
+            endingLast = !endingFirst && highestIndex < ending.index;
+            if (!endingFirst && !endingLast) {
+                appendPlainAlternation(regex, entries, offset);
+                return;
+            }
+        }
+
+        List<String> branches = new ArrayList<>();
+        for (Map.Entry<Integer, List<Entry>> child : children.entrySet()) {
+            StringBuilder branch = new StringBuilder();
+            OptimizedRegexWriter.appendEscaped(branch, new String(Character.toChars(child.getKey())));
+            appendNode(branch, child.getValue(), offset + Character.charCount(child.getKey()), false);
+            branches.add(branch.toString());
+        }
+
+        if (root) {
+            regex.append("(?:");
+            if (endingFirst) {
+                regex.append('|');
+            }
+            regex.append(String.join("|", branches));
+            if (endingLast) {
+                regex.append('|');
+            }
+            regex.append(')');
+        } else if (branches.size() == 1 && ending == null) {
+            regex.append(branches.get(0));
+        } else if (!branches.isEmpty()) {
+            regex.append("(?:").append(String.join("|", branches)).append(')');
+            if (endingFirst) {
+                regex.append("??");
+            } else if (endingLast) {
+                regex.append('?');
+            }
+        }
+    }
+
+    private static void appendPlainAlternation(StringBuilder regex, List<Entry> entries, int offset) {
+        regex.append("(?:");
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) {
+                regex.append('|');
+            }
+            OptimizedRegexWriter.appendEscaped(regex, entries.get(i).literal.substring(offset));
+        }
+        regex.append(')');
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+/**
+ * Determines the maximum number of {@code char}s that a match of an expression tree can contain. If it is bounded, a
+ * search for a match that starts at some index never has to look further than this number of characters.
+ * <p>
+ * The result is conservative: every character class can match a surrogate pair, and blocks created from a regular
+ * expression string are assumed to match any number of characters. Lookarounds are not part of the match, so they do not
+ * add to the length.
+ */
+public final class MaxLengthFinder implements ExpressionVisitor<Integer, Void> {
+    /** The length of matches that can contain any number of characters. */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private static final MaxLengthFinder INSTANCE = new MaxLengthFinder();
+
+    private MaxLengthFinder() {
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @return The maximum length of a match, or {@link #UNBOUNDED} if there is no maximum.
+     */
+    public static int maxLength(Expression expression) {
+        return expression.accept(INSTANCE, null);
+    }
+
+    /**
+     * @return The product of the lengths, or {@link #UNBOUNDED} if it does not fit in an {@code int}.
+     */
+    private static int multiply(int length, int times) {
+        if (times == 0 || length == 0) {
+            return 0;
+        }
+        long product = (long) length * times;
+        return product >= UNBOUNDED ? UNBOUNDED : (int) product;
+    }
+
+    @Override
+    public Integer visitSequence(Sequence sequence, Void parameter) {
+        long sum = 0;
+        for (Expression block : sequence.getBlocks()) {
+            sum += block.accept(this, null);
+            if (sum >= UNBOUNDED) {
+                return UNBOUNDED;
+            }
+        }
+        return (int) sum;
+    }
+
+    @Override
+    public Integer visitLiteral(Literal literal, Void parameter) {
+        return literal.getValue().length();
+    }
+
+    @Override
+    public Integer visitCharacterClass(CharacterClass characterClass, Void parameter) {
+        return 2;
+    }
+
+    @Override
+    public Integer visitAnchor(Anchor anchor, Void parameter) {
+        return 0;
+    }
+
+    @Override
+    public Integer visitRaw(Raw raw, Void parameter) {
+        return UNBOUNDED;
+    }
+
+    @Override
+    public Integer visitAlternation(Alternation alternation, Void parameter) {
+        int max = 0;
+        for (Expression alternative : alternation.getAlternatives()) {
+            max = Math.max(max, alternative.accept(this, null));
+        }
+        return max;
+    }
+
+    @Override
+    public Integer visitGroup(Group group, Void parameter) {
+        switch (group.getType()) {
+            case POSITIVE_LOOKAHEAD:
+            case NEGATIVE_LOOKAHEAD:
+            case POSITIVE_LOOKBEHIND:
+            case NEGATIVE_LOOKBEHIND:
+                return 0;
+            default:
+                return group.getContent().accept(this, null);
+        }
+    }
+
+    @Override
+    public Integer visitQuantified(Quantified quantified, Void parameter) {
+        int length = quantified.getBlock().accept(this, null);
+        if (quantified.getMax() == Quantified.UNBOUNDED && length > 0) {
+            return UNBOUNDED;
+        }
+        return multiply(length, quantified.getMax());
+    }
+}
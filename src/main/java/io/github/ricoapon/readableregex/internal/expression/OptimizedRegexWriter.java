@@ -0,0 +1,249 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.blocksOf;
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.containsRaw;
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.flatten;
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.literalsOf;
+
+/**
+ * Writes the regular expression of an expression tree without the constructs that do not change the meaning of the
+ * expression. Compared to {@link Expression#toRegex()}, this writer:
+ * <ul>
+ *     <li>removes unnamed groups that are not needed for a quantifier;</li>
+ *     <li>merges adjacent literals into a single literal;</li>
+ *     <li>escapes literals character by character instead of using {@code \Q...\E} and an unnamed group;</li>
+ *     <li>removes the alternation of {@code oneOf} with a single alternative;</li>
+ *     <li>writes an alternation of only literals as a prefix-factored trie (see {@link LiteralTrie});</li>
+ *     <li>writes quantifiers in their shortest notation, for example {@code {3}} instead of {@code {3,3}}.</li>
+ * </ul>
+ * Fewer constructs result in fewer nodes inside the compiled JDK {@link Pattern}, which makes matching faster.
+ * <p>
+ * Blocks created from a regular expression string ({@link Raw}) are never rewritten. They can contain anything, for example
+ * an alternation or an unfinished construct that continues in the next block. Therefore, a sequence that contains such a
+ * block is written exactly like {@link Expression#toRegex()} would.
+ * <p>
+ * The JDK only accepts a lookbehind if the maximum length of its content is obvious to the compiled {@link Pattern}.
+ * Inside a lookbehind, only the rewrites that keep the structure of the expression are applied: alternations are not
+ * written as a trie, because this introduces nested optional groups.
+ * <p>
+ * The JDK records the groups inside a repeated unnamed group differently than those of a repeated capturing group, so
+ * {@code (?:(a))*a} and {@code (a)*a} report different positions for group 1. An unnamed group that is repeated more than
+ * once is therefore kept if its content is a capturing group, also if the group is the single alternative of {@code oneOf}.
+ * <p>
+ * The parameter of the visitor indicates whether the written regular expression must be a single unit that can be
+ * followed by a quantifier.
+ */
+public final class OptimizedRegexWriter implements ExpressionVisitor<Void, Boolean> {
+    /** Characters that are escaped inside literals. Whitespace and # are included, so that comments mode has no effect. */
+    private static final String CHARACTERS_TO_ESCAPE = "\\^$.|?*+()[]{}#";
+
+    private final StringBuilder regex = new StringBuilder();
+
+    /** Whether the pattern is compiled with {@link Pattern#CASE_INSENSITIVE}. */
+    private final boolean caseInsensitive;
+
+    /** Whether the blocks that are currently written are inside a lookbehind. */
+    private boolean insideLookbehind = false;
+
+    /** Whether the unit that is written next is repeated by a quantifier with a maximum larger than one. */
+    private boolean repeatedUnit = false;
+
+    private OptimizedRegexWriter(boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @return The optimized regular expression of the expression tree.
+     */
+    public static String write(Expression expression) {
+        return write(expression, 0);
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @param flags      The flags that the pattern is compiled with, as used by {@link Pattern#compile(String, int)}.
+     * @return The optimized regular expression of the expression tree.
+     */
+    public static String write(Expression expression, int flags) {
+        OptimizedRegexWriter writer = new OptimizedRegexWriter((flags & Pattern.CASE_INSENSITIVE) != 0);
+        expression.accept(writer, false);
+        return writer.regex.toString();
+    }
+
+    /**
+     * Appends the given literal text, where all the metacharacters are escaped.
+     * @param regex The regular expression that is being constructed.
+     * @param value The literal text.
+     */
+    static void appendEscaped(StringBuilder regex, String value) {
+        for (char c : value.toCharArray()) {
+            if (CHARACTERS_TO_ESCAPE.indexOf(c) >= 0 || Character.isWhitespace(c)) {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+    }
+
+    @Override
+    public Void visitSequence(Sequence sequence, Boolean asUnit) {
+        writeContent(sequence, asUnit);
+        return null;
+    }
+
+    @Override
+    public Void visitLiteral(Literal literal, Boolean asUnit) {
+        String value = literal.getValue();
+        boolean needsGroup = asUnit && value.codePointCount(0, value.length()) != 1;
+        if (needsGroup) {
+            regex.append("(?:");
+        }
+        appendEscaped(regex, value);
+        if (needsGroup) {
+            regex.append(')');
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitCharacterClass(CharacterClass characterClass, Boolean asUnit) {
+        characterClass.appendTo(regex);
+        return null;
+    }
+
+    @Override
+    public Void visitAnchor(Anchor anchor, Boolean asUnit) {
+        // Line anchors are only surrounded with a group if they are followed up with a quantifier.
+        if (!asUnit && anchor.getType() == Anchor.Type.START_OF_LINE) {
+            regex.append('^');
+        } else if (!asUnit && anchor.getType() == Anchor.Type.END_OF_LINE) {
+            regex.append('$');
+        } else {
+            anchor.appendTo(regex);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitRaw(Raw raw, Boolean asUnit) {
+        raw.appendTo(regex);
+        return null;
+    }
+
+    @Override
+    public Void visitAlternation(Alternation alternation, Boolean asUnit) {
+        List<Expression> alternatives = alternation.getAlternatives();
+        if (alternatives.size() == 1) {
+            Expression alternative = alternatives.get(0);
+            writeContent(alternative, asUnit || containsRaw(blocksOf(alternative)));
+            return null;
+        }
+
+        List<String> literals = literalsOf(alternatives);
+        if (literals != null && !caseInsensitive && !insideLookbehind) {
+            LiteralTrie.appendAlternation(regex, literals);
+            return null;
+        }
+
+        regex.append("(?:");
+        for (int i = 0; i < alternatives.size(); i++) {
+            if (i > 0) {
+                regex.append('|');
+            }
+            writeContent(alternatives.get(i), false);
+        }
+        regex.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visitGroup(Group group, Boolean asUnit) {
+        if (group.getType() == Group.Type.NON_CAPTURING) {
+            // Unnamed groups that can be removed are already spliced into the surrounding sequence.
+            writeContent(group.getContent(), true);
+            return null;
+        }
+
+        boolean wasInsideLookbehind = insideLookbehind;
+        insideLookbehind |= group.isLookbehind();
+        group.appendOpeningTo(regex);
+        writeContent(group.getContent(), false);
+        regex.append(')');
+        insideLookbehind = wasInsideLookbehind;
+        return null;
+    }
+
+    @Override
+    public Void visitQuantified(Quantified quantified, Boolean asUnit) {
+        int min = quantified.getMin();
+        int max = quantified.getMax();
+        repeatedUnit = max > 1;
+        quantified.getBlock().accept(this, true);
+        repeatedUnit = false;
+        if (min == 0 && max == 1) {
+            regex.append('?');
+        } else if (min == 0 && max == Quantified.UNBOUNDED) {
+            regex.append('*');
+        } else if (min == 1 && max == Quantified.UNBOUNDED) {
+            regex.append('+');
+        } else if (min == max) {
+            regex.append('{').append(min).append('}');
+        } else if (max == Quantified.UNBOUNDED) {
+            regex.append('{').append(min).append(",}");
+        } else {
+            regex.append('{').append(min).append(',').append(max).append('}');
+        }
+        regex.append(quantified.getMode().getSuffix());
+        return null;
+    }
+
+    /**
+     * @param block The block.
+     * @return Whether the block is a capturing group.
+     */
+    private static boolean isCapturingGroup(Expression block) {
+        return block instanceof Group && ((Group) block).getType() == Group.Type.CAPTURING;
+    }
+
+    /**
+     * Writes the content of a sequence, group or alternative.
+     * @param content The content.
+     * @param asUnit  Whether the written regular expression must be a single unit that can be followed by a quantifier.
+     */
+    private void writeContent(Expression content, boolean asUnit) {
+        boolean repeated = repeatedUnit;
+        repeatedUnit = false;
+        if (containsRaw(blocksOf(content))) {
+            if (asUnit) {
+                regex.append("(?:");
+                content.appendTo(regex);
+                regex.append(')');
+            } else {
+                content.appendTo(regex);
+            }
+            return;
+        }
+
+        List<Expression> blocks = flatten(content);
+        if (asUnit && blocks.size() == 1 && !(blocks.get(0) instanceof Quantified) && !(repeated && isCapturingGroup(blocks.get(0)))) {
+            // The block itself becomes the unit that is repeated.
+            repeatedUnit = repeated;
+            blocks.get(0).accept(this, true);
+            repeatedUnit = false;
+            return;
+        }
+
+        if (asUnit) {
+            regex.append("(?:");
+        }
+        for (Expression block : blocks) {
+            block.accept(this, false);
+        }
+        if (asUnit) {
+            regex.append(')');
+        }
+    }
+}
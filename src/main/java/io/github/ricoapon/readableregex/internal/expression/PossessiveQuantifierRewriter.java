@@ -0,0 +1,142 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.flatten;
+
+/**
+ * Makes greedy quantifiers possessive if this can never change what the expression matches. The quantifier is surrounded
+ * with an atomic group, for example {@code (?>\d+)}. This has the same meaning as {@code \d++}, but the JDK engine
+ * matches it faster: it can keep using its optimized loop for greedy quantifiers.
+ * <p>
+ * A greedy quantifier first matches as many repetitions as possible. Only if the rest of the expression fails to match,
+ * it gives back repetitions one by one. A quantifier over a single character or a literal never has to give back
+ * anything if the characters that the repeated block starts with can never be matched by the blocks that follow it.
+ * After giving back a repetition, the next character is the start of that repetition, which the following blocks can
+ * not match. In that case, giving back repetitions is wasted effort and the quantifier can be made possessive.
+ * <p>
+ * Optional blocks are not changed, because giving back a single repetition is cheaper than the atomic group.
+ * Only the blocks that follow the quantifier inside the same sequence are considered, so a quantifier at the end of a
+ * sequence is never changed. Expressions with blocks created from a regular expression string are returned unchanged,
+ * because these blocks can change the meaning of the rest of the expression (for example with {@code (?i)}). The
+ * matched characters are assumed to be case-sensitive, so this rewriter must not be used for case-insensitive patterns.
+ * <p>
+ * The content of a lookbehind is never changed. The JDK only accepts a lookbehind if the maximum length of its content is
+ * obvious, and adding atomic groups must not put that at risk.
+ */
+public final class PossessiveQuantifierRewriter implements ExpressionVisitor<Expression, Void> {
+    /** Whether a block created from a regular expression string is found. */
+    private boolean containsRaw = false;
+
+    private PossessiveQuantifierRewriter() {
+    }
+
+    /**
+     * @param expression The expression tree of a case-sensitive pattern.
+     * @return The expression tree where the quantifiers that can safely be made possessive are possessive.
+     */
+    public static Expression rewrite(Expression expression) {
+        PossessiveQuantifierRewriter rewriter = new PossessiveQuantifierRewriter();
+        Expression rewritten = expression.accept(rewriter, null);
+        return rewriter.containsRaw ? expression : rewritten;
+    }
+
+    /**
+     * @param blocks The blocks of a sequence.
+     * @param index  The index of a greedy quantifier.
+     * @return Whether the blocks after the quantifier can never start with a character that the quantified block starts with.
+     */
+    private static boolean isFollowedByOtherCharacters(List<Expression> blocks, int index) {
+        Quantified quantified = (Quantified) blocks.get(index);
+        List<Expression> repeatedBlocks = flatten(quantified.getBlock());
+        Expression repeatedBlock = repeatedBlocks.size() == 1 ? repeatedBlocks.get(0) : null;
+        if (!(repeatedBlock instanceof Literal || repeatedBlock instanceof CharacterClass)) {
+            return false;
+        }
+        FirstCharacters repeated = FirstCharacters.of(repeatedBlock);
+        if (repeated.isNullable() || repeated.getCharacters() == null) {
+            return false;
+        }
+
+        for (int i = index + 1; i < blocks.size(); i++) {
+            FirstCharacters follower = FirstCharacters.of(blocks.get(i));
+            if (follower.getCharacters() == null || follower.getCharacters().intersects(repeated.getCharacters())) {
+                return false;
+            } else if (!follower.isNullable()) {
+                return true;
+            }
+        }
+        // What follows the sequence is unknown.
+        return false;
+    }
+
+    @Override
+    public Expression visitSequence(Sequence sequence, Void parameter) {
+        List<Expression> blocks = new ArrayList<>();
+        for (Expression block : sequence.getBlocks()) {
+            blocks.add(block.accept(this, null));
+        }
+        if (containsRaw) {
+            return sequence;
+        }
+
+        blocks = flatten(new Sequence(blocks));
+        for (int i = 0; i < blocks.size(); i++) {
+            if (blocks.get(i) instanceof Quantified) {
+                Quantified quantified = (Quantified) blocks.get(i);
+                if (quantified.getMode() == Quantified.Mode.GREEDY && quantified.getMax() > 1
+                        && quantified.getMax() > quantified.getMin()
+                        && isFollowedByOtherCharacters(blocks, i)) {
+                    blocks.set(i, new Group(Group.Type.ATOMIC, null, quantified));
+                }
+            }
+        }
+        return new Sequence(blocks);
+    }
+
+    @Override
+    public Expression visitLiteral(Literal literal, Void parameter) {
+        return literal;
+    }
+
+    @Override
+    public Expression visitCharacterClass(CharacterClass characterClass, Void parameter) {
+        return characterClass;
+    }
+
+    @Override
+    public Expression visitAnchor(Anchor anchor, Void parameter) {
+        return anchor;
+    }
+
+    @Override
+    public Expression visitRaw(Raw raw, Void parameter) {
+        containsRaw = true;
+        return raw;
+    }
+
+    @Override
+    public Expression visitAlternation(Alternation alternation, Void parameter) {
+        List<Expression> alternatives = new ArrayList<>();
+        for (Expression alternative : alternation.getAlternatives()) {
+            alternatives.add(alternative.accept(this, null));
+        }
+        return new Alternation(alternatives);
+    }
+
+    @Override
+    public Expression visitGroup(Group group, Void parameter) {
+        if (group.isLookbehind()) {
+            // Still visited to find blocks created from a regular expression string.
+            group.getContent().accept(this, null);
+            return group;
+        }
+        return new Group(group.getType(), group.getName(), group.getContent().accept(this, null));
+    }
+
+    @Override
+    public Expression visitQuantified(Quantified quantified, Void parameter) {
+        return quantified.withBlock(quantified.getBlock().accept(this, null));
+    }
+}
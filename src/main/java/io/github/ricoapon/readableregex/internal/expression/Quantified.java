@@ -0,0 +1,137 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Block that is followed by a quantifier.
+ */
+public class Quantified extends Expression {
+    /** Value of {@link #getMax()} if there is no upper bound. */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /** All the supported modes of quantifiers. */
+    public enum Mode {
+        GREEDY(""),
+        RELUCTANT("?"),
+        POSSESSIVE("+");
+
+        private final String suffix;
+
+        Mode(String suffix) {
+            this.suffix = suffix;
+        }
+
+        /**
+         * @return The characters that are appended to the quantifier to select this mode.
+         */
+        public String getSuffix() {
+            return suffix;
+        }
+    }
+
+    private final Expression block;
+    private final int min;
+    private final int max;
+
+    /** The quantifier as it was written by the builder, for example {@code +} or {@code {2,3}}. */
+    private final String notation;
+
+    private final Mode mode;
+
+    /**
+     * Constructor.
+     * @param block    The block that is quantified.
+     * @param min      The minimum number of repetitions.
+     * @param max      The maximum number of repetitions, or {@link #UNBOUNDED}.
+     * @param notation The quantifier as it is written in the regular expression, for example {@code +} or {@code {2,3}}.
+     * @param mode     The mode of the quantifier.
+     */
+    public Quantified(Expression block, int min, int max, String notation, Mode mode) {
+        this.block = block;
+        this.min = min;
+        this.max = max;
+        this.notation = notation;
+        this.mode = mode;
+    }
+
+    /**
+     * @param newMode The new mode of the quantifier.
+     * @return Copy of this block with the given mode.
+     */
+    public Quantified withMode(Mode newMode) {
+        return new Quantified(block, min, max, notation, newMode);
+    }
+
+    /**
+     * @param newBlock The new block that is quantified.
+     * @return Copy of this block with the given block quantified.
+     */
+    public Quantified withBlock(Expression newBlock) {
+        return new Quantified(newBlock, min, max, notation, mode);
+    }
+
+    /**
+     * @return The block that is quantified.
+     */
+    public Expression getBlock() {
+        return block;
+    }
+
+    /**
+     * @return The minimum number of repetitions.
+     */
+    public int getMin() {
+        return min;
+    }
+
+    /**
+     * @return The maximum number of repetitions, or {@link #UNBOUNDED}.
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @return The mode of the quantifier.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public <R, P> R accept(ExpressionVisitor<R, P> visitor, P parameter) {
+        return visitor.visitQuantified(this, parameter);
+    }
+
+    @Override
+    public void appendTo(StringBuilder regex) {
+        block.appendTo(regex);
+        regex.append(notation).append(mode.suffix);
+    }
+
+    @Override
+    public void collectGroups(List<String> groups) {
+        block.collectGroups(groups);
+    }
+
+    @Override
+    public boolean requiresMultilineFlag() {
+        return block.requiresMultilineFlag();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Quantified)) {
+            return false;
+        }
+        Quantified other = (Quantified) o;
+        return min == other.min && max == other.max && notation.equals(other.notation) && mode == other.mode
+                && block.equals(other.block);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(block, min, max, notation, mode);
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Regular expression that is added as is. The structure of the expression is unknown.
+ */
+public class Raw extends Expression {
+    private final String regex;
+
+    /** The groups inside the regular expression, as far as they are known. */
+    private final List<String> groups;
+
+    /**
+     * Constructor.
+     * @param regex  The regular expression.
+     * @param groups The groups inside the regular expression, as far as they are known.
+     */
+    public Raw(String regex, List<String> groups) {
+        this.regex = regex;
+        this.groups = groups;
+    }
+
+    /**
+     * @return The regular expression.
+     */
+    public String getRegex() {
+        return regex;
+    }
+
+    @Override
+    public <R, P> R accept(ExpressionVisitor<R, P> visitor, P parameter) {
+        return visitor.visitRaw(this, parameter);
+    }
+
+    @Override
+    public void appendTo(StringBuilder regex) {
+        regex.append(this.regex);
+    }
+
+    @Override
+    public void collectGroups(List<String> groups) {
+        groups.addAll(this.groups);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Raw)) {
+            return false;
+        }
+        Raw other = (Raw) o;
+        return regex.equals(other.regex) && groups.equals(other.groups);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(regex, groups);
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.List;
+
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.blocksOf;
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.containsRaw;
+import static io.github.ricoapon.readableregex.internal.expression.ExpressionFlattener.flatten;
+
+/**
+ * Finds the longest literal that is part of every match of an expression tree. If a text does not contain this literal,
+ * the regular expression can never match the text.
+ * <p>
+ * Only blocks that are always matched are considered: blocks outside alternations, lookarounds and quantifiers that
+ * allow zero repetitions. Sequences that contain a block created from a regular expression string are skipped, because
+ * such a block can change the meaning of the rest of the sequence (for example with {@code (?i)}).
+ * <p>
+ * The visitor returns {@code null} if there is no such literal.
+ */
+public final class RequiredLiteralFinder implements ExpressionVisitor<String, Void> {
+    private static final RequiredLiteralFinder INSTANCE = new RequiredLiteralFinder();
+
+    private RequiredLiteralFinder() {
+    }
+
+    /**
+     * @param expression The expression tree.
+     * @return The longest literal that is part of every match, or {@code null} if there is none.
+     */
+    public static String find(Expression expression) {
+        return expression.accept(INSTANCE, null);
+    }
+
+    private String longestOf(Expression content) {
+        if (containsRaw(blocksOf(content))) {
+            return null;
+        }
+        String longest = null;
+        for (Expression block : flatten(content)) {
+            String literal = block.accept(this, null);
+            if (literal != null && (longest == null || literal.length() > longest.length())) {
+                longest = literal;
+            }
+        }
+        return longest;
+    }
+
+    @Override
+    public String visitSequence(Sequence sequence, Void parameter) {
+        return longestOf(sequence);
+    }
+
+    @Override
+    public String visitLiteral(Literal literal, Void parameter) {
+        return literal.getValue().isEmpty() ? null : literal.getValue();
+    }
+
+    @Override
+    public String visitCharacterClass(CharacterClass characterClass, Void parameter) {
+        return null;
+    }
+
+    @Override
+    public String visitAnchor(Anchor anchor, Void parameter) {
+        return null;
+    }
+
+    @Override
+    public String visitRaw(Raw raw, Void parameter) {
+        return null;
+    }
+
+    @Override
+    public String visitAlternation(Alternation alternation, Void parameter) {
+        List<Expression> alternatives = alternation.getAlternatives();
+        return alternatives.size() == 1 ? longestOf(alternatives.get(0)) : null;
+    }
+
+    @Override
+    public String visitGroup(Group group, Void parameter) {
+        if (group.getType() == Group.Type.CAPTURING || group.getType() == Group.Type.NON_CAPTURING) {
+            return longestOf(group.getContent());
+        }
+        return null;
+    }
+
+    @Override
+    public String visitQuantified(Quantified quantified, Void parameter) {
+        return quantified.getMin() > 0 ? quantified.getBlock().accept(this, null) : null;
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.ricoapon.readableregex.internal.expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Blocks that are matched one after the other.
+ */
+public class Sequence extends Expression {
+    private final List<Expression> blocks;
+
+    /**
+     * Constructor.
+     * @param blocks The blocks in order. The list is copied.
+     */
+    public Sequence(List<Expression> blocks) {
+        this.blocks = Collections.unmodifiableList(new ArrayList<>(blocks));
+    }
+
+    /**
+     * @return The blocks in order.
+     */
+    public List<Expression> getBlocks() {
+        return blocks;
+    }
+
+    @Override
+    public <R, P> R accept(ExpressionVisitor<R, P> visitor, P parameter) {
+        return visitor.visitSequence(this, parameter);
+    }
+
+    @Override
+    public void appendTo(StringBuilder regex) {
+        for (Expression block : blocks) {
+            block.appendTo(regex);
+        }
+    }
+
+    @Override
+    public void collectGroups(List<String> groups) {
+        for (Expression block : blocks) {
+            block.collectGroups(groups);
+        }
+    }
+
+    @Override
+    public boolean requiresMultilineFlag() {
+        return blocks.stream().anyMatch(Expression::requiresMultilineFlag);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Sequence)) {
+            return false;
+        }
+        Sequence other = (Sequence) o;
+        return blocks.equals(other.blocks);
+    }
+
+    @Override
+    public int hashCode() {
+        return blocks.hashCode();
+    }
+}
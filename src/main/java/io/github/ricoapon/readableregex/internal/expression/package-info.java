@@ -0,0 +1,4 @@
+/**
+ * Expression tree that is constructed by the builder before it is compiled into a pattern.
+ */
+package io.github.ricoapon.readableregex.internal.expression;
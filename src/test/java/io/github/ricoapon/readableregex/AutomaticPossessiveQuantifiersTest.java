@@ -0,0 +1,45 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Tests related to {@link AutomaticPossessiveQuantifiers}.
+ */
+class AutomaticPossessiveQuantifiersTest {
+    @AfterEach
+    void tearDown() {
+        AutomaticPossessiveQuantifiers.disable();
+    }
+
+    @Test
+    void settingIsDisabledByDefault() {
+        assertThat(AutomaticPossessiveQuantifiers.isEnabled(), equalTo(false));
+        assertThat(regex().digit().oneOrMore().literal(",").build().toString(), equalTo("\\d+,"));
+    }
+
+    @Test
+    void safeQuantifiersArePossessiveWhenEnabled() {
+        AutomaticPossessiveQuantifiers.enable();
+        assertThat(AutomaticPossessiveQuantifiers.isEnabled(), equalTo(true));
+
+        ReadableRegexPattern pattern = regex().digit().oneOrMore().literal(",").build();
+        assertThat(pattern.toString(), equalTo("(?>\\d+),"));
+        assertThat(pattern.matchesTextExactly("123,"), equalTo(true));
+        assertThat(pattern.matchesTextExactly("123"), equalTo(false));
+        assertThat(regex().digit().oneOrMore().literal(",").buildLazily().toString(), equalTo("(?>\\d+),"));
+        assertThat(regex().word().digit().build().toString(), equalTo("\\w+\\d"));
+    }
+
+    @Test
+    void caseInsensitivePatternsAreNotChanged() {
+        AutomaticPossessiveQuantifiers.enable();
+        assertThat(regex().literal("a").oneOrMore().literal("A").buildWithFlags(PatternFlag.CASE_INSENSITIVE).toString(),
+                equalTo("a+A"));
+        assertThat(regex().literal("a").oneOrMore().literal("A").build().toString(), equalTo("(?>a+)A"));
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests related to {@link BacktrackingAnalysis}.
+ */
+class BacktrackingAnalysisTest {
+    @AfterEach
+    void tearDown() {
+        BacktrackingAnalysis.disableStrictMode();
+    }
+
+    @Test
+    void quantifierAtTheEndOfARepeatedBlockIsReported() {
+        assertThat(BacktrackingAnalysis.analyze(regex().startGroup().word().whitespace().optional().endGroup().oneOrMore()),
+                contains("startGroup().wordCharacter().oneOrMore().whitespace().optional().endGroup().oneOrMore() can cause " +
+                        "catastrophic backtracking, because wordCharacter().oneOrMore() can match the same characters as the " +
+                        "next repetition. Consider using possessive() on the quantifiers."));
+        assertThat(BacktrackingAnalysis.analyze(regex().add(regex().digit().oneOrMore()).zeroOrMore()), hasSize(1));
+        assertThat(BacktrackingAnalysis.analyze(regex().add(regex().digit().optional()).atLeastNTimes(2)), hasSize(1));
+    }
+
+    @Test
+    void quantifierFollowedByTheSameCharactersInARepeatedBlockIsReported() {
+        assertThat(BacktrackingAnalysis.analyze(regex().startUnnamedGroup().word().digit().endGroup().oneOrMore()),
+                contains("startUnnamedGroup().wordCharacter().oneOrMore().digit().endGroup().oneOrMore() can cause " +
+                        "catastrophic backtracking, because wordCharacter().oneOrMore() can match the same characters as " +
+                        "digit(). Consider using possessive() on the quantifiers."));
+        // Optional blocks in between do not prevent the problem.
+        assertThat(BacktrackingAnalysis.analyze(regex()
+                .startUnnamedGroup().digit().oneOrMore().wordBoundary().literal("-").optional().literal("1").endGroup()
+                .oneOrMore()), hasSize(1));
+    }
+
+    @Test
+    void overlappingAlternativesInARepeatedBlockAreReported() {
+        assertThat(BacktrackingAnalysis.analyze(regex().oneOf(regex().wordCharacter(), regex().digit()).oneOrMore()),
+                contains("oneOf(regex().wordCharacter(), regex().digit()).oneOrMore() can cause catastrophic backtracking, " +
+                        "because the alternatives wordCharacter() and digit() can match the same character. " +
+                        "Consider using possessive() on the quantifiers."));
+        assertThat(BacktrackingAnalysis.analyze(regex().oneOf(regex().literal("a"), regex().range('a', 'z')).oneOrMore()), hasSize(1));
+        assertThat(BacktrackingAnalysis.analyze(regex().oneOf(regex().literal("ab"), regex().literal("ac")).oneOrMore()), empty());
+        assertThat(BacktrackingAnalysis.analyze(regex().oneOf(regex().digit(), regex().whitespace()).oneOrMore()), empty());
+    }
+
+    @Test
+    void problemsInsideSmallQuantifiersAreReportedByTheOuterQuantifier() {
+        assertThat(BacktrackingAnalysis.analyze(regex()
+                        .add(regex().add(regex().word().digit()).exactlyNTimes(2).whitespace()).oneOrMore()),
+                contains("startUnnamedGroup().startUnnamedGroup().wordCharacter().oneOrMore().digit().endGroup().exactlyNTimes(2)" +
+                        ".whitespace().endGroup().oneOrMore() can cause catastrophic backtracking, because " +
+                        "wordCharacter().oneOrMore() can match the same characters as digit(). Consider using possessive() " +
+                        "on the quantifiers."));
+        assertThat(BacktrackingAnalysis.analyze(regex().add(regex().word().digit()).exactlyNTimes(2)), empty());
+    }
+
+    @Test
+    void harmlessQuantifiersAreNotReported() {
+        assertThat(BacktrackingAnalysis.analyze(regex().word().whitespace().word()), empty());
+        assertThat(BacktrackingAnalysis.analyze(regex().startGroup().literal("a").oneOrMore().literal("b").endGroup().oneOrMore()), empty());
+        assertThat(BacktrackingAnalysis.analyze(regex().startGroup().word().whitespace().endGroup().oneOrMore()), empty());
+        assertThat(BacktrackingAnalysis.analyze(regex().startGroup().word().whitespace().optional().endGroup().atMostNTimes(3)), empty());
+        assertThat(BacktrackingAnalysis.analyze(regex().add(regex().literal("").optional().digit()).oneOrMore()), empty());
+        assertThat(BacktrackingAnalysis.analyze(regex().add(regex().startOfLine().digit().oneOrMore().endOfLine()).oneOrMore()), hasSize(1));
+    }
+
+    @Test
+    void possessiveQuantifiersAndLookaroundsAreNotReported() {
+        assertThat(BacktrackingAnalysis.analyze(regex().startGroup().word().possessive().whitespace().optional().endGroup().oneOrMore()), empty());
+        assertThat(BacktrackingAnalysis.analyze(regex().add(regex().digit().oneOrMore()).oneOrMore().possessive()), empty());
+        assertThat(BacktrackingAnalysis.analyze(regex().add(regex().positiveLookahead(regex().digit().oneOrMore()).digit()).oneOrMore()), empty());
+    }
+
+    @Test
+    void regexFromStringIsNotAnalyzed() {
+        assertThat(BacktrackingAnalysis.analyze(regex("(a+)+")), empty());
+        assertThat(BacktrackingAnalysis.analyze(regex().add(regex("a+")).oneOrMore()), empty());
+    }
+
+    @Test
+    void flagsAreTakenIntoAccount() {
+        ReadableRegex<?> regex = regex().startUnnamedGroup().literal("a").oneOrMore().literal("A").endGroup().oneOrMore();
+        assertThat(BacktrackingAnalysis.analyze(regex), empty());
+        assertThat(BacktrackingAnalysis.analyze(regex, PatternFlag.CASE_INSENSITIVE), hasSize(1));
+    }
+
+    @Test
+    void strictModeRefusesToBuild() {
+        assertThat(BacktrackingAnalysis.isStrictModeEnabled(), equalTo(false));
+        ReadableRegex<?> regex = regex().startGroup().word().whitespace().optional().endGroup().oneOrMore();
+        assertThat(regex.build().matchesTextExactly("a b"), equalTo(true));
+
+        BacktrackingAnalysis.enableStrictMode();
+        assertThat(BacktrackingAnalysis.isStrictModeEnabled(), equalTo(true));
+        IncorrectConstructionException exception = assertThrows(IncorrectConstructionException.class, regex::build);
+        assertThat(exception.getMessage(), equalTo("The regular expression can cause catastrophic backtracking:\n" +
+                "- " + BacktrackingAnalysis.analyze(regex).get(0)));
+        assertThrows(IncorrectConstructionException.class, regex::buildLazily);
+        assertThat(regex().word().whitespace().build().matchesTextExactly("a "), equalTo(true));
+
+        BacktrackingAnalysis.disableStrictMode();
+        assertThat(regex.buildLazily().matchesTextExactly("a b"), equalTo(true));
+    }
+}
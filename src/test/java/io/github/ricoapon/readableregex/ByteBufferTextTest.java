@@ -0,0 +1,92 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.stream.Collectors;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteBufferTextTest {
+    /** Direct buffer with the given text between position 2 and the limit, and garbage before and after it. */
+    private static ByteBuffer direct(String text) {
+        byte[] bytes = ("##" + text + "##").getBytes(StandardCharsets.ISO_8859_1);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.limit(bytes.length - 2).position(2);
+        return buffer;
+    }
+
+    @Test
+    void readsEveryByteBetweenPositionAndLimitAsLatin1Character() {
+        ByteBuffer buffer = direct("caf\u00E9 12");
+        ByteBufferText text = ByteBufferText.latin1(buffer);
+
+        assertThat(text.length(), equalTo(7));
+        assertThat(text.charAt(3), equalTo('\u00E9'));
+        assertThat(text.toString(), equalTo("caf\u00E9 12"));
+        assertThat(text.bufferPosition(), equalTo(2));
+        assertThat(buffer.position(), equalTo(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> text.charAt(7));
+
+        ByteBufferText part = text.subSequence(1, 6).subSequence(2, 4);
+        assertThat(part.toString(), equalTo("\u00E9 "));
+        assertThat(part.bufferPosition(), equalTo(5));
+    }
+
+    @Test
+    void patternsAndRoutersMatchTheText() {
+        ByteBufferText text = ByteBufferText.latin1(direct("GET /users/42"));
+
+        assertThat(regex().literal("GET ").anything().build().matchesTextExactly(text), equalTo(true));
+        PatternRouter<String> router = PatternRouter.<String>builder()
+                .route(regex().literal("GET /users/").group("id", regex().digit().oneOrMore()), "user")
+                .build();
+        assertThat(router.route(text).get().handler(), equalTo("user"));
+    }
+
+    @Test
+    void indicesOfLatin1MatchesAreIndicesInTheBuffer() {
+        ReadableRegexPattern pattern = regex().literal("n=").group("value", regex().anyCharacterExcept(" ").oneOrMore()).build();
+        ByteBuffer buffer = direct("n=\u00E9 n=12");
+
+        List<MatchResult> matches = pattern.findAll(buffer, StandardCharsets.ISO_8859_1);
+        assertThat(matches.stream().map(match -> match.group(1)).collect(Collectors.toList()), contains("\u00E9", "12"));
+        assertThat(matches.get(1).start(), equalTo(6));
+        assertThat(matches.get(1).end(1), equalTo(10));
+
+        List<Integer> positions = new ArrayList<>();
+        pattern.forEachMatch(buffer, StandardCharsets.ISO_8859_1, match -> {
+            positions.add(match.start("value"));
+            positions.add(match.end("value"));
+        });
+        assertThat(positions, contains(4, 5, 8, 10));
+        assertThat(buffer.position(), equalTo(2));
+    }
+
+    @Test
+    void latin1TextsAreMatchedExactly() {
+        ByteBuffer buffer = direct("caf\u00E9");
+
+        assertThat(regex().literal("caf\u00E9").build().matchesTextExactly(buffer, StandardCharsets.ISO_8859_1), equalTo(true));
+        assertThat(regex().literal("caf\u00E9").build().matchesTextExactly(buffer, StandardCharsets.UTF_8), equalTo(false));
+        assertThat(regex().word().build().matchesTextExactly(buffer, StandardCharsets.US_ASCII), equalTo(false));
+        assertThat(regex().literal("caf").anyCharacter().build().matchesTextExactly(buffer, StandardCharsets.US_ASCII), equalTo(true));
+    }
+
+    @Test
+    void otherCharsetsAreNotSupported() {
+        ReadableRegexPattern pattern = regex().literal("a").build();
+
+        assertThrows(IllegalArgumentException.class, () -> pattern.matchesTextExactly(direct("a"), StandardCharsets.UTF_16));
+        assertThrows(IllegalArgumentException.class, () -> pattern.findAll(direct("a"), StandardCharsets.UTF_16LE));
+    }
+}
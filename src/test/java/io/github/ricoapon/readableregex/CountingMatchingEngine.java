@@ -0,0 +1,68 @@
+package io.github.ricoapon.readableregex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link MatchingEngine} that is registered for the tests in {@code META-INF/services}. It matches using the JDK
+ * {@link Pattern} and counts how often it is called. Expressions with groups are not supported.
+ */
+public class CountingMatchingEngine implements MatchingEngine {
+    static final String NAME = "counting";
+    static final AtomicInteger NR_OF_CALLS = new AtomicInteger();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public CompiledExpression compile(BuiltExpression expression) {
+        if (!expression.getGroups().isEmpty()) {
+            return null;
+        }
+        Pattern pattern = Pattern.compile(expression.getRegex(), expression.getJdkFlags());
+        return new CompiledExpression() {
+            @Override
+            public boolean matchesTextExactly(String text) {
+                NR_OF_CALLS.incrementAndGet();
+                return pattern.matcher(text).matches();
+            }
+
+            @Override
+            public List<MatchResult> findAll(String text) {
+                NR_OF_CALLS.incrementAndGet();
+                List<MatchResult> results = new ArrayList<>();
+                Matcher matcher = pattern.matcher(text);
+                while (matcher.find()) {
+                    results.add(matcher.toMatchResult());
+                }
+                return results;
+            }
+
+            @Override
+            public boolean matchesTextExactly(CharSequence text) {
+                NR_OF_CALLS.incrementAndGet();
+                return pattern.matcher(text).matches();
+            }
+
+            @Override
+            public boolean lookingAt(CharSequence text) {
+                NR_OF_CALLS.incrementAndGet();
+                return pattern.matcher(text).lookingAt();
+            }
+
+            @Override
+            public Optional<MatchResult> find(CharSequence text, int from) {
+                NR_OF_CALLS.incrementAndGet();
+                Matcher matcher = pattern.matcher(text);
+                return matcher.find(from) ? Optional.of(matcher.toMatchResult()) : Optional.empty();
+            }
+        };
+    }
+}
@@ -3,6 +3,8 @@ package io.github.ricoapon.readableregex;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.junit.jupiter.api.Test;
 
+import java.util.regex.PatternSyntaxException;
+
 import static io.github.ricoapon.readableregex.ReadableRegex.regex;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -34,4 +36,25 @@ class FinishTests {
     void throwNpeWhenTextToMatchIsNull() {
         assertThrows(NullPointerException.class, () -> readableRegex.build().matches(null));
     }
+
+    @Test
+    void lazyPatternMatchesTheSameAsEagerPattern() {
+        ReadableRegexPattern pattern = regex().startOfLine().group("digits", regex().digit().oneOrMore()).buildLazilyWithFlags(PatternFlag.DOT_ALL);
+        ReadableRegexPattern eagerPattern = regex().startOfLine().group("digits", regex().digit().oneOrMore()).buildWithFlags(PatternFlag.DOT_ALL);
+
+        assertThat(pattern.toString(), equalTo(eagerPattern.toString()));
+        assertThat(pattern.enabledFlags(), equalTo(eagerPattern.enabledFlags()));
+        assertThat(pattern.groups(), equalTo(eagerPattern.groups()));
+        assertThat(pattern.getUnderlyingPattern().flags(), equalTo(eagerPattern.getUnderlyingPattern().flags()));
+        assertThat(pattern.matchesTextExactly("123"), equalTo(true));
+        assertThat(pattern.matchesTextExactly("a"), equalTo(false));
+    }
+
+    @Test
+    void lazyPatternIsOnlyCompiledOnFirstUse() {
+        ReadableRegexPattern pattern = regex("(").buildLazily();
+
+        assertThat(pattern.toString(), equalTo("("));
+        assertThrows(PatternSyntaxException.class, () -> pattern.matches(""));
+    }
 }
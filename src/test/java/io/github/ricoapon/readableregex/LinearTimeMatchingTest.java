@@ -0,0 +1,57 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.EngineReadableRegexPattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.MatchResult;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Tests related to {@link LinearTimeMatching}.
+ */
+class LinearTimeMatchingTest {
+    @AfterEach
+    void tearDown() {
+        LinearTimeMatching.disable();
+    }
+
+    @Test
+    void settingIsDisabledByDefault() {
+        assertThat(LinearTimeMatching.isEnabled(), equalTo(false));
+        assertThat(regex().word().build(), not(instanceOf(EngineReadableRegexPattern.class)));
+    }
+
+    @Test
+    void supportedPatternsMatchInLinearTimeWhenEnabled() {
+        LinearTimeMatching.enable();
+        assertThat(LinearTimeMatching.isEnabled(), equalTo(true));
+
+        ReadableRegexPattern pattern = regex().group("key", regex().word()).literal("=").group("value", regex().digit().oneOrMore()).build();
+        assertThat(((EngineReadableRegexPattern) pattern).getEngineName(), equalTo(MatchingEngines.LINEAR_TIME));
+        assertThat(pattern.matchesTextExactly("a=1"), equalTo(true));
+        assertThat(pattern.matchesTextExactly("a=b"), equalTo(false));
+
+        MatchResult match = pattern.findAll("x a=12 b=c").get(0);
+        assertThat(match.group(), equalTo("a=12"));
+        assertThat(match.group(2), equalTo("12"));
+        assertThat(pattern.groups(), contains("key", "value"));
+
+        // The builder is not changed, only the way it is matched.
+        assertThat(pattern.toString(), equalTo("(?<key>\\w+)=(?<value>\\d+)"));
+        assertThat(regex().word().buildLazily(), not(instanceOf(EngineReadableRegexPattern.class)));
+    }
+
+    @Test
+    void unsupportedPatternsUseTheJdkEngine() {
+        LinearTimeMatching.enable();
+        assertThat(regex().word().positiveLookahead(regex().digit()).build(), not(instanceOf(EngineReadableRegexPattern.class)));
+        assertThat(regex().word().buildWithFlags(PatternFlag.CASE_INSENSITIVE), not(instanceOf(EngineReadableRegexPattern.class)));
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.stream.Collectors;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedFileTextTest {
+    private static Path createFile(String content) throws IOException {
+        Path file = Files.createTempFile("mapped", ".txt");
+        // A mapped file cannot be deleted on every platform, so it is deleted when the JVM exits.
+        file.toFile().deleteOnExit();
+        Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+        return file;
+    }
+
+    @Test
+    void readsEveryByteAsLatin1Character() throws IOException {
+        MappedFileText text = MappedFileText.open(createFile("caf\u00E9 12\n\u00FF"));
+
+        assertThat(text.length(), equalTo(9));
+        assertThat(text.charAt(3), equalTo('\u00E9'));
+        assertThat(text.charAt(8), equalTo('\u00FF'));
+        assertThat(text.toString(), equalTo("caf\u00E9 12\n\u00FF"));
+        assertThat(text.filePosition(), equalTo(0L));
+        assertThrows(IndexOutOfBoundsException.class, () -> text.charAt(9));
+        assertThrows(IndexOutOfBoundsException.class, () -> text.charAt(-1));
+    }
+
+    @Test
+    void subSequenceSharesTheMapping() throws IOException {
+        MappedFileText text = MappedFileText.open(createFile("0123456789"));
+
+        MappedFileText part = text.subSequence(2, 8).subSequence(1, 4);
+        assertThat(part.toString(), equalTo("345"));
+        assertThat(part.charAt(0), equalTo('3'));
+        assertThat(part.filePosition(), equalTo(3L));
+        assertThat(text.subSequence(5, 5).length(), equalTo(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> text.subSequence(4, 11));
+        assertThrows(IndexOutOfBoundsException.class, () -> part.charAt(3));
+    }
+
+    @Test
+    void windowContainsPartOfTheFile() throws IOException {
+        Path file = createFile("0123456789");
+
+        MappedFileText window = MappedFileText.open(file, 4, 3);
+        assertThat(window.toString(), equalTo("456"));
+        assertThat(window.filePosition(), equalTo(4L));
+        assertThat(MappedFileText.open(file, 10, 0).length(), equalTo(0));
+        assertThrows(IllegalArgumentException.class, () -> MappedFileText.open(file, 8, 3));
+        assertThrows(IllegalArgumentException.class, () -> MappedFileText.open(file, -1, 3));
+    }
+
+    @Test
+    void patternsMatchTheMappedText() throws IOException {
+        ReadableRegexPattern pattern = regex().literal("id=").group("id", regex().digit().oneOrMore()).build();
+        MappedFileText text = MappedFileText.open(createFile("a id=12 b id=345\nid=6"));
+
+        List<MatchResult> matches = pattern.findAll(text);
+        assertThat(matches.stream().map(match -> match.group(1)).collect(Collectors.toList()), contains("12", "345", "6"));
+        assertThat(matches.get(1).start(), equalTo(10));
+        assertThat(pattern.find(text), equalTo(true));
+        assertThat(pattern.matchesTextExactly(text.subSequence(17, 21)), equalTo(true));
+        assertThat(pattern.stream(text).count(), equalTo(3L));
+    }
+}
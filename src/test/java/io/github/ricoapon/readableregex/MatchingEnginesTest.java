@@ -0,0 +1,96 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.EngineReadableRegexPattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests related to {@link MatchingEngines}.
+ */
+class MatchingEnginesTest {
+    @BeforeEach
+    void setUp() {
+        CountingMatchingEngine.NR_OF_CALLS.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MatchingEngines.setDefault(MatchingEngines.JDK);
+    }
+
+    @Test
+    void enginesAreDiscovered() {
+        assertThat(MatchingEngines.getDefault(), equalTo(MatchingEngines.JDK));
+        assertThat(MatchingEngines.names(), contains(MatchingEngines.JDK, MatchingEngines.LINEAR_TIME, CountingMatchingEngine.NAME));
+        assertThat(MatchingEngines.get(CountingMatchingEngine.NAME), instanceOf(CountingMatchingEngine.class));
+    }
+
+    @Test
+    void unknownEnginesThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> MatchingEngines.get("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> MatchingEngines.setDefault("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> regex().digit().buildWithEngine("unknown"));
+        assertThat(MatchingEngines.getDefault(), equalTo(MatchingEngines.JDK));
+    }
+
+    @Test
+    void buildWithEngineUsesTheEngine() {
+        ReadableRegexPattern pattern = regex().digit().oneOrMore().buildWithEngine(CountingMatchingEngine.NAME);
+        assertThat(((EngineReadableRegexPattern) pattern).getEngineName(), equalTo(CountingMatchingEngine.NAME));
+        assertThat(pattern.matchesTextExactly("123"), equalTo(true));
+        assertThat(pattern.findAll("1 23").size(), equalTo(2));
+        assertThat(CountingMatchingEngine.NR_OF_CALLS.get(), equalTo(2));
+
+        // The JDK pattern is still available.
+        assertThat(pattern.matches("123").matches(), equalTo(true));
+        assertThat(pattern.getUnderlyingPattern().pattern(), equalTo("\\d+"));
+        assertThat(CountingMatchingEngine.NR_OF_CALLS.get(), equalTo(2));
+    }
+
+    @Test
+    void methodsForCharSequencesUseTheEngine() {
+        ReadableRegexPattern pattern = regex().digit().oneOrMore().buildWithEngine(CountingMatchingEngine.NAME);
+        StringBuilder text = new StringBuilder("a12 3");
+        assertThat(pattern.matchesTextExactly(text), equalTo(false));
+        assertThat(pattern.lookingAt(text), equalTo(false));
+        assertThat(pattern.find(text), equalTo(true));
+        assertThat(pattern.matchesTextExactly(text, 1, 3), equalTo(true));
+        assertThat(CountingMatchingEngine.NR_OF_CALLS.get(), equalTo(4));
+
+        // Every match is found by a separate call, and the last call finds no match.
+        assertThat(pattern.findAll(text).size(), equalTo(2));
+        assertThat(CountingMatchingEngine.NR_OF_CALLS.get(), equalTo(7));
+    }
+
+    @Test
+    void textsWithoutRequiredLiteralAreNotPassedToTheEngine() {
+        ReadableRegexPattern pattern = regex().digit().literal("abc").buildWithEngine(CountingMatchingEngine.NAME);
+        assertThat(pattern.findAll("1ab").size(), equalTo(0));
+        assertThat(CountingMatchingEngine.NR_OF_CALLS.get(), equalTo(0));
+    }
+
+    @Test
+    void unsupportedExpressionsUseTheJdkEngine() {
+        ReadableRegexPattern pattern = regex().group(regex().digit()).buildWithEngine(CountingMatchingEngine.NAME);
+        assertThat(pattern, not(instanceOf(EngineReadableRegexPattern.class)));
+        assertThat(pattern.findAll("1").size(), equalTo(1));
+        assertThat(CountingMatchingEngine.NR_OF_CALLS.get(), equalTo(0));
+    }
+
+    @Test
+    void defaultEngineIsUsedForAllPatterns() {
+        MatchingEngines.setDefault(CountingMatchingEngine.NAME);
+        assertThat(regex().digit().build().matchesTextExactly("1"), equalTo(true));
+        assertThat(regex().digit().buildWithEngine(MatchingEngines.JDK).matchesTextExactly("1"), equalTo(true));
+        assertThat(CountingMatchingEngine.NR_OF_CALLS.get(), equalTo(1));
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests related to {@link PatternCache}.
+ */
+class PatternCacheTest {
+    @AfterEach
+    void tearDown() {
+        PatternCache.disable();
+        BacktrackingAnalysis.disableStrictMode();
+        AutomaticPossessiveQuantifiers.disable();
+    }
+
+    @Test
+    void cacheIsDisabledByDefault() {
+        assertThat(PatternCache.isEnabled(), equalTo(false));
+        assertThat(regex().digit().build(), not(sameInstance(regex().digit().build())));
+        assertThat(PatternCache.hitCount(), equalTo(0L));
+        assertThat(PatternCache.missCount(), equalTo(0L));
+        assertThat(PatternCache.evictionCount(), equalTo(0L));
+    }
+
+    @Test
+    void maximumSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> PatternCache.enable(0));
+    }
+
+    @Test
+    void samePatternIsReturnedFromCache() {
+        PatternCache.enable(10);
+
+        ReadableRegexPattern pattern = regex().digit().build();
+
+        assertThat(PatternCache.isEnabled(), equalTo(true));
+        assertThat(regex().digit().build(), sameInstance(pattern));
+        assertThat(PatternCache.hitCount(), equalTo(1L));
+        assertThat(PatternCache.missCount(), equalTo(1L));
+    }
+
+    @Test
+    void flagsAndGroupsArePartOfTheKey() {
+        PatternCache.enable(10);
+
+        ReadableRegexPattern pattern = regex().group(regex("\\d")).build();
+
+        assertThat(regex().group(regex("\\d")).buildWithFlags(PatternFlag.DOT_ALL), not(sameInstance(pattern)));
+        // The regular expression is the same, but the groups are not recorded.
+        ReadableRegexPattern patternWithoutRecordedGroups = regex("(\\d)").build();
+        assertThat(patternWithoutRecordedGroups, not(sameInstance(pattern)));
+        assertThat(patternWithoutRecordedGroups.nrOfGroups(), equalTo(0));
+        assertThat(PatternCache.hitCount(), equalTo(0L));
+        assertThat(PatternCache.missCount(), equalTo(3L));
+    }
+
+    @Test
+    void enginesAndSettingsArePartOfTheKey() {
+        PatternCache.enable(10);
+        ReadableRegex<?> regex = regex().add(regex().digit().oneOrMore()).oneOrMore();
+        ReadableRegexPattern pattern = regex.build();
+
+        assertThat(regex.buildWithEngine(MatchingEngines.LINEAR_TIME), not(sameInstance(pattern)));
+        AutomaticPossessiveQuantifiers.enable();
+        assertThat(regex.build(), not(sameInstance(pattern)));
+        AutomaticPossessiveQuantifiers.disable();
+        // The pattern was built outside strict mode, so it must be checked again.
+        BacktrackingAnalysis.enableStrictMode();
+        assertThrows(IncorrectConstructionException.class, regex::build);
+        BacktrackingAnalysis.disableStrictMode();
+        assertThat(regex.build(), sameInstance(pattern));
+        assertThat(PatternCache.hitCount(), equalTo(1L));
+        assertThat(PatternCache.missCount(), equalTo(4L));
+    }
+
+    @Test
+    void alternationsOfLiteralsAreCached() {
+        PatternCache.enable(10);
+
+        ReadableRegexPattern pattern = regex().oneOf(regex().literal("a"), regex().literal("b")).build();
+
+        assertThat(regex().oneOf(regex().literal("a"), regex().literal("b")).build(), sameInstance(pattern));
+        assertThat(regex().oneOf(regex().literal("a"), regex().literal("c")).build(), not(sameInstance(pattern)));
+    }
+
+    @Test
+    void patternsThatAreNotUsedRecentlyAreEvicted() {
+        PatternCache.enable(2);
+
+        ReadableRegexPattern first = regex().literal("first").build();
+        ReadableRegexPattern second = regex().literal("second").build();
+        // Use the first pattern, so that the second pattern is evicted.
+        regex().literal("first").build();
+        regex().literal("third").build();
+
+        assertThat(PatternCache.evictionCount(), equalTo(1L));
+        assertThat(regex().literal("first").build(), sameInstance(first));
+        assertThat(regex().literal("second").build(), not(sameInstance(second)));
+    }
+
+    @Test
+    void enablingAgainClearsTheCache() {
+        PatternCache.enable(10);
+        ReadableRegexPattern pattern = regex().digit().build();
+
+        PatternCache.enable(10);
+
+        assertThat(regex().digit().build(), not(sameInstance(pattern)));
+        assertThat(PatternCache.missCount(), equalTo(1L));
+    }
+}
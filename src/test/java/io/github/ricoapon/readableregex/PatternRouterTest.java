@@ -0,0 +1,98 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PatternRouterTest {
+    @Test
+    void firstMatchingRouteWinsAndGroupsBelongToThatRoute() {
+        PatternRouter<String> router = PatternRouter.<String>builder()
+                .route(regex().literal("/users/").group("id", regex().digit().oneOrMore()), "userById")
+                .route(regex().literal("/users/").group("id", regex().word()).literal("/").group("tab", regex().word()).optional(), "userByName")
+                .route(regex().literal("/users/").anything(), "fallback")
+                .build();
+
+        PatternRouter.RouteMatch<String> match = router.route("/users/42").get();
+        assertThat(match.handler(), equalTo("userById"));
+        assertThat(match.routeIndex(), equalTo(0));
+        assertThat(match.group("id"), equalTo("42"));
+        assertThat(match.group(0), equalTo("/users/42"));
+
+        match = router.route(new StringBuilder("/users/rico/")).get();
+        assertThat(match.handler(), equalTo("userByName"));
+        assertThat(match.groups(), contains("id", "tab"));
+        assertThat(match.group("id"), equalTo("rico"));
+        assertThat(match.group(2), nullValue());
+        assertThrows(IndexOutOfBoundsException.class, () -> router.route("/users/rico/").get().group(3));
+        assertThrows(IllegalArgumentException.class, () -> router.route("/users/rico/").get().group("unknown"));
+
+        assertThat(router.route("/users/a b").get().handler(), equalTo("fallback"));
+        assertThat(router.route("/groups/1"), equalTo(Optional.empty()));
+        assertThat(router.nrOfRoutes(), equalTo(3));
+    }
+
+    @Test
+    void routesFromStringsAreMatchedInTheSameOrder() {
+        PatternRouter<Integer> router = PatternRouter.<Integer>builder()
+                .route(regex().literal("a").group("x", regex().digit()), 0)
+                .route(regex().regexFromString("(a)(\\d)\\2"), 1)
+                .route(regex().literal("a").group("x", regex().digit().oneOrMore()), 2)
+                .route(regex().startOfLine().literal("B"), 3)
+                .build(PatternFlag.CASE_INSENSITIVE);
+
+        assertThat(router.route("a1").get().handler(), equalTo(0));
+        assertThat(router.route("A11").get().handler(), equalTo(1));
+        assertThat(router.route("a11").get().group(2), equalTo("1"));
+        assertThat(router.route("a12").get().handler(), equalTo(2));
+        assertThat(router.route("a12").get().group("x"), equalTo("12"));
+        assertThat(router.route("b").get().handler(), equalTo(3));
+    }
+
+    @Test
+    void sameResultAsMatchingEveryRouteInOrder() {
+        // Routes with shared literals in mixed order, routes without a literal and routes that are a prefix of other routes.
+        List<ReadableRegex<?>> builders = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            builders.add(regex().literal("k" + (i % 10)).literal("=").group("value", regex().digit().exactlyNTimes(i % 4 + 1)));
+            if (i % 7 == 3) {
+                builders.add(regex().group("key", regex().word()).literal("=").group("value", regex().digit()));
+                builders.add(regex().literal("k" + i));
+            }
+        }
+        builders.add(regex().word().literal("=").group("value", regex().anything()));
+        builders.add(regex().literal("\uD83D\uDE00").group("value", regex().digit()));
+        builders.add(regex().literal("\uD83D\uDE01").group("value", regex().digit()));
+        PatternRouter.Builder<Integer> routerBuilder = PatternRouter.builder();
+        for (int i = 0; i < builders.size(); i++) {
+            routerBuilder.route(builders.get(i), i);
+        }
+        PatternRouter<Integer> router = routerBuilder.build();
+
+        for (String text : Arrays.asList("k1=1", "k1=12", "k3=1234", "k9=12", "kx=", "k1=", "k1=12345", "=", "k3", "k10", "k24",
+                "a=1", "\uD83D\uDE001", "\uD83D\uDE012")) {
+            Optional<String> expected = Optional.empty();
+            for (int i = 0; i < builders.size() && !expected.isPresent(); i++) {
+                ReadableRegexPattern pattern = builders.get(i).build();
+                Matcher matcher = pattern.matches(text);
+                if (matcher.matches()) {
+                    expected = Optional.of(i + ":" + (pattern.groups().contains("value") ? matcher.group("value") : null));
+                }
+            }
+            Optional<String> actual = router.route(text)
+                    .map(match -> match.handler() + ":" + (match.groups().contains("value") ? match.group("value") : null));
+            assertThat(text, actual, equalTo(expected));
+        }
+    }
+}
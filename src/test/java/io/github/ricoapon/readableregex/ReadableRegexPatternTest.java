@@ -2,10 +2,33 @@ package io.github.ricoapon.readableregex;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.MatchResult;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import static io.github.ricoapon.readableregex.ReadableRegex.regex;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ReadableRegexPatternTest {
     @Test
@@ -16,6 +39,42 @@ class ReadableRegexPatternTest {
         assertThat(pattern.matchesTextExactly("a"), equalTo(false));
     }
 
+    @Test
+    void findAllReturnsAllMatchesInOrder() {
+        ReadableRegexPattern pattern = regex().group(regex().digit()).literal("x").build();
+
+        List<MatchResult> matches = pattern.findAll("1x 2y 3x");
+
+        assertThat(matches.stream().map(MatchResult::group).collect(Collectors.toList()), contains("1x", "3x"));
+        assertThat(matches.get(1).start(), equalTo(6));
+        assertThat(matches.get(1).group(1), equalTo("3"));
+    }
+
+    @Test
+    void textsWithoutTheRequiredLiteralAreSkipped() {
+        ReadableRegexPattern pattern = regex().digit().literal("ERROR").anything().build();
+
+        assertThat(pattern.requiredLiteral(), equalTo(Optional.of("ERROR")));
+        assertThat(pattern.matchesTextExactly("1 WARN x"), equalTo(false));
+        assertThat(pattern.findAll("1 WARN x"), empty());
+        assertThat(pattern.matchesTextExactly("1ERROR x"), equalTo(true));
+        assertThat(pattern.findAll("xERROR 1ERROR x"), hasSize(1));
+        assertThat(pattern.matchesTextExactly("ERROR x"), equalTo(false));
+        assertThat(pattern.prefilterSkipCount(), equalTo(2L));
+        assertThat(pattern.prefilterHitCount(), equalTo(3L));
+    }
+
+    @Test
+    void patternsWithoutRequiredLiteralAreNeverSkipped() {
+        ReadableRegexPattern pattern = regex().literal("a").buildWithFlags(PatternFlag.CASE_INSENSITIVE);
+
+        assertThat(pattern.requiredLiteral(), equalTo(Optional.empty()));
+        assertThat(pattern.matchesTextExactly("A"), equalTo(true));
+        assertThat(pattern.findAll("bA"), hasSize(1));
+        assertThat(pattern.prefilterSkipCount() + pattern.prefilterHitCount(), equalTo(0L));
+        assertThat(ReadableRegexPattern.of("a", Collections.emptyList()).requiredLiteral(), equalTo(Optional.empty()));
+    }
+
     @Test
     void groupsAreRecordedInTheCorrectOrder_and_unnamedGroupsAreNull_and_numberOfGroupsCountsAllGroupsg() {
         ReadableRegexPattern pattern = regex()
@@ -27,4 +86,246 @@ class ReadableRegexPatternTest {
         assertThat(pattern.groups(), contains("first", null, "third"));
         assertThat(pattern.nrOfGroups(), equalTo(3));
     }
+
+    @Test
+    void groupsOfIncludedBuildersAndPatternsAreRecorded() {
+        ReadableRegexPattern pattern = regex()
+                .add(regex().group("first", regex().digit()))
+                .group("second", regex().group(regex().digit()))
+                .oneOf(regex().group("fourth", regex().digit()), regex().digit())
+                .add(regex().group("fifth", regex().digit()).build())
+                .build();
+
+        assertThat(pattern.groups(), contains("first", "second", null, "fourth", "fifth"));
+    }
+
+    @Test
+    void patternCanBeCreatedFromGeneratedRegularExpression() {
+        ReadableRegexPattern builtPattern = regex().startOfLine().group("digit", regex().digit()).buildWithFlags(PatternFlag.DOT_ALL);
+
+        ReadableRegexPattern pattern = ReadableRegexPattern.of(builtPattern.toString(), builtPattern.groups(),
+                builtPattern.enabledFlags().toArray(new PatternFlag[0]));
+
+        assertThat(pattern.toString(), equalTo(builtPattern.toString()));
+        assertThat(pattern.groups(), contains("digit"));
+        assertThat(pattern.enabledFlags(), equalTo(builtPattern.enabledFlags()));
+        assertThat(pattern.matchesTextExactly("1"), equalTo(true));
+    }
+
+    @Test
+    void matchingWithTimeoutGivesTheSameResults() {
+        ReadableRegexPattern pattern = regex().group(regex().digit()).literal("x").build();
+        Duration timeout = Duration.ofSeconds(10);
+
+        assertThat(pattern.matchesTextExactly("1x", timeout), equalTo(true));
+        assertThat(pattern.matchesTextExactly("1y", timeout), equalTo(false));
+        List<MatchResult> matches = pattern.findAll("1x 2y 3x", timeout);
+        assertThat(matches.stream().map(MatchResult::group).collect(Collectors.toList()), contains("1x", "3x"));
+        assertThat(matches.get(1).group(1), equalTo("3"));
+        assertThat(regex().digit().literal("ERROR").build().findAll("1 WARN", timeout), empty());
+    }
+
+    @Test
+    void matchingStopsWhenTheTimeoutHasPassed() {
+        // Finding this pattern takes time cubic in the length of the text, which takes hours for this text.
+        ReadableRegexPattern pattern = regex().word().word().word().literal("!").build();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            text.append('a');
+        }
+        text.append(" !");
+
+        long start = System.nanoTime();
+        MatchTimeoutException e = assertThrows(MatchTimeoutException.class,
+                () -> pattern.findAll(text.toString(), Duration.ofMillis(50)));
+        assertThat(e.getTimeout(), equalTo(Duration.ofMillis(50)));
+        assertThat(Duration.ofNanos(System.nanoTime() - start), lessThan(Duration.ofSeconds(5)));
+
+        assertThrows(MatchTimeoutException.class, () -> pattern.matchesTextExactly(text.toString(), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> pattern.matchesTextExactly("a", Duration.ofMillis(-1)));
+    }
+
+    @Test
+    void charSequencesCanBeMatchedWithoutConversion() {
+        ReadableRegexPattern pattern = regex().group(regex().digit()).literal("x").build();
+        StringBuilder text = new StringBuilder("1x 2y 3x");
+
+        assertThat(pattern.matchesTextExactly(new StringBuilder("1x")), equalTo(true));
+        assertThat(pattern.matchesTextExactly(CharBuffer.wrap("1y")), equalTo(false));
+        assertThat(pattern.matches(text).find(), equalTo(true));
+        List<MatchResult> matches = pattern.findAll(text);
+        assertThat(matches.stream().map(MatchResult::group).collect(Collectors.toList()), contains("1x", "3x"));
+        assertThat(matches.get(1).group(1), equalTo("3"));
+
+        // The results do not change when the text changes afterwards.
+        text.setLength(0);
+        assertThat(matches.get(1).group(), equalTo("3x"));
+        assertThat(matches.get(1).end(), equalTo(8));
+    }
+
+    @Test
+    void regionsAreMatchedAsIfTheyAreTheWholeText() {
+        ReadableRegexPattern pattern = regex().startOfInput().group(regex().digit()).literal("x").build();
+        CharBuffer buffer = CharBuffer.wrap("..1x..2x");
+
+        assertThat(pattern.matchesTextExactly(buffer, 2, 4), equalTo(true));
+        assertThat(pattern.matchesTextExactly(buffer, 2, 5), equalTo(false));
+        assertThat(pattern.matches(buffer, 6, 8).matches(), equalTo(true));
+        List<MatchResult> matches = pattern.findAll(buffer, 6, 8);
+        assertThat(matches, hasSize(1));
+        assertThat(matches.get(0).start(), equalTo(6));
+        assertThat(matches.get(0).start(1), equalTo(6));
+        assertThat(matches.get(0).group(1), equalTo("2"));
+        assertThat(pattern.findAll(buffer, 0, 8), empty());
+        assertThrows(IndexOutOfBoundsException.class, () -> pattern.findAll(buffer, 4, 9));
+    }
+
+    @Test
+    void regionsWithoutTheRequiredLiteralAreSkipped() {
+        ReadableRegexPattern pattern = regex().digit().literal("ERROR").build();
+        StringBuilder text = new StringBuilder("1ERROR 2WARN");
+
+        assertThat(pattern.findAll(text, 6, 12), empty());
+        assertThat(pattern.prefilterSkipCount(), equalTo(1L));
+        assertThat(pattern.findAll(text, 0, 6), hasSize(1));
+        assertThat(pattern.matchesTextExactly(text, 0, 5), equalTo(false));
+        assertThat(pattern.prefilterHitCount(), equalTo(1L));
+        assertThat(pattern.prefilterSkipCount(), equalTo(2L));
+    }
+
+    @Test
+    void findAndLookingAtWork() {
+        ReadableRegexPattern pattern = regex().digit().literal("x").build();
+
+        assertThat(pattern.find("a 1x"), equalTo(true));
+        assertThat(pattern.find(new StringBuilder("a 1y")), equalTo(false));
+        assertThat(pattern.lookingAt("1xa"), equalTo(true));
+        assertThat(pattern.lookingAt("a1x"), equalTo(false));
+        assertThat(regex().digit().literal("x").buildLazily().find("a 1x"), equalTo(true));
+        assertThat(regex().digit().literal("x").buildLazily().lookingAt("a 1x"), equalTo(false));
+    }
+
+    @Test
+    void forEachMatchVisitsAllMatchesInOrder() {
+        ReadableRegexPattern pattern = regex().group("key", regex().word()).literal("=")
+                .group("value", regex().digit().oneOrMore()).optional().build();
+        List<String> positions = new ArrayList<>();
+        List<MatchResult> results = new ArrayList<>();
+
+        pattern.forEachMatch(new StringBuilder("a=1 bc= d=23"), match -> {
+            positions.add(match.start() + "-" + match.end() + " " + match.start("key") + "-" + match.end(1)
+                    + " " + match.start(2) + "-" + match.end("value"));
+            results.add(match.toMatchResult());
+        });
+
+        assertThat(positions, contains("0-3 0-1 2-3", "4-7 4-6 -1--1", "8-12 8-9 10-12"));
+        assertThat(results.get(2).group(2), equalTo("23"));
+        assertThat(results.get(1).group(2), equalTo(null));
+    }
+
+    @Test
+    void forEachMatchCreatesStringsOnRequest() {
+        ReadableRegexPattern pattern = regex().group("digit", regex().digit()).literal("x").buildLazily();
+        List<String> groups = new ArrayList<>();
+
+        pattern.forEachMatch("1x 2y 3x", match -> groups.add(match.group() + match.group(1) + match.group("digit") + match.groupCount()));
+        pattern.forEachMatch("no match", match -> groups.add("unexpected"));
+
+        assertThat(groups, contains("1x111", "3x331"));
+        assertThat(pattern.prefilterSkipCount(), equalTo(1L));
+    }
+
+    @Test
+    void streamReturnsTheMatchesLazily() {
+        ReadableRegexPattern pattern = regex().group(regex().digit()).literal("x").build();
+
+        assertThat(pattern.stream(new StringBuilder("1x 2y 3x")).map(MatchResult::group).collect(Collectors.toList()), contains("1x", "3x"));
+        assertThat(pattern.stream("1x 2y 3x").skip(1).findFirst().map(match -> match.group(1)), equalTo(Optional.of("3")));
+    }
+
+    @Test
+    void parallelStreamFindsTheSameMatches() {
+        ReadableRegexPattern pattern = regex().startOfLine().word().literal("=").group(regex().digit().oneOrMore()).build();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            text.append("key").append(i).append('=').append(i % 7 == 0 ? "none" : String.valueOf(i)).append('\n');
+        }
+
+        assertThat(pattern.canMatchLineBreak(), equalTo(false));
+        List<Integer> starts = pattern.stream(text).parallel().map(MatchResult::start).collect(Collectors.toList());
+        assertThat(starts, equalTo(pattern.findAll(text).stream().map(MatchResult::start).collect(Collectors.toList())));
+    }
+
+    @Test
+    void findAllParallelFindsTheSameMatches() {
+        ReadableRegexPattern pattern = regex().digit().oneOrMore().whitespace().oneOrMore().group(regex().word()).build();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            text.append(i).append(i % 3 == 0 ? "\n" : " ").append("w").append(i).append(' ');
+        }
+
+        List<String> matches = pattern.findAllParallel(text, ForkJoinPool.commonPool()).stream().map(MatchResult::group).collect(Collectors.toList());
+        assertThat(matches, equalTo(pattern.findAll(text).stream().map(MatchResult::group).collect(Collectors.toList())));
+    }
+
+    @Test
+    void matchAllReturnsTheIndicesOfTheMatchingTexts() {
+        ReadableRegexPattern pattern = regex().digit().literal("x").build();
+        List<CharSequence> texts = Arrays.asList("1x", "2y", new StringBuilder("3x"), "no match");
+
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2);
+        assertThat(pattern.matchAll(texts), equalTo(expected));
+        assertThat(pattern.matchAll(texts, 1), equalTo(expected));
+        assertThat(pattern.prefilterSkipCount(), equalTo(4L));
+    }
+
+    @Test
+    void grepReturnsTheMatchingLinesOfAFile() throws IOException {
+        ReadableRegexPattern pattern = regex().startOfLine().literal("ERROR").whitespace().group(regex().digit().oneOrMore()).build();
+        Path file = Files.createTempFile("grep", ".log");
+        try {
+            Files.write(file, Arrays.asList("INFO 1", "ERROR 2", "ERROR x", "ERROR 3 \u00E9"), StandardCharsets.ISO_8859_1);
+
+            try (Stream<String> lines = pattern.grep(file, StandardCharsets.ISO_8859_1)) {
+                assertThat(lines.collect(Collectors.toList()), contains("ERROR 2", "ERROR 3 \u00E9"));
+            }
+            try (Stream<String> lines = pattern.grep(file)) {
+                assertThrows(UncheckedIOException.class, () -> lines.collect(Collectors.toList()));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void utf8BytesAreMatchedWithIndicesOfBytes() {
+        ReadableRegexPattern byteSafePattern = regex().literal("id=").group(regex().digit().oneOrMore()).build();
+        ReadableRegexPattern decodingPattern = regex().literal("id=").group(regex().anyCharacterExcept(";").oneOrMore()).buildLazily();
+        byte[] bytes = "\u00E9;id=12;id=\u20AC".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(byteSafePattern.isByteSafe(), equalTo(true));
+        assertThat(decodingPattern.isByteSafe(), equalTo(false));
+        assertThat(byteSafePattern.matchesTextExactly(bytes, 3, 5), equalTo(true));
+        assertThat(decodingPattern.matchesTextExactly(bytes, 9, 6), equalTo(true));
+        assertThat(byteSafePattern.findAll(bytes, 0, bytes.length).get(0).start(1), equalTo(6));
+        assertThat(decodingPattern.findAll(bytes, 3, 12).stream().map(match -> match.group(1)).collect(Collectors.toList()),
+                contains("12", "\u20AC"));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).position(3).limit(8);
+        assertThat(byteSafePattern.matchesTextExactly(buffer), equalTo(true));
+        assertThat(byteSafePattern.findAll(buffer).get(0).end(), equalTo(8));
+        assertThat(buffer.position(), equalTo(3));
+    }
+
+    @Test
+    void canMatchLineBreakIsDeterminedByTheBuilder() {
+        assertThat(regex().anything().build().canMatchLineBreak(), equalTo(false));
+        assertThat(regex().anything().buildWithFlags(PatternFlag.DOT_ALL).canMatchLineBreak(), equalTo(true));
+        assertThat(regex().digit().lineBreak().buildLazily().canMatchLineBreak(), equalTo(true));
+        assertThat(regex().digit().buildLazily().canMatchLineBreak(), equalTo(false));
+        assertThat(ReadableRegexPattern.of("\\d", Collections.emptyList()).canMatchLineBreak(), equalTo(true));
+    }
 }
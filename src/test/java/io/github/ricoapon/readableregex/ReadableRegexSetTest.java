@@ -0,0 +1,88 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class ReadableRegexSetTest {
+    private static BitSet bits(int... indices) {
+        BitSet result = new BitSet();
+        for (int index : indices) {
+            result.set(index);
+        }
+        return result;
+    }
+
+    @Test
+    void returnsTheIndicesOfTheMatchingPatterns() {
+        ReadableRegexSet set = ReadableRegexSet.of(
+                regex().literal("error").whitespace().digit().oneOrMore().build(),
+                regex().literal("warn").build(),
+                regex().digit().oneOrMore().build(),
+                regex().literal("error").anything().build(),
+                regex().literal("ERROR").buildWithFlags(PatternFlag.CASE_INSENSITIVE));
+
+        assertThat(set.find("error 404"), equalTo(bits(0, 2, 3, 4)));
+        assertThat(set.matchesTextExactly("error 404"), equalTo(bits(0, 3)));
+        assertThat(set.find("warning"), equalTo(bits(1)));
+        assertThat(set.find(new StringBuilder("nothing")), equalTo(bits()));
+        assertThat(set.patterns().size(), equalTo(5));
+    }
+
+    @Test
+    void patternsThatDoNotContainTheLiteralAreNotEvaluated() {
+        ReadableRegexPattern lazy = regex().literal("abc").digit().buildLazily();
+        ReadableRegexSet set = ReadableRegexSet.of(lazy, regex().literal("xyz").build());
+
+        assertThat(set.find("abc1"), equalTo(bits(0)));
+        assertThat(set.find("xyz"), equalTo(bits(1)));
+        assertThat(set.find("ab"), equalTo(bits()));
+        assertThat(ReadableRegexSet.of().find("abc"), equalTo(bits()));
+    }
+
+    @Test
+    void patternsAreEvaluatedWithTheirOwnEngine() {
+        CountingMatchingEngine.NR_OF_CALLS.set(0);
+        ReadableRegexSet set = ReadableRegexSet.of(
+                regex().digit().oneOrMore().buildWithEngine(CountingMatchingEngine.NAME),
+                regex().oneOf(regex().literal("a"), regex().literal("b")).build());
+
+        assertThat(set.find("x1 a"), equalTo(bits(0, 1)));
+        assertThat(set.matchesTextExactly("12"), equalTo(bits(0)));
+        assertThat(CountingMatchingEngine.NR_OF_CALLS.get(), equalTo(2));
+    }
+
+    @Test
+    void sameResultAsEvaluatingEveryPattern() {
+        List<ReadableRegexPattern> patterns = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            patterns.add(regex().literal("k" + i).literal("=").digit().oneOrMore().build());
+            patterns.add(regex().literal("k" + (i % 5)).build());
+        }
+        patterns.add(regex().wordBoundary().digit().build());
+        ReadableRegexSet set = ReadableRegexSet.of(patterns);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            String text = "k" + random.nextInt(60) + "=" + (random.nextBoolean() ? "1" : "x") + " k" + random.nextInt(60);
+            BitSet found = new BitSet();
+            BitSet matched = new BitSet();
+            for (int p = 0; p < patterns.size(); p++) {
+                found.set(p, patterns.get(p).find(text));
+                matched.set(p, patterns.get(p).matchesTextExactly(text));
+            }
+            assertThat(text, set.find(text), equalTo(found));
+            assertThat(text, set.matchesTextExactly(text), equalTo(matched));
+        }
+        assertThat(set.patterns().get(0).toString(), equalTo(patterns.get(0).toString()));
+        assertThat(ReadableRegexSet.of(patterns.get(1), patterns.get(3)).patterns(), contains(patterns.get(1), patterns.get(3)));
+    }
+}
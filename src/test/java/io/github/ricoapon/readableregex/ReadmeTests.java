@@ -43,8 +43,8 @@ class ReadmeTests {
             // The matchesText will return a boolean whether we have an *exact* match or not!
             assertThat(pattern.matchesTextExactly("https://www.github.com"), equalTo(true));
 
-            // toString() method will return the underlying pattern. Not really readable though, that is why we have this library!
-            assertThat(pattern.toString(), equalTo("(?:\\Qhttp\\E)(?:\\Qs\\E)?(?:\\Q://\\E)[^ ]*"));
+            // toString() method will return the underlying pattern. Redundant constructs are left out, but it is still not as readable!
+            assertThat(pattern.toString(), equalTo("https?://[^ ]*"));
         }
 
         @Test
@@ -4,6 +4,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Proxy;
+
 import static io.github.ricoapon.readableregex.Constants.*;
 import static io.github.ricoapon.readableregex.ReadableRegex.regex;
 import static io.github.ricoapon.readableregex.matchers.PatternMatchMatcher.*;
@@ -17,6 +19,23 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 @SuppressFBWarnings(value = "SIC_INNER_SHOULD_BE_STATIC", justification = "@Nested classes should be non-static, but SpotBugs wants them static." +
         "See https://github.com/spotbugs/spotbugs/issues/560 for the bug (open since 2018).")
 class StandaloneBlockTests {
+    /** Builder that fails when it is built, to check that included builders are not built separately. */
+    private static class BuilderThatCannotBeBuilt extends ExtendableReadableRegex<BuilderThatCannotBeBuilt> {
+        @Override
+        public ReadableRegexPattern buildWithFlags(PatternFlag... patternFlags) {
+            throw new UnsupportedOperationException("Included builders should not be built.");
+        }
+    }
+
+    /**
+     * @param pattern The pattern to return when building.
+     * @return Implementation of {@link ReadableRegex} that is not based on the builder of this library.
+     */
+    private static ReadableRegex<?> readableRegexThatBuilds(ReadableRegexPattern pattern) {
+        return (ReadableRegex<?>) Proxy.newProxyInstance(ReadableRegex.class.getClassLoader(), new Class<?>[]{ReadableRegex.class},
+                (proxy, method, args) -> pattern);
+    }
+
     @Nested
     class RegexFromString {
         @Test
@@ -56,6 +75,34 @@ class StandaloneBlockTests {
             assertThat(pattern, matchesExactly("a1a2a3"));
             assertThat(pattern, doesntMatchExactly("a111"));
         }
+
+        @Test
+        void builderIsIncludedWithoutBuildingIt() {
+            ReadableRegexPattern pattern = regex().add(new BuilderThatCannotBeBuilt().literal("a")).digit().build();
+
+            assertThat(pattern, matchesExactly("a1"));
+        }
+
+        @Test
+        void builderIsNotAffectedByChangesAfterwards() {
+            ReadableRegex<?> included = regex().literal("a");
+            ReadableRegex<?> builder = regex().add(included);
+            included.digit();
+
+            assertThat(builder.build(), matchesExactly("a"));
+        }
+
+        @Test
+        void builderWithUnclosedGroupsCannotBeAdded() {
+            assertThrows(IncorrectConstructionException.class, () -> regex().add(regex().startGroup()));
+        }
+
+        @Test
+        void otherImplementationsOfTheInterfaceAreBuilt() {
+            ReadableRegexPattern pattern = regex().add(readableRegexThatBuilds(regex().literal("a").build())).digit().build();
+
+            assertThat(pattern, matchesExactly("a1"));
+        }
     }
 
     @Nested
@@ -164,6 +211,22 @@ class StandaloneBlockTests {
             assertThat(pattern, matchesExactly("ab"));
             assertThat(pattern, doesntMatchAnythingFrom(""));
         }
+
+        @Test
+        void buildersAreIncludedWithoutBuildingThem() {
+            ReadableRegexPattern pattern = regex().oneOf(new BuilderThatCannotBeBuilt().literal("a"), regex().digit()).build();
+
+            assertThat(pattern, matchesExactly("a"));
+            assertThat(pattern, matchesExactly("1"));
+        }
+
+        @Test
+        void otherImplementationsOfTheInterfaceAreBuilt() {
+            ReadableRegexPattern pattern = regex().oneOf(readableRegexThatBuilds(regex().literal("a").build()), regex().digit()).build();
+
+            assertThat(pattern, matchesExactly("a"));
+            assertThat(pattern, matchesExactly("1"));
+        }
     }
 
     @Nested
@@ -268,6 +331,15 @@ class StandaloneBlockTests {
             assertThat(pattern.enabledFlags(), contains(PatternFlag.MULTILINE));
             assertThat(pattern2.enabledFlags(), contains(PatternFlag.MULTILINE));
         }
+
+        @Test
+        void includedBuilderEnablesMultilineFlag() {
+            ReadableRegexPattern pattern = regex().add(regex().startOfLine()).build();
+            ReadableRegexPattern pattern2 = regex().oneOf(regex().startOfLine()).build();
+
+            assertThat(pattern.enabledFlags(), contains(PatternFlag.MULTILINE));
+            assertThat(pattern2.enabledFlags(), contains(PatternFlag.MULTILINE));
+        }
     }
 
     @Nested
@@ -300,6 +372,13 @@ class StandaloneBlockTests {
             assertThat(pattern.enabledFlags(), contains(PatternFlag.MULTILINE));
             assertThat(pattern2.enabledFlags(), contains(PatternFlag.MULTILINE));
         }
+
+        @Test
+        void includedBuilderEnablesMultilineFlag() {
+            ReadableRegexPattern pattern = regex().group(regex().endOfLine()).build();
+
+            assertThat(pattern.enabledFlags(), contains(PatternFlag.MULTILINE));
+        }
     }
 
     @Nested
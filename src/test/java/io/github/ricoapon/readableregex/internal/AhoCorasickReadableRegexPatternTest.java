@@ -0,0 +1,145 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AhoCorasickReadableRegexPatternTest {
+    /**
+     * Characters used for generating input. Contains a non-ASCII letter and a combining mark to check the definition of
+     * word boundaries.
+     */
+    private static final String INPUT_CHARACTERS = "hesir _\u00E9\u0301";
+    private static final int NR_OF_GENERATED_INPUTS = 2000;
+    private static final int MAX_INPUT_LENGTH = 12;
+
+    private static ReadableRegex<?> keywords() {
+        return regex().oneOf(regex().literal("he"), regex().literal("she"), regex().literal("his"),
+                regex().literal("hers"), regex().literal("h"), regex().literal("is"), regex().literal("he"));
+    }
+
+    /**
+     * Asserts that the pattern behaves exactly the same as the JDK pattern with the same regular expression.
+     */
+    private void assertSameAsJdk(ReadableRegexPattern pattern) {
+        assertThat(pattern, instanceOf(AhoCorasickReadableRegexPattern.class));
+        Random random = new Random(pattern.toString().hashCode());
+        for (int i = 0; i < NR_OF_GENERATED_INPUTS; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(MAX_INPUT_LENGTH);
+            for (int j = 0; j < length; j++) {
+                input.append(INPUT_CHARACTERS.charAt(random.nextInt(INPUT_CHARACTERS.length())));
+            }
+            String text = input.toString();
+
+            Matcher matcher = pattern.matches(text);
+            assertThat(text, pattern.matchesTextExactly(text), equalTo(matcher.matches()));
+            matcher.reset();
+            for (MatchResult match : pattern.findAll(text)) {
+                assertThat(text, matcher.find(), equalTo(true));
+                assertThat(text, match.start() + "-" + match.end(), equalTo(matcher.start() + "-" + matcher.end()));
+            }
+            assertThat(text, matcher.find(), equalTo(false));
+
+            // Other character sequences must be matched the same as strings.
+            StringBuilder builder = new StringBuilder(text);
+            matcher.reset();
+            assertThat(text, pattern.find(builder), equalTo(matcher.find()));
+            assertThat(text, pattern.matchesTextExactly(builder), equalTo(pattern.matchesTextExactly(text)));
+            assertThat(text, positionsOf(pattern.findAll(builder)), equalTo(positionsOf(pattern.findAll(text))));
+        }
+    }
+
+    private static List<String> positionsOf(List<MatchResult> matches) {
+        return matches.stream().map(match -> match.start() + "-" + match.end()).collect(Collectors.toList());
+    }
+
+    @Test
+    void literalAlternationMatchesLikeJdk() {
+        assertSameAsJdk(keywords().build());
+        assertSameAsJdk(regex().oneOf(regex().literal("hers"), regex().literal("she"), regex().literal("h")).build());
+    }
+
+    @Test
+    void literalAlternationWithWordBoundariesMatchesLikeJdk() {
+        assertSameAsJdk(regex().wordBoundary().add(keywords()).wordBoundary().build());
+        assertSameAsJdk(regex().wordBoundary().oneOf(regex().literal("_"), regex().literal("\u00E9"), regex().literal(" ")).wordBoundary().build());
+    }
+
+    @Test
+    void wordBoundariesAreTheSameAsJdk() {
+        Matcher boundary = Pattern.compile("\\b").matcher("").useTransparentBounds(true);
+        List<String> texts = new ArrayList<>();
+        for (char c = 0; c < 0x3000; c++) {
+            texts.add("a" + c + "b");
+            texts.add(" " + c + " ");
+        }
+        texts.add("a\u0301\u0301 \u0301 _\u0301 1\u0301");
+        texts.add("\uD835\uDC00 \uD83D\uDE00 \uD835\uDC00\u0301");
+
+        for (String text : texts) {
+            boundary.reset(text);
+            for (int i = 0; i <= text.length(); i++) {
+                assertThat(text + " at " + i, AhoCorasickReadableRegexPattern.isWordBoundaryAt(text, i),
+                        equalTo(boundary.region(i, text.length()).lookingAt()));
+            }
+        }
+    }
+
+    @Test
+    void matchResultsContainTheLiteralWithoutGroups() {
+        List<MatchResult> matches = keywords().build().findAll("ushers his");
+
+        assertThat(matches.stream().map(MatchResult::group).collect(Collectors.toList()), contains("she", "his"));
+        MatchResult match = matches.get(0);
+        assertThat(match.start(0) + "-" + match.end(0), equalTo("1-4"));
+        assertThat(match.group(0), equalTo("she"));
+        assertThat(match.groupCount(), equalTo(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> match.group(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> match.start(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> match.end(1));
+    }
+
+    @Test
+    void jdkPatternIsOnlyCompiledWhenRequested() {
+        AhoCorasickReadableRegexPattern pattern = (AhoCorasickReadableRegexPattern) keywords().build();
+
+        assertThat(pattern.matchesTextExactly("hers"), equalTo(true));
+        assertThat(pattern.isCompiled(), equalTo(false));
+        assertThat(pattern.matches("hers").matches(), equalTo(true));
+        assertThat(pattern.isCompiled(), equalTo(true));
+    }
+
+    @Test
+    void otherExpressionsDoNotUseTheAutomaton() {
+        assertThat(regex().oneOf(regex().literal("a"), regex().digit()).build(), not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+        assertThat(regex().oneOf(regex().literal("a"), regex().literal("")).build(), not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+        assertThat(regex().oneOf(regex().literal("a"), regex().literal("\uD83D\uDE00")).build(), not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+        assertThat(regex().oneOf(regex().literal("a"), regex().literal("b")).buildWithFlags(PatternFlag.CASE_INSENSITIVE),
+                not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+        assertThat(regex().oneOf(regex("a"), regex().literal("b")).build(), not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+        assertThat(regex().literal("a").build(), not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+        assertThat(regex().build(), not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+        assertThat(regex().literal("a").add(keywords()).build(), not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+        assertThat(regex().wordBoundary().add(keywords()).literal("a").build(), not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+        assertThat(regex().literal("a").add(keywords()).wordBoundary().build(), not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+        assertThat(regex().wordBoundary().literal("a").wordBoundary().build(), not(instanceOf(AhoCorasickReadableRegexPattern.class)));
+    }
+}
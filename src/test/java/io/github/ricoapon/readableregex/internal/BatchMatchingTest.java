@@ -0,0 +1,58 @@
+package io.github.ricoapon.readableregex.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchMatchingTest {
+    private static final Pattern PATTERN = Pattern.compile("\\d+x");
+
+    private static List<String> generateTexts(int size) {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            texts.add(i + (i % 3 == 0 ? "x" : "y"));
+        }
+        return texts;
+    }
+
+    private static BitSet expected(List<String> texts) {
+        BitSet result = new BitSet();
+        for (int i = 0; i < texts.size(); i++) {
+            if (PATTERN.matcher(texts.get(i)).matches()) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void singleThreadAndChunksGiveTheSameResult() {
+        List<String> texts = generateTexts(10_000);
+        assertThat(BatchMatching.matchAll(PATTERN, texts, text -> true, Integer.MAX_VALUE), equalTo(expected(texts)));
+        assertThat(BatchMatching.matchAll(PATTERN, texts, text -> true, 1), equalTo(expected(texts)));
+        assertThat(BatchMatching.matchAll(PATTERN, new LinkedList<>(texts), text -> true, 1), equalTo(expected(texts)));
+    }
+
+    @Test
+    void textsThatCannotMatchAreSkipped() {
+        List<String> texts = Arrays.asList("1x", "2x", "3x");
+        BitSet expected = new BitSet();
+        expected.set(1);
+        assertThat(BatchMatching.matchAll(PATTERN, texts, text -> text.charAt(0) == '2', 1), equalTo(expected));
+    }
+
+    @Test
+    void emptyListAndInvalidThreshold() {
+        assertThat(BatchMatching.matchAll(PATTERN, new ArrayList<>(), text -> true, 1), equalTo(new BitSet()));
+        assertThrows(IllegalArgumentException.class, () -> BatchMatching.matchAll(PATTERN, new ArrayList<>(), text -> true, 0));
+    }
+}
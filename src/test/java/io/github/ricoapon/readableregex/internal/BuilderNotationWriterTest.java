@@ -0,0 +1,48 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.internal.expression.BuilderNotationWriter;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Tests related to {@link BuilderNotationWriter}.
+ */
+class BuilderNotationWriterTest {
+    private String write(ReadableRegex<?> regex) {
+        return BuilderNotationWriter.write(((ReadableRegexBuilder<?>) regex).toExpression());
+    }
+
+    @Test
+    void blocksAreWrittenAsBuilderMethods() {
+        assertThat(write(regex().literal("a\"\\").digit().whitespace().tab().wordCharacter().nonWordCharacter().anyCharacter()),
+                equalTo("literal(\"a\\\"\\\\\").digit().whitespace().tab().wordCharacter().nonWordCharacter().anyCharacter()"));
+        assertThat(write(regex().range('a', 'z', '0', '9').notInRange('a', 'b').anyCharacterOf("xy").anyCharacterExcept("z")),
+                equalTo("range('a', 'z', '0', '9').notInRange('a', 'b').anyCharacterOf(\"xy\").anyCharacterExcept(\"z\")"));
+        assertThat(write(regex().startOfLine().endOfLine().startOfInput().endOfInput().wordBoundary().nonWordBoundary()),
+                equalTo("startOfLine().endOfLine().startOfInput().endOfInput().wordBoundary().nonWordBoundary()"));
+        assertThat(write(regex("a\\d").oneOf(regex().digit(), regex())),
+                equalTo("regexFromString(\"a\\\\d\").oneOf(regex().digit(), regex())"));
+    }
+
+    @Test
+    void groupsAreWrittenWithStartAndEnd() {
+        assertThat(write(regex().startGroup().startGroup("name").endGroup().endGroup().startUnnamedGroup().digit().endGroup()),
+                equalTo("startGroup().startGroup(\"name\").endGroup().endGroup().startUnnamedGroup().digit().endGroup()"));
+        assertThat(write(regex().startPositiveLookbehind().digit().endGroup().startNegativeLookbehind().digit().endGroup()
+                        .startPositiveLookahead().digit().endGroup().startNegativeLookahead().digit().endGroup()),
+                equalTo("startPositiveLookbehind().digit().endGroup().startNegativeLookbehind().digit().endGroup()" +
+                        ".startPositiveLookahead().digit().endGroup().startNegativeLookahead().digit().endGroup()"));
+    }
+
+    @Test
+    void quantifiersAreWrittenWithTheirMode() {
+        assertThat(write(regex().digit().oneOrMore().digit().zeroOrMore().reluctant().digit().optional().possessive()),
+                equalTo("digit().oneOrMore().digit().zeroOrMore().reluctant().digit().optional().possessive()"));
+        assertThat(write(regex().digit().exactlyNTimes(2).digit().atLeastNTimes(2).digit().atMostNTimes(2).digit().betweenNAndMTimes(1, 2)),
+                equalTo("digit().exactlyNTimes(2).digit().atLeastNTimes(2).digit().atMostNTimes(2).digit().betweenNAndMTimes(1, 2)"));
+    }
+}
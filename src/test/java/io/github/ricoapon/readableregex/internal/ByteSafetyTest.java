@@ -0,0 +1,46 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.internal.expression.ByteSafety;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ByteSafetyTest {
+    private boolean isByteSafe(ReadableRegex<?> regex, int flags) {
+        return ByteSafety.isByteSafe(((ReadableRegexBuilder<?>) regex).toExpression(), flags);
+    }
+
+    @Test
+    void asciiBlocksAreByteSafe() {
+        assertThat(isByteSafe(regex().literal("id=").digit().oneOrMore(), 0), equalTo(true));
+        assertThat(isByteSafe(regex().range('a', 'z', '0', '9').whitespace().wordCharacter().anyCharacterOf("_:"), 0), equalTo(true));
+        assertThat(isByteSafe(regex().startOfInput().oneOf(regex().literal("GET"), regex().literal("PUT")).endOfInput(), 0), equalTo(true));
+        assertThat(isByteSafe(regex().group("key", regex().literal("a")).positiveLookahead(regex().digit()).digit().optional(), 0), equalTo(true));
+        assertThat(isByteSafe(regex().literal("k"), Pattern.CASE_INSENSITIVE), equalTo(true));
+    }
+
+    @Test
+    void blocksThatReadOtherCharactersAreNotByteSafe() {
+        assertThat(isByteSafe(regex().literal("caf\u00E9"), 0), equalTo(false));
+        assertThat(isByteSafe(regex().literal("a").anything(), 0), equalTo(false));
+        assertThat(isByteSafe(regex().notInRange('a', 'z'), 0), equalTo(false));
+        assertThat(isByteSafe(regex().nonWordCharacter(), 0), equalTo(false));
+        assertThat(isByteSafe(regex().range('a', '\u00FF'), 0), equalTo(false));
+        assertThat(isByteSafe(regex().wordBoundary().literal("a"), 0), equalTo(false));
+        assertThat(isByteSafe(regex().startOfLine().literal("a"), 0), equalTo(false));
+        assertThat(isByteSafe(regex().regexFromString("a"), 0), equalTo(false));
+    }
+
+    @Test
+    void emptyMatchesAndUnicodeFlagsAreNotByteSafe() {
+        assertThat(isByteSafe(regex().digit().zeroOrMore(), 0), equalTo(false));
+        assertThat(isByteSafe(regex().literal("a").optional(), 0), equalTo(false));
+        assertThat(isByteSafe(regex().literal("k"), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE), equalTo(false));
+        assertThat(isByteSafe(regex().digit(), Pattern.UNICODE_CHARACTER_CLASS), equalTo(false));
+    }
+}
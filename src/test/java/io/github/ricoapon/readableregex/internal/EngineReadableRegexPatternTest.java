@@ -0,0 +1,150 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.CompiledExpression;
+import io.github.ricoapon.readableregex.MatchingEngines;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.MatchResult;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static io.github.ricoapon.readableregex.matchers.MatchDescriptions.describe;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests that every matching method of {@link EngineReadableRegexPattern} uses the engine and gives the same results as
+ * the JDK engine.
+ */
+class EngineReadableRegexPatternTest {
+    private static final List<String> TEXTS = Arrays.asList("", "12-3", "a1-b22-", "x-12-y3", "1\n-2-");
+
+    private static EngineReadableRegexPattern build(ReadableRegex<?> regex) {
+        ReadableRegexPattern pattern = regex.buildWithEngine(MatchingEngines.LINEAR_TIME);
+        assertThat(pattern, instanceOf(EngineReadableRegexPattern.class));
+        return (EngineReadableRegexPattern) pattern;
+    }
+
+    private static List<MatchResult> toList(Optional<MatchResult> match) {
+        return match.map(Collections::singletonList).orElse(Collections.emptyList());
+    }
+
+    private static List<String> visitAll(ReadableRegexPattern pattern, CharSequence text, int start, int end) {
+        List<String> result = new ArrayList<>();
+        pattern.forEachMatch(text, start, end, match -> result.add(match.start() + "-" + match.end() + ":" + match.group("number")));
+        return result;
+    }
+
+    @Test
+    void allMatchingMethodsUseTheEngine() throws IOException {
+        ReadableRegex<?> regex = regex().group("number", regex().digit().oneOrMore()).literal("-").optional();
+        EngineReadableRegexPattern pattern = build(regex);
+        ReadableRegexPattern jdkPattern = regex.buildWithEngine(MatchingEngines.JDK);
+
+        for (String text : TEXTS) {
+            StringBuilder builder = new StringBuilder(text);
+            assertThat(text, pattern.matchesTextExactly(text), equalTo(jdkPattern.matchesTextExactly(text)));
+            assertThat(text, pattern.matchesTextExactly(builder), equalTo(jdkPattern.matchesTextExactly(builder)));
+            assertThat(text, pattern.find(builder), equalTo(jdkPattern.find(builder)));
+            assertThat(text, pattern.lookingAt(builder), equalTo(jdkPattern.lookingAt(builder)));
+            assertThat(text, describe(pattern.findAll(text)), equalTo(describe(jdkPattern.findAll(text))));
+            assertThat(text, describe(pattern.stream(builder).collect(Collectors.toList())), equalTo(describe(jdkPattern.findAll(text))));
+            assertThat(text, describe(pattern.findAllParallel(builder, ForkJoinPool.commonPool())), equalTo(describe(jdkPattern.findAll(text))));
+            assertThat(text, pattern.matchesTextExactly(text, Duration.ofMinutes(1)), equalTo(jdkPattern.matchesTextExactly(text)));
+            assertThat(text, describe(pattern.findAll(text, Duration.ofMinutes(1))), equalTo(describe(jdkPattern.findAll(text))));
+            for (int from = 0; from <= text.length(); from++) {
+                assertThat(text, describe(toList(pattern.find(builder, from))), equalTo(describe(toList(jdkPattern.find(builder, from)))));
+            }
+            for (int start = 0; start <= text.length(); start++) {
+                for (int end = start; end <= text.length(); end++) {
+                    String region = text + " " + start + "-" + end;
+                    assertThat(region, pattern.matchesTextExactly(builder, start, end), equalTo(jdkPattern.matchesTextExactly(builder, start, end)));
+                    assertThat(region, describe(pattern.findAll(builder, start, end)), equalTo(describe(jdkPattern.findAll(builder, start, end))));
+                    assertThat(region, visitAll(pattern, builder, start, end), equalTo(visitAll(jdkPattern, builder, start, end)));
+                }
+            }
+        }
+        assertThat(pattern.matchAll(TEXTS, 1), equalTo(jdkPattern.matchAll(TEXTS, 1)));
+
+        Path file = Files.createTempFile("grep", ".log");
+        try {
+            Files.write(file, TEXTS, StandardCharsets.UTF_8);
+            try (Stream<String> lines = pattern.grep(file); Stream<String> jdkLines = jdkPattern.grep(file)) {
+                assertThat(lines.collect(Collectors.toList()), equalTo(jdkLines.collect(Collectors.toList())));
+            }
+        } finally {
+            Files.delete(file);
+        }
+
+        // The JDK pattern is only compiled for the methods that return JDK objects.
+        assertThat(pattern.isCompiled(), equalTo(false));
+        assertThat(pattern.matches("1").matches(), equalTo(true));
+        assertThat(pattern.isCompiled(), equalTo(true));
+    }
+
+    @Test
+    void unknownGroupNamesThrowException() {
+        EngineReadableRegexPattern pattern = build(regex().group("number", regex().digit()));
+        pattern.forEachMatch("1", match -> assertThrows(IllegalArgumentException.class, () -> match.group("unknown")));
+    }
+
+    @Test
+    void unsupportedMethodsOfTheEngineAreNotMatchedByTheJdk() {
+        Expression expression = ((ReadableRegexBuilder<?>) regex().literal("a")).toExpression();
+        EngineReadableRegexPattern pattern = new EngineReadableRegexPattern("unsupported",
+                new BuiltExpressionImpl(expression, "a", 0, Collections.emptyList(), "a"), new UnsupportedCompiledExpression());
+
+        assertThrows(UnsupportedOperationException.class, () -> pattern.matchesTextExactly("a"));
+        assertThrows(UnsupportedOperationException.class, () -> pattern.lookingAt("a"));
+        assertThrows(UnsupportedOperationException.class, () -> pattern.findAll(new StringBuilder("a")));
+        assertThrows(UnsupportedOperationException.class, () -> pattern.stream("a").count());
+        assertThat(pattern.isCompiled(), equalTo(false));
+    }
+
+    /**
+     * {@link CompiledExpression} of an engine that cannot match texts in any way.
+     */
+    private static final class UnsupportedCompiledExpression implements CompiledExpression {
+        @Override
+        public boolean matchesTextExactly(String text) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<MatchResult> findAll(String text) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean matchesTextExactly(CharSequence text) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean lookingAt(CharSequence text) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<MatchResult> find(CharSequence text, int from) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.expression.MaxLengthFinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.sameInstance;
+
+class LazyReadableRegexPatternTest {
+    @Test
+    void metadataIsAvailableWithoutCompiling() {
+        LazyReadableRegexPattern pattern = new LazyReadableRegexPattern("(a)", Pattern.MULTILINE, Collections.singletonList("name"), PatternProperties.UNKNOWN);
+
+        assertThat(pattern.toString(), equalTo("(a)"));
+        assertThat(pattern.groups(), contains("name"));
+        assertThat(pattern.enabledFlags(), contains(PatternFlag.MULTILINE));
+        assertThat(pattern.isCompiled(), equalTo(false));
+    }
+
+    @Test
+    void textsWithoutTheRequiredLiteralAreRejectedWithoutCompiling() {
+        LazyReadableRegexPattern pattern = new LazyReadableRegexPattern("a+b", 0, Collections.emptyList(), new PatternProperties("b", true, MaxLengthFinder.UNBOUNDED, null));
+
+        assertThat(pattern.matchesTextExactly("aaa"), equalTo(false));
+        assertThat(pattern.findAll("aaa"), empty());
+        assertThat(pattern.isCompiled(), equalTo(false));
+        assertThat(pattern.requiredLiteral().orElse(null), equalTo("b"));
+        assertThat(pattern.prefilterSkipCount(), equalTo(2L));
+
+        assertThat(pattern.findAll("aab ab"), hasSize(2));
+        assertThat(pattern.isCompiled(), equalTo(true));
+        assertThat(pattern.prefilterHitCount(), equalTo(1L));
+    }
+
+    @Test
+    void patternIsCompiledOnceOnFirstUse() {
+        LazyReadableRegexPattern pattern = new LazyReadableRegexPattern("a", 0, Collections.emptyList(), PatternProperties.UNKNOWN);
+
+        assertThat(pattern.matchesTextExactly("a"), equalTo(true));
+        assertThat(pattern.isCompiled(), equalTo(true));
+        assertThat(pattern.getUnderlyingPattern(), sameInstance(pattern.getUnderlyingPattern()));
+        assertThat(pattern.groups(), empty());
+    }
+
+    @Test
+    void concurrentFirstUseCompilesOnlyOnce() throws Exception {
+        LazyReadableRegexPattern pattern = new LazyReadableRegexPattern("a+", 0, Collections.emptyList(), PatternProperties.UNKNOWN);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<CompletableFuture<Pattern>> futures = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return pattern.getUnderlyingPattern();
+                }))
+                .collect(Collectors.toList());
+        start.countDown();
+
+        for (CompletableFuture<Pattern> future : futures) {
+            assertThat(future.get(), sameInstance(pattern.getUnderlyingPattern()));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.internal.expression.LineBreakFinder;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class LineBreakFinderTest {
+    private boolean canMatchLineBreak(ReadableRegex<?> regex, boolean dotAll) {
+        return LineBreakFinder.canMatchLineBreak(((ReadableRegexBuilder<?>) regex).toExpression(), dotAll);
+    }
+
+    @Test
+    void blocksWithoutLineFeedsAreFound() {
+        assertThat(canMatchLineBreak(regex().literal("a\r").digit().word().wordCharacter().optional(), false), equalTo(false));
+        assertThat(canMatchLineBreak(regex().startOfLine().anything().endOfLine(), false), equalTo(false));
+        assertThat(canMatchLineBreak(regex().oneOf(regex().literal("a"), regex().tab()).group(regex().digit()), false), equalTo(false));
+        assertThat(canMatchLineBreak(regex().notInRange('a', 'z').exactlyNTimes(2), false), equalTo(true));
+    }
+
+    @Test
+    void blocksWithLineFeedsAreFound() {
+        assertThat(canMatchLineBreak(regex().literal("a\nb"), false), equalTo(true));
+        assertThat(canMatchLineBreak(regex().digit().whitespace(), false), equalTo(true));
+        assertThat(canMatchLineBreak(regex().nonWordCharacter(), false), equalTo(true));
+        assertThat(canMatchLineBreak(regex().lineBreak(), false), equalTo(true));
+        assertThat(canMatchLineBreak(regex().anything(), true), equalTo(true));
+        assertThat(canMatchLineBreak(regex().oneOf(regex().literal("a"), regex().anyCharacterExcept("a")).oneOrMore(), false), equalTo(true));
+        assertThat(canMatchLineBreak(regex().positiveLookahead(regex().literal("\n")), false), equalTo(true));
+        assertThat(canMatchLineBreak(regex().regexFromString("a"), false), equalTo(true));
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.ricoapon.readableregex.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LineGrepSpliteratorTest {
+    private static List<String> grep(String regex, String requiredLiteral, byte[] bytes, Charset charset, int bufferSize) {
+        LineGrepSpliterator spliterator = new LineGrepSpliterator(Pattern.compile(regex), requiredLiteral,
+                Channels.newChannel(new ByteArrayInputStream(bytes)), charset, bufferSize);
+        return StreamSupport.stream(spliterator, false).collect(Collectors.toList());
+    }
+
+    private static List<String> grep(String regex, byte[] bytes, Charset charset, int bufferSize) {
+        return grep(regex, null, bytes, charset, bufferSize);
+    }
+
+    private static List<String> grep(String regex, String text, int bufferSize) {
+        return grep(regex, text.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, bufferSize);
+    }
+
+    private static List<String> grepWithLiteral(String regex, String requiredLiteral, String text, int bufferSize) {
+        return grep(regex, requiredLiteral, text.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, bufferSize);
+    }
+
+    @Test
+    void returnsTheLinesThatContainAMatch() {
+        String text = "first 1\nsecond\r\nthird 3\rfourth 4\n\n5";
+        for (int bufferSize : new int[] {1, 2, 3, 7, 1024}) {
+            assertThat(grep("\\d", text, bufferSize), contains("first 1", "third 3", "fourth 4", "5"));
+            assertThat(grep("^$", text, bufferSize), contains(""));
+            assertThat(grep("^\\w+$", text, bufferSize), contains("second", "5"));
+            assertThat(grep("(?<!\\n)^s", text, bufferSize), contains("second"));
+        }
+    }
+
+    @Test
+    void lineBreaksAreNotPartOfTheLines() {
+        for (int bufferSize : new int[] {1, 2, 1024}) {
+            assertThat(grep(".*", "a\r\n\r\nb\n", bufferSize), contains("a", "", "b"));
+            assertThat(grep(".*", "\r\r\n\n", bufferSize), contains("", "", ""));
+            assertThat(grep(".*", "", bufferSize), empty());
+        }
+    }
+
+    @Test
+    void multiByteCharactersAcrossBufferBorders() {
+        StringBuilder text = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String line = "\\u00E9\\uD83D\\uDE00" + i + (i % 2 == 0 ? "x" : "");
+            text.append(line).append('\n');
+            if (i % 2 == 0) {
+                expected.add(line);
+            }
+        }
+        for (int bufferSize : new int[] {1, 3, 5, 64}) {
+            assertThat(grep("x$", text.toString(), bufferSize), equalTo(expected));
+            assertThat(grep("x$", text.toString().getBytes(StandardCharsets.UTF_16), StandardCharsets.UTF_16, bufferSize), equalTo(expected));
+        }
+    }
+
+    @Test
+    void onlyLinesWithTheRequiredLiteralAreMatched() {
+        String text = "ab\r\nxab1\rab\nabab2\n\nb3a\r\nab4";
+        for (int bufferSize : new int[] {1, 2, 3, 5, 1024}) {
+            assertThat(grepWithLiteral("ab\\d", "ab", text, bufferSize), contains("xab1", "abab2", "ab4"));
+            assertThat(grepWithLiteral("^ab", "ab", text, bufferSize), contains("ab", "ab", "abab2", "ab4"));
+            assertThat(grepWithLiteral("b\\d", "b", text, bufferSize), contains("xab1", "abab2", "b3a", "ab4"));
+            // Lines that never contain the literal are skipped, even if the pattern would match them.
+            assertThat(grepWithLiteral("\\d", "ab", text, bufferSize), contains("xab1", "abab2", "ab4"));
+            assertThat(grepWithLiteral(".", "zz", text, bufferSize), empty());
+        }
+    }
+
+    @Test
+    void malformedInputIsReported() {
+        byte[] bytes = {'a', '\n', (byte) 0xFF, '\n'};
+        assertThrows(UncheckedIOException.class, () -> grep("a", bytes, StandardCharsets.UTF_8, 1024));
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.BuiltExpression;
+import io.github.ricoapon.readableregex.CompiledExpression;
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import io.github.ricoapon.readableregex.internal.expression.OptimizedRegexWriter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static io.github.ricoapon.readableregex.matchers.MatchDescriptions.describe;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests that {@link LinearTimeMatchingEngine} matches exactly like the JDK engine.
+ */
+class LinearTimeMatchingEngineTest {
+    /** Characters that are always used for generating input, next to the characters of the regular expression itself. */
+    private static final String DEFAULT_INPUT_CHARACTERS = "ab1 ,\n\r_-\u00E9\uD83D\uDE00";
+    private static final int NR_OF_GENERATED_INPUTS = 500;
+    private static final int MAX_INPUT_LENGTH = 12;
+
+    private static BuiltExpression toBuiltExpression(ReadableRegex<?> regex, PatternFlag... patternFlags) {
+        ReadableRegexBuilder<?> builder = (ReadableRegexBuilder<?>) regex;
+        Expression expression = builder.toExpression();
+        int flags = ReadableRegexBuilder._flags(expression, patternFlags);
+        return new BuiltExpressionImpl(expression, OptimizedRegexWriter.write(expression, flags), flags, Collections.emptyList(), null);
+    }
+
+    private static CompiledExpression compile(ReadableRegex<?> regex, PatternFlag... patternFlags) {
+        return new LinearTimeMatchingEngine().compile(toBuiltExpression(regex, patternFlags));
+    }
+
+    /**
+     * Asserts that the pattern is supported and gives the same results as the JDK pattern on generated input.
+     */
+    private void assertSameAsJdk(ReadableRegex<?> regex, PatternFlag... patternFlags) {
+        BuiltExpression expression = toBuiltExpression(regex, patternFlags);
+        CompiledExpression pattern = new LinearTimeMatchingEngine().compile(expression);
+        assertThat(pattern, notNullValue());
+        Pattern jdkPattern = Pattern.compile(expression.getRegex(), expression.getJdkFlags());
+
+        String characters = DEFAULT_INPUT_CHARACTERS + jdkPattern.pattern();
+        Random random = new Random(jdkPattern.pattern().hashCode());
+        for (int i = 0; i < NR_OF_GENERATED_INPUTS; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(MAX_INPUT_LENGTH);
+            for (int j = 0; j < length; j++) {
+                input.append(characters.charAt(random.nextInt(characters.length())));
+            }
+            String text = input.toString();
+
+            Matcher matcher = jdkPattern.matcher(text);
+            assertThat(jdkPattern + " on " + text, pattern.matchesTextExactly(text), equalTo(matcher.matches()));
+            matcher.reset();
+            List<MatchResult> expectedMatches = new ArrayList<>();
+            while (matcher.find()) {
+                expectedMatches.add(matcher.toMatchResult());
+            }
+            assertThat(jdkPattern + " on " + text, describe(pattern.findAll(text)), equalTo(describe(expectedMatches)));
+
+            StringBuilder textBuilder = new StringBuilder(text);
+            assertThat(jdkPattern + " on " + text, pattern.matchesTextExactly(textBuilder), equalTo(matcher.reset().matches()));
+            assertThat(jdkPattern + " on " + text, pattern.lookingAt(textBuilder), equalTo(matcher.reset().lookingAt()));
+            for (int from = 0; from <= text.length(); from++) {
+                List<MatchResult> expectedMatch = matcher.find(from) ? Collections.singletonList(matcher.toMatchResult()) : Collections.emptyList();
+                List<MatchResult> actualMatch = pattern.find(textBuilder, from).map(Collections::singletonList).orElse(Collections.emptyList());
+                assertThat(jdkPattern + " on " + text + " from " + from, describe(actualMatch), equalTo(describe(expectedMatch)));
+            }
+        }
+    }
+
+    @Test
+    void characterClassesAndLiteralsMatchLikeJdk() {
+        assertSameAsJdk(regex().literal("ab").digit().whitespace().wordCharacter().nonWordCharacter());
+        assertSameAsJdk(regex().range('a', 'c', '0', '1').notInRange('a', 'b').anyCharacterOf("1,").anyCharacterExcept("a"));
+        assertSameAsJdk(regex().anyCharacter().tab().literal("\n\u00E9"));
+        assertSameAsJdk(regex().anyCharacter().literal("a"), PatternFlag.DOT_ALL);
+        assertSameAsJdk(regex().anyCharacterOf("\uD83D\uDE00a").anyCharacter());
+    }
+
+    @Test
+    void quantifiersMatchLikeJdk() {
+        assertSameAsJdk(regex().literal("a").oneOrMore().literal("b").zeroOrMore().digit().optional());
+        assertSameAsJdk(regex().literal("a").oneOrMore().reluctant().literal("b").zeroOrMore().reluctant());
+        assertSameAsJdk(regex().wordCharacter().betweenNAndMTimes(1, 3).literal("a").atLeastNTimes(2).digit().exactlyNTimes(2));
+        assertSameAsJdk(regex().anything().literal(","));
+        assertSameAsJdk(regex().literal("").optional().literal("a").optional());
+        assertSameAsJdk(regex().add(regex().literal("a").optional()).optional().literal("b"));
+    }
+
+    @Test
+    void alternationsAndGroupsMatchLikeJdk() {
+        assertSameAsJdk(regex().oneOf(regex().literal("a"), regex().literal("ab"), regex().digit()).oneOrMore());
+        assertSameAsJdk(regex().group(regex().oneOf(regex().group(regex().literal("a")), regex().literal("b"))).literal("b").oneOrMore());
+        assertSameAsJdk(regex().group("x", regex().word()).whitespace().group(regex().literal("a").optional()).literal("b"));
+        assertSameAsJdk(regex().group(regex().literal("a").optional().reluctant()).group(regex().anyCharacter().zeroOrMore()));
+        assertSameAsJdk(regex().group(regex().group(regex().literal("a")).literal("b").optional()).optional().digit());
+        assertSameAsJdk(regex().oneOf(regex().literal("a"), regex().literal("")).literal("b"));
+        assertSameAsJdk(regex().oneOf(regex().literal(""), regex().literal("a")).literal("b"));
+    }
+
+    @Test
+    void anchorsMatchLikeJdk() {
+        assertSameAsJdk(regex().wordBoundary().word().wordBoundary());
+        assertSameAsJdk(regex().nonWordBoundary().literal("a").nonWordBoundary());
+        assertSameAsJdk(regex().startOfLine().literal("a").zeroOrMore().endOfLine());
+        assertSameAsJdk(regex().startOfInput().literal("a").optional().endOfInput());
+        assertSameAsJdk(regex().add(regex().wordBoundary().literal("a")).oneOrMore());
+    }
+
+    @Test
+    void catastrophicBacktrackingIsAvoided() {
+        CompiledExpression pattern = compile(regex().oneOf(regex().literal("a"), regex().literal("a")).oneOrMore().literal("b"));
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            text.append('a');
+        }
+        assertThat(pattern.matchesTextExactly(text.toString()), equalTo(false));
+        assertThat(pattern.findAll(text.toString()).size(), equalTo(0));
+        assertThat(pattern.findAll(text + "b").get(0).end(), equalTo(10_001));
+    }
+
+    @Test
+    void matchResultThrowsOnInvalidGroups() {
+        MatchResult match = compile(regex().group(regex().literal("a"))).findAll("a").get(0);
+        assertThrows(IndexOutOfBoundsException.class, () -> match.group(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> match.start(-1));
+        assertThat(match.groupCount(), equalTo(1));
+        assertThat(match.start() + "-" + match.end(), equalTo("0-1"));
+    }
+
+    @Test
+    void findThrowsOnInvalidIndex() {
+        CompiledExpression pattern = compile(regex().literal("a"));
+        assertThrows(IndexOutOfBoundsException.class, () -> pattern.find("a", -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> pattern.find("a", 2));
+        assertThat(pattern.find("a", 1).isPresent(), equalTo(false));
+    }
+
+    @Test
+    void unsupportedExpressionsAreNotCompiled() {
+        assertThat(compile(regex().positiveLookahead(regex().literal("a"))), nullValue());
+        assertThat(compile(regex().literal("a").oneOrMore().possessive()), nullValue());
+        assertThat(compile(regex().regexFromString("a")), nullValue());
+        assertThat(compile(regex().anyCharacterOf("[a]")), nullValue());
+        assertThat(compile(regex().add(regex().literal("a").optional()).zeroOrMore()), nullValue());
+        assertThat(compile(regex().group(regex().literal("a")).oneOrMore()), nullValue());
+        assertThat(compile(regex().literal("a"), PatternFlag.CASE_INSENSITIVE), nullValue());
+        assertThat(compile(regex().literal("a").betweenNAndMTimes(0, 20_000)), nullValue());
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.ricoapon.readableregex.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.matchers.MatchDescriptions.describe;
+import static io.github.ricoapon.readableregex.matchers.MatchDescriptions.describeJdk;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class MatchSpliteratorTest {
+    private static String generateText() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 4 * MatchSpliterator.MIN_SPLIT_SIZE) {
+            text.append("x".substring(random.nextInt(2))).append(random.nextInt(1000)).append(random.nextBoolean() ? "\n" : " ");
+        }
+        return text.toString();
+    }
+
+    /**
+     * Splits the spliterator as often as possible and returns the matches of all the parts in order.
+     */
+    private static List<String> describeSplit(Spliterator<MatchResult> spliterator) {
+        Spliterator<MatchResult> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            List<MatchResult> matches = new ArrayList<>();
+            spliterator.forEachRemaining(matches::add);
+            return describe(matches);
+        }
+        List<String> result = describeSplit(prefix);
+        result.addAll(describeSplit(spliterator));
+        return result;
+    }
+
+    @Test
+    void splitPartsFindTheSameMatchesAsSingleSearch() {
+        String text = generateText();
+        // Anchors, lookarounds and empty matches around the line feeds where the text is split.
+        for (String regex : new String[] {"x?\\d+", "^\\d+", "\\d+$", "(?<=\\n)\\d", "\\d(?= )", "x*", "\\b"}) {
+            Pattern pattern = Pattern.compile(regex, Pattern.MULTILINE);
+            MatchSpliterator spliterator = new MatchSpliterator(pattern, text, true);
+            assertThat(regex, describeSplit(spliterator), equalTo(describeJdk(pattern, text)));
+        }
+    }
+
+    @Test
+    void onlyLargeSplittableTextsAreSplit() {
+        Pattern pattern = Pattern.compile("\\d");
+        String text = generateText();
+        assertThat(new MatchSpliterator(pattern, text, false).trySplit(), nullValue());
+        assertThat(new MatchSpliterator(pattern, "1\n2", true).trySplit(), nullValue());
+        assertThat(new MatchSpliterator(pattern, text.replace('\n', ' '), true).trySplit(), nullValue());
+        assertThat(new MatchSpliterator(pattern, text, true).trySplit(), notNullValue());
+
+        MatchSpliterator started = new MatchSpliterator(pattern, text, true);
+        started.tryAdvance(match -> { });
+        assertThat(started.trySplit(), nullValue());
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.ricoapon.readableregex.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class MatcherPoolTest {
+    @Test
+    void nrOfSlotsIsPowerOfTwoOfAtLeastTwiceTheNumberOfProcessors() {
+        assertThat(MatcherPool.slotsFor(1), equalTo(2));
+        assertThat(MatcherPool.slotsFor(3), equalTo(8));
+        assertThat(MatcherPool.slotsFor(4), equalTo(8));
+        assertThat(MatcherPool.slotsFor(5), equalTo(16));
+    }
+
+    @Test
+    void reusedMatchersGiveTheSameResults() {
+        MatcherPool pool = new MatcherPool(Pattern.compile("(a)b"));
+        assertThat(pool.test("ab", Matcher::matches), equalTo(true));
+        assertThat(pool.test("xab", Matcher::matches), equalTo(false));
+        assertThat(pool.test("xab", Matcher::find), equalTo(true));
+        assertThat(pool.test("abx", Matcher::lookingAt), equalTo(true));
+        assertThat(pool.test("xab", Matcher::lookingAt), equalTo(false));
+    }
+
+    @Test
+    void nestedQueriesOnTheSameThreadUseDifferentMatchers() {
+        MatcherPool pool = new MatcherPool(Pattern.compile("(a)b"));
+        // The inner query runs while the outer query has taken the matcher out of the slot of this thread.
+        assertThat(pool.test("ab", outer -> outer.matches() && pool.test("xab", inner -> !inner.matches() && inner.find())
+                && outer.start() == 0 && outer.end() == 2), equalTo(true));
+        assertThat(pool.test("ab", Matcher::matches), equalTo(true));
+        assertThat(pool.test("xab", Matcher::matches), equalTo(false));
+    }
+
+    @Test
+    void poolCanBeUsedByManyThreadsAtTheSameTime() throws Exception {
+        MatcherPool pool = new MatcherPool(Pattern.compile("\\d+"));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                String text = i % 2 == 0 ? String.valueOf(i) : "x" + i;
+                boolean expected = i % 2 == 0;
+                results.add(executor.submit(() -> pool.test(text, Matcher::matches) == expected));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(), equalTo(true));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
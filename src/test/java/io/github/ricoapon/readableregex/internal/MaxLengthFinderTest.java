@@ -0,0 +1,35 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.internal.expression.MaxLengthFinder;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class MaxLengthFinderTest {
+    private int maxLength(ReadableRegex<?> regex) {
+        return MaxLengthFinder.maxLength(((ReadableRegexBuilder<?>) regex).toExpression());
+    }
+
+    @Test
+    void boundedMatchesHaveMaximumLength() {
+        assertThat(maxLength(regex()), equalTo(0));
+        assertThat(maxLength(regex().literal("abc").digit()), equalTo(5));
+        assertThat(maxLength(regex().wordBoundary().literal("a").startOfLine().endOfInput()), equalTo(1));
+        assertThat(maxLength(regex().oneOf(regex().literal("a"), regex().literal("abcd"), regex().digit())), equalTo(4));
+        assertThat(maxLength(regex().group(regex().literal("ab").optional()).betweenNAndMTimes(1, 3)), equalTo(6));
+        assertThat(maxLength(regex().positiveLookahead(regex().literal("a").oneOrMore()).literal("b")), equalTo(1));
+        assertThat(maxLength(regex().negativeLookbehind(regex().literal("abc")).literal("b")), equalTo(1));
+    }
+
+    @Test
+    void unboundedMatchesHaveNoMaximumLength() {
+        assertThat(maxLength(regex().literal("a").oneOrMore()), equalTo(MaxLengthFinder.UNBOUNDED));
+        assertThat(maxLength(regex().anything()), equalTo(MaxLengthFinder.UNBOUNDED));
+        assertThat(maxLength(regex().oneOf(regex().literal("a"), regex().digit().zeroOrMore())), equalTo(MaxLengthFinder.UNBOUNDED));
+        assertThat(maxLength(regex().literal("abc").betweenNAndMTimes(1, Integer.MAX_VALUE - 1)), equalTo(MaxLengthFinder.UNBOUNDED));
+        assertThat(maxLength(regex().regexFromString("a")), equalTo(MaxLengthFinder.UNBOUNDED));
+    }
+}
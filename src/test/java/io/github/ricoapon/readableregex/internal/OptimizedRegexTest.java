@@ -0,0 +1,225 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.internal.expression.Alternation;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import io.github.ricoapon.readableregex.internal.expression.OptimizedRegexWriter;
+import io.github.ricoapon.readableregex.internal.expression.Raw;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Tests that the optimized regular expression is as expected and matches exactly like the unoptimized regular expression.
+ */
+class OptimizedRegexTest {
+    /** Characters that are always used for generating input, next to the characters of the regular expression itself. */
+    private static final String DEFAULT_INPUT_CHARACTERS = "ab1 \n";
+    private static final int NR_OF_GENERATED_INPUTS = 500;
+    private static final int MAX_INPUT_LENGTH = 10;
+
+    /**
+     * Asserts that the optimized regular expression equals the expected value and that it behaves the same as the
+     * unoptimized regular expression on generated input.
+     */
+    private void assertOptimized(ReadableRegex<?> regex, String expectedRegex) {
+        assertOptimized(regex, 0, expectedRegex);
+    }
+
+    private void assertOptimized(ReadableRegex<?> regex, int flags, String expectedRegex) {
+        Expression expression = ((ReadableRegexBuilder<?>) regex).toExpression();
+        if (expression.requiresMultilineFlag()) {
+            flags |= Pattern.MULTILINE;
+        }
+        String optimizedRegex = OptimizedRegexWriter.write(expression, flags);
+        assertThat(optimizedRegex, equalTo(expectedRegex));
+
+        Pattern original = Pattern.compile(expression.toRegex(), flags);
+        Pattern optimized = Pattern.compile(optimizedRegex, flags);
+
+        String characters = DEFAULT_INPUT_CHARACTERS + expression.toRegex();
+        Random random = new Random(optimizedRegex.hashCode());
+        for (int i = 0; i < NR_OF_GENERATED_INPUTS; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(MAX_INPUT_LENGTH);
+            for (int j = 0; j < length; j++) {
+                input.append(characters.charAt(random.nextInt(characters.length())));
+            }
+            assertThat("Input: " + input, matchResults(optimized, input), equalTo(matchResults(original, input)));
+        }
+    }
+
+    /**
+     * @return Description of everything that is matched with the given input: an exact match and all the found matches
+     * including their groups.
+     */
+    private List<String> matchResults(Pattern pattern, CharSequence input) {
+        List<String> results = new ArrayList<>();
+        Matcher matcher = pattern.matcher(input);
+        results.add(String.valueOf(matcher.matches()));
+        matcher.reset();
+        while (matcher.find()) {
+            for (int group = 0; group <= matcher.groupCount(); group++) {
+                results.add(matcher.start(group) + "-" + matcher.end(group));
+            }
+        }
+        return results;
+    }
+
+    @Test
+    void adjacentLiteralsAreMerged() {
+        assertOptimized(regex().literal("a").literal("b").literal("1"), "ab1");
+        assertOptimized(regex().literal("a").literal("b").digit().literal("1"), "ab\\d1");
+    }
+
+    @Test
+    void metaCharactersInLiteralsAreEscaped() {
+        assertOptimized(regex().literal("^$.|?*+()[]{}\\#"), "\\^\\$\\.\\|\\?\\*\\+\\(\\)\\[\\]\\{\\}\\\\\\#");
+        assertOptimized(regex().literal("a b\n-"), "a\\ b\\\n-");
+    }
+
+    @Test
+    void literalsOnlyGetAGroupWhenQuantifiedAndLongerThanOneCharacter() {
+        assertOptimized(regex().literal("a").oneOrMore(), "a+");
+        assertOptimized(regex().literal(".").optional(), "\\.?");
+        assertOptimized(regex().literal("\uD83D\uDE00").oneOrMore(), "\uD83D\uDE00+");
+        assertOptimized(regex().literal("ab").zeroOrMore(), "(?:ab)*");
+        assertOptimized(regex().literal("").oneOrMore().literal("a"), "(?:)+a");
+    }
+
+    @Test
+    void quantifiersUseShortestNotation() {
+        assertOptimized(regex().digit().exactlyNTimes(3), "\\d{3}");
+        assertOptimized(regex().digit().atLeastNTimes(2), "\\d{2,}");
+        assertOptimized(regex().digit().atMostNTimes(2), "\\d{0,2}");
+        assertOptimized(regex().digit().atMostNTimes(1), "\\d?");
+        assertOptimized(regex().digit().betweenNAndMTimes(1, 3).reluctant(), "\\d{1,3}?");
+        assertOptimized(regex().digit().atLeastNTimes(1).possessive(), "\\d++");
+        assertOptimized(regex().digit().atLeastNTimes(0), "\\d*");
+    }
+
+    @Test
+    void unnamedGroupsAreOnlyKeptForQuantifiers() {
+        assertOptimized(regex().startUnnamedGroup().literal("a").digit().endGroup().literal("b"), "a\\db");
+        assertOptimized(regex().startUnnamedGroup().literal("a").digit().endGroup().oneOrMore(), "(?:a\\d)+");
+        assertOptimized(regex().startUnnamedGroup().digit().endGroup().oneOrMore(), "\\d+");
+        assertOptimized(regex().add(regex().literal("a")).literal("b"), "ab");
+        assertOptimized(regex().add(regex().add(regex().digit())).oneOrMore(), "\\d+");
+        assertOptimized(regex().add(regex().digit().oneOrMore()).optional(), "(?:\\d+)?");
+        assertOptimized(regex().add(regex().digit().oneOrMore()).literal("a"), "\\d+a");
+    }
+
+    @Test
+    void groupsAndLookaroundsAreKept() {
+        assertOptimized(regex().group(regex().digit().oneOrMore()).literal("a"), "(\\d+)a");
+        assertOptimized(regex().group("name", regex().literal("a").literal("b")).optional(), "(?<name>ab)?");
+        assertOptimized(regex().startGroup().startGroup().digit().endGroup().endGroup(), "((\\d))");
+        assertOptimized(regex().positiveLookahead(regex().literal("a")).word(), "(?=a)\\w+");
+        assertOptimized(regex().literal("a").negativeLookbehind(regex().literal("b")), "a(?<!b)");
+    }
+
+    @Test
+    void repeatedUnnamedGroupsAroundCapturingGroupsAreKept() {
+        assertOptimized(regex().startUnnamedGroup().startGroup().literal("a").endGroup().endGroup().zeroOrMore().literal("a"), "(?:(a))*a");
+        assertOptimized(regex().oneOf(regex().group(regex().literal("a"))).oneOrMore().literal("a"), "(?:(a))+a");
+        assertOptimized(regex().add(regex().oneOf(regex().group(regex().literal("a")), regex().literal("b"))).exactlyNTimes(2), "(?:(a)|b){2}");
+        assertOptimized(regex().add(regex().group(regex().literal("a"))).atLeastNTimes(2).literal("a"), "(?:(a)){2,}a");
+        // Groups that are repeated at most once are not affected.
+        assertOptimized(regex().startUnnamedGroup().startGroup().literal("a").endGroup().endGroup().optional().literal("a"), "(a)?a");
+    }
+
+    @Test
+    void alternationsWithASingleAlternativeAreRemoved() {
+        assertOptimized(regex().oneOf(regex().literal("a").digit()).literal("b"), "a\\db");
+        assertOptimized(regex().oneOf(regex().literal("a").digit()).optional(), "(?:a\\d)?");
+        assertOptimized(regex().oneOf(regex().literal("ab"), regex().digit()).oneOrMore(), "(?:ab|\\d)+");
+    }
+
+    @Test
+    void literalAlternativesAreWrittenAsTrie() {
+        assertOptimized(regex().oneOf(regex().literal("ab"), regex().literal("ac"), regex().literal("b")), "(?:a(?:b|c)|b)");
+        assertOptimized(regex().oneOf(regex().literal("a.b"), regex().literal("a").literal(".c")), "(?:a\\.(?:b|c))");
+        assertOptimized(regex().oneOf(regex().literal("\uD83D\uDE00"), regex().literal("\uD83D\uDE01")), "(?:\uD83D\uDE00|\uD83D\uDE01)");
+        assertOptimized(regex().oneOf(regex().literal("ab"), regex().literal("ab")).literal("1"), "(?:ab)1");
+        assertOptimized(regex().oneOf(regex().literal(""), regex().literal("")).literal("1"), "(?:|)1");
+    }
+
+    @Test
+    void trieKeepsTheOrderOfLiteralsThatArePrefixesOfEachOther() {
+        // The first alternative that matches is used, so a shorter literal can also be preferred.
+        assertOptimized(regex().oneOf(regex().literal("GET"), regex().literal("GETALL")).literal("L"), "(?:GET(?:ALL)??)L");
+        assertOptimized(regex().oneOf(regex().literal("GETALL"), regex().literal("GET")).literal("L"), "(?:GET(?:ALL)?)L");
+        assertOptimized(regex().oneOf(regex().literal("a"), regex().literal("ab"), regex().literal("abc")).oneOrMore(),
+                "(?:a(?:b(?:c)??)??)+");
+        assertOptimized(regex().oneOf(regex().literal(""), regex().literal("a")).literal("a"), "(?:|a)a");
+        assertOptimized(regex().oneOf(regex().literal("a"), regex().literal("")).literal("a"), "(?:a|)a");
+        // If the order is mixed, the alternatives are kept in their original order.
+        assertOptimized(regex().oneOf(regex().literal("ab"), regex().literal("a"), regex().literal("abc")).literal("c"),
+                "(?:a(?:b||bc))c");
+    }
+
+    @Test
+    void alternationsWithOtherBlocksOrCaseInsensitivityAreNotWrittenAsTrie() {
+        assertOptimized(regex().oneOf(regex().literal("ab"), regex().literal("ab").digit()), "(?:ab|ab\\d)");
+        assertOptimized(regex().oneOf(regex().literal("ab"), regex().startGroup().literal("ac").endGroup()), "(?:ab|(ac))");
+        assertOptimized(regex().oneOf(regex().literal("ab"), regex("ac")), "(?:ab|ac)");
+        assertOptimized(regex().oneOf(regex().literal("ab"), regex().literal("AC")), Pattern.CASE_INSENSITIVE, "(?:ab|AC)");
+    }
+
+    @Test
+    void alternationsInsideLookbehindsAreNotWrittenAsTrie() {
+        assertOptimized(regex().positiveLookbehind(regex().oneOf(regex().literal("GET"), regex().literal("GETALL"))).digit(),
+                "(?<=(?:GET|GETALL))\\d");
+        assertOptimized(regex().negativeLookbehind(regex().oneOf(regex().literal("a"), regex().literal("ab"), regex().literal("abc")))
+                .literal("1"), "(?<!(?:a|ab|abc))1");
+        // Lookaheads have no such restriction.
+        assertOptimized(regex().positiveLookahead(regex().oneOf(regex().literal("ab"), regex().literal("ac"))).word(),
+                "(?=(?:a(?:b|c)))\\w+");
+    }
+
+    @Test
+    void lineAnchorsOnlyGetAGroupWhenQuantified() {
+        assertOptimized(regex().startOfLine().literal("a").endOfLine(), "^a$");
+        assertOptimized(regex().startOfLine().optional().literal("a"), "(?:^)?a");
+        assertOptimized(regex().startOfInput().literal("a").wordBoundary().endOfInput(), "\\Aa\\b\\z");
+    }
+
+    @Test
+    void regexFromStringIsNeverRewritten() {
+        assertOptimized(regex().regexFromString("a|b").literal("1"), "a|b(?:\\Q1\\E)");
+        assertOptimized(regex().literal("a").regexFromString("{2}"), "(?:\\Qa\\E){2}");
+        assertOptimized(regex().regexFromString("(a)\\1").literal("0"), "(a)\\1(?:\\Q0\\E)");
+        assertOptimized(regex().regexFromString("ab").oneOrMore().literal("a"), "ab+(?:\\Qa\\E)");
+        assertOptimized(regex().add(regex("a|b")).literal("1"), "(?:a|b)1");
+        assertOptimized(regex().add(regex("a|b").build()).literal("1"), "(?:a|b)1");
+        assertOptimized(regex().oneOf(regex("a|b")).literal("1"), "(?:a|b)1");
+        assertOptimized(regex().oneOf(regex("a|b")).optional(), "(?:a|b)?");
+        assertOptimized(regex().lineBreak(), "(?:\\r\\n?|\\n)");
+    }
+
+    @Test
+    void readmeExample() {
+        assertOptimized(regex()
+                        .oneOf(regex().literal("abc"), regex().digit())
+                        .whitespace()
+                        .add(regex().literal("a").digit()).exactlyNTimes(3)
+                        .whitespace()
+                        .startUnnamedGroup().literal("b").digit().endGroup().atMostNTimes(2),
+                "(?:abc|\\d)\\s(?:a\\d){3}\\s(?:b\\d){0,2}");
+    }
+
+    @Test
+    void nodesWithoutContextAreWrittenAsIs() {
+        assertThat(OptimizedRegexWriter.write(new Raw("a|b", Collections.emptyList())), equalTo("a|b"));
+        assertThat(OptimizedRegexWriter.write(new Alternation(Collections.emptyList())), equalTo("(?:)"));
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.internal.expression.MaxLengthFinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.matchers.MatchDescriptions.describe;
+import static io.github.ricoapon.readableregex.matchers.MatchDescriptions.describeJdk;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ParallelSearchTest {
+    private static String generateText() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 2000) {
+            text.append("aab".substring(random.nextInt(3))).append(random.nextInt(100)).append(random.nextBoolean() ? "\n" : " ");
+        }
+        return text.toString();
+    }
+
+    private static void assertSameAsSingleSearch(String regex, PatternProperties properties) {
+        String text = generateText();
+        Pattern pattern = Pattern.compile(regex, Pattern.MULTILINE);
+        for (int chunkSize : new int[] {1, 2, 3, 7, 100, 5000}) {
+            List<MatchResult> matches = ParallelSearch.findAll(pattern, text, ForkJoinPool.commonPool(), properties, chunkSize);
+            assertThat(regex + " " + chunkSize, describe(matches), equalTo(describeJdk(pattern, text)));
+        }
+    }
+
+    private static PatternProperties properties(int maxMatchLength, boolean canMatchLineBreak) {
+        return new PatternProperties(null, canMatchLineBreak, maxMatchLength, null);
+    }
+
+    @Test
+    void chunksFindTheSameMatchesAsSingleSearch() {
+        // Matches that cross the borders of the chunks, overlap other matches or are empty.
+        assertSameAsSingleSearch("aa", properties(2, false));
+        assertSameAsSingleSearch("a*", properties(MaxLengthFinder.UNBOUNDED, false));
+        assertSameAsSingleSearch("\\b", properties(0, false));
+        assertSameAsSingleSearch("(?<=a)b", properties(1, false));
+        assertSameAsSingleSearch("a+b|a", properties(MaxLengthFinder.UNBOUNDED, false));
+        assertSameAsSingleSearch("^", properties(0, false));
+        assertSameAsSingleSearch("\\d+$", properties(MaxLengthFinder.UNBOUNDED, false));
+        assertSameAsSingleSearch("x?(\\d+)", properties(MaxLengthFinder.UNBOUNDED, false));
+        assertSameAsSingleSearch("\\s+\\w*", properties(MaxLengthFinder.UNBOUNDED, true));
+        assertSameAsSingleSearch("(?s)a.{0,40}?\\n\\d", properties(42, true));
+        assertSameAsSingleSearch("\\d(?=\\D*\\n)", properties(1, true));
+        assertSameAsSingleSearch("(?s)a.*", PatternProperties.UNKNOWN);
+    }
+
+    @Test
+    void chunksAreOnlySearchedUntilTheEndOfTheLastPossibleMatch() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.append(i % 100 == 99 ? '\n' : 'b');
+        }
+        String text = builder.toString();
+        AtomicLong reads = new AtomicLong();
+        CharSequence countingText = new CharSequence() {
+            @Override
+            public int length() {
+                return text.length();
+            }
+
+            @Override
+            public char charAt(int index) {
+                reads.incrementAndGet();
+                return text.charAt(index);
+            }
+
+            @Override
+            public CharSequence subSequence(int start, int end) {
+                return text.subSequence(start, end);
+            }
+        };
+
+        // Without a bound, every chunk would be searched until the end of the text.
+        for (PatternProperties properties : new PatternProperties[] {properties(1, true), properties(MaxLengthFinder.UNBOUNDED, false)}) {
+            reads.set(0);
+            assertThat(ParallelSearch.findAll(Pattern.compile("a"), countingText, ForkJoinPool.commonPool(), properties, 100).size(),
+                    equalTo(0));
+            assertThat(reads.get() < 4L * text.length(), equalTo(true));
+        }
+    }
+
+    @Test
+    void emptyTextIsSearchedOnce() {
+        Pattern pattern = Pattern.compile("a*");
+        assertThat(describe(ParallelSearch.findAll(pattern, "", ForkJoinPool.commonPool(), PatternProperties.UNKNOWN)),
+                equalTo(describeJdk(pattern, "")));
+        assertThat(describe(ParallelSearch.findAll(pattern, "", ForkJoinPool.commonPool(), properties(MaxLengthFinder.UNBOUNDED, false))),
+                equalTo(describeJdk(pattern, "")));
+    }
+}
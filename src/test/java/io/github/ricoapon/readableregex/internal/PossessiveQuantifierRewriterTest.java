@@ -0,0 +1,124 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import io.github.ricoapon.readableregex.internal.expression.OptimizedRegexWriter;
+import io.github.ricoapon.readableregex.internal.expression.PossessiveQuantifierRewriter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Tests that {@link PossessiveQuantifierRewriter} only makes quantifiers possessive if the result matches exactly like
+ * the original regular expression.
+ */
+class PossessiveQuantifierRewriterTest {
+    /** Characters that are always used for generating input, next to the characters of the regular expression itself. */
+    private static final String DEFAULT_INPUT_CHARACTERS = "ab1 ,\n_-\u00E9";
+    private static final int NR_OF_GENERATED_INPUTS = 500;
+    private static final int MAX_INPUT_LENGTH = 12;
+
+    private void assertRewritten(ReadableRegex<?> regex, String expectedRegex) {
+        Expression expression = ((ReadableRegexBuilder<?>) regex).toExpression();
+        String rewrittenRegex = OptimizedRegexWriter.write(PossessiveQuantifierRewriter.rewrite(expression));
+        assertThat(rewrittenRegex, equalTo(expectedRegex));
+
+        Pattern original = Pattern.compile(expression.toRegex());
+        Pattern rewritten = Pattern.compile(rewrittenRegex);
+
+        String characters = DEFAULT_INPUT_CHARACTERS + expression.toRegex();
+        Random random = new Random(rewrittenRegex.hashCode());
+        for (int i = 0; i < NR_OF_GENERATED_INPUTS; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(MAX_INPUT_LENGTH);
+            for (int j = 0; j < length; j++) {
+                input.append(characters.charAt(random.nextInt(characters.length())));
+            }
+            assertThat("Input: " + input, matchResults(rewritten, input), equalTo(matchResults(original, input)));
+        }
+    }
+
+    private List<String> matchResults(Pattern pattern, CharSequence input) {
+        List<String> results = new ArrayList<>();
+        Matcher matcher = pattern.matcher(input);
+        results.add(String.valueOf(matcher.matches()));
+        matcher.reset();
+        while (matcher.find()) {
+            for (int group = 0; group <= matcher.groupCount(); group++) {
+                results.add(matcher.start(group) + "-" + matcher.end(group));
+            }
+        }
+        return results;
+    }
+
+    @Test
+    void quantifiersFollowedByOtherCharactersArePossessive() {
+        assertRewritten(regex().digit().oneOrMore().literal(","), "(?>\\d+),");
+        assertRewritten(regex().word().whitespace().word().literal("-"), "(?>\\w+)\\s(?>\\w+)-");
+        assertRewritten(regex().literal("a").zeroOrMore().range('0', '9').atMostNTimes(3).literal("b"), "(?>a*)(?>[0-9]{0,3})b");
+        assertRewritten(regex().add(regex().literal("ab")).oneOrMore().literal("b"), "(?>(?:ab)+)b");
+        assertRewritten(regex().anyCharacterOf("ab").oneOrMore().anyCharacterExcept("ab"), "(?>[ab]+)[^ab]");
+        assertRewritten(regex().notInRange('a', 'z').oneOrMore().nonWordCharacter().oneOrMore().literal("a"), "[^a-z]+(?>\\W+)a");
+        assertRewritten(regex().tab().oneOrMore().digit(), "(?>\\t+)\\d");
+    }
+
+    @Test
+    void optionalBlocksAndAnchorsAreSkippedWhenLookingAtWhatFollows() {
+        assertRewritten(regex().digit().oneOrMore().whitespace().optional().literal(","), "(?>\\d+)\\s?,");
+        assertRewritten(regex().digit().oneOrMore().wordBoundary().literal(" "), "(?>\\d+)\\b\\ ");
+        assertRewritten(regex().digit().oneOrMore().positiveLookahead(regex().literal(",")).literal(","), "(?>\\d+)(?=,),");
+        assertRewritten(regex().digit().oneOrMore().literal("").oneOf(regex().literal("a"), regex().whitespace()), "(?>\\d+)(?:a|\\s)");
+        assertRewritten(regex().digit().oneOrMore().add(regex().literal("a").optional()).literal("b"), "(?>\\d+)a?b");
+        assertRewritten(regex().digit().oneOrMore().startGroup().literal(",").endGroup(), "(?>\\d+)(,)");
+    }
+
+    @Test
+    void quantifiersThatCanGiveBackCharactersAreKept() {
+        assertRewritten(regex().word().digit(), "\\w+\\d");
+        assertRewritten(regex().digit().oneOrMore().oneOf(regex().literal("a"), regex().literal("1")), "\\d+(?:a|1)");
+        assertRewritten(regex().literal("ab").oneOrMore().literal("a"), "(?:ab)+a");
+        assertRewritten(regex().digit().oneOrMore().literal("a").optional().digit(), "\\d+a?\\d");
+        assertRewritten(regex().digit().oneOrMore().add(regex().literal("a").optional()), "\\d+a?");
+        assertRewritten(regex().digit().oneOrMore().anything().literal(","), "\\d+.*,");
+        assertRewritten(regex().digit().oneOrMore().anyCharacterOf("a-c").literal(","), "\\d+[a-c],");
+        assertRewritten(regex().digit().oneOrMore().range('-', '/').literal(","), "\\d+[--/],");
+        assertRewritten(regex().digit().oneOrMore().literal(",").digit().oneOrMore(), "(?>\\d+),\\d+");
+    }
+
+    @Test
+    void quantifiersThatHaveNoChoiceOrAnotherModeAreKept() {
+        assertRewritten(regex().digit().exactlyNTimes(2).literal(","), "\\d{2},");
+        assertRewritten(regex().digit().oneOrMore().reluctant().literal(","), "\\d+?,");
+        assertRewritten(regex().add(regex().digit().literal("a")).oneOrMore().literal(","), "(?:\\da)+,");
+        assertRewritten(regex().startGroup().digit().endGroup().oneOrMore().literal(","), "(\\d)+,");
+        assertRewritten(regex().literal("").oneOrMore().literal(","), "(?:)+,");
+    }
+
+    @Test
+    void nestedSequencesAreRewritten() {
+        assertRewritten(regex().group(regex().digit().oneOrMore().literal(",")).oneOrMore().literal(";"), "((?>\\d+),)+;");
+        assertRewritten(regex().oneOf(regex().digit().oneOrMore().literal(","), regex().literal("a")).literal(";"), "(?:(?>\\d+),|a);");
+    }
+
+    @Test
+    void lookbehindsAreNotRewritten() {
+        assertRewritten(regex().positiveLookbehind(regex().digit().betweenNAndMTimes(1, 3).literal(",")).literal("a"),
+                "(?<=\\d{1,3},)a");
+        assertRewritten(regex().negativeLookbehind(regex().add(regex().literal("ab")).atMostNTimes(2).literal("1"))
+                .digit().oneOrMore().literal(","), "(?<!(?:ab){0,2}1)(?>\\d+),");
+    }
+
+    @Test
+    void expressionsWithRegexFromStringAreNotRewritten() {
+        assertRewritten(regex().digit().oneOrMore().literal(",").regexFromString("a"), "\\d+(?:\\Q,\\E)a");
+        assertRewritten(regex().group(regex().digit().oneOrMore().literal(",")).add(regex("(?i)a")), "(\\d+,)(?:(?i)a)");
+    }
+}
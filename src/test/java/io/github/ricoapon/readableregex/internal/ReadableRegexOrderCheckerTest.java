@@ -43,6 +43,18 @@ class ReadableRegexOrderCheckerTest {
         assertThat(dummyOrderChecker.calledMethod, equalTo(FINISH));
     }
 
+    @Test
+    void buildLazily_Finish() {
+        readableRegexOrderChecker.buildLazily();
+        assertThat(dummyOrderChecker.calledMethod, equalTo(FINISH));
+    }
+
+    @Test
+    void buildLazilyWithFlags_Finish() {
+        readableRegexOrderChecker.buildLazilyWithFlags(PatternFlag.CASE_INSENSITIVE);
+        assertThat(dummyOrderChecker.calledMethod, equalTo(FINISH));
+    }
+
     @Test
     void regexFromString_StandaloneBlock() {
         readableRegexOrderChecker.regexFromString("");
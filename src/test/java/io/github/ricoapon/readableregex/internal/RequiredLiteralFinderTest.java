@@ -0,0 +1,48 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.internal.expression.RequiredLiteralFinder;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class RequiredLiteralFinderTest {
+    private String requiredLiteral(ReadableRegex<?> regex) {
+        return RequiredLiteralFinder.find(((ReadableRegexBuilder<?>) regex).toExpression());
+    }
+
+    @Test
+    void longestLiteralIsFound() {
+        assertThat(requiredLiteral(regex().literal("a").digit().literal("ERROR").literal(": ").word()), equalTo("ERROR: "));
+        assertThat(requiredLiteral(regex().literal("abc").digit().literal("d")), equalTo("abc"));
+    }
+
+    @Test
+    void literalsInsideGroupsAndRequiredQuantifiersAreFound() {
+        assertThat(requiredLiteral(regex().group(regex().literal("abc"))), equalTo("abc"));
+        assertThat(requiredLiteral(regex().add(regex().digit().literal("abc")).oneOrMore()), equalTo("abc"));
+        assertThat(requiredLiteral(regex().literal("abc").exactlyNTimes(2)), equalTo("abc"));
+        assertThat(requiredLiteral(regex().oneOf(regex().literal("abc").digit())), equalTo("abc"));
+    }
+
+    @Test
+    void literalsThatAreNotAlwaysMatchedAreSkipped() {
+        assertThat(requiredLiteral(regex().literal("abc").optional()), nullValue());
+        assertThat(requiredLiteral(regex().literal("abc").zeroOrMore().literal("d")), equalTo("d"));
+        assertThat(requiredLiteral(regex().oneOf(regex().literal("abc"), regex().literal("abd"))), nullValue());
+        assertThat(requiredLiteral(regex().positiveLookahead(regex().literal("abc"))), nullValue());
+        assertThat(requiredLiteral(regex().digit().startOfLine().anything()), nullValue());
+        assertThat(requiredLiteral(regex().literal("")), nullValue());
+    }
+
+    @Test
+    void sequencesWithRegexFromStringAreSkipped() {
+        assertThat(requiredLiteral(regex().regexFromString("(?i)").literal("abc")), nullValue());
+        assertThat(requiredLiteral(regex().regexFromString("a").oneOrMore().literal("abc")), nullValue());
+        assertThat(requiredLiteral(regex().add(regex("(?i)")).literal("abc")), equalTo("abc"));
+        assertThat(requiredLiteral(regex().add(regex("abc").build()).oneOrMore()), nullValue());
+    }
+}
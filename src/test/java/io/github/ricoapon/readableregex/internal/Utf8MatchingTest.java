@@ -0,0 +1,118 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.stream.Collectors;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class Utf8MatchingTest {
+    private static ByteBuffer utf8(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteBuffer region(ByteBuffer bytes, int start, int end) {
+        ByteBuffer region = bytes.duplicate();
+        region.limit(end).position(start);
+        return region;
+    }
+
+    private static List<Integer> starts(List<MatchResult> matches) {
+        return matches.stream().map(MatchResult::start).collect(Collectors.toList());
+    }
+
+    private static ByteSafeMatcher byteSafeMatcher(ReadableRegex<?> regex) {
+        return ByteSafeMatcher.of(((ReadableRegexBuilder<?>) regex).toExpression(), 0);
+    }
+
+    @Test
+    void byteSafePatternsReportIndicesOfBytes() {
+        ReadableRegexPattern pattern = regex().literal("n=").group(regex().digit().oneOrMore()).build();
+        ByteBuffer bytes = utf8("\u00E9n=1 \uD83D\uDE00 n=23\u20AC");
+
+        List<MatchResult> matches = Utf8Matching.findAll(pattern, bytes);
+        assertThat(starts(matches), contains(2, 11));
+        assertThat(matches.get(1).end(1), equalTo(15));
+        assertThat(matches.get(1).group(1), equalTo("23"));
+        assertThat(Utf8Matching.matchesTextExactly(pattern, region(bytes, 11, 15)), equalTo(true));
+        assertThat(Utf8Matching.matchesTextExactly(pattern, region(bytes, 11, 16)), equalTo(false));
+        assertThat(starts(Utf8Matching.findAll(pattern, region(bytes, 3, 18))), contains(11));
+    }
+
+    @Test
+    void otherPatternsAreDecodedAndReportIndicesOfBytes() {
+        ReadableRegexPattern pattern = regex().group(regex().anyCharacterExcept(" ").oneOrMore()).build();
+        ByteBuffer bytes = utf8("\u00E9a \uD83D\uDE00\u20AC b");
+
+        List<MatchResult> matches = Utf8Matching.findAll(pattern, bytes);
+        assertThat(matches.stream().map(MatchResult::group).collect(Collectors.toList()), contains("\u00E9a", "\uD83D\uDE00\u20AC", "b"));
+        assertThat(starts(matches), contains(0, 4, 12));
+        assertThat(matches.get(1).end(), equalTo(11));
+        assertThat(matches.get(1).end(1), equalTo(11));
+        assertThat(Utf8Matching.matchesTextExactly(pattern, region(bytes, 4, 11)), equalTo(true));
+    }
+
+    @Test
+    void visitedMatchesReportIndicesOfBytes() {
+        ReadableRegexPattern pattern = regex().group("word", regex().anyCharacterExcept(" ").oneOrMore()).build();
+        ByteBuffer bytes = utf8("\u00E9a \uD83D\uDE00\u20AC b");
+
+        List<Integer> positions = new ArrayList<>();
+        List<MatchResult> results = new ArrayList<>();
+        Utf8Matching.forEachMatch(pattern, region(bytes, 4, 13), match -> {
+            positions.add(match.start("word"));
+            positions.add(match.end(1));
+            results.add(match.toMatchResult());
+        });
+        assertThat(positions, contains(4, 11, 12, 13));
+        assertThat(starts(results), contains(4, 12));
+        assertThat(results.get(0).group(), equalTo("\uD83D\uDE00\u20AC"));
+    }
+
+    @Test
+    void malformedBytesAreDecodedAsReplacementCharacters() {
+        ReadableRegexPattern pattern = regex().anyCharacterOf("\uFFFD").build();
+        // A lone continuation byte, a truncated sequence and a surrogate encoded in three bytes.
+        ByteBuffer bytes = ByteBuffer.wrap(new byte[]{'a', (byte) 0x80, (byte) 0xE2, (byte) 0x82, 'b', (byte) 0xED, (byte) 0xA0, (byte) 0x80});
+
+        assertThat(starts(Utf8Matching.findAll(pattern, bytes)), contains(1, 2, 3, 5, 6, 7));
+        assertThat(Utf8Matching.findAll(regex().literal("b").build(), bytes).get(0).start(), equalTo(4));
+    }
+
+    @Test
+    void automatonGivesTheSameResultAsTheJdkEngine() {
+        ReadableRegex<?> regex = regex().literal("id=").digit().oneOrMore().oneOf(regex().literal(";"), regex().range('a', 'c').exactlyNTimes(2));
+        ReadableRegexPattern pattern = regex.build();
+        ByteSafeMatcher byteSafeMatcher = byteSafeMatcher(regex);
+        assertThat(byteSafeMatcher.dfa(), notNullValue());
+
+        for (String text : Arrays.asList("id=12;", "id=1ab", "id=;", "id=1\u00E9", "id=\uD83D\uDE00;", "id=12ab;", "")) {
+            ByteBuffer heapBytes = utf8("x" + text);
+            ByteBuffer directBytes = ByteBuffer.allocateDirect(heapBytes.limit());
+            directBytes.put(heapBytes.duplicate());
+            boolean expected = pattern.matchesTextExactly(text);
+
+            assertThat(text, Utf8Matching.matchesTextExactly(pattern, byteSafeMatcher, region(heapBytes, 1, heapBytes.limit())), equalTo(expected));
+            assertThat(text, Utf8Matching.matchesTextExactly(pattern, byteSafeMatcher, region(directBytes, 1, directBytes.limit())), equalTo(expected));
+        }
+    }
+
+    @Test
+    void automatonIsNotAvailableForAnchors() {
+        assertThat(byteSafeMatcher(regex().startOfInput().digit()).dfa(), nullValue());
+        assertThat(byteSafeMatcher(regex().anything()), nullValue());
+    }
+}
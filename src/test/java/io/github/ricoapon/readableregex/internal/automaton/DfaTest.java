@@ -0,0 +1,75 @@
+package io.github.ricoapon.readableregex.internal.automaton;
+
+import io.github.ricoapon.readableregex.internal.expression.Alternation;
+import io.github.ricoapon.readableregex.internal.expression.CharacterClass;
+import io.github.ricoapon.readableregex.internal.expression.CharacterSet;
+import io.github.ricoapon.readableregex.internal.expression.Expression;
+import io.github.ricoapon.readableregex.internal.expression.Literal;
+import io.github.ricoapon.readableregex.internal.expression.Quantified;
+import io.github.ricoapon.readableregex.internal.expression.Sequence;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class DfaTest {
+    private static Nfa nfaOf(Expression... blocks) {
+        return Nfa.compile(new Sequence(Arrays.asList(blocks)), 0);
+    }
+
+    private static Expression literal(String value) {
+        return new Literal(value);
+    }
+
+    private static Expression aOrB() {
+        return new Alternation(Arrays.asList(literal("a"), literal("b")));
+    }
+
+    private static Expression zeroOrMore(Expression block) {
+        return new Quantified(block, 0, Quantified.UNBOUNDED, "*", Quantified.Mode.GREEDY);
+    }
+
+    @Test
+    void automatonIsMinimized() {
+        // The textbook example (a|b)*abb needs 4 states, while subset construction results in 5 states.
+        Dfa dfa = Dfa.forFullMatch(nfaOf(zeroOrMore(aOrB()), literal("abb")));
+        assertThat(dfa.nrOfStates(), equalTo(4));
+        assertThat(dfa.accepts("babb"), equalTo(true));
+        assertThat(dfa.accepts("abba"), equalTo(false));
+        assertThat(dfa.accepts(""), equalTo(false));
+
+        Expression redundantAlternation = new Alternation(Arrays.asList(literal("a"), literal("a")));
+        assertThat(Dfa.forFullMatch(nfaOf(zeroOrMore(redundantAlternation))).nrOfStates(), equalTo(1));
+    }
+
+    @Test
+    void searchAcceptsTextsContainingAMatch() {
+        Dfa dfa = Dfa.forSearch(nfaOf(literal("abb")));
+        assertThat(dfa.accepts("aabbb"), equalTo(true));
+        assertThat(dfa.accepts("ababa"), equalTo(false));
+        assertThat(Dfa.forSearch(nfaOf(zeroOrMore(literal("a")))).accepts(""), equalTo(true));
+        // Matches can also start inside a surrogate pair, which the automaton does not check.
+        assertThat(dfa.accepts("\uD83D\uDE00"), equalTo(true));
+    }
+
+    @Test
+    void codePointsAreDividedIntoClasses() {
+        Dfa dfa = Dfa.forFullMatch(nfaOf(new CharacterClass("[a-z]", "range('a', 'z')", CharacterSet.of('a', 'z')),
+                new CharacterClass("[^a-m]", "notInRange('a', 'm')", CharacterSet.of('a', 'm').complement()),
+                literal("\uD83D\uDE00")));
+        assertThat(dfa.accepts("az\uD83D\uDE00"), equalTo(true));
+        assertThat(dfa.accepts("ab\uD83D\uDE00"), equalTo(false));
+        assertThat(dfa.accepts("a\u00E9\uD83D\uDE00"), equalTo(true));
+        assertThat(dfa.accepts("a\u00E9\uD83D"), equalTo(false));
+    }
+
+    @Test
+    void automatonWithTooManyStatesIsNotCreated() {
+        // The automaton must remember which of the last 13 characters were an "a".
+        Nfa nfa = nfaOf(zeroOrMore(aOrB()), literal("a"), new Quantified(aOrB(), 12, 12, "{12}", Quantified.Mode.GREEDY));
+        assertThat(Dfa.forFullMatch(nfa), nullValue());
+    }
+}
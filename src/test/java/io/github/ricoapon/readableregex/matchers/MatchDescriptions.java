@@ -0,0 +1,43 @@
+package io.github.ricoapon.readableregex.matchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Describes matches as strings, so that the matches of different engines and methods can be compared with {@code equalTo}.
+ */
+public final class MatchDescriptions {
+    private MatchDescriptions() {
+    }
+
+    /**
+     * @param matches The matches.
+     * @return For every match, the positions and the text of the match and of each of its groups.
+     */
+    public static List<String> describe(List<? extends MatchResult> matches) {
+        List<String> result = new ArrayList<>();
+        for (MatchResult match : matches) {
+            for (int group = 0; group <= match.groupCount(); group++) {
+                result.add(match.start(group) + "-" + match.end(group) + ":" + match.group(group));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param pattern The JDK pattern.
+     * @param text    The text.
+     * @return The description of all the matches that the JDK finds in the text.
+     */
+    public static List<String> describeJdk(Pattern pattern, CharSequence text) {
+        List<MatchResult> result = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            result.add(matcher.toMatchResult());
+        }
+        return describe(result);
+    }
+}